@@ -0,0 +1,290 @@
+package com.mycompany.savasgemisi.bench;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+import com.mycompany.savasgemisi.server.Player.Board;
+import com.mycompany.savasgemisi.server.Player.Board.CellState;
+
+/**
+ * Bit maskeli Player.Board ile önceki enum dizili tahtayı karşılaştıran
+ * ölçüm programı. Her iki tahtada da aynı atış sırası oynanır; her atışta
+ * hücre okunur, yazılır ve zafer kontrolü yapılır. Ayrıca paketlenmiş
+ * tahta yazımı ve tahta başına bellek kullanımı ölçülür. Ölçümden önce
+ * iki tahtanın aynı çıktıyı ürettiği doğrulanır.
+ *
+ * Kullanım: java -cp target/classes com.mycompany.savasgemisi.bench.BoardBenchmark
+ *           [oyun sayısı] [tekrar]
+ */
+public class BoardBenchmark {
+    private static final int SIZE = 10;
+    private static final int CELLS = SIZE * SIZE;
+    /** Her oyunda kullanılan sabit gemi hücreleri (5+4+3+3+2) */
+    private static final int[] SHIP_CELLS = {
+        0, 1, 2, 3, 4,
+        20, 30, 40, 50,
+        27, 28, 29,
+        63, 73, 83,
+        97, 98
+    };
+    
+    private static long sink;
+    
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        
+        int[][] shotOrders = shotOrders(1024);
+        verify(shotOrders[0]);
+        
+        for (int round = 1; round <= rounds; round++) {
+            long enumShot = timeEnumGames(games, shotOrders);
+            long bitShot = timeBitboardGames(games, shotOrders);
+            long enumPack = timeEnumPacking(games);
+            long bitPack = timeBitboardPacking(games);
+            System.out.printf("Tur %d: atış+zafer  enum=%6.2f ns  bitboard=%6.2f ns (x%.2f) | "
+                    + "paketleme enum=%6.1f ns  bitboard=%6.1f ns (x%.2f)%n",
+                    round,
+                    enumShot / (double) games / CELLS, bitShot / (double) games / CELLS,
+                    enumShot / (double) bitShot,
+                    enumPack / (double) games, bitPack / (double) games,
+                    enumPack / (double) bitPack);
+        }
+        
+        System.out.printf("Tahta başına bellek: enum=%d bayt  bitboard=%d bayt%n",
+                retainedBytes(i -> new EnumGridBoard(SIZE, SIZE)),
+                retainedBytes(i -> Board.create(SIZE, SIZE)));
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+    
+    private static int[][] shotOrders(int count) {
+        Random random = new Random(1);
+        int[][] orders = new int[count][];
+        for (int i = 0; i < count; i++) {
+            int[] order = new int[CELLS];
+            for (int cell = 0; cell < CELLS; cell++) {
+                order[cell] = cell;
+            }
+            for (int cell = CELLS - 1; cell > 0; cell--) {
+                int other = random.nextInt(cell + 1);
+                int tmp = order[cell];
+                order[cell] = order[other];
+                order[other] = tmp;
+            }
+            orders[i] = order;
+        }
+        return orders;
+    }
+    
+    /**
+     * İki tahtanın aynı atışlardan sonra aynı hücreleri ve aynı
+     * serileştirmeyi ürettiğini doğrular
+     */
+    private static void verify(int[] order) {
+        EnumGridBoard grid = new EnumGridBoard(SIZE, SIZE);
+        Board board = Board.create(SIZE, SIZE);
+        for (int cell : SHIP_CELLS) {
+            grid.setCell(cell % SIZE, cell / SIZE, CellState.SHIP);
+            board.setCell(cell % SIZE, cell / SIZE, CellState.SHIP);
+        }
+        ByteBuffer expected = ByteBuffer.allocate(BinaryProtocol.packedBoardLength(CELLS));
+        ByteBuffer actual = ByteBuffer.allocate(BinaryProtocol.packedBoardLength(CELLS));
+        for (int shot = 0; shot < CELLS; shot++) {
+            int cell = order[shot];
+            fire(grid, cell % SIZE, cell / SIZE);
+            fire(board, cell % SIZE, cell / SIZE);
+            expected.clear();
+            actual.clear();
+            grid.writePacked(expected);
+            board.writePacked(actual);
+            if (!grid.serialize().equals(board.serialize()) || !expected.flip().equals(actual.flip())
+                    || grid.hasShips() != board.hasShips()) {
+                throw new IllegalStateException("Tahtalar " + shot + ". atışta ayrıştı");
+            }
+        }
+    }
+    
+    private static long timeEnumGames(int games, int[][] orders) {
+        long start = System.nanoTime();
+        for (int game = 0; game < games; game++) {
+            EnumGridBoard grid = new EnumGridBoard(SIZE, SIZE);
+            for (int cell : SHIP_CELLS) {
+                grid.setCell(cell % SIZE, cell / SIZE, CellState.SHIP);
+            }
+            int shots = 0;
+            for (int cell : orders[game & (orders.length - 1)]) {
+                shots += fire(grid, cell % SIZE, cell / SIZE) ? 1 : 0;
+                if (!grid.hasShips()) {
+                    break;
+                }
+            }
+            sink += shots;
+        }
+        return System.nanoTime() - start;
+    }
+    
+    private static long timeBitboardGames(int games, int[][] orders) {
+        long start = System.nanoTime();
+        for (int game = 0; game < games; game++) {
+            Board board = Board.create(SIZE, SIZE);
+            for (int cell : SHIP_CELLS) {
+                board.setCell(cell % SIZE, cell / SIZE, CellState.SHIP);
+            }
+            int shots = 0;
+            for (int cell : orders[game & (orders.length - 1)]) {
+                shots += fire(board, cell % SIZE, cell / SIZE) ? 1 : 0;
+                if (!board.hasShips()) {
+                    break;
+                }
+            }
+            sink += shots;
+        }
+        return System.nanoTime() - start;
+    }
+    
+    private static long timeEnumPacking(int games) {
+        EnumGridBoard grid = new EnumGridBoard(SIZE, SIZE);
+        for (int cell : SHIP_CELLS) {
+            grid.setCell(cell % SIZE, cell / SIZE, CellState.SHIP);
+        }
+        ByteBuffer out = ByteBuffer.allocate(BinaryProtocol.packedBoardLength(CELLS));
+        long start = System.nanoTime();
+        for (int game = 0; game < games; game++) {
+            out.clear();
+            grid.writePacked(out);
+            sink += out.get(game % out.position());
+        }
+        return System.nanoTime() - start;
+    }
+    
+    private static long timeBitboardPacking(int games) {
+        Board board = Board.create(SIZE, SIZE);
+        for (int cell : SHIP_CELLS) {
+            board.setCell(cell % SIZE, cell / SIZE, CellState.SHIP);
+        }
+        ByteBuffer out = ByteBuffer.allocate(BinaryProtocol.packedBoardLength(CELLS));
+        long start = System.nanoTime();
+        for (int game = 0; game < games; game++) {
+            out.clear();
+            board.writePacked(out);
+            sink += out.get(game % out.position());
+        }
+        return System.nanoTime() - start;
+    }
+    
+    /**
+     * BattleshipGame.makeMove ile aynı adımları uygular
+     */
+    private static boolean fire(Board board, int x, int y) {
+        Board.ShotResult result = board.fire(x, y);
+        return result == Board.ShotResult.HIT || result == Board.ShotResult.SUNK;
+    }
+    
+    /**
+     * Önceki BattleshipGame.makeMove'un okuma/yazma adımlarını uygular
+     */
+    private static boolean fire(EnumGridBoard grid, int x, int y) {
+        CellState state = grid.getCell(x, y);
+        if (state == CellState.HIT || state == CellState.MISS) {
+            return false;
+        }
+        boolean isHit = state == CellState.SHIP;
+        grid.setCell(x, y, isHit ? CellState.HIT : CellState.MISS);
+        return isHit;
+    }
+    
+    /**
+     * Çok sayıda nesne oluşturup yığında tuttuğu yaklaşık bayt sayısını ölçer
+     */
+    private static long retainedBytes(IntFunction<Object> factory) {
+        int count = 100_000;
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        Object[] retained = new Object[count];
+        for (int i = 0; i < count; i++) {
+            retained[i] = factory.apply(i);
+        }
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        sink += retained.length;
+        return (after - before) / count - 4;
+    }
+    
+    /**
+     * Player.Board'un önceki, hücre başına bir enum referansı tutan hali
+     */
+    private static final class EnumGridBoard {
+        private final CellState[][] cells;
+        private final int width;
+        private final int height;
+        
+        EnumGridBoard(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.cells = new CellState[height][width];
+            for (CellState[] row : cells) {
+                Arrays.fill(row, CellState.EMPTY);
+            }
+        }
+        
+        CellState getCell(int x, int y) {
+            if (x < 0 || x >= width || y < 0 || y >= height) {
+                throw new IllegalArgumentException("Geçersiz hücre koordinatları: " + x + "," + y);
+            }
+            return cells[y][x];
+        }
+        
+        void setCell(int x, int y, CellState state) {
+            if (x < 0 || x >= width || y < 0 || y >= height) {
+                throw new IllegalArgumentException("Geçersiz hücre koordinatları: " + x + "," + y);
+            }
+            cells[y][x] = state;
+        }
+        
+        boolean hasShips() {
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (getCell(x, y) == CellState.SHIP) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        
+        String serialize() {
+            StringBuilder sb = new StringBuilder();
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    sb.append(cells[y][x].ordinal());
+                }
+            }
+            return sb.toString();
+        }
+        
+        void writePacked(ByteBuffer out) {
+            int packed = 0;
+            int shift = 0;
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    packed |= cells[y][x].ordinal() << shift;
+                    shift += 2;
+                    if (shift == 8) {
+                        out.put((byte) packed);
+                        packed = 0;
+                        shift = 0;
+                    }
+                }
+            }
+            if (shift != 0) {
+                out.put((byte) packed);
+            }
+        }
+    }
+}
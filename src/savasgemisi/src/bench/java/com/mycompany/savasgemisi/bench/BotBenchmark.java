@@ -0,0 +1,99 @@
+package com.mycompany.savasgemisi.bench;
+
+import java.util.SplittableRandom;
+
+import com.mycompany.savasgemisi.common.GameRules;
+import com.mycompany.savasgemisi.server.FleetPlacer;
+import com.mycompany.savasgemisi.server.Player.Board;
+import com.mycompany.savasgemisi.server.ProbabilityTargeting;
+
+/**
+ * Sunucu botunun atış seçimini ölçen program. Rastgele yerleştirilmiş
+ * filolara karşı bot tüm gemileri batırana kadar oynar; oyun başına atış
+ * sayısı (rastgele atışla karşılaştırmalı) ve atış başına süre (seçim +
+ * sonucun işlenmesi) raporlanır.
+ *
+ * Kullanım: java -cp target/classes com.mycompany.savasgemisi.bench.BotBenchmark
+ *           [oyun sayısı] [kurallar, ör. 10x10:5,4,3,3,2]
+ */
+public class BotBenchmark {
+    private static long sink;
+    
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        GameRules rules = args.length > 1 ? GameRules.parse(args[1]) : GameRules.STANDARD;
+        
+        // JIT ısınması
+        run(rules, games / 4, new SplittableRandom(1), false);
+        run(rules, games, new SplittableRandom(2), true);
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+    
+    private static void run(GameRules rules, int games, SplittableRandom random, boolean report) {
+        FleetPlacer placer = FleetPlacer.forBoard(rules.getWidth(), rules.getHeight());
+        int cells = rules.getWidth() * rules.getHeight();
+        long shots = 0;
+        long randomShots = 0;
+        int worst = 0;
+        long nanos = 0;
+        for (int game = 0; game < games; game++) {
+            Board board = Board.create(rules.getWidth(), rules.getHeight());
+            while (!placer.placeFleet(board, rules.getFleet(), random)) {
+                board = Board.create(rules.getWidth(), rules.getHeight());
+            }
+            randomShots += randomGameLength(board, cells, random);
+            
+            ProbabilityTargeting bot = new ProbabilityTargeting(rules, random.split());
+            int gameShots = 0;
+            long start = System.nanoTime();
+            while (board.hasShips()) {
+                int cell = bot.nextShot();
+                Board.ShotResult result = board.fire(cell % rules.getWidth(), cell / rules.getWidth());
+                bot.recordResult(cell, result != Board.ShotResult.MISS, result == Board.ShotResult.SUNK);
+                gameShots++;
+            }
+            nanos += System.nanoTime() - start;
+            shots += gameShots;
+            worst = Math.max(worst, gameShots);
+            sink += gameShots;
+        }
+        if (report) {
+            System.out.println("Kurallar         : " + rules);
+            System.out.printf("Oyun başına atış : bot ort=%.1f en kötü=%d | rastgele ort=%.1f%n",
+                    shots / (double) games, worst, randomShots / (double) games);
+            System.out.printf("Atış başına süre : %.2f µs (seçim + sonuç, tahta dahil)%n",
+                    nanos / (double) shots / 1_000);
+        }
+    }
+    
+    /**
+     * Aynı filoyu rastgele sırayla atış yaparak batırmak için gereken atış
+     * sayısı; tahta değiştirilmez
+     */
+    private static int randomGameLength(Board board, int cells, SplittableRandom random) {
+        int[] order = new int[cells];
+        for (int i = 0; i < cells; i++) {
+            order[i] = i;
+        }
+        int shipCells = 0;
+        for (int i = 0; i < cells; i++) {
+            if (board.getCell(i % board.getWidth(), i / board.getWidth()) == Board.CellState.SHIP) {
+                shipCells++;
+            }
+        }
+        int found = 0;
+        for (int i = 0; i < cells; i++) {
+            int j = i + random.nextInt(cells - i);
+            int cell = order[j];
+            order[j] = order[i];
+            order[i] = cell;
+            if (board.getCell(cell % board.getWidth(), cell / board.getWidth()) == Board.CellState.SHIP
+                    && ++found == shipCells) {
+                return i + 1;
+            }
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,169 @@
+package com.mycompany.savasgemisi.bench;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mycompany.savasgemisi.common.BufferPool;
+import com.mycompany.savasgemisi.common.FrameCodec;
+import com.mycompany.savasgemisi.common.Message;
+import com.mycompany.savasgemisi.common.MessageType;
+import com.mycompany.savasgemisi.common.Move;
+import com.mycompany.savasgemisi.server.GameServer;
+import com.mycompany.savasgemisi.server.LatencyStats;
+
+/**
+ * Sunucu I/O motorlarını (THREAD, VIRTUAL, NIO) karşılaştıran ölçüm programı.
+ * Aynı JVM içinde bir sunucu başlatır, verilen sayıda oyunu sanal
+ * thread'lerde çalışan basit botlarla sonuna kadar oynatır ve bağlantı
+ * sayısını, sunucunun platform thread sayısını ve hamle gecikmesini raporlar.
+ *
+ * Kullanım: java -cp target/classes com.mycompany.savasgemisi.bench.ConnectionModeBenchmark
+ *           [THREAD|VIRTUAL|NIO] [oyun sayısı] [port]
+ */
+public class ConnectionModeBenchmark {
+    
+    public static void main(String[] args) throws Exception {
+        GameServer.IoMode mode = args.length > 0 ? GameServer.IoMode.valueOf(args[0].toUpperCase()) : GameServer.IoMode.VIRTUAL;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : 5055;
+        
+        PrintStream report = System.out;
+        // Sunucunun bağlantı başına yazdığı loglar ölçümü bozmasın
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int baselineThreads = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+        
+        GameServer server = new GameServer(port, mode, 0);
+        server.startServer();
+        
+        int clientCount = games * 2;
+        CountDownLatch finished = new CountDownLatch(clientCount);
+        AtomicInteger connected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        LatencyStats moveLatency = new LatencyStats();
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < clientCount; i++) {
+            Thread.ofVirtual().start(new BenchClient(port, connected, failed, finished, moveLatency));
+        }
+        
+        boolean completed = finished.await(5, TimeUnit.MINUTES);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        int peakThreads = threads.getPeakThreadCount() - baselineThreads;
+        
+        LatencyStats.Snapshot latencies = moveLatency.snapshot();
+        
+        report.println("Motor            : " + mode);
+        report.println("Bağlantı         : " + connected.get() + "/" + clientCount + " (hata: " + failed.get() + ")");
+        report.println("Tamamlandı       : " + completed + " (" + elapsedMs + " ms)");
+        report.println("Platform thread  : en fazla " + peakThreads + " ek thread");
+        report.println("Hamle sayısı     : " + latencies.getCount());
+        if (latencies.getCount() > 0) {
+            report.printf("Hamle gecikmesi  : p50=%.2f ms  p99=%.2f ms  max=%.2f ms%n",
+                    LatencyReport.millis(latencies.percentile(0.50)), LatencyReport.millis(latencies.percentile(0.99)),
+                    LatencyReport.millis(latencies.getMax()));
+        }
+        report.printf("Eşleşme süresi   : ort=%.2f ms  max=%.2f ms (%d oyuncu)%n",
+                server.getMatchmaker().getAverageTimeToMatchMillis(),
+                server.getMatchmaker().getMaxTimeToMatchMillis(),
+                server.getMatchmaker().getMatchedPlayers());
+        
+        server.shutdown();
+        System.exit(0);
+    }
+    
+    /**
+     * Sırası geldikçe rakip tahtasını baştan sona tarayan basit bot istemci
+     */
+    private static final class BenchClient implements Runnable {
+        private final int port;
+        private final AtomicInteger connected;
+        private final AtomicInteger failed;
+        private final CountDownLatch finished;
+        private final LatencyStats latencies;
+        private int nextCell = 0;
+        private int playerId = -1;
+        private long sentAt = 0;
+        
+        BenchClient(int port, AtomicInteger connected, AtomicInteger failed, CountDownLatch finished,
+                LatencyStats latencies) {
+            this.port = port;
+            this.connected = connected;
+            this.failed = failed;
+            this.finished = finished;
+            this.latencies = latencies;
+        }
+        
+        @Override
+        public void run() {
+            try (Socket socket = new Socket("127.0.0.1", port)) {
+                socket.setTcpNoDelay(true);
+                OutputStream out = socket.getOutputStream();
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                send(out, Message.generateMessage(MessageType.CONNECTION_REQUEST, "CONNECT"));
+                
+                while (true) {
+                    ByteBuffer payload = FrameCodec.readFrame(in);
+                    if (payload == null) {
+                        break;
+                    }
+                    Message.ParsedMessage msg = Message.parseMessage(FrameCodec.decodeText(payload));
+                    BufferPool.SHARED.release(payload);
+                    
+                    if (msg.getType() == MessageType.CONNECTION_REQUEST && msg.getData().startsWith("OK:")) {
+                        playerId = Integer.parseInt(msg.getData().split(":")[1]);
+                        connected.incrementAndGet();
+                    } else if (msg.getType() == MessageType.HEARTBEAT) {
+                        send(out, Message.generateMessage(MessageType.HEARTBEAT, Message.HEARTBEAT_PONG));
+                    } else if (msg.getType() == MessageType.GAME_OVER) {
+                        recordLatency();
+                        break;
+                    } else if (msg.getType() == MessageType.GAME_UPDATE) {
+                        if (msg.getData().equals("Sıra sizde")) {
+                            recordLatency();
+                            if (nextCell >= 100) {
+                                break;
+                            }
+                            Move move = new Move(nextCell % 10, nextCell / 10, playerId);
+                            nextCell++;
+                            sentAt = System.nanoTime();
+                            send(out, Message.generateMessage(MessageType.MOVE, move.toString()));
+                        } else if (msg.getData().equals("Rakibin sırası")) {
+                            recordLatency();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                failed.incrementAndGet();
+            } finally {
+                finished.countDown();
+            }
+        }
+        
+        private void recordLatency() {
+            if (sentAt != 0) {
+                latencies.record(System.nanoTime() - sentAt);
+            }
+            sentAt = 0;
+        }
+        
+        private static void send(OutputStream out, String msg) throws IOException {
+            ByteBuffer frame = FrameCodec.encodeText(msg);
+            FrameCodec.writeFrame(out, frame);
+            BufferPool.SHARED.release(frame);
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.mycompany.savasgemisi.bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+import com.mycompany.savasgemisi.server.LatencyStats;
+import com.mycompany.savasgemisi.server.MoveJournal;
+
+/**
+ * Hamle günlüğüne yazma hızını ölçen program. Her thread kendi oturumları
+ * için hamle kayıtları ekler; saniyedeki kayıt, MB/sn ve kayıt başına
+ * ekleme süresinin dağılımı raporlanır. Küçük segment boyutuyla segment
+ * değişimlerinin (önceden hazırlanan segmente geçiş) maliyeti de ölçüme
+ * girer. Diske aktarma ayrı thread'de yapıldığı için ölçülen süre yazanın
+ * gördüğü gecikmedir, kalıcılık gecikmesi değildir.
+ *
+ * Ölçüm önce tek thread'le, sonra verilen thread sayısıyla yapılır. Yazanlar
+ * yalnızca segment değişiminde kilit beklediği için çok thread'li hız tek
+ * thread'in hızından düşmemelidir; iki hızın oranı raporun sonunda verilir.
+ *
+ * Kullanım: java -cp target/classes com.mycompany.savasgemisi.bench.JournalBenchmark
+ *           [thread başına kayıt] [thread sayısı] [segment boyutu (MB)] [dizin]
+ */
+public class JournalBenchmark {
+    
+    public static void main(String[] args) throws Exception {
+        int recordsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+        int segmentSize = (args.length > 2 ? Integer.parseInt(args[2]) : 16) * 1024 * 1024;
+        Path directory = args.length > 3 ? Path.of(args[3]) : Files.createTempDirectory("journal-bench");
+        
+        System.out.println("Dizin            : " + directory.toAbsolutePath());
+        System.out.println("Thread           : " + threads + " x " + recordsPerThread + " kayıt");
+        System.out.println("Segment boyutu   : " + segmentSize / (1024 * 1024) + " MB");
+        
+        // JIT ısınması
+        run(directory.resolve("warmup"), segmentSize, threads, recordsPerThread / 4, false);
+        double single = run(directory.resolve("run-1"), segmentSize, 1, recordsPerThread, true);
+        if (threads > 1) {
+            double multi = run(directory.resolve("run-" + threads), segmentSize, threads, recordsPerThread, true);
+            System.out.printf("%d thread / 1 thread: %.2fx%n", threads, multi / single);
+        }
+    }
+    
+    /**
+     * Verilen sayıda thread'le yeni bir günlüğe kayıt ekler
+     * @return Saniyedeki kayıt sayısı
+     */
+    private static double run(Path directory, int segmentSize, int threads, int recordsPerThread, boolean report)
+            throws Exception {
+        MoveJournal journal = new MoveJournal(directory, segmentSize, MoveJournal.DEFAULT_SYNC_MILLIS);
+        LatencyStats latency = new LatencyStats();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int base = t * 1_000_000;
+            writers[t] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < recordsPerThread; i++) {
+                    int cell = i % 100;
+                    long start = System.nanoTime();
+                    journal.recordMove(base + i / 100, base + (i & 1), cell % 10, cell / 10,
+                            BinaryProtocol.RESULT_MISS);
+                    latency.record(System.nanoTime() - start);
+                }
+            }, "journal-writer-" + t);
+            writers[t].start();
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = journal.getBytesWritten();
+        long records = journal.getRecordCount();
+        journal.close();
+        
+        double seconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+        if (report) {
+            LatencyStats.Snapshot all = latency.snapshot();
+            System.out.println("--- " + threads + " thread");
+            System.out.printf("Kayıt            : %,d (%,d bayt)%n", records, bytes);
+            System.out.printf("Hız              : %,.0f kayıt/sn, %.1f MB/sn%n",
+                    records / seconds, bytes / seconds / (1024 * 1024));
+            System.out.printf("Ekleme süresi    : p50=%d ns p99=%d ns p99.99=%d ns%n",
+                    all.percentile(0.50), all.percentile(0.99), all.percentile(0.9999));
+            System.out.println("Segment          : " + MoveJournal.listSegments(directory).length);
+        }
+        return records / seconds;
+    }
+}
@@ -0,0 +1,62 @@
+package com.mycompany.savasgemisi.bench;
+
+import java.io.PrintStream;
+
+import com.mycompany.savasgemisi.server.LatencyStats;
+
+/**
+ * Ölçüm programlarının gecikme raporları. Süreler sunucunun da kullandığı
+ * LatencyStats histogramlarında toplanır; bu sınıf yalnızca anlık
+ * görüntüleri milisaniye cinsinden yazar.
+ */
+final class LatencyReport {
+    /** Dağılım tablosunun üst sınırları (mikrosaniye) */
+    private static final long[] REPORT_LIMITS_MICROS = {
+        100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 1_000_000
+    };
+
+    private LatencyReport() {
+    }
+
+    /**
+     * Özet satırı: ortalama, p50, p90, p99, p99.9 ve en büyük değer (ms)
+     * @param latency Anlık görüntü
+     * @return Özet; ölçüm yoksa "-"
+     */
+    static String summary(LatencyStats.Snapshot latency) {
+        if (latency.getCount() == 0) {
+            return "-";
+        }
+        return String.format("ort=%.2f  p50=%.2f  p90=%.2f  p99=%.2f  p99.9=%.2f  max=%.2f ms",
+                latency.getMean() / 1_000_000.0,
+                millis(latency.percentile(0.50)), millis(latency.percentile(0.90)), millis(latency.percentile(0.99)),
+                millis(latency.percentile(0.999)), millis(latency.getMax()));
+    }
+
+    /**
+     * Ölçümlerin süre aralıklarına dağılımını çubuk grafik olarak yazar
+     * @param out Hedef akış
+     * @param latency Anlık görüntü
+     */
+    static void printDistribution(PrintStream out, LatencyStats.Snapshot latency) {
+        long count = latency.getCount();
+        if (count == 0) {
+            return;
+        }
+        long below = 0;
+        for (int row = 0; row <= REPORT_LIMITS_MICROS.length; row++) {
+            long upTo = row < REPORT_LIMITS_MICROS.length ? latency.countAtMost(REPORT_LIMITS_MICROS[row] * 1_000) : count;
+            long rowCount = upTo - below;
+            below = upTo;
+            String label = row < REPORT_LIMITS_MICROS.length
+                    ? String.format("<= %8.2f ms", REPORT_LIMITS_MICROS[row] / 1_000.0)
+                    : String.format(" > %8.2f ms", REPORT_LIMITS_MICROS[row - 1] / 1_000.0);
+            double share = rowCount / (double) count;
+            out.printf("    %s %10d %6.2f%% %s%n", label, rowCount, share * 100, "#".repeat((int) Math.round(share * 50)));
+        }
+    }
+
+    static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
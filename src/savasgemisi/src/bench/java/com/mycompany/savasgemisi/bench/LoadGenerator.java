@@ -0,0 +1,284 @@
+package com.mycompany.savasgemisi.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.mycompany.savasgemisi.client.GameClient;
+import com.mycompany.savasgemisi.client.GameClientListener;
+import com.mycompany.savasgemisi.common.GameRules;
+import com.mycompany.savasgemisi.common.Message;
+import com.mycompany.savasgemisi.common.MessageType;
+import com.mycompany.savasgemisi.common.Move;
+import com.mycompany.savasgemisi.server.LatencyStats;
+
+/**
+ * Çalışan bir sunucuya çok sayıda eşzamanlı oyun yükleyen arayüzsüz istemci.
+ * Her bağlantı GameClient'ı bir bot dinleyiciyle kullanır: bağlanır,
+ * eşleşmeyi bekler ve "Sıra sizde" gelir gelmez rastgele sıradaki bir
+ * sonraki hücreye ateş eder. Oyun bittiğinde süre dolmadıysa yeni oyun ister.
+ *
+ * Raporlanan süreler:
+ * bağlanma (soket açılışından bağlantı yanıtına), eşleşme (bağlantı ya da
+ * yeni oyun isteğinden oyun başlangıcına) ve hamle gecikmesi (hamlenin
+ * gönderilmesinden sunucunun sonraki sıra bildirimine ya da oyun sonuna).
+ *
+ * Sunucu ayrı bir JVM'de çalıştırılmalıdır; böylece ölçüm sunucuyla
+ * aynı yığını ve GC'yi paylaşmaz.
+ *
+ * Kullanım: java -cp target/classes com.mycompany.savasgemisi.bench.LoadGenerator
+ *           [bağlantı sayısı] [port] [süre (sn)] [sunucu]
+ */
+public class LoadGenerator {
+    /** Süre dolduktan sonra devam eden oyunların bitmesi için beklenen en uzun süre */
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+    
+    public static void main(String[] args) throws InterruptedException {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String host = args.length > 3 ? args[3] : "127.0.0.1";
+        
+        PrintStream report = System.out;
+        // GameClient'ın bağlantı başına yazdığı loglar ölçümü bozmasın
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        
+        LatencyStats connect = new LatencyStats();
+        LatencyStats match = new LatencyStats();
+        LatencyStats moves = new LatencyStats();
+        CountDownLatch finished = new CountDownLatch(connections);
+        List<Bot> bots = new ArrayList<>(connections);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        for (int i = 0; i < connections; i++) {
+            Bot bot = new Bot(deadline, finished, new SplittableRandom(i), connect, match, moves);
+            bots.add(bot);
+            bot.connect(host, port);
+        }
+        long connectedAt = System.nanoTime();
+        
+        boolean drained = finished.await(seconds + DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+        for (Bot bot : bots) {
+            bot.client.disconnect();
+        }
+        
+        int connectFailures = 0;
+        int disconnects = 0;
+        long serverErrors = 0;
+        long gamesFinished = 0;
+        for (Bot bot : bots) {
+            synchronized (bot) {
+                connectFailures += bot.connectFailed ? 1 : 0;
+                disconnects += bot.disconnected ? 1 : 0;
+                serverErrors += bot.serverErrors;
+                gamesFinished += bot.gamesFinished;
+            }
+        }
+        
+        LatencyStats.Snapshot connectLatency = connect.snapshot();
+        LatencyStats.Snapshot moveLatency = moves.snapshot();
+        double elapsedSeconds = elapsed / 1_000_000_000.0;
+        report.printf("Sunucu           : %s:%d%n", host, port);
+        report.printf("Bağlantı         : %d/%d (%.2f sn içinde açıldı)%n",
+                connectLatency.getCount(), connections, (connectedAt - start) / 1_000_000_000.0);
+        report.printf("Süre             : %.2f sn%s%n", elapsedSeconds,
+                drained ? "" : " (süre sonunda " + finished.getCount() + " bot bitmedi)");
+        report.printf("Biten oyun       : %d (%.1f oyun/sn)%n", gamesFinished / 2, gamesFinished / 2 / elapsedSeconds);
+        report.printf("Hamle            : %d (%.1f hamle/sn)%n", moveLatency.getCount(), moveLatency.getCount() / elapsedSeconds);
+        report.printf("Hatalar          : bağlanamayan=%d  kopan=%d  sunucu hatası=%d%n",
+                connectFailures, disconnects, serverErrors);
+        report.println("Bağlanma süresi  : " + LatencyReport.summary(connectLatency));
+        report.println("Eşleşme süresi   : " + LatencyReport.summary(match.snapshot()));
+        report.println("Hamle gecikmesi  : " + LatencyReport.summary(moveLatency));
+        LatencyReport.printDistribution(report, moveLatency);
+        System.exit(0);
+    }
+    
+    /**
+     * Tek bağlantıyı yöneten bot. Dinleyici çağrıları GameClient'ın dinleme
+     * thread'inden gelir; rapor için okunurken nesnenin kilidi kullanılır.
+     */
+    private static final class Bot implements GameClientListener {
+        private final GameClient client = new GameClient(this);
+        private final long deadline;
+        private final CountDownLatch finished;
+        private final SplittableRandom random;
+        
+        /** Tüm botların paylaştığı gecikme histogramları */
+        private final LatencyStats connectLatency;
+        private final LatencyStats matchLatency;
+        private final LatencyStats moveLatency;
+        private boolean connectFailed = false;
+        private boolean disconnected = false;
+        private long serverErrors = 0;
+        private long gamesFinished = 0;
+        
+        private int playerId = -1;
+        private long connectStartedAt;
+        private long matchRequestedAt;
+        private long moveSentAt = 0;
+        /** Bu oyundaki atış sırası; rastgele karıştırılmış hücre numaraları */
+        private int[] shotOrder = new int[0];
+        private int nextShot = 0;
+        private int width;
+        private boolean done = false;
+        
+        Bot(long deadline, CountDownLatch finished, SplittableRandom random,
+                LatencyStats connectLatency, LatencyStats matchLatency, LatencyStats moveLatency) {
+            this.deadline = deadline;
+            this.finished = finished;
+            this.random = random;
+            this.connectLatency = connectLatency;
+            this.matchLatency = matchLatency;
+            this.moveLatency = moveLatency;
+        }
+        
+        void connect(String host, int port) {
+            synchronized (this) {
+                connectStartedAt = System.nanoTime();
+            }
+            try {
+                client.connectToServer(host, port);
+                client.listenForMessages();
+            } catch (IOException e) {
+                synchronized (this) {
+                    connectFailed = true;
+                    finish();
+                }
+            }
+        }
+        
+        private void finish() {
+            if (!done) {
+                done = true;
+                finished.countDown();
+            }
+        }
+        
+        /**
+         * Gönderilmiş bir hamle varsa gecikmesini kaydeder
+         */
+        private void recordMoveLatency() {
+            if (moveSentAt != 0) {
+                moveLatency.record(System.nanoTime() - moveSentAt);
+                moveSentAt = 0;
+            }
+        }
+        
+        private void newShotOrder(GameRules rules) {
+            int cells = rules.getWidth() * rules.getHeight();
+            width = rules.getWidth();
+            if (shotOrder.length != cells) {
+                shotOrder = new int[cells];
+            }
+            for (int i = 0; i < cells; i++) {
+                shotOrder[i] = i;
+            }
+            for (int i = cells - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = shotOrder[i];
+                shotOrder[i] = shotOrder[j];
+                shotOrder[j] = swap;
+            }
+            nextShot = 0;
+        }
+        
+        @Override
+        public synchronized void notifyConnected(int clientId) {
+            playerId = clientId;
+            long now = System.nanoTime();
+            connectLatency.record(now - connectStartedAt);
+            matchRequestedAt = now;
+        }
+        
+        @Override
+        public synchronized void notifyGameStart(String data) {
+            matchLatency.record(System.nanoTime() - matchRequestedAt);
+            newShotOrder(GameRules.fromStartMessage(data));
+        }
+        
+        @Override
+        public synchronized void updateTurn(boolean myTurn) {
+            recordMoveLatency();
+            if (myTurn && !done) {
+                fire();
+            }
+        }
+        
+        private void fire() {
+            if (nextShot == shotOrder.length) {
+                // Tahta bitti ama oyun bitmedi; sunucu hamleleri kabul etmiyor
+                serverErrors++;
+                return;
+            }
+            int cell = shotOrder[nextShot++];
+            try {
+                moveSentAt = System.nanoTime();
+                client.sendMove(new Move(cell % width, cell / width, playerId));
+            } catch (IOException e) {
+                moveSentAt = 0;
+            }
+        }
+        
+        @Override
+        public synchronized void notifyGameOver(String data) {
+            recordMoveLatency();
+            gamesFinished++;
+            if (System.nanoTime() - deadline >= 0) {
+                finish();
+                client.disconnect();
+                return;
+            }
+            try {
+                matchRequestedAt = System.nanoTime();
+                client.sendMessage(Message.generateMessage(MessageType.GAME_START, "REQUEST"));
+            } catch (IOException e) {
+                finish();
+            }
+        }
+        
+        @Override
+        public synchronized void showError(String errorMsg) {
+            serverErrors++;
+            if (moveSentAt != 0 && !done) {
+                // Hamle reddedildi; sıra hâlâ bizde
+                moveSentAt = 0;
+                fire();
+            }
+        }
+        
+        @Override
+        public synchronized void notifyDisconnected(String reason) {
+            if (!done) {
+                disconnected = true;
+                finish();
+            }
+        }
+        
+        @Override
+        public void updateGameState(String data) {
+        }
+        
+        @Override
+        public void updateBoards(int sequence, int width, int height, byte[] myBoard, byte[] opponentBoard) {
+        }
+        
+        @Override
+        public void updateSparseBoards(int sequence, int width, int height, long[] cells) {
+        }
+        
+        @Override
+        public void applyBoardChanges(int sequence, long[] changes) {
+        }
+        
+        @Override
+        public void notifyMoveResult(int x, int y, boolean hit, boolean sunk) {
+        }
+    }
+}
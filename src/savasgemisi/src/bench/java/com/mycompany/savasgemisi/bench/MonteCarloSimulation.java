@@ -0,0 +1,391 @@
+package com.mycompany.savasgemisi.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+
+import com.mycompany.savasgemisi.common.GameRules;
+import com.mycompany.savasgemisi.server.BattleshipGame;
+import com.mycompany.savasgemisi.server.Player;
+import com.mycompany.savasgemisi.server.ProbabilityTargeting;
+import com.mycompany.savasgemisi.server.ShotStrategy;
+
+/**
+ * İki atış stratejisini ağ ve oturum katmanı olmadan, doğrudan
+ * BattleshipGame üzerinde çok sayıda oyunda karşılaştıran Monte Carlo
+ * simülasyonu. Oyunlar fork/join ile tüm çekirdeklere bölünür; her işçi
+ * thread'i kendi oyun, oyuncu, tahta ve strateji nesnelerini oyundan oyuna
+ * yeniden kullanır (BattleshipGame.restart, ShotStrategy.reset), böylece
+ * oyun başına ayrılan bellek yerleşim ve üreteç nesneleriyle sınırlı kalır.
+ *
+ * Stratejiler oyunların yarısında birinci, yarısında ikinci oyuncu olarak
+ * başlar. Kazanma oranları, kazanılan oyunlarda atış sayısı, ilk başlayanın
+ * avantajı ve saniyedeki oyun/atış sayısı raporlanır. Oyun tohumları oyun
+ * numarasından türetildiği için aynı tohumla aynı filolar yeniden üretilir.
+ *
+ * Kullanım: java -cp target/classes com.mycompany.savasgemisi.bench.MonteCarloSimulation
+ *           [oyun sayısı] [strateji A] [strateji B] [kurallar] [thread sayısı] [tohum]
+ * Stratejiler: olasilik, avci, rastgele
+ */
+public class MonteCarloSimulation {
+    /** Bir alt görevin bölünmeden oynattığı en fazla oyun */
+    private static final int LEAF_GAMES = 512;
+    
+    private static final Map<String, BiFunction<GameRules, SplittableRandom, ShotStrategy>> STRATEGIES =
+            new LinkedHashMap<>();
+    
+    static {
+        STRATEGIES.put("olasilik", ProbabilityTargeting::new);
+        STRATEGIES.put("avci", HuntTargetShots::new);
+        STRATEGIES.put("rastgele", RandomShots::new);
+    }
+    
+    private final GameRules rules;
+    private final BiFunction<GameRules, SplittableRandom, ShotStrategy> strategyA;
+    private final BiFunction<GameRules, SplittableRandom, ShotStrategy> strategyB;
+    private final long seed;
+    /** Fork/join işçisi başına bir kez oluşturulan oyun nesneleri */
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+    
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String nameA = args.length > 1 ? args[1] : "olasilik";
+        String nameB = args.length > 2 ? args[2] : "avci";
+        GameRules rules = args.length > 3 ? GameRules.parse(args[3]) : GameRules.STANDARD;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 1;
+        
+        MonteCarloSimulation simulation = new MonteCarloSimulation(rules, strategy(nameA), strategy(nameB), seed);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            // JIT ısınması; işçi nesneleri de burada oluşur
+            simulation.run(pool, Math.max(LEAF_GAMES, games / 10));
+            
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            Result result = simulation.run(pool, games);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long allocated = allocatedBytes() - allocatedBefore;
+            
+            System.out.println("Kurallar         : " + rules);
+            System.out.println("Thread           : " + threads);
+            System.out.printf("Oyun             : %,d (%.2f sn)%n", result.games, seconds);
+            printStrategy("A " + nameA, result.winsA, result.shotsToWinA, result.games);
+            printStrategy("B " + nameB, result.winsB, result.shotsToWinB, result.games);
+            System.out.printf("İlk başlayan     : %%%.2f kazandı%n", 100.0 * result.firstPlayerWins / result.games);
+            System.out.printf("Verim            : %,.0f oyun/sn, %,.0f atış/sn%n",
+                    result.games / seconds, result.shots / seconds);
+            System.out.printf("Bellek           : %,.0f bayt/oyun%n", allocated / (double) result.games);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    private static BiFunction<GameRules, SplittableRandom, ShotStrategy> strategy(String name) {
+        BiFunction<GameRules, SplittableRandom, ShotStrategy> factory = STRATEGIES.get(name);
+        if (factory == null) {
+            throw new IllegalArgumentException("Bilinmeyen strateji: " + name + " (" + STRATEGIES.keySet() + ")");
+        }
+        return factory;
+    }
+    
+    private static void printStrategy(String label, long wins, long shotsToWin, long games) {
+        System.out.printf("%-17s: %%%.2f kazandı, kazandığı oyunda ort. %.1f atış%n", label,
+                100.0 * wins / games, wins == 0 ? 0.0 : shotsToWin / (double) wins);
+    }
+    
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+    }
+    
+    /**
+     * Yeni bir simülasyon oluşturur
+     * @param rules Tahta boyutu ve filo
+     * @param strategyA Birinci stratejiyi oluşturan fabrika
+     * @param strategyB İkinci stratejiyi oluşturan fabrika
+     * @param seed Oyun tohumlarının türetileceği ana tohum
+     */
+    public MonteCarloSimulation(GameRules rules, BiFunction<GameRules, SplittableRandom, ShotStrategy> strategyA,
+            BiFunction<GameRules, SplittableRandom, ShotStrategy> strategyB, long seed) {
+        this.rules = rules;
+        this.strategyA = strategyA;
+        this.strategyB = strategyB;
+        this.seed = seed;
+    }
+    
+    /**
+     * Oyunları havuzda oynatır ve sonuçları birleştirir
+     * @param pool Oyunların bölüneceği havuz
+     * @param games Oyun sayısı
+     * @return Tüm oyunların sonucu
+     */
+    public Result run(ForkJoinPool pool, int games) {
+        return pool.invoke(new SimulationTask(0, games));
+    }
+    
+    /**
+     * Oyun aralığını işçilere bölen görev
+     */
+    private final class SimulationTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+        
+        private final int from;
+        private final int to;
+        
+        SimulationTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected Result compute() {
+            if (to - from <= LEAF_GAMES) {
+                Result result = new Result();
+                Worker worker = workers.get();
+                for (int game = from; game < to; game++) {
+                    worker.play(game, result);
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            SimulationTask left = new SimulationTask(from, middle);
+            left.fork();
+            Result result = new SimulationTask(middle, to).compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+    
+    /**
+     * Bir işçi thread'inin oyundan oyuna yeniden kullandığı nesneler
+     */
+    private final class Worker {
+        private final BattleshipGame game = new BattleshipGame(rules, seed);
+        private final Player player1 = new Player(1, "Oyuncu 1", rules.getWidth(), rules.getHeight());
+        private final Player player2 = new Player(2, "Oyuncu 2", rules.getWidth(), rules.getHeight());
+        private final SplittableRandom random = new SplittableRandom();
+        private final ShotStrategy a = strategyA.apply(rules, random);
+        private final ShotStrategy b = strategyB.apply(rules, random);
+        
+        Worker() {
+            game.setPlayer1(player1);
+            game.setPlayer2(player2);
+            game.initializeBoards();
+        }
+        
+        /**
+         * Tek bir oyunu sonuna kadar oynatır; tek numaralı oyunlarda B başlar
+         */
+        void play(int number, Result result) {
+            boolean aFirst = (number & 1) == 0;
+            ShotStrategy first = aFirst ? a : b;
+            ShotStrategy second = aFirst ? b : a;
+            game.restart(mix(seed + number));
+            game.placeShips(player1);
+            game.placeShips(player2);
+            first.reset(random);
+            second.reset(random);
+            
+            int width = rules.getWidth();
+            int firstShots = 0;
+            int secondShots = 0;
+            while (game.getState() != BattleshipGame.GameState.GAME_OVER) {
+                boolean firstTurn = game.getCurrentPlayerId() == player1.getId();
+                ShotStrategy shooter = firstTurn ? first : second;
+                int cell = shooter.nextShot();
+                if (cell < 0) {
+                    throw new IllegalStateException("Strateji atış bulamadı");
+                }
+                boolean hit = game.makeMove(firstTurn ? player1 : player2, cell % width, cell / width);
+                shooter.recordResult(cell, hit, game.wasLastShotSunk());
+                if (firstTurn) {
+                    firstShots++;
+                } else {
+                    secondShots++;
+                }
+            }
+            
+            boolean firstWon = game.getWinner() == player1;
+            int winnerShots = firstWon ? firstShots : secondShots;
+            if (firstWon == aFirst) {
+                result.winsA++;
+                result.shotsToWinA += winnerShots;
+            } else {
+                result.winsB++;
+                result.shotsToWinB += winnerShots;
+            }
+            if (firstWon) {
+                result.firstPlayerWins++;
+            }
+            result.games++;
+            result.shots += firstShots + secondShots;
+        }
+    }
+    
+    /**
+     * Oyun numarasından birbirine benzemeyen tohumlar üretir (SplittableRandom karıştırıcısı)
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * Bir oyun aralığının birleştirilebilir sonuçları
+     */
+    public static final class Result {
+        long games;
+        long shots;
+        long winsA;
+        long winsB;
+        long shotsToWinA;
+        long shotsToWinB;
+        long firstPlayerWins;
+        
+        void merge(Result other) {
+            games += other.games;
+            shots += other.shots;
+            winsA += other.winsA;
+            winsB += other.winsB;
+            shotsToWinA += other.shotsToWinA;
+            shotsToWinB += other.shotsToWinB;
+            firstPlayerWins += other.firstPlayerWins;
+        }
+    }
+    
+    /**
+     * Hücrelere rastgele sırayla ateş eder; karşılaştırma tabanı
+     */
+    private static final class RandomShots implements ShotStrategy {
+        private final int[] order;
+        private SplittableRandom random;
+        private int next;
+        
+        RandomShots(GameRules rules, SplittableRandom random) {
+            this.order = new int[rules.getWidth() * rules.getHeight()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            reset(random);
+        }
+        
+        @Override
+        public void reset(SplittableRandom random) {
+            this.random = random;
+            this.next = 0;
+        }
+        
+        /**
+         * Sıra, atış yapıldıkça kalan hücreler arasından seçilerek karıştırılır
+         */
+        @Override
+        public int nextShot() {
+            if (next == order.length) {
+                return -1;
+            }
+            int j = next + random.nextInt(order.length - next);
+            int cell = order[j];
+            order[j] = order[next];
+            order[next++] = cell;
+            return cell;
+        }
+        
+        @Override
+        public void recordResult(int cell, boolean hit, boolean sunk) {
+        }
+    }
+    
+    /**
+     * Klasik avla/hedefle stratejisi: gemi bulunana kadar dama deseninin
+     * tek renkli hücrelerine rastgele ateş eder, isabetten sonra komşuları dener
+     */
+    private static final class HuntTargetShots implements ShotStrategy {
+        private final int width;
+        private final int height;
+        private final boolean[] fired;
+        /** Önce dama deseninin bir rengi, sonra diğeri; her renk kendi içinde karıştırılır */
+        private final int[] order;
+        private final int evenCount;
+        private final int[] targets;
+        private SplittableRandom random;
+        private int next;
+        private int targetCount;
+        
+        HuntTargetShots(GameRules rules, SplittableRandom random) {
+            this.width = rules.getWidth();
+            this.height = rules.getHeight();
+            int cells = width * height;
+            this.fired = new boolean[cells];
+            this.order = new int[cells];
+            this.targets = new int[cells * 4];
+            int even = 0;
+            int odd = cells - 1;
+            for (int cell = 0; cell < cells; cell++) {
+                if ((cell % width + cell / width) % 2 == 0) {
+                    order[even++] = cell;
+                } else {
+                    order[odd--] = cell;
+                }
+            }
+            this.evenCount = even;
+            reset(random);
+        }
+        
+        @Override
+        public void reset(SplittableRandom random) {
+            this.random = random;
+            Arrays.fill(fired, false);
+            next = 0;
+            targetCount = 0;
+        }
+        
+        @Override
+        public int nextShot() {
+            while (targetCount > 0) {
+                int cell = targets[--targetCount];
+                if (!fired[cell]) {
+                    return cell;
+                }
+            }
+            while (next < order.length) {
+                // Her renk kendi aralığında karıştırılır
+                int end = next < evenCount ? evenCount : order.length;
+                int j = next + random.nextInt(end - next);
+                int cell = order[j];
+                order[j] = order[next];
+                order[next++] = cell;
+                if (!fired[cell]) {
+                    return cell;
+                }
+            }
+            return -1;
+        }
+        
+        @Override
+        public void recordResult(int cell, boolean hit, boolean sunk) {
+            fired[cell] = true;
+            if (!hit) {
+                return;
+            }
+            int x = cell % width;
+            if (x > 0) {
+                targets[targetCount++] = cell - 1;
+            }
+            if (x < width - 1) {
+                targets[targetCount++] = cell + 1;
+            }
+            if (cell >= width) {
+                targets[targetCount++] = cell - width;
+            }
+            if (cell + width < width * height) {
+                targets[targetCount++] = cell + width;
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mycompany.savasgemisi.bench;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import com.mycompany.savasgemisi.server.FleetPlacer;
+import com.mycompany.savasgemisi.server.Player.Board;
+import com.mycompany.savasgemisi.server.Player.Board.CellState;
+
+/**
+ * Önceki deneme-yanılma gemi yerleşimi ile FleetPlacer'ı farklı doluluktaki
+ * tahtalarda karşılaştıran ölçüm programı. Her senaryoda çok sayıda filo
+ * yerleştirilir ve filo başına süre (p50, p99, en kötü) raporlanır.
+ * Deneme-yanılma yönteminde bir gemiye yer kalmadığında sonsuza kadar
+ * dönmemek için belirli bir deneme sayısından sonra filo baştan kurulur.
+ *
+ * Kullanım: java -cp target/classes com.mycompany.savasgemisi.bench.PlacementBenchmark
+ *           [senaryo başına filo]
+ */
+public class PlacementBenchmark {
+    private static final int[] STANDARD_FLEET = {5, 4, 3, 3, 2};
+    /** Deneme-yanılmada bir gemi için vazgeçmeden önceki deneme sayısı */
+    private static final int MAX_TRIES_PER_SHIP = 10_000;
+    
+    private static long sink;
+    
+    public static void main(String[] args) {
+        int fleets = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        
+        // JIT ısınması
+        run("ısınma", 10, 10, STANDARD_FLEET, fleets, false);
+        
+        run("10x10 standart", 10, 10, STANDARD_FLEET, fleets, true);
+        run("7x7 standart", 7, 7, STANDARD_FLEET, fleets, true);
+        run("6x6 standart", 6, 6, STANDARD_FLEET, fleets, true);
+        run("5x5 %68 dolu", 5, 5, STANDARD_FLEET, fleets / 10, true);
+        run("20x20 %51 dolu", 20, 20, repeat(STANDARD_FLEET, 12), fleets / 10, true);
+        run("64x64 %50 dolu", 64, 64, repeat(STANDARD_FLEET, 120), fleets / 100, true);
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+    
+    private static int[] repeat(int[] fleet, int times) {
+        int[] sizes = new int[fleet.length * times];
+        for (int i = 0; i < times; i++) {
+            System.arraycopy(fleet, 0, sizes, i * fleet.length, fleet.length);
+        }
+        return sizes;
+    }
+    
+    private static void run(String name, int width, int height, int[] fleet, int fleets, boolean print) {
+        long[] rejection = new long[fleets];
+        long[] masks = new long[fleets];
+        Random random = new Random(1);
+        SplittableRandom splittable = new SplittableRandom(1);
+        FleetPlacer placer = FleetPlacer.forBoard(width, height);
+        
+        for (int i = 0; i < fleets; i++) {
+            long start = System.nanoTime();
+            Board board;
+            do {
+                board = Board.create(width, height);
+            } while (!placeByRejection(board, fleet, random));
+            rejection[i] = System.nanoTime() - start;
+            sink += board.getRemainingShipCells();
+            
+            start = System.nanoTime();
+            do {
+                board = Board.create(width, height);
+            } while (!placer.placeFleet(board, fleet, splittable));
+            masks[i] = System.nanoTime() - start;
+            sink += board.getRemainingShipCells();
+        }
+        
+        if (print) {
+            System.out.println(name + ":");
+            report("  deneme-yanılma", rejection);
+            report("  maske         ", masks);
+        }
+    }
+    
+    private static void report(String name, long[] nanos) {
+        Arrays.sort(nanos);
+        System.out.printf("%s : p50=%9.2f µs  p99=%9.2f µs  max=%9.2f µs%n", name,
+                nanos[nanos.length / 2] / 1000.0, nanos[(int) (nanos.length * 0.99)] / 1000.0,
+                nanos[nanos.length - 1] / 1000.0);
+    }
+    
+    /**
+     * BattleshipGame.placeShips'in önceki hali: rastgele konum ve yön seçip
+     * getCell ile çakışma kontrolü yapar
+     * @return Filo yerleştiyse true; bir gemi için deneme sınırı aşıldıysa false
+     */
+    private static boolean placeByRejection(Board board, int[] fleet, Random random) {
+        for (int size : fleet) {
+            boolean placed = false;
+            for (int tries = 0; !placed; tries++) {
+                if (tries == MAX_TRIES_PER_SHIP) {
+                    return false;
+                }
+                int x = random.nextInt(board.getWidth());
+                int y = random.nextInt(board.getHeight());
+                boolean horizontal = random.nextBoolean();
+                if (canPlaceShip(board, x, y, size, horizontal)) {
+                    board.placeShip(x, y, size, horizontal);
+                    placed = true;
+                }
+            }
+        }
+        return true;
+    }
+    
+    private static boolean canPlaceShip(Board board, int x, int y, int size, boolean horizontal) {
+        if (horizontal ? x + size > board.getWidth() : y + size > board.getHeight()) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (board.getCell(horizontal ? x + i : x, horizontal ? y : y + i) == CellState.SHIP) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,113 @@
+package com.mycompany.savasgemisi.bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.mycompany.savasgemisi.common.GameRules;
+import com.mycompany.savasgemisi.server.BattleshipGame;
+import com.mycompany.savasgemisi.server.GameServer;
+import com.mycompany.savasgemisi.server.Player;
+import com.mycompany.savasgemisi.server.SessionSnapshot;
+import com.mycompany.savasgemisi.server.SnapshotStore;
+
+/**
+ * Oturum kurtarma kayıtlarının maliyetini ölçen program. Rastgele atışlarla
+ * oyunun ortasına getirilmiş oturumlar kodlanıp kayıt deposuna yazılır;
+ * ardından yeni bir sunucu aynı dizinden bütün oturumları yeniden kurar.
+ * Kodlama süresi oturum thread'inin, yazma süresi kayıt thread'inin,
+ * kurulum süresi de yeniden başlatılan sunucunun bağlantı kabul etmeden
+ * önce harcadığı süredir.
+ *
+ * Kullanım: java -cp target/classes com.mycompany.savasgemisi.bench.RecoveryBenchmark
+ *           [oturum sayısı] [oyuncu başına atış] [dizin]
+ */
+public class RecoveryBenchmark {
+    
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int shotsPerPlayer = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        Path directory = args.length > 2 ? Path.of(args[2]) : Files.createTempDirectory("recovery-bench");
+        GameRules rules = GameRules.STANDARD;
+        SplittableRandom random = new SplittableRandom(42);
+        
+        System.out.println("Dizin            : " + directory.toAbsolutePath());
+        System.out.println("Oturum           : " + sessions + " (" + rules + ", oyuncu başına en fazla "
+                + shotsPerPlayer + " atış)");
+        
+        byte[][] encoded = new byte[sessions][];
+        long encodeNanos = 0;
+        long bytes = 0;
+        for (int s = 0; s < sessions; s++) {
+            BattleshipGame game = playedGame(rules, random, 2 * s + 1, shotsPerPlayer);
+            long start = System.nanoTime();
+            encoded[s] = SessionSnapshot.encode(game, random.nextLong() | 1, random.nextLong() | 1, 0);
+            encodeNanos += System.nanoTime() - start;
+            bytes += encoded[s].length;
+        }
+        System.out.printf("Kodlama          : %.2f µs/oturum, ortalama %d bayt%n",
+                encodeNanos / 1000.0 / sessions, bytes / sessions);
+        
+        long start = System.nanoTime();
+        SnapshotStore store = new SnapshotStore(directory, SnapshotStore.DEFAULT_INTERVAL_MILLIS);
+        for (int s = 0; s < sessions; s++) {
+            store.offer(s + 1, encoded[s]);
+        }
+        store.close();
+        long writeNanos = System.nanoTime() - start;
+        encoded = null;
+        System.out.printf("Yazma            : %.2f sn, %,d bayt%n", seconds(writeNanos), directorySize(directory));
+        
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        GameServer server = new GameServer(0);
+        start = System.nanoTime();
+        int restored = server.enableSnapshots(directory, SnapshotStore.DEFAULT_INTERVAL_MILLIS);
+        long recoverNanos = System.nanoTime() - start;
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("Kurtarma         : %d oturum %.2f sn (okuma+çözme %.2f sn), %.0f oturum/sn%n",
+                restored, seconds(recoverNanos), seconds(server.getSnapshotStore().getRecoveryNanos()),
+                restored / seconds(recoverNanos));
+        System.out.printf("Bellek           : %,d KB (oturum başına %,d bayt)%n",
+                (heapAfter - heapBefore) / 1024, restored == 0 ? 0 : (heapAfter - heapBefore) / restored);
+        server.shutdown();
+    }
+    
+    /**
+     * Gemileri yerleştirilmiş bir oyunu sıradaki oyuncuya rastgele atışlar
+     * yaptırarak ilerletir
+     */
+    private static BattleshipGame playedGame(GameRules rules, SplittableRandom random, int firstId,
+            int shotsPerPlayer) {
+        BattleshipGame game = new BattleshipGame(rules, random.nextLong());
+        Player player1 = new Player(firstId, "Player " + firstId, rules.getWidth(), rules.getHeight());
+        Player player2 = new Player(firstId + 1, "Player " + (firstId + 1), rules.getWidth(), rules.getHeight());
+        game.setPlayer1(player1);
+        game.setPlayer2(player2);
+        game.initializeBoards();
+        game.placeShips(player1);
+        game.placeShips(player2);
+        for (int shot = 0; shot < 2 * shotsPerPlayer && game.getState() != BattleshipGame.GameState.GAME_OVER; shot++) {
+            Player shooter = game.getCurrentPlayerId() == player1.getId() ? player1 : player2;
+            game.makeMove(shooter, random.nextInt(rules.getWidth()), random.nextInt(rules.getHeight()));
+        }
+        return game;
+    }
+    
+    private static long directorySize(Path directory) throws Exception {
+        long size = 0;
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                size += Files.size(file);
+            }
+        }
+        return size;
+    }
+    
+    private static double seconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,211 @@
+package com.mycompany.savasgemisi.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.mycompany.savasgemisi.common.BufferPool;
+import com.mycompany.savasgemisi.common.FrameCodec;
+import com.mycompany.savasgemisi.common.Message;
+import com.mycompany.savasgemisi.common.MessageType;
+import com.mycompany.savasgemisi.common.Move;
+import com.mycompany.savasgemisi.server.ClientChannel;
+import com.mycompany.savasgemisi.server.GameServer;
+import com.mycompany.savasgemisi.server.SClient;
+
+/**
+ * Çok sayıda oyun oturumunda hamle işleme kapasitesinin thread sayısıyla
+ * nasıl ölçeklendiğini ölçen program. Ağ katmanı devre dışıdır: istemciler
+ * gelen çerçeveleri yalnızca sıra ve oyun sonu bilgisi için inceleyip
+ * havuza geri veren bir kanala bağlanır. Oturum havuzunun thread sayısı
+ * 1'den başlayarak artırılır; oturumlar arasında paylaşılan bir kilit
+ * varsa ölçek burada düz bir çizgiye döner. Her ölçümde tüm thread'lerin
+ * hamle başına ayırdığı bellek de raporlanır. Bir dizin verilirse oturumlar
+ * hamle günlüğüne de yazılır (her ölçüm kendi alt dizinine).
+ *
+ * Kullanım: java -cp target/classes com.mycompany.savasgemisi.bench.SessionThroughputBenchmark
+ *           [thread başına oturum] [en fazla oturum thread'i] [hamle günlüğü dizini]
+ */
+public class SessionThroughputBenchmark {
+    
+    private static final ByteBuffer YOUR_TURN =
+            FrameCodec.encodeText(Message.generateMessage(MessageType.GAME_UPDATE, "Sıra sizde"));
+    private static final ByteBuffer OPPONENT_TURN =
+            FrameCodec.encodeText(Message.generateMessage(MessageType.GAME_UPDATE, "Rakibin sırası"));
+    private static final byte[] GAME_OVER_PREFIX = (MessageType.GAME_OVER.name() + "#").getBytes();
+    
+    public static void main(String[] args) throws Exception {
+        int sessionsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Path journal = args.length > 2 ? Path.of(args[2]) : null;
+        
+        PrintStream report = System.out;
+        // Oturum başlangıç logları ölçümü bozmasın
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        
+        report.println("İşlemci sayısı   : " + Runtime.getRuntime().availableProcessors());
+        report.println("Thread başına    : " + sessionsPerThread + " oturum");
+        report.println("Hamle günlüğü    : " + (journal == null ? "kapalı" : journal.toAbsolutePath()));
+        
+        // JIT ısınması
+        run(1, sessionsPerThread, journal == null ? null : journal.resolve("warmup"));
+        
+        double baseline = 0;
+        for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+            double[] result = run(threads, sessionsPerThread, journal == null ? null : journal.resolve("t" + threads));
+            double movesPerSecond = result[0];
+            if (threads == 1) {
+                baseline = movesPerSecond;
+            }
+            report.printf("%3d thread       : %,12.0f hamle/sn  (x%.2f)  %,8.0f bayt/hamle%n",
+                    threads, movesPerSecond, movesPerSecond / baseline, result[1]);
+        }
+        System.exit(0);
+    }
+    
+    private static int nextThreadCount(int threads, int maxThreads) {
+        return threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1;
+    }
+    
+    /**
+     * Verilen sayıda oturum thread'iyle tüm oyunları sonuna kadar oynatır.
+     * İstemciler sıra kendilerine geçtiği anda, oturum thread'inde bir
+     * sonraki hamlelerini gönderir; böylece oyunları oturum havuzu sürer.
+     * @param journal Hamle günlüğü dizini; null ise günlük kapalı
+     * @return Saniyedeki hamle sayısı ve hamle başına ayrılan bayt
+     */
+    private static double[] run(int threads, int sessionsPerThread, Path journal)
+            throws InterruptedException, IOException {
+        GameServer server = new GameServer(0, GameServer.IoMode.THREAD, 0, threads);
+        if (journal != null) {
+            server.enableJournal(journal);
+        }
+        int sessions = threads * sessionsPerThread;
+        CountDownLatch finished = new CountDownLatch(sessions);
+        List<BenchClient[]> pairs = new ArrayList<>();
+        int nextId = 1;
+        for (int s = 0; s < sessions; s++) {
+            BenchClient a = new BenchClient(server, nextId++, finished);
+            BenchClient b = new BenchClient(server, nextId++, null);
+            // Bekleme listesi sıralı doldurulduğu için a ve b birbiriyle eşleşir
+            server.clientConnected(a.client);
+            server.clientConnected(b.client);
+            pairs.add(new BenchClient[] {a, b});
+        }
+        while (server.getSessionExecutor().getPendingEvents() > 0) {
+            Thread.sleep(10);
+        }
+        
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (BenchClient[] pair : pairs) {
+            BenchClient first = pair[0].myTurn ? pair[0] : pair[1];
+            first.live = true;
+            first.other(pair).live = true;
+            first.makeMove();
+        }
+        finished.await();
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        server.getSessionExecutor().shutdown();
+        if (journal != null) {
+            server.getJournal().close();
+        }
+        
+        long total = 0;
+        for (BenchClient[] pair : pairs) {
+            total += pair[0].moves + pair[1].moves;
+        }
+        return new double[] {
+            total / (elapsed / (double) TimeUnit.SECONDS.toNanos(1)),
+            allocated / (double) total
+        };
+    }
+    
+    /**
+     * JVM'deki tüm thread'lerin şimdiye kadar ayırdığı toplam bayt
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+    }
+    
+    /**
+     * Sunucunun gönderdiği çerçevelerden yalnızca sıra ve oyun sonu
+     * bilgisini çıkaran, ağ kullanmayan istemci
+     */
+    private static final class BenchClient implements ClientChannel {
+        private final GameServer server;
+        private final SClient client;
+        private final CountDownLatch finished;
+        private volatile boolean myTurn = false;
+        private volatile boolean live = false;
+        private int nextCell = 0;
+        private long moves = 0;
+        
+        BenchClient(GameServer server, int clientId, CountDownLatch finished) {
+            this.server = server;
+            this.client = new SClient(this, server, clientId);
+            this.finished = finished;
+        }
+        
+        BenchClient other(BenchClient[] pair) {
+            return pair[0] == this ? pair[1] : pair[0];
+        }
+        
+        void makeMove() {
+            myTurn = false;
+            int cell = nextCell++;
+            moves++;
+            server.processPlayerMove(client, new Move(cell % 10, cell / 10, client.getClientId()));
+        }
+        
+        @Override
+        public void send(ByteBuffer[] frames, int count) {
+            for (int i = 0; i < count; i++) {
+                ByteBuffer frame = frames[i];
+                boolean yourTurn = frame.equals(YOUR_TURN);
+                if (yourTurn) {
+                    myTurn = true;
+                } else if (frame.equals(OPPONENT_TURN)) {
+                    myTurn = false;
+                } else if (finished != null && isGameOver(frame)) {
+                    finished.countDown();
+                }
+                BufferPool.SHARED.release(frame);
+                if (yourTurn && live) {
+                    makeMove();
+                }
+            }
+        }
+        
+        private static boolean isGameOver(ByteBuffer frame) {
+            // GAME_OVER mesajları 128 bayttan kısadır, uzunluk öneki tek bayttır
+            int offset = frame.position() + 1;
+            if (frame.remaining() <= GAME_OVER_PREFIX.length) {
+                return false;
+            }
+            for (int i = 0; i < GAME_OVER_PREFIX.length; i++) {
+                if (frame.get(offset + i) != GAME_OVER_PREFIX[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        public void close() {
+        }
+        
+        @Override
+        public String getRemoteAddress() {
+            return "bench";
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.mycompany.savasgemisi.bench;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+import com.mycompany.savasgemisi.common.BufferPool;
+import com.mycompany.savasgemisi.common.FrameCodec;
+import com.mycompany.savasgemisi.common.GameRules;
+import com.mycompany.savasgemisi.common.Message;
+import com.mycompany.savasgemisi.common.MessageType;
+import com.mycompany.savasgemisi.common.Move;
+import com.mycompany.savasgemisi.server.GameServer;
+import com.mycompany.savasgemisi.server.LatencyStats;
+import com.mycompany.savasgemisi.server.ServerMetrics;
+
+/**
+ * Çok sayıda izleyicinin oyunculara etkisini ölçen program. Aynı JVM içinde
+ * NIO motorlu bir sunucu başlatır ve aynı oyunu önce izleyicisiz, sonra
+ * verilen sayıda ikili protokol izleyicisiyle oynatır. İzleyicilerin bir
+ * kısmı hiç okumaz; bunların aralıklı tam tahtaya düşürülüp sonra
+ * bağlantılarının kapatılması, diğer izleyicilerin ve oyuncuların
+ * beklememesi beklenir. İki oyundaki hamle gecikmeleri, izleyicilerin
+ * aldığı güncellemeler ve sunucunun paylaşılan çerçeve sayaçları raporlanır.
+ *
+ * Kullanım: java -cp target/classes com.mycompany.savasgemisi.bench.SpectatorBenchmark
+ *           [izleyici sayısı] [okumayan izleyici sayısı] [kurallar, ör. 60x60:5,4,3,3,2]
+ *           [hamleler arası bekleme (ms)] [port]
+ */
+public class SpectatorBenchmark {
+    
+    public static void main(String[] args) throws Exception {
+        int spectators = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int stalled = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        GameRules rules = args.length > 2 ? GameRules.parse(args[2]) : GameRules.parse("60x60:5,4,3,3,2");
+        long thinkMillis = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        int port = args.length > 4 ? Integer.parseInt(args[4]) : 5056;
+        
+        PrintStream report = System.out;
+        // Sunucunun bağlantı başına yazdığı loglar ölçümü bozmasın
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        
+        GameServer server = new GameServer(port, GameServer.IoMode.NIO, 0);
+        server.setRules(rules);
+        server.setHeartbeatMillis(0);
+        server.setTurnTimeoutMillis(0);
+        server.startServer();
+        
+        report.println("Kurallar         : " + rules.encode() + ", hamleler arası " + thinkMillis + " ms");
+        LatencyStats.Snapshot baseline = playGame(port, rules, thinkMillis, new CountDownLatch(0));
+        report.print("İzleyicisiz      : ");
+        printLatency(report, baseline);
+        
+        // İkinci oyunda oyuncular izleyicilerin hepsi katılana kadar ilk hamleyi yapmaz
+        CountDownLatch watching = new CountDownLatch(1);
+        GameResult game = new GameResult(port, rules, thinkMillis, watching);
+        Thread gameThread = new Thread(game, "bench-game");
+        gameThread.start();
+        while (server.getMetrics().getLiveSessions() == 0) {
+            Thread.sleep(10);
+        }
+        
+        CountDownLatch finished = new CountDownLatch(spectators);
+        List<Watcher> watchers = new ArrayList<>();
+        long joinStart = System.nanoTime();
+        for (int i = 0; i < spectators; i++) {
+            Watcher watcher = new Watcher(port, finished);
+            watchers.add(watcher);
+            Thread.ofVirtual().start(watcher);
+        }
+        List<Socket> stalledSockets = new ArrayList<>();
+        for (int i = 0; i < stalled; i++) {
+            stalledSockets.add(stalledWatcher(port));
+        }
+        while (server.getSpectatorCount() < spectators + stalled
+                && System.nanoTime() - joinStart < TimeUnit.SECONDS.toNanos(60)) {
+            Thread.sleep(10);
+        }
+        long joinMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - joinStart);
+        int joined = server.getSpectatorCount();
+        watching.countDown();
+        
+        gameThread.join();
+        boolean completed = finished.await(1, TimeUnit.MINUTES);
+        
+        report.print(String.format("%-17s: ", joined + " izleyiciyle"));
+        printLatency(report, game.latencies.snapshot());
+        report.println("Katılma          : " + joined + " izleyici " + joinMillis + " ms'de");
+        
+        long updates = 0;
+        int gaps = 0;
+        int gameOvers = 0;
+        int minUpdates = Integer.MAX_VALUE;
+        for (Watcher watcher : watchers) {
+            updates += watcher.updates;
+            gaps += watcher.gaps;
+            minUpdates = Math.min(minUpdates, watcher.updates);
+            if (watcher.gameOver) {
+                gameOvers++;
+            }
+        }
+        ServerMetrics metrics = server.getMetrics();
+        report.println("Güncelleme       : " + updates + " (izleyici başına en az " + minUpdates + "), sıra boşluğu "
+                + gaps + ", oyun sonunu alan " + gameOvers + "/" + spectators + (completed ? "" : " (zaman aşımı)"));
+        report.println("Paylaşılan çerçeve: " + metrics.getSpectatorEncodes() + " kodlandı, "
+                + metrics.getSpectatorFrames() + " izleyici kuyruğuna eklendi");
+        report.println("Yavaş izleyici   : " + metrics.getSpectatorDowngrades() + " düşürüldü, "
+                + metrics.getSpectatorRecoveries() + " döndü, " + metrics.getSpectatorDrops() + " kapatıldı");
+        LatencyStats.Snapshot fanOut = metrics.getFanOutLatency();
+        report.printf("Dağıtım (µs)     : n=%d ort=%.1f p50=%.1f p99=%.1f max=%.1f%n", fanOut.getCount(),
+                fanOut.getMean() / 1_000, fanOut.percentile(0.50) / 1_000.0, fanOut.percentile(0.99) / 1_000.0,
+                fanOut.getMax() / 1_000.0);
+        
+        for (Socket socket : stalledSockets) {
+            socket.close();
+        }
+        server.shutdown();
+        System.exit(0);
+    }
+    
+    private static LatencyStats.Snapshot playGame(int port, GameRules rules, long thinkMillis, CountDownLatch start)
+            throws InterruptedException {
+        GameResult game = new GameResult(port, rules, thinkMillis, start);
+        game.run();
+        return game.latencies.snapshot();
+    }
+    
+    private static void printLatency(PrintStream report, LatencyStats.Snapshot latencies) {
+        report.printf("%d hamle, gecikme p50=%.2f ms p99=%.2f ms max=%.2f ms%n", latencies.getCount(),
+                latencies.percentile(0.50) / 1e6, latencies.percentile(0.99) / 1e6, latencies.getMax() / 1e6);
+    }
+    
+    /**
+     * Hiç okumayan izleyici; alma tamponu küçültülür ki sunucu tarafında hemen birikme olsun
+     */
+    private static Socket stalledWatcher(int port) throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(4096);
+        socket.connect(new java.net.InetSocketAddress("127.0.0.1", port));
+        OutputStream out = socket.getOutputStream();
+        send(out, FrameCodec.encodeText(Message.generateMessage(MessageType.CONNECTION_REQUEST,
+                "CONNECT:" + Message.WATCH_OPTION)));
+        send(out, FrameCodec.encodeText(Message.generateMessage(MessageType.SPECTATE, "")));
+        return socket;
+    }
+    
+    private static void send(OutputStream out, ByteBuffer frame) throws IOException {
+        FrameCodec.writeFrame(out, frame);
+        BufferPool.SHARED.release(frame);
+        out.flush();
+    }
+    
+    /**
+     * İki oyuncuyu aynı oyunda eşleştirip oyunu sonuna kadar oynatır
+     */
+    private static final class GameResult implements Runnable {
+        private final int port;
+        private final GameRules rules;
+        private final long thinkMillis;
+        private final CountDownLatch start;
+        private final LatencyStats latencies = new LatencyStats();
+        
+        GameResult(int port, GameRules rules, long thinkMillis, CountDownLatch start) {
+            this.port = port;
+            this.rules = rules;
+            this.thinkMillis = thinkMillis;
+            this.start = start;
+        }
+        
+        @Override
+        public void run() {
+            Player first = new Player(port, rules, thinkMillis, start, latencies);
+            Player second = new Player(port, rules, thinkMillis, start, latencies);
+            Thread firstThread = new Thread(first, "bench-player-1");
+            Thread secondThread = new Thread(second, "bench-player-2");
+            firstThread.start();
+            secondThread.start();
+            try {
+                firstThread.join();
+                secondThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Sırası geldikçe rakip tahtasını baştan sona tarayan oyuncu. Hamle
+     * gecikmesi, hamlenin gönderilmesinden sıra bildiriminin gelmesine kadar ölçülür.
+     */
+    private static final class Player implements Runnable {
+        private final int port;
+        private final GameRules rules;
+        private final long thinkMillis;
+        private final CountDownLatch start;
+        private final LatencyStats latencies;
+        private final AtomicLong sentAt = new AtomicLong();
+        
+        Player(int port, GameRules rules, long thinkMillis, CountDownLatch start, LatencyStats latencies) {
+            this.port = port;
+            this.rules = rules;
+            this.thinkMillis = thinkMillis;
+            this.start = start;
+            this.latencies = latencies;
+        }
+        
+        @Override
+        public void run() {
+            try (Socket socket = new Socket("127.0.0.1", port)) {
+                socket.setTcpNoDelay(true);
+                OutputStream out = socket.getOutputStream();
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                send(out, FrameCodec.encodeText(Message.generateMessage(MessageType.CONNECTION_REQUEST, "CONNECT")));
+                int playerId = -1;
+                int nextCell = 0;
+                int cells = rules.getWidth() * rules.getHeight();
+                while (true) {
+                    ByteBuffer payload = FrameCodec.readFrame(in);
+                    if (payload == null) {
+                        return;
+                    }
+                    Message.ParsedMessage msg = Message.parseMessage(FrameCodec.decodeText(payload));
+                    BufferPool.SHARED.release(payload);
+                    
+                    if (msg.getType() == MessageType.CONNECTION_REQUEST && msg.getData().startsWith("OK:")) {
+                        playerId = Integer.parseInt(msg.getData().split(":")[1]);
+                    } else if (msg.getType() == MessageType.GAME_OVER) {
+                        return;
+                    } else if (msg.getType() == MessageType.GAME_UPDATE
+                            && (msg.getData().equals("Sıra sizde") || msg.getData().equals("Rakibin sırası"))) {
+                        long sent = sentAt.getAndSet(0);
+                        if (sent != 0) {
+                            latencies.record(System.nanoTime() - sent);
+                        }
+                        if (msg.getData().equals("Sıra sizde") && nextCell < cells) {
+                            start.await();
+                            Thread.sleep(thinkMillis);
+                            Move move = new Move(nextCell % rules.getWidth(), nextCell / rules.getWidth(), playerId);
+                            nextCell++;
+                            sentAt.set(System.nanoTime());
+                            send(out, FrameCodec.encodeText(Message.generateMessage(MessageType.MOVE, move.toString())));
+                        }
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                System.err.println("Oyuncu hatası: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Süren oyunu ikili protokolde izleyen istemci; fark mesajlarının sıra
+     * numaralarında boşluk olup olmadığını denetler
+     */
+    private static final class Watcher implements Runnable {
+        private final int port;
+        private final CountDownLatch finished;
+        private int updates = 0;
+        private int gaps = 0;
+        private int sequence = -1;
+        private boolean gameOver = false;
+        
+        Watcher(int port, CountDownLatch finished) {
+            this.port = port;
+            this.finished = finished;
+        }
+        
+        @Override
+        public void run() {
+            try (Socket socket = new Socket("127.0.0.1", port)) {
+                OutputStream out = socket.getOutputStream();
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                send(out, FrameCodec.encodeText(Message.generateMessage(MessageType.CONNECTION_REQUEST,
+                        "CONNECT:" + BinaryProtocol.CAPABILITY + ":" + Message.WATCH_OPTION)));
+                // Bağlantı yanıtı metin olarak gelir; sonrası ikili protokoldür
+                BufferPool.SHARED.release(FrameCodec.readFrame(in));
+                send(out, BinaryProtocol.encodeText(MessageType.SPECTATE, ""));
+                while (!gameOver) {
+                    ByteBuffer payload = FrameCodec.readFrame(in);
+                    if (payload == null) {
+                        return;
+                    }
+                    read(payload);
+                    BufferPool.SHARED.release(payload);
+                }
+            } catch (IOException e) {
+                System.err.println("İzleyici hatası: " + e.getMessage());
+            } finally {
+                finished.countDown();
+            }
+        }
+        
+        private void read(ByteBuffer payload) {
+            MessageType type = BinaryProtocol.readType(payload);
+            if (type == MessageType.GAME_OVER) {
+                gameOver = true;
+            } else if (type == MessageType.GAME_UPDATE) {
+                byte kind = payload.get();
+                if (kind == BinaryProtocol.UPDATE_BOARD_DELTA) {
+                    int next = payload.getInt();
+                    if (sequence >= 0 && next != sequence + 1) {
+                        gaps++;
+                    }
+                    sequence = next;
+                    updates++;
+                } else if (kind == BinaryProtocol.UPDATE_BOARDS || kind == BinaryProtocol.UPDATE_SPARSE_BOARDS) {
+                    sequence = payload.getInt();
+                }
+            }
+        }
+    }
+}
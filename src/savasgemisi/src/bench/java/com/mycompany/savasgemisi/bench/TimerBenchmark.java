@@ -0,0 +1,121 @@
+package com.mycompany.savasgemisi.bench;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.mycompany.savasgemisi.server.HashedWheelTimer;
+import com.mycompany.savasgemisi.server.LatencyStats;
+
+/**
+ * Sunucunun ortak zamanlayıcısını (HashedWheelTimer) JDK'nın
+ * ScheduledThreadPoolExecutor'ı ile karşılaştıran program. Her bağlantının
+ * bir yoklama kontrolü, her oturumun bir hamle süresi beklettiği durumu
+ * taklit eder: çok sayıda uzun süreli zaman aşımı zamanlanır, çoğu
+ * süresi dolmadan iptal edilir (hamle yapıldı, bağlantı kapandı), kalanlar
+ * çalışır. Zamanlama ve iptal hızı, zaman aşımı başına bellek, iptal
+ * sonrası bekleyen (sızan) görev sayısı ve görevlerin ne kadar geç
+ * çalıştığı raporlanır.
+ *
+ * Kullanım: java -cp target/classes com.mycompany.savasgemisi.bench.TimerBenchmark
+ *           [zaman aşımı sayısı] [çalışacak görevlerin süresi (ms)]
+ */
+public class TimerBenchmark {
+    /** İptal edilen zaman aşımlarının süresi; ölçüm sırasında hiçbiri çalışmaz */
+    private static final long LONG_DELAY_MILLIS = 60_000;
+    
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long fireDelayMillis = args.length > 1 ? Long.parseLong(args[1]) : 2_000;
+        System.out.println("Zaman aşımı      : " + count + " (her 10 görevden 1'i " + fireDelayMillis
+                + " ms sonra çalışır, diğerleri iptal edilir)");
+        
+        wheel(count, fireDelayMillis);
+        System.gc();
+        scheduledExecutor(count, fireDelayMillis);
+    }
+    
+    private static void wheel(int count, long fireDelayMillis) throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer("bench-wheel");
+        HashedWheelTimer.Timeout[] timeouts = new HashedWheelTimer.Timeout[count];
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            timeouts[i] = timer.schedule(TimerBenchmark::noop, i % 10 == 0 ? fireDelayMillis : LONG_DELAY_MILLIS);
+        }
+        long scheduleNanos = System.nanoTime() - start;
+        // Eklemeler çark thread'inde kovalara aktarılsın; bellek o hâliyle ölçülür
+        Thread.sleep(2 * timer.getTickMillis());
+        long heapAfter = usedHeap();
+        
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            if (i % 10 != 0) {
+                timeouts[i].cancel();
+            }
+        }
+        long cancelNanos = System.nanoTime() - start;
+        Thread.sleep(fireDelayMillis + 3 * timer.getTickMillis());
+        
+        System.out.println("HashedWheelTimer (tık " + timer.getTickMillis() + " ms):");
+        report(count, scheduleNanos, cancelNanos, heapAfter - heapBefore);
+        System.out.printf("  bekleyen       : %d (çalışan %d, iptal edilen %d)%n",
+                timer.getPending(), timer.getExpired(), timer.getCancelled());
+        printLatency("  gecikme (ms)   ", timer.getLateness());
+        printLatency("  tık süresi (ms)", timer.getTickDuration());
+        timer.stop();
+    }
+    
+    private static void scheduledExecutor(int count, long fireDelayMillis) throws InterruptedException {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        LatencyStats lateness = new LatencyStats();
+        ScheduledFuture<?>[] futures = new ScheduledFuture<?>[count];
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            long delay = i % 10 == 0 ? fireDelayMillis : LONG_DELAY_MILLIS;
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+            futures[i] = executor.schedule(() -> lateness.record(System.nanoTime() - deadline),
+                    delay, TimeUnit.MILLISECONDS);
+        }
+        long scheduleNanos = System.nanoTime() - start;
+        long heapAfter = usedHeap();
+        
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            if (i % 10 != 0) {
+                futures[i].cancel(false);
+            }
+        }
+        long cancelNanos = System.nanoTime() - start;
+        Thread.sleep(fireDelayMillis + 300);
+        
+        System.out.println("ScheduledThreadPoolExecutor:");
+        report(count, scheduleNanos, cancelNanos, heapAfter - heapBefore);
+        System.out.printf("  bekleyen       : %d (tamamlanan %d)%n",
+                executor.getQueue().size(), executor.getCompletedTaskCount());
+        printLatency("  gecikme (ms)   ", lateness.snapshot());
+        executor.shutdownNow();
+    }
+    
+    private static void report(int count, long scheduleNanos, long cancelNanos, long heapBytes) {
+        System.out.printf("  zamanlama      : %.0f ns/görev%n", scheduleNanos / (double) count);
+        System.out.printf("  iptal          : %.0f ns/görev%n", cancelNanos / (count * 0.9));
+        System.out.printf("  bellek         : %d bayt/görev%n", heapBytes / count);
+    }
+    
+    private static void printLatency(String label, LatencyStats.Snapshot latency) {
+        System.out.printf("%s: n=%d p50=%.1f p99=%.1f max=%.1f%n", label, latency.getCount(),
+                latency.percentile(0.50) / 1e6, latency.percentile(0.99) / 1e6, latency.getMax() / 1e6);
+    }
+    
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+    
+    private static void noop() {
+    }
+}
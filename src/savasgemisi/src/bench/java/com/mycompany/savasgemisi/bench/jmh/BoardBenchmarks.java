@@ -0,0 +1,106 @@
+package com.mycompany.savasgemisi.bench.jmh;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+import com.mycompany.savasgemisi.common.GameRules;
+import com.mycompany.savasgemisi.server.BattleshipGame;
+import com.mycompany.savasgemisi.server.Player;
+import com.mycompany.savasgemisi.server.Player.Board;
+import com.mycompany.savasgemisi.server.Player.Board.CellState;
+
+/**
+ * Tahta anlık görüntüsünün metin ve paketlenmiş kodlamaları.
+ * Tahta değişmediğinde kodlamalar önbellekten kopyalanır; "changed"
+ * ölçümleri her işlemde bir hücreyi değiştirerek yeniden kodlamayı ölçer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmarks {
+    /** Tahta kuralları; GameRules.parse biçiminde */
+    @Param({"10x10:5,4,3,3,2", "100x100:5,4,3,3,2"})
+    private String rules;
+    
+    private Board board;
+    private String serialized;
+    private ByteBuffer out;
+    /** Değiştirilecek hücre; gemi içermeyen bir hücre seçilir */
+    private int flipX;
+    private int flipY;
+    private boolean flipped;
+    
+    @Setup
+    public void setup() {
+        GameRules gameRules = GameRules.parse(rules);
+        BattleshipGame game = new BattleshipGame(gameRules, 42L);
+        Player player1 = new Player(1, "Oyuncu 1");
+        Player player2 = new Player(2, "Oyuncu 2");
+        game.setPlayer1(player1);
+        game.setPlayer2(player2);
+        game.initializeBoards();
+        game.placeShips(player1);
+        board = player1.getBoard();
+        board.fire(0, 0);
+        board.fire(gameRules.getWidth() - 1, gameRules.getHeight() - 1);
+        serialized = board.serialize();
+        int cells = gameRules.getWidth() * gameRules.getHeight();
+        out = ByteBuffer.allocate(Math.max(cells, BinaryProtocol.packedBoardLength(cells)));
+        int empty = serialized.indexOf('0');
+        flipX = empty % gameRules.getWidth();
+        flipY = empty / gameRules.getWidth();
+    }
+    
+    private void change() {
+        flipped = !flipped;
+        board.setCell(flipX, flipY, flipped ? CellState.MISS : CellState.EMPTY);
+    }
+    
+    @Benchmark
+    public String serialize() {
+        return board.serialize();
+    }
+    
+    @Benchmark
+    public String serializeChanged() {
+        change();
+        return board.serialize();
+    }
+    
+    @Benchmark
+    public ByteBuffer writePacked() {
+        out.clear();
+        board.writePacked(out);
+        return out;
+    }
+    
+    @Benchmark
+    public ByteBuffer writePackedChanged() {
+        change();
+        out.clear();
+        board.writePacked(out);
+        return out;
+    }
+    
+    @Benchmark
+    public Board deserialize() {
+        board.deserialize(serialized);
+        return board;
+    }
+}
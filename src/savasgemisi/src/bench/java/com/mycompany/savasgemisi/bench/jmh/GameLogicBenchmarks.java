@@ -0,0 +1,104 @@
+package com.mycompany.savasgemisi.bench.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mycompany.savasgemisi.common.GameRules;
+import com.mycompany.savasgemisi.server.BattleshipGame;
+import com.mycompany.savasgemisi.server.Player;
+
+/**
+ * Oyun mantığının sıcak yolları: filo yerleşimi, hamle ve zafer kontrolü.
+ * Hamle ölçümünde her oyuncu tahtayı önceden karıştırılmış bir sırayla
+ * tarar; oyun bittiğinde yeni oyun kurulur ve bu maliyet hamlelere
+ * bölünmüş olarak sonuca girer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameLogicBenchmarks {
+    /** Tahta kuralları; GameRules.parse biçiminde */
+    @Param({"10x10:5,4,3,3,2"})
+    private String rules;
+    
+    private GameRules gameRules;
+    private long seed = 1;
+    private BattleshipGame game;
+    /** Oyuncu başına karıştırılmış hücre sırası ve sıradaki atış */
+    private int[][] shotOrders;
+    private int[] nextShot;
+    
+    @Setup
+    public void setup() {
+        gameRules = GameRules.parse(rules);
+        int cells = gameRules.getWidth() * gameRules.getHeight();
+        SplittableRandom random = new SplittableRandom(7);
+        shotOrders = new int[2][cells];
+        for (int[] order : shotOrders) {
+            for (int i = 0; i < cells; i++) {
+                order[i] = i;
+            }
+            for (int i = cells - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+        }
+        nextShot = new int[2];
+        game = newGame();
+    }
+    
+    private BattleshipGame newGame() {
+        BattleshipGame newGame = new BattleshipGame(gameRules, seed++);
+        Player player1 = new Player(1, "Oyuncu 1");
+        Player player2 = new Player(2, "Oyuncu 2");
+        newGame.setPlayer1(player1);
+        newGame.setPlayer2(player2);
+        newGame.initializeBoards();
+        newGame.placeShips(player1);
+        newGame.placeShips(player2);
+        nextShot[0] = 0;
+        nextShot[1] = 0;
+        return newGame;
+    }
+    
+    /**
+     * İki tahta oluşturup filoları yerleştirir
+     */
+    @Benchmark
+    public BattleshipGame placeShips() {
+        return newGame();
+    }
+    
+    @Benchmark
+    public boolean makeMove() {
+        if (game.getState() == BattleshipGame.GameState.GAME_OVER) {
+            game = newGame();
+        }
+        Player player = game.getCurrentPlayerId() == 1 ? game.getPlayer1() : game.getPlayer2();
+        int turn = player.getId() - 1;
+        int cell = shotOrders[turn][nextShot[turn]++];
+        return game.makeMove(player, cell % gameRules.getWidth(), cell / gameRules.getWidth());
+    }
+    
+    @Benchmark
+    public boolean checkVictory() {
+        return game.checkVictory();
+    }
+}
@@ -0,0 +1,31 @@
+package com.mycompany.savasgemisi.bench.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Bu paketteki JMH ölçümlerini GC profilleyicisi açık olarak çalıştırır.
+ * Sonuçlarda süreye ek olarak işlem başına ayrılan bellek
+ * (gc.alloc.rate.norm) ve çöp toplama sayısı raporlanır.
+ * Argümanlar JMH komut satırı seçenekleri olarak yorumlanır; ölçüm adı
+ * verilmezse paketteki tüm ölçümler çalışır.
+ *
+ * Kullanım: mvn -Pbench compile exec:exec@jmh [-Djmh.args="ProtocolBenchmarks -f 2"]
+ */
+public class JmhRunner {
+    
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(JmhRunner.class.getPackageName() + "\\..*");
+        }
+        options.addProfiler(GCProfiler.class);
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package com.mycompany.savasgemisi.bench.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mycompany.savasgemisi.common.Message;
+import com.mycompany.savasgemisi.common.MessageType;
+import com.mycompany.savasgemisi.common.Move;
+
+/**
+ * Metin protokolünün mesaj ve hamle kodlama/ayrıştırma yolları.
+ * Girdiler alan olarak tutulur; JIT bunları sabit sayıp hesabı
+ * derleme zamanına taşıyamaz.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProtocolBenchmarks {
+    private MessageType type = MessageType.MOVE;
+    private String data = "1,3,7";
+    private String message = "MOVE#1,3,7";
+    private String unknownMessage = "FIRE#1,3,7";
+    private Move move = new Move(3, 7, 1);
+    
+    @Benchmark
+    public String generateMessage() {
+        return Message.generateMessage(type, data);
+    }
+    
+    @Benchmark
+    public Message.ParsedMessage parseMessage() {
+        return Message.parseMessage(message);
+    }
+    
+    /**
+     * Bilinmeyen tipte mesaj; hata mesajı üretim yolunu ölçer
+     */
+    @Benchmark
+    public Message.ParsedMessage parseUnknownMessage() {
+        return Message.parseMessage(unknownMessage);
+    }
+    
+    @Benchmark
+    public Move parseMove() {
+        return Move.parse(data);
+    }
+    
+    @Benchmark
+    public String moveToString() {
+        return move.toString();
+    }
+}
@@ -107,7 +107,7 @@ public class Savasgemisi {
                     server.shutdown();
                     break;
                 } else if (command.equalsIgnoreCase("status")) {
-                    System.out.println("Sunucu çalışıyor.");
+                    System.out.println(server.getStatusReport());
                 } else {
                     System.out.println("Bilinmeyen komut. Geçerli komutlar: quit, status");
                 }
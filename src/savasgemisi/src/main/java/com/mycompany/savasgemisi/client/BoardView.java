@@ -0,0 +1,187 @@
+package com.mycompany.savasgemisi.client;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.util.HashMap;
+import java.util.Map;
+import javax.swing.JComponent;
+
+/**
+ * Tek bir oyun tahtasını çizen bileşen.
+ * Hücre başına bir Swing bileşeni oluşturmak yerine tahta tek bileşen
+ * olarak çizilir ve yalnızca boş olmayan hücreler saklanır; çizim yalnızca
+ * görünen bölgedeki hücreleri, güncelleme ise yalnızca değişen hücreyi
+ * yeniden boyar. Böylece büyük tahtalar bir JScrollPane içinde tahta
+ * alanıyla orantılı iş yapmadan gösterilebilir.
+ *
+ * Tüm yöntemler Swing olay thread'inden çağrılmalıdır.
+ */
+public final class BoardView extends JComponent {
+    private static final long serialVersionUID = 1L;
+    /** Küçük tahtalarda bir hücrenin piksel cinsinden en büyük boyutu */
+    private static final int MAX_CELL_SIZE = 30;
+    /** Büyük tahtalarda bir hücrenin piksel cinsinden en küçük boyutu */
+    private static final int MIN_CELL_SIZE = 12;
+    /** Tahtanın kaydırmadan gösterilebileceği piksel boyutu */
+    public static final int VIEWPORT_SIZE = 300;
+    
+    private final boolean isOpponent;
+    private int columns;
+    private int rows;
+    private int cellSize;
+    /** Boş olmayan hücrelerin durumları, hücre numarasına (y * genişlik + x) göre */
+    private final transient Map<Integer, Byte> cells = new HashMap<>();
+    
+    /**
+     * Yeni bir tahta görünümü oluşturur
+     * @param width Tahta genişliği
+     * @param height Tahta yüksekliği
+     * @param isOpponent Rakip tahtası mı? Rakip gemileri gösterilmez
+     */
+    public BoardView(int width, int height, boolean isOpponent) {
+        this.isOpponent = isOpponent;
+        setOpaque(true);
+        setBoardSize(width, height);
+    }
+    
+    /**
+     * Tahtanın hücre cinsinden boyutunu değiştirir ve tüm hücreleri boşaltır.
+     * Component.resize ile karışmaması için adı farklıdır; bileşenin piksel
+     * boyutu yerleşim yöneticisine bırakılır.
+     * @param columns Yeni genişlik (hücre)
+     * @param rows Yeni yükseklik (hücre)
+     */
+    public void setBoardSize(int columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+        this.cellSize = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, VIEWPORT_SIZE / Math.max(columns, rows)));
+        cells.clear();
+        setPreferredSize(new Dimension(columns * cellSize + 1, rows * cellSize + 1));
+        revalidate();
+        repaint();
+    }
+    
+    /**
+     * Tüm hücreleri boşaltır
+     */
+    public void clear() {
+        cells.clear();
+        repaint();
+    }
+    
+    /**
+     * Tüm tahtayı hücre durumu dizisinden yükler
+     * @param states Hücre durumları (0-3), satır satır
+     * @return Dizi uzunluğu tahtaya uyuyorsa true
+     */
+    public boolean setAll(byte[] states) {
+        if (states.length != columns * rows) {
+            return false;
+        }
+        cells.clear();
+        for (int index = 0; index < states.length; index++) {
+            if (states[index] != 0) {
+                cells.put(index, states[index]);
+            }
+        }
+        repaint();
+        return true;
+    }
+    
+    /**
+     * Tek bir hücreyi günceller ve yalnızca o hücreyi yeniden boyar
+     * @param x X koordinatı
+     * @param y Y koordinatı
+     * @param state Yeni hücre durumu (0-3)
+     */
+    public void setCell(int x, int y, int state) {
+        if (x < 0 || x >= columns || y < 0 || y >= rows) {
+            return;
+        }
+        int index = y * columns + x;
+        if (state == 0) {
+            cells.remove(index);
+        } else {
+            cells.put(index, (byte) state);
+        }
+        repaint(x * cellSize, y * cellSize, cellSize + 1, cellSize + 1);
+    }
+    
+    /**
+     * Piksel konumundaki sütunu döndürür
+     * @param pixelX Bileşen içindeki x konumu
+     * @return Sütun; tahta dışındaysa -1
+     */
+    public int columnAt(int pixelX) {
+        int column = pixelX / cellSize;
+        return pixelX >= 0 && column < columns ? column : -1;
+    }
+    
+    /**
+     * Piksel konumundaki satırı döndürür
+     * @param pixelY Bileşen içindeki y konumu
+     * @return Satır; tahta dışındaysa -1
+     */
+    public int rowAt(int pixelY) {
+        int row = pixelY / cellSize;
+        return pixelY >= 0 && row < rows ? row : -1;
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(getCellColor(0));
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        
+        int firstColumn = Math.max(0, clip.x / cellSize);
+        int lastColumn = Math.min(columns - 1, (clip.x + clip.width) / cellSize);
+        int firstRow = Math.max(0, clip.y / cellSize);
+        int lastRow = Math.min(rows - 1, (clip.y + clip.height) / cellSize);
+        
+        for (int y = firstRow; y <= lastRow; y++) {
+            for (int x = firstColumn; x <= lastColumn; x++) {
+                Byte state = cells.get(y * columns + x);
+                if (state != null) {
+                    g.setColor(getCellColor(state));
+                    g.fillRect(x * cellSize, y * cellSize, cellSize, cellSize);
+                }
+            }
+        }
+        
+        g.setColor(Color.GRAY);
+        int right = Math.min(clip.x + clip.width, columns * cellSize);
+        int bottom = Math.min(clip.y + clip.height, rows * cellSize);
+        for (int x = firstColumn; x <= lastColumn + 1; x++) {
+            g.drawLine(x * cellSize, clip.y, x * cellSize, bottom);
+        }
+        for (int y = firstRow; y <= lastRow + 1; y++) {
+            g.drawLine(clip.x, y * cellSize, right, y * cellSize);
+        }
+    }
+    
+    /**
+     * Hücre durumuna göre renk döndürür
+     * @param cellState Hücre durumu (0-EMPTY, 1-SHIP, 2-HIT, 3-MISS)
+     * @return Hücre rengi
+     */
+    private Color getCellColor(int cellState) {
+        // CellState enum değerleri: 0-EMPTY, 1-SHIP, 2-HIT, 3-MISS
+        switch (cellState) {
+            case 0: // EMPTY
+                return Color.BLUE;
+            case 1: // SHIP
+                return isOpponent ? Color.BLUE : Color.DARK_GRAY; // Rakip gemileri gizle
+            case 2: // HIT
+                return Color.RED;
+            case 3: // MISS
+                return Color.WHITE;
+            default:
+                return Color.BLUE;
+        }
+    }
+}
@@ -16,30 +16,35 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
 
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+import com.mycompany.savasgemisi.common.GameRules;
+
 /**
  * İstemci kullanıcı arayüzü sınıfı.
  * Bu sınıf, oyunun grafiksel kullanıcı arayüzünü oluşturur ve yönetir.
  * İki oyun tahtası (oyuncunun kendi tahtası ve rakip tahtası),
- * bağlantı ayarları ve durum bilgisi içerir.
+ * bağlantı ayarları ve durum bilgisi içerir. Tahta boyutu oyun başında
+ * sunucunun bildirdiği kurallara göre ayarlanır.
  */
 public class ClientUI extends JFrame {
-    /** Oyun tahtasının boyutu */
-    private static final int BOARD_SIZE = 10;
-    
-    /** Her bir hücrenin piksel cinsinden boyutu */
-    private static final int CELL_SIZE = 30;
-    
     /** Oyun kontrolcüsü referansı */
     private GameController gameController;
     
-    /** Oyuncunun kendi tahtasını gösteren panel */
-    private JPanel myBoardPanel;
+    /** Oyuncunun kendi tahtasını gösteren bileşen */
+    private BoardView myBoardView;
+    
+    /** Rakip tahtasını gösteren bileşen */
+    private BoardView opponentBoardView;
     
-    /** Rakip tahtasını gösteren panel */
-    private JPanel opponentBoardPanel;
+    /** Gösterilen tahtaların genişliği */
+    private int boardWidth = GameRules.STANDARD.getWidth();
+    
+    /** Gösterilen tahtaların yüksekliği */
+    private int boardHeight = GameRules.STANDARD.getHeight();
     
     /** Durum bilgisini gösteren etiket */
     private JLabel statusLabel;
@@ -56,11 +61,8 @@ public class ClientUI extends JFrame {
     /** Yeni oyun başlatma düğmesi */
     private JButton newGameButton;
     
-    /** Oyuncunun kendi tahtasındaki hücreler */
-    private JPanel[][] myCells = new JPanel[BOARD_SIZE][BOARD_SIZE];
-    
-    /** Rakip tahtasındaki hücreler */
-    private JPanel[][] opponentCells = new JPanel[BOARD_SIZE][BOARD_SIZE];
+    /** Süren bir oyunu izleme düğmesi */
+    private JButton spectateButton;
     
     /** Oyuncu ID bilgisini gösteren etiket */
     private JLabel playerIdLabel;
@@ -96,6 +98,8 @@ public class ClientUI extends JFrame {
         connectButton = new JButton("Bağlan");
         newGameButton = new JButton("Yeni Oyun");
         newGameButton.setEnabled(false);
+        spectateButton = new JButton("İzle");
+        spectateButton.setEnabled(false);
         playerIdLabel = new JLabel("ID: -");
         gameInfoLabel = new JLabel("Oyun Bilgisi: -");
         
@@ -106,6 +110,7 @@ public class ClientUI extends JFrame {
         connectionPanel.add(serverPortField);
         connectionPanel.add(connectButton);
         connectionPanel.add(newGameButton);
+        connectionPanel.add(spectateButton);
         
         JPanel infoPanel = new JPanel();
         infoPanel.add(playerIdLabel);
@@ -120,14 +125,25 @@ public class ClientUI extends JFrame {
         // Sol tahta - Benim tahtam
         JPanel leftPanel = new JPanel(new BorderLayout());
         leftPanel.add(new JLabel("Benim Tahtam", JLabel.CENTER), BorderLayout.NORTH);
-        myBoardPanel = createBoardPanel(false);
-        leftPanel.add(myBoardPanel, BorderLayout.CENTER);
+        myBoardView = new BoardView(boardWidth, boardHeight, false);
+        leftPanel.add(createBoardPanel(myBoardView), BorderLayout.CENTER);
         
         // Sağ tahta - Rakip tahtası
         JPanel rightPanel = new JPanel(new BorderLayout());
         rightPanel.add(new JLabel("Rakip Tahtası", JLabel.CENTER), BorderLayout.NORTH);
-        opponentBoardPanel = createBoardPanel(true);
-        rightPanel.add(opponentBoardPanel, BorderLayout.CENTER);
+        opponentBoardView = new BoardView(boardWidth, boardHeight, true);
+        // Rakip tahtasına tıklanabilir
+        opponentBoardView.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int cellX = opponentBoardView.columnAt(e.getX());
+                int cellY = opponentBoardView.rowAt(e.getY());
+                if (cellX >= 0 && cellY >= 0 && gameController.isGameActive() && gameController.isMyTurn()) {
+                    gameController.handleUserInput(cellX, cellY);
+                }
+            }
+        });
+        rightPanel.add(createBoardPanel(opponentBoardView), BorderLayout.CENTER);
         
         centerPanel.add(leftPanel, BorderLayout.WEST);
         centerPanel.add(rightPanel, BorderLayout.EAST);
@@ -156,6 +172,18 @@ public class ClientUI extends JFrame {
             }
         });
         
+        spectateButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                String sessionId = JOptionPane.showInputDialog(ClientUI.this,
+                        "İzlenecek oyunun numarası (boş bırakılırsa herhangi bir oyun):", "Oyun İzle",
+                        JOptionPane.QUESTION_MESSAGE);
+                if (sessionId != null) {
+                    gameController.requestSpectate(sessionId);
+                }
+            }
+        });
+        
         // Pencere kapandığında bağlantıyı kapat
         addWindowListener(new WindowAdapter() {
             @Override
@@ -170,44 +198,32 @@ public class ClientUI extends JFrame {
     }
     
     /**
-     * Oyun tahtası panelini oluşturur
-     * @param isOpponent Rakip tahtası mı yoksa oyuncunun kendi tahtası mı?
-     * @return Oluşturulan tahta paneli
+     * Tahta görünümünü kaydırılabilir bir panele yerleştirir
+     * @param view Tahta görünümü
+     * @return Tahtayı içeren kaydırma paneli
      */
-    private JPanel createBoardPanel(boolean isOpponent) {
-        JPanel boardPanel = new JPanel(new GridLayout(BOARD_SIZE, BOARD_SIZE));
-        boardPanel.setPreferredSize(new Dimension(BOARD_SIZE * CELL_SIZE, BOARD_SIZE * CELL_SIZE));
-        boardPanel.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-        
-        for (int y = 0; y < BOARD_SIZE; y++) {
-            for (int x = 0; x < BOARD_SIZE; x++) {
-                JPanel cellPanel = new JPanel();
-                cellPanel.setBorder(BorderFactory.createLineBorder(Color.GRAY));
-                cellPanel.setBackground(Color.BLUE);
-                
-                final int cellX = x;
-                final int cellY = y;
-                
-                if (isOpponent) {
-                    // Rakip tahtasına tıklanabilir
-                    cellPanel.addMouseListener(new MouseAdapter() {
-                        @Override
-                        public void mouseClicked(MouseEvent e) {
-                            if (gameController.isGameActive() && gameController.isMyTurn()) {
-                                gameController.handleUserInput(cellX, cellY);
-                            }
-                        }
-                    });
-                    opponentCells[y][x] = cellPanel;
-                } else {
-                    myCells[y][x] = cellPanel;
-                }
-                
-                boardPanel.add(cellPanel);
+    private JScrollPane createBoardPanel(BoardView view) {
+        JScrollPane scrollPane = new JScrollPane(view);
+        scrollPane.setPreferredSize(new Dimension(BoardView.VIEWPORT_SIZE + 20, BoardView.VIEWPORT_SIZE + 20));
+        scrollPane.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+        return scrollPane;
+    }
+    
+    /**
+     * Tahtaların boyutunu ayarlar; boyut değişirse tahtalar boşaltılır
+     * @param width Tahta genişliği
+     * @param height Tahta yüksekliği
+     */
+    public void setBoardSize(int width, int height) {
+        SwingUtilities.invokeLater(() -> {
+            if (width == boardWidth && height == boardHeight) {
+                return;
             }
-        }
-        
-        return boardPanel;
+            boardWidth = width;
+            boardHeight = height;
+            myBoardView.setBoardSize(width, height);
+            opponentBoardView.setBoardSize(width, height);
+        });
     }
     
     /**
@@ -221,57 +237,67 @@ public class ClientUI extends JFrame {
             return;
         }
         
-        String myBoardData = boards[0];
-        String opponentBoardData = boards[1];
-        
-        updateBoard(myBoardData, myCells, false);
-        
-        updateBoard(opponentBoardData, opponentCells, true);
+        displayBoards(toCellStates(boards[0]), toCellStates(boards[1]));
     }
     
     /**
-     * Belirli bir tahtayı günceller
-     * @param boardData Tahta verisi
-     * @param cells Güncellenecek hücreler
-     * @param isOpponent Rakip tahtası mı?
+     * Hücre durumu dizileri olarak gelen oyun tahtalarını günceller
+     * @param myBoard Oyuncunun tahtası (hücre başına 0-3, satır satır)
+     * @param opponentBoard Rakip tahtasının görünen kısmı
      */
-    private void updateBoard(String boardData, JPanel[][] cells, boolean isOpponent) {
-        if (boardData.length() != BOARD_SIZE * BOARD_SIZE) {
-            showMessage("Geçersiz tahta boyutu: " + boardData.length());
-            return;
-        }
-        
-        for (int y = 0; y < BOARD_SIZE; y++) {
-            for (int x = 0; x < BOARD_SIZE; x++) {
-                int index = y * BOARD_SIZE + x;
-                int cellState = Character.getNumericValue(boardData.charAt(index));
-                
-                Color cellColor = getCellColor(cellState, isOpponent);
-                cells[y][x].setBackground(cellColor);
+    public void displayBoards(byte[] myBoard, byte[] opponentBoard) {
+        SwingUtilities.invokeLater(() -> {
+            if (!myBoardView.setAll(myBoard) || !opponentBoardView.setAll(opponentBoard)) {
+                showMessage("Geçersiz tahta boyutu: " + myBoard.length);
             }
+        });
+    }
+    
+    /**
+     * Tahtaları boşaltıp yalnızca işaretli hücreleri uygular
+     * @param cells BinaryProtocol.packChange ile paketlenmiş işaretli hücreler
+     */
+    public void displaySparseBoards(long[] cells) {
+        SwingUtilities.invokeLater(() -> {
+            myBoardView.clear();
+            opponentBoardView.clear();
+            applyChanges(cells);
+        });
+    }
+    
+    /**
+     * Yalnızca değişen hücreleri günceller
+     * @param changes BinaryProtocol.packChange ile paketlenmiş değişiklikler
+     */
+    public void applyCellChanges(long[] changes) {
+        SwingUtilities.invokeLater(() -> applyChanges(changes));
+    }
+    
+    /**
+     * Paketlenmiş hücre değişikliklerini tahta görünümlerine uygular
+     * @param changes BinaryProtocol.packChange ile paketlenmiş değişiklikler
+     */
+    private void applyChanges(long[] changes) {
+        for (long change : changes) {
+            int packed = BinaryProtocol.changeCoordinates(change);
+            boolean isOpponent = BinaryProtocol.changeBoard(change) == BinaryProtocol.BOARD_OPPONENT;
+            BoardView view = isOpponent ? opponentBoardView : myBoardView;
+            view.setCell(BinaryProtocol.unpackX(packed), BinaryProtocol.unpackY(packed),
+                    BinaryProtocol.changeState(change));
         }
     }
     
     /**
-     * Hücre durumuna göre renk döndürür
-     * @param cellState Hücre durumu (0-EMPTY, 1-SHIP, 2-HIT, 3-MISS)
-     * @param isOpponent Rakip tahtası mı?
-     * @return Hücre rengi
+     * Rakamlardan oluşan tahta metnini hücre durumu dizisine çevirir
+     * @param boardData Tahta verisi
+     * @return Hücre durumları
      */
-    private Color getCellColor(int cellState, boolean isOpponent) {
-        // CellState enum değerleri: 0-EMPTY, 1-SHIP, 2-HIT, 3-MISS
-        switch (cellState) {
-            case 0: // EMPTY
-                return Color.BLUE;
-            case 1: // SHIP
-                return isOpponent ? Color.BLUE : Color.DARK_GRAY; // Rakip gemileri gizle
-            case 2: // HIT
-                return Color.RED;
-            case 3: // MISS
-                return Color.WHITE;
-            default:
-                return Color.BLUE;
+    private static byte[] toCellStates(String boardData) {
+        byte[] cells = new byte[boardData.length()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) Character.getNumericValue(boardData.charAt(i));
         }
+        return cells;
     }
     
     /**
@@ -284,6 +310,7 @@ public class ClientUI extends JFrame {
             if (status.contains("bağlandı")) {
                 connectButton.setEnabled(false);
                 newGameButton.setEnabled(true);
+                spectateButton.setEnabled(true);
             }
         });
     }
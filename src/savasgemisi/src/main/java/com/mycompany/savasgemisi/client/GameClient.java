@@ -1,13 +1,19 @@
 package com.mycompany.savasgemisi.client;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
 
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+import com.mycompany.savasgemisi.common.BufferPool;
+import com.mycompany.savasgemisi.common.FrameCodec;
 import com.mycompany.savasgemisi.common.Message;
 import com.mycompany.savasgemisi.common.MessageType;
+import com.mycompany.savasgemisi.common.Move;
 
 /**
  * İstemci tarafı ana sınıfı.
@@ -17,17 +23,23 @@ public class GameClient extends Thread {
     private Socket socket;
     private OutputStream output;
     private InputStream input;
-    private GameController controller;
+    /** Arayüz ve okuma thread'lerinin yazmalarını sıraya koyar */
+    private final Object writeLock = new Object();
+    private GameClientListener listener;
     private boolean connected = false;
-    private boolean running = true;
+    private volatile boolean running = true;
     private int clientId = -1;
+    /** Sunucu ikili protokolü kabul etti mi? */
+    private volatile boolean binary = false;
+    /** Sunucunun verdiği devam anahtarı (onaltılık); sunucu yeniden başlarsa oyuna bununla dönülür */
+    private volatile String resumeToken;
     
     /**
      * Yeni bir istemci oluşturur
-     * @param controller Oyun kontrolcüsü
+     * @param listener Sunucu mesajlarının iletileceği dinleyici
      */
-    public GameClient(GameController controller) {
-        this.controller = controller;
+    public GameClient(GameClientListener listener) {
+        this.listener = listener;
     }
     
     /**
@@ -38,12 +50,29 @@ public class GameClient extends Thread {
      * @throws IOException Bağlantı kurulamazsa
      */
     public void connectToServer(String ip, int port) throws UnknownHostException, IOException {
+        connectToServer(ip, port, null);
+    }
+    
+    /**
+     * Sunucuya bağlanır; devam anahtarı verilirse sunucudan kopan oyuna dönmesini ister
+     * @param ip Sunucu IP adresi
+     * @param port Sunucu port numarası
+     * @param resumeToken Önceki bağlantıda alınan devam anahtarı; null ise yeni oyuncu olarak bağlanılır
+     * @throws UnknownHostException Sunucu bulunamazsa
+     * @throws IOException Bağlantı kurulamazsa
+     */
+    public void connectToServer(String ip, int port, String resumeToken) throws UnknownHostException, IOException {
         this.socket = new Socket(ip, port);
+        this.socket.setTcpNoDelay(true);
         this.output = socket.getOutputStream();
-        this.input = socket.getInputStream();
+        this.input = new BufferedInputStream(socket.getInputStream());
         this.connected = true;
         
-        sendMessage(Message.generateMessage(MessageType.CONNECTION_REQUEST, "CONNECT"));
+        String request = "CONNECT:" + BinaryProtocol.CAPABILITY + ":" + Message.TOKEN_REQUEST_OPTION;
+        if (resumeToken != null) {
+            request += ":" + Message.RESUME_OPTION + resumeToken;
+        }
+        sendMessage(Message.generateMessage(MessageType.CONNECTION_REQUEST, request));
     }
     
     /**
@@ -56,10 +85,63 @@ public class GameClient extends Thread {
             throw new IOException("Sunucuya bağlı değil");
         }
         
-        byte[] msgBytes = msg.getBytes();
-        output.write(msgBytes.length);
-        output.write(msgBytes);
-        output.flush();
+        ByteBuffer frame;
+        if (binary) {
+            Message.ParsedMessage parsedMsg = Message.parseMessage(msg);
+            frame = BinaryProtocol.encodeText(parsedMsg.getType(), parsedMsg.getData());
+        } else {
+            frame = FrameCodec.encodeText(msg);
+        }
+        writeFrame(frame);
+    }
+    
+    /**
+     * Sunucuya hamle gönderir
+     * @param move Gönderilecek hamle
+     * @throws IOException Mesaj gönderilemezse
+     */
+    public void sendMove(Move move) throws IOException {
+        if (!connected) {
+            throw new IOException("Sunucuya bağlı değil");
+        }
+        
+        if (binary) {
+            writeFrame(BinaryProtocol.encodeMove(move));
+        } else {
+            writeFrame(FrameCodec.encodeText(Message.generateMessage(MessageType.MOVE, move.toString())));
+        }
+    }
+    
+    /**
+     * Sunucudan tam tahta ister. Yalnızca ikili protokolde anlamlıdır;
+     * metin protokolünde her güncelleme zaten tam tahtadır.
+     * @throws IOException Mesaj gönderilemezse
+     */
+    public void requestBoardSync() throws IOException {
+        if (!connected) {
+            throw new IOException("Sunucuya bağlı değil");
+        }
+        
+        if (binary) {
+            writeFrame(BinaryProtocol.encodeUpdate(BinaryProtocol.UPDATE_RESYNC));
+        }
+    }
+    
+    /**
+     * Çerçeveyi sokete yazar ve tamponu havuza geri verir. Yoklama yanıtları
+     * okuma thread'inden yazıldığı için yazmalar birbirine karışmasın diye kilitlenir.
+     * @param frame Gönderilecek çerçeve
+     * @throws IOException Yazma hatası durumunda
+     */
+    private void writeFrame(ByteBuffer frame) throws IOException {
+        try {
+            synchronized (writeLock) {
+                FrameCodec.writeFrame(output, frame);
+                output.flush();
+            }
+        } finally {
+            BufferPool.SHARED.release(frame);
+        }
     }
     
     /**
@@ -86,40 +168,151 @@ public class GameClient extends Thread {
                     handleConnectionResponse(data);
                     break;
                 case GAME_START:
-                    controller.notifyGameStart(data);
+                    listener.notifyGameStart(data);
                     break;
                 case GAME_UPDATE:
-                    controller.updateGameState(data);
+                    handleTextUpdate(data);
                     break;
                 case GAME_OVER:
-                    controller.notifyGameOver(data);
+                    listener.notifyGameOver(data);
                     break;
                 case ERROR:
-                    controller.showError(data);
+                    listener.showError(data);
+                    break;
+                case HEARTBEAT:
+                    answerHeartbeat(data);
                     break;
                 default:
                     System.out.println("Tanınmayan mesaj tipi: " + type);
             }
         } catch (Exception e) {
             System.err.println("Mesaj ayrıştırılırken hata: " + e.getMessage());
-            controller.showError("Mesaj ayrıştırma hatası: " + e.getMessage());
+            listener.showError("Mesaj ayrıştırma hatası: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Sunucunun yoklamasını yanıtlar; yanıt vermeyen bağlantılar sunucu
+     * tarafından boşta sayılıp kapatılır
+     * @param data Yoklama verisi
+     * @throws IOException Yanıt gönderilemezse
+     */
+    private void answerHeartbeat(String data) throws IOException {
+        if (data.equals(Message.HEARTBEAT_PING)) {
+            sendMessage(Message.generateMessage(MessageType.HEARTBEAT, Message.HEARTBEAT_PONG));
+        }
+    }
+    
+    /**
+     * Metin protokolündeki sıra bildirimlerini ikili protokoldeki karşılıklarına
+     * dönüştürür; diğer güncellemeler olduğu gibi iletilir
+     * @param data Güncelleme verisi
+     */
+    private void handleTextUpdate(String data) {
+        if (data.equals("Sıra sizde")) {
+            listener.updateTurn(true);
+        } else if (data.equals("Rakibin sırası")) {
+            listener.updateTurn(false);
+        } else {
+            listener.updateGameState(data);
         }
     }
     
     /**
-     * Bağlantı yanıtını işler
+     * İkili protokolde gelen mesajı ayrıştırır ve uygun işleyiciye yönlendirir
+     * @param payload Mesaj baytları
+     */
+    private void parseBinaryMessage(ByteBuffer payload) {
+        try {
+            MessageType type = BinaryProtocol.readType(payload);
+            if (type != MessageType.GAME_UPDATE) {
+                String data = FrameCodec.decodeText(payload);
+                switch (type) {
+                    case GAME_START:
+                        listener.notifyGameStart(data);
+                        break;
+                    case GAME_OVER:
+                        listener.notifyGameOver(data);
+                        break;
+                    case ERROR:
+                        listener.showError(data);
+                        break;
+                    case HEARTBEAT:
+                        answerHeartbeat(data);
+                        break;
+                    default:
+                        System.out.println("Tanınmayan mesaj tipi: " + type);
+                }
+                return;
+            }
+            
+            byte kind = payload.get();
+            switch (kind) {
+                case BinaryProtocol.UPDATE_TEXT:
+                    listener.updateGameState(FrameCodec.decodeText(payload));
+                    break;
+                case BinaryProtocol.UPDATE_BOARDS:
+                    int snapshotSequence = payload.getInt();
+                    int width = payload.getShort() & 0xFFFF;
+                    int height = payload.getShort() & 0xFFFF;
+                    byte[] myBoard = BinaryProtocol.unpackBoard(payload, width * height);
+                    byte[] opponentBoard = BinaryProtocol.unpackBoard(payload, width * height);
+                    listener.updateBoards(snapshotSequence, width, height, myBoard, opponentBoard);
+                    break;
+                case BinaryProtocol.UPDATE_SPARSE_BOARDS:
+                    int sparseSequence = payload.getInt();
+                    int sparseWidth = payload.getShort() & 0xFFFF;
+                    int sparseHeight = payload.getShort() & 0xFFFF;
+                    listener.updateSparseBoards(sparseSequence, sparseWidth, sparseHeight,
+                            BinaryProtocol.decodeSparseCells(payload));
+                    break;
+                case BinaryProtocol.UPDATE_BOARD_DELTA:
+                    int deltaSequence = payload.getInt();
+                    listener.applyBoardChanges(deltaSequence, BinaryProtocol.decodeBoardChanges(payload));
+                    break;
+                case BinaryProtocol.UPDATE_YOUR_TURN:
+                    listener.updateTurn(true);
+                    break;
+                case BinaryProtocol.UPDATE_OPPONENT_TURN:
+                    listener.updateTurn(false);
+                    break;
+                case BinaryProtocol.UPDATE_MOVE_RESULT:
+                    int packed = payload.getInt();
+                    int result = payload.get();
+                    listener.notifyMoveResult(BinaryProtocol.unpackX(packed), BinaryProtocol.unpackY(packed),
+                            result != BinaryProtocol.RESULT_MISS, result == BinaryProtocol.RESULT_SUNK);
+                    break;
+                default:
+                    System.out.println("Tanınmayan güncelleme türü: " + kind);
+            }
+        } catch (Exception e) {
+            System.err.println("Mesaj ayrıştırılırken hata: " + e.getMessage());
+            listener.showError("Mesaj ayrıştırma hatası: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Bağlantı yanıtını işler. Yanıtta ":BIN" varsa sonraki tüm mesajlar
+     * ikili protokolde okunur; "TOKEN=" ile gelen devam anahtarı saklanır.
      * @param data Sunucudan gelen yanıt verisi
      */
     private void handleConnectionResponse(String data) {
         if (data.startsWith("OK:")) {
             try {
-                clientId = Integer.parseInt(data.substring(3));
-                controller.notifyConnected(clientId);
+                String[] parts = data.split(":");
+                clientId = Integer.parseInt(parts[1]);
+                binary = parts.length > 2 && parts[2].equals(BinaryProtocol.CAPABILITY);
+                for (String part : parts) {
+                    if (part.startsWith(Message.TOKEN_OPTION)) {
+                        resumeToken = part.substring(Message.TOKEN_OPTION.length());
+                    }
+                }
+                listener.notifyConnected(clientId);
             } catch (NumberFormatException e) {
                 System.err.println("Geçersiz istemci ID: " + data);
             }
         } else {
-            controller.showError("Bağlantı hatası: " + data);
+            listener.showError("Bağlantı hatası: " + data);
         }
     }
     
@@ -130,19 +323,28 @@ public class GameClient extends Thread {
     public void run() {
         try {
             while (running && socket.isConnected()) {
-                int size = input.read();
-                if (size == -1) break;
-                
-                byte[] buffer = new byte[size];
-                input.read(buffer);
-                String message = new String(buffer);
+                ByteBuffer payload = FrameCodec.readFrame(input);
+                if (payload == null) {
+                    if (running) {
+                        listener.notifyDisconnected("Sunucu bağlantıyı kapattı");
+                    }
+                    break;
+                }
                 
-                parseServerMessage(message);
+                try {
+                    if (binary) {
+                        parseBinaryMessage(payload);
+                    } else {
+                        parseServerMessage(FrameCodec.decodeText(payload));
+                    }
+                } finally {
+                    BufferPool.SHARED.release(payload);
+                }
             }
         } catch (IOException e) {
             if (running) {
                 System.err.println("Sunucu dinleme hatası: " + e.getMessage());
-                controller.notifyDisconnected("Sunucu bağlantısı kesildi: " + e.getMessage());
+                listener.notifyDisconnected("Sunucu bağlantısı kesildi: " + e.getMessage());
             }
         } finally {
             disconnect();
@@ -179,4 +381,12 @@ public class GameClient extends Thread {
     public int getClientId() {
         return clientId;
     }
+    
+    /**
+     * Sunucunun bağlantı yanıtında verdiği devam anahtarını döndürür
+     * @return Devam anahtarı; sunucu vermediyse null
+     */
+    public String getResumeToken() {
+        return resumeToken;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.mycompany.savasgemisi.client;
+
+/**
+ * GameClient'ın sunucudan gelen mesajları ilettiği arayüz.
+ * Metin ve ikili protokol aynı çağrılara dönüştürülür; böylece protokol
+ * kodu kullanıcı arayüzü olmadan da (ör. yük üreten botlarda) kullanılabilir.
+ * Tüm çağrılar GameClient'ın dinleme thread'inden yapılır.
+ */
+public interface GameClientListener {
+    
+    /**
+     * Sunucuya bağlantı başarılı olduğunda çağrılır
+     * @param clientId Sunucudan atanan istemci ID'si
+     */
+    void notifyConnected(int clientId);
+    
+    /**
+     * Oyun başladığında çağrılır
+     * @param data Sunucudan gelen başlangıç verisi; kurallar GameRules.fromStartMessage ile okunur
+     */
+    void notifyGameStart(String data);
+    
+    /**
+     * Başka bir çağrıya karşılık gelmeyen metin güncellemelerini iletir
+     * @param data Sunucudan gelen güncelleme verisi
+     */
+    void updateGameState(String data);
+    
+    /**
+     * Sıra bilgisini iletir
+     * @param myTurn Sıra oyuncuda mı?
+     */
+    void updateTurn(boolean myTurn);
+    
+    /**
+     * İkili protokolden gelen tam tahta durumlarını iletir
+     * @param sequence Tahtaların sıra numarası
+     * @param width Tahta genişliği
+     * @param height Tahta yüksekliği
+     * @param myBoard Oyuncunun tahtası (hücre başına 0-3)
+     * @param opponentBoard Rakip tahtasının görünen kısmı
+     */
+    void updateBoards(int sequence, int width, int height, byte[] myBoard, byte[] opponentBoard);
+    
+    /**
+     * İkili protokolden seyrek biçimde gelen tam tahtaları iletir
+     * @param sequence Tahtaların sıra numarası
+     * @param width Tahta genişliği
+     * @param height Tahta yüksekliği
+     * @param cells BinaryProtocol.packChange ile paketlenmiş işaretli hücreler
+     */
+    void updateSparseBoards(int sequence, int width, int height, long[] cells);
+    
+    /**
+     * İkili protokolden gelen tahta değişikliklerini iletir
+     * @param sequence Değişiklikten sonraki tahta sıra numarası
+     * @param changes BinaryProtocol.packChange ile paketlenmiş değişiklikler
+     */
+    void applyBoardChanges(int sequence, long[] changes);
+    
+    /**
+     * İkili protokolden gelen hamle sonucunu iletir
+     * @param x Hamlenin x koordinatı
+     * @param y Hamlenin y koordinatı
+     * @param hit Hamle isabetli mi?
+     * @param sunk Hamle bir gemiyi batırdı mı?
+     */
+    void notifyMoveResult(int x, int y, boolean hit, boolean sunk);
+    
+    /**
+     * Oyun bittiğinde çağrılır
+     * @param data Sunucudan gelen sonuç verisi
+     */
+    void notifyGameOver(String data);
+    
+    /**
+     * Sunucudan gelen hata mesajını iletir
+     * @param errorMsg Hata mesajı
+     */
+    void showError(String errorMsg);
+    
+    /**
+     * Sunucu bağlantısı beklenmedik şekilde kesildiğinde çağrılır
+     * @param reason Bağlantının kesilme nedeni
+     */
+    void notifyDisconnected(String reason);
+}
@@ -2,6 +2,7 @@ package com.mycompany.savasgemisi.client;
 
 import java.io.IOException;
 
+import com.mycompany.savasgemisi.common.GameRules;
 import com.mycompany.savasgemisi.common.Message;
 import com.mycompany.savasgemisi.common.MessageType;
 import com.mycompany.savasgemisi.common.Move;
@@ -11,12 +12,30 @@ import com.mycompany.savasgemisi.common.Move;
  * Bu sınıf, kullanıcı arayüzü ile sunucu arasındaki iletişimi yönetir
  * ve oyun mantığını kontrol eder.
  */
-public class GameController {
-    private GameClient client;
+public class GameController implements GameClientListener {
+    /** Bağlantı koptuğunda oyuna dönmek için yapılacak en fazla deneme */
+    private static final int MAX_RECONNECT_ATTEMPTS = 8;
+    /** İlk yeniden bağlanma denemesinden önceki bekleme; her denemede iki katına çıkar */
+    private static final long RECONNECT_BASE_DELAY_MILLIS = 250;
+    private static final long RECONNECT_MAX_DELAY_MILLIS = 5_000;
+    
+    /** Bağlantı koptuğunda yerine yenisi konur; GameClient bir thread olduğu için yeniden başlatılamaz */
+    private volatile GameClient client;
     private ClientUI ui;
     private boolean gameActive = false;
     private int playerId = -1;
     private boolean myTurn = false;
+    /** Gönderilen hamle için sunucudan henüz sıra bilgisi gelmedi mi? */
+    private boolean moveInFlight = false;
+    /** Son uygulanan tahta sıra numarası; -1 ise tam tahta bekleniyor */
+    private int boardSequence = -1;
+    /** Tam tahta isteği gönderildi ve yanıt bekleniyor mu? */
+    private boolean syncRequested = false;
+    /** Son bağlanılan sunucu; yeniden bağlanırken kullanılır */
+    private volatile String serverIP;
+    private volatile int serverPort;
+    /** Sunucunun verdiği son devam anahtarı; oyun sürerken bağlantı koparsa oyuna bununla dönülür */
+    private volatile String resumeToken;
     
     /**
      * Yeni bir oyun kontrolcüsü oluşturur
@@ -28,21 +47,62 @@ public class GameController {
     }
     
     /**
-     * Oyunu başlatır ve sunucuya bağlanır
+     * Oyunu başlatır ve sunucuya bağlanır. Önceki bağlantıdan kalan bir
+     * devam anahtarı varsa sunucudan yarım kalan oyuna dönülmesi istenir.
      */
     public void startGame() {
         ui.updateGameStatus("Sunucuya bağlanılıyor...");
-        String serverIP = ui.getServerIP();
-        int serverPort = ui.getServerPort();
+        serverIP = ui.getServerIP();
+        serverPort = ui.getServerPort();
         
         try {
-            client.connectToServer(serverIP, serverPort);
-            client.listenForMessages();
+            connect(resumeToken);
         } catch (IOException e) {
             ui.showMessage("Bağlantı hatası: " + e.getMessage());
         }
     }
     
+    /**
+     * Yeni bir bağlantı açar ve dinlemeye başlar
+     * @param token Devam anahtarı; null ise yeni oyuncu olarak bağlanılır
+     * @throws IOException Bağlantı kurulamazsa
+     */
+    private void connect(String token) throws IOException {
+        GameClient next = client.getState() == Thread.State.NEW ? client : new GameClient(this);
+        next.connectToServer(serverIP, serverPort, token);
+        client = next;
+        next.listenForMessages();
+    }
+    
+    /**
+     * Bağlantı oyun sırasında koptuğunda arka planda artan aralıklarla
+     * yeniden bağlanıp devam anahtarıyla oyuna dönmeye çalışır. Sunucu
+     * oyuncunun yerini bir süre boş tutar; bu sürede dönülürse oyun
+     * tahtalar ve sıra yeniden gönderilerek kaldığı yerden devam eder.
+     * @param token Devam anahtarı
+     */
+    private void reconnect(String token) {
+        Thread.ofPlatform().name("reconnect").daemon().start(() -> {
+            long delay = RECONNECT_BASE_DELAY_MILLIS;
+            for (int attempt = 1; attempt <= MAX_RECONNECT_ATTEMPTS; attempt++) {
+                try {
+                    Thread.sleep(delay);
+                    connect(token);
+                    return;
+                } catch (IOException e) {
+                    ui.updateGameStatus("Yeniden bağlanılamadı (" + attempt + "/" + MAX_RECONNECT_ATTEMPTS + "): "
+                            + e.getMessage());
+                    delay = Math.min(delay * 2, RECONNECT_MAX_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            gameActive = false;
+            ui.updateGameStatus("Bağlantı kesildi: oyuna dönülemedi.");
+            ui.showMessage("Sunucu bağlantısı kesildi, oyuna dönülemedi.");
+        });
+    }
+    
     /**
      * Kullanıcının hamlesini işler ve sunucuya gönderir
      * @param x Hamlenin x koordinatı
@@ -56,9 +116,9 @@ public class GameController {
         
         try {
             Move move = new Move(x, y, playerId);
-            String moveMsg = Message.generateMessage(MessageType.MOVE, move.toString());
-            client.sendMessage(moveMsg);
+            client.sendMove(move);
             myTurn = false;
+            moveInFlight = true;
         } catch (Exception e) {
             ui.showMessage("Hamle gönderilirken hata: " + e.getMessage());
         }
@@ -68,16 +128,11 @@ public class GameController {
      * Oyun durumunu günceller
      * @param data Sunucudan gelen güncelleme verisi
      */
+    @Override
     public void updateGameState(String data) {
         if (data.startsWith("BOARD:")) {
             String boardData = data.substring("BOARD:".length());
             ui.displayBoard(boardData);
-        } else if (data.equals("Sıra sizde")) {
-            myTurn = true;
-            ui.updateGameStatus("Sıra sizde. Hamle yapın.");
-        } else if (data.equals("Rakibin sırası")) {
-            myTurn = false;
-            ui.updateGameStatus("Rakibin hamlesi bekleniyor...");
         } else if (data.equals("Rakip bekleniyor...")) {
             ui.updateGameStatus("Oyun başlaması için rakip bekleniyor...");
         } else {
@@ -85,13 +140,104 @@ public class GameController {
         }
     }
     
+    /**
+     * Sıra bilgisini günceller
+     * @param myTurn Sıra oyuncuda mı?
+     */
+    @Override
+    public void updateTurn(boolean myTurn) {
+        this.myTurn = myTurn;
+        this.moveInFlight = false;
+        if (myTurn) {
+            ui.updateGameStatus("Sıra sizde. Hamle yapın.");
+        } else {
+            ui.updateGameStatus("Rakibin hamlesi bekleniyor...");
+        }
+    }
+    
+    /**
+     * İkili protokolden gelen tam tahta durumlarını gösterir
+     * @param sequence Tahtaların sıra numarası
+     * @param width Tahta genişliği
+     * @param height Tahta yüksekliği
+     * @param myBoard Oyuncunun tahtası (hücre başına 0-3)
+     * @param opponentBoard Rakip tahtasının görünen kısmı
+     */
+    @Override
+    public void updateBoards(int sequence, int width, int height, byte[] myBoard, byte[] opponentBoard) {
+        boardSequence = sequence;
+        syncRequested = false;
+        ui.setBoardSize(width, height);
+        ui.displayBoards(myBoard, opponentBoard);
+    }
+    
+    /**
+     * İkili protokolden seyrek biçimde gelen tam tahtaları gösterir;
+     * listede olmayan hücreler boştur
+     * @param sequence Tahtaların sıra numarası
+     * @param width Tahta genişliği
+     * @param height Tahta yüksekliği
+     * @param cells BinaryProtocol.packChange ile paketlenmiş işaretli hücreler
+     */
+    @Override
+    public void updateSparseBoards(int sequence, int width, int height, long[] cells) {
+        boardSequence = sequence;
+        syncRequested = false;
+        ui.setBoardSize(width, height);
+        ui.displaySparseBoards(cells);
+    }
+    
+    /**
+     * Yalnızca değişen hücreleri uygular. Sıra numarasında boşluk varsa
+     * değişiklikler atılır ve sunucudan tam tahta istenir.
+     * @param sequence Değişiklikten sonraki tahta sıra numarası
+     * @param changes BinaryProtocol.packChange ile paketlenmiş değişiklikler
+     */
+    @Override
+    public void applyBoardChanges(int sequence, long[] changes) {
+        if (boardSequence < 0 || sequence != boardSequence + 1) {
+            if (!syncRequested) {
+                syncRequested = true;
+                try {
+                    client.requestBoardSync();
+                } catch (IOException e) {
+                    System.err.println("Tahta eşitleme isteği gönderilemedi: " + e.getMessage());
+                }
+            }
+            return;
+        }
+        
+        boardSequence = sequence;
+        ui.applyCellChanges(changes);
+    }
+    
+    /**
+     * Hamle sonucunu gösterir
+     * @param x Hamlenin x koordinatı
+     * @param y Hamlenin y koordinatı
+     * @param hit Hamle isabetli mi?
+     * @param sunk Hamle bir gemiyi batırdı mı?
+     */
+    @Override
+    public void notifyMoveResult(int x, int y, boolean hit, boolean sunk) {
+        ui.updateGameStatus("Hamle: " + x + "," + y + " - " + (hit ? "İSABET!" : "ISKA") + (sunk ? " Gemi battı!" : ""));
+    }
+    
     /**
      * Oyun başlangıcını işler
      * @param data Sunucudan gelen başlangıç verisi
      */
+    @Override
     public void notifyGameStart(String data) {
         System.out.println("notifyGameStart çağrıldı, data: " + data);
         gameActive = true;
+        boardSequence = -1;
+        try {
+            GameRules rules = GameRules.fromStartMessage(data);
+            ui.setBoardSize(rules.getWidth(), rules.getHeight());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Oyun kuralları okunamadı: " + e.getMessage());
+        }
         ui.updateGameStatus("Oyun başladı! " + data);
         ui.setGameInfo(data);
     }
@@ -100,6 +246,7 @@ public class GameController {
      * Oyun sonunu işler
      * @param data Sunucudan gelen sonuç verisi
      */
+    @Override
     public void notifyGameOver(String data) {
         gameActive = false;
         myTurn = false;
@@ -111,8 +258,15 @@ public class GameController {
      * Sunucuya bağlantı başarılı olduğunda çağrılır
      * @param clientId Sunucudan atanan istemci ID'si
      */
+    @Override
     public void notifyConnected(int clientId) {
         this.playerId = clientId;
+        String token = client.getResumeToken();
+        if (resumeToken != null && !resumeToken.equals(token)) {
+            // Sunucu eski anahtarı tanımadı; yarım kalan oyun sona ermiş
+            gameActive = false;
+        }
+        this.resumeToken = token;
         ui.setPlayerId(clientId);
         ui.updateGameStatus("Sunucuya bağlandı. Oyuncu ID: " + clientId);
     }
@@ -121,9 +275,17 @@ public class GameController {
      * Sunucu bağlantısı kesildiğinde çağrılır
      * @param reason Bağlantının kesilme nedeni
      */
+    @Override
     public void notifyDisconnected(String reason) {
-        gameActive = false;
         myTurn = false;
+        moveInFlight = false;
+        String token = resumeToken;
+        if (gameActive && token != null) {
+            ui.updateGameStatus("Bağlantı koptu (" + reason + "), oyuna yeniden bağlanılıyor...");
+            reconnect(token);
+            return;
+        }
+        gameActive = false;
         ui.updateGameStatus("Bağlantı kesildi: " + reason);
         ui.showMessage("Sunucu bağlantısı kesildi: " + reason);
     }
@@ -132,12 +294,19 @@ public class GameController {
      * Hata mesajını kullanıcıya gösterir
      * @param errorMsg Hata mesajı
      */
+    @Override
     public void showError(String errorMsg) {
+        if (moveInFlight && gameActive) {
+            // Hamle işlenmeden reddedildi; sıra hâlâ oyuncuda
+            moveInFlight = false;
+            myTurn = true;
+        }
         ui.showMessage("Hata: " + errorMsg);
     }
     
     /**
-     * Yeni bir oyun başlatma isteği gönderir
+     * Yeni bir oyun başlatma isteği gönderir. Bağlantı yoksa yeniden
+     * bağlanılır; sunucuda yarım kalan oyun varsa ona dönülür.
      */
     public void requestNewGame() {
         if (client.isConnected()) {
@@ -153,6 +322,24 @@ public class GameController {
         }
     }
     
+    /**
+     * Süren bir oyunu izleme isteği gönderir. İzlerken sol tahtada birinci,
+     * sağ tahtada ikinci oyuncunun atış almış tahtası gösterilir; gemiler
+     * oyun bitince görünür.
+     * @param sessionId İzlenecek oturum numarası; boşsa sunucu süren herhangi bir oyunu seçer
+     */
+    public void requestSpectate(String sessionId) {
+        if (client.isConnected()) {
+            try {
+                client.sendMessage(Message.generateMessage(MessageType.SPECTATE, sessionId.trim()));
+            } catch (IOException e) {
+                ui.showMessage("İzleme isteği gönderilirken hata: " + e.getMessage());
+            }
+        } else {
+            ui.showMessage("Sunucuya bağlı değilsiniz.");
+        }
+    }
+    
     /**
      * Sunucu bağlantısını kapatır
      */
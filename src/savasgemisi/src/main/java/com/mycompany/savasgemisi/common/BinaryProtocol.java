@@ -0,0 +1,314 @@
+package com.mycompany.savasgemisi.common;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Metin tabanlı "TYPE#data" biçimine alternatif, sıkıştırılmış ikili protokol.
+ * İstemci bağlantı isteğinde "CONNECT:BIN" gönderir; sunucu "OK:id:BIN" (devam
+ * anahtarı istendiyse "OK:id:BIN:TOKEN=...") ile yanıt verirse bundan sonraki tüm çerçeveler ikili biçimdedir.
+ * Eski istemciler "CONNECT" gönderdiği için metin protokolünde kalır.
+ *
+ * Çerçeve içeriği:
+ * - 1 bayt: MessageType sırası (ordinal); yeni tipler yalnızca sona eklenmelidir
+ * - MOVE: 4 bayt oyuncu ID + 4 bayt paketlenmiş koordinat (x &lt;&lt; 16 | y)
+ * - GAME_UPDATE: 1 bayt güncelleme türü (UPDATE_*) ve türe göre veri
+ * - İstemciden GAME_UPDATE yalnızca UPDATE_RESYNC ile tam tahta istemek için gönderilir
+ * - HEARTBEAT: sunucunun yoklaması "PING", istemcinin yanıtı "PONG" (UTF-8 metin)
+ * - SPECTATE: istemcinin izlemek istediği oturum numarası (UTF-8 metin; boşsa herhangi bir oturum)
+ * - Diğer tipler: UTF-8 metin
+ *
+ * Tahtalar hücre başına 2 bit ile kodlanır (0-EMPTY, 1-SHIP, 2-HIT, 3-MISS);
+ * her baytta 4 hücre bulunur, ilk hücre en düşük bitlerdedir.
+ *
+ * Oyun başında tam tahta (UPDATE_BOARDS) gönderilir; sonraki hamlelerde
+ * yalnızca değişen hücreler (UPDATE_BOARD_DELTA) iletilir. Her iki mesaj da
+ * oturumun tahta sıra numarasını taşır. İstemci beklediği sıra numarasından
+ * farklı bir fark mesajı alırsa UPDATE_RESYNC ile tam tahta ister.
+ * Büyük ve çoğunlukla boş tahtalarda tam tahta yerine yalnızca işaretli
+ * hücreler (UPDATE_SPARSE_BOARDS) gönderilir; istemci tahtaları boş kabul
+ * edip bu hücreleri uygular.
+ */
+public final class BinaryProtocol {
+    /** Bağlantı isteğinde ikili protokolü talep eden yetenek adı */
+    public static final String CAPABILITY = "BIN";
+    
+    /** Serbest metinli durum güncellemesi */
+    public static final byte UPDATE_TEXT = 0;
+    /** Oyuncunun kendi tahtası ve rakip görünümü: 4 bayt sıra numarası, u16 genişlik, u16 yükseklik, iki paketlenmiş tahta */
+    public static final byte UPDATE_BOARDS = 1;
+    /** Sıra oyuncuda */
+    public static final byte UPDATE_YOUR_TURN = 2;
+    /** Sıra rakipte */
+    public static final byte UPDATE_OPPONENT_TURN = 3;
+    /** Hamle sonucu: 4 bayt paketlenmiş koordinat + 1 bayt sonuç (RESULT_*) */
+    public static final byte UPDATE_MOVE_RESULT = 4;
+    /** Değişen hücreler: 4 bayt sıra numarası, u16 hücre sayısı, her hücre için u16 x, u16 y, 1 bayt (tahta &lt;&lt; 2 | durum) */
+    public static final byte UPDATE_BOARD_DELTA = 5;
+    /** İstemcinin tam tahta isteği; veri içermez */
+    public static final byte UPDATE_RESYNC = 6;
+    /** İşaretli hücrelerle tam tahta: 4 bayt sıra numarası, u16 genişlik, u16 yükseklik, 4 bayt hücre sayısı, hücreler fark mesajındaki gibi */
+    public static final byte UPDATE_SPARSE_BOARDS = 7;
+    
+    /** Hamle sonucu: ıska */
+    public static final int RESULT_MISS = 0;
+    /** Hamle sonucu: isabet */
+    public static final int RESULT_HIT = 1;
+    /** Hamle sonucu: isabet ve gemi battı; eski istemciler bunu isabet olarak görür */
+    public static final int RESULT_SUNK = 2;
+    
+    /** Fark mesajında oyuncunun kendi tahtası */
+    public static final int BOARD_OWN = 0;
+    /** Fark mesajında rakip tahtasının görünen kısmı */
+    public static final int BOARD_OPPONENT = 1;
+    /** Fark ve seyrek tahta mesajlarında bir hücrenin bayt uzunluğu */
+    public static final int CELL_ENTRY_LENGTH = 5;
+    
+    private static final MessageType[] TYPES = MessageType.values();
+    
+    private BinaryProtocol() {
+    }
+    
+    /**
+     * Çerçevenin ilk baytından mesaj tipini okur
+     * @param payload Mesaj baytları; konum tipten sonraya ilerler
+     * @return Mesaj tipi; bilinmeyen tipler için ERROR
+     */
+    public static MessageType readType(ByteBuffer payload) {
+        int ordinal = payload.get() & 0xFF;
+        return ordinal < TYPES.length ? TYPES[ordinal] : MessageType.ERROR;
+    }
+    
+    /**
+     * Metin içerikli bir mesajı çerçeveler. GAME_UPDATE için tür UPDATE_TEXT olur.
+     * @param type Mesaj tipi
+     * @param text Mesaj metni
+     * @return Okumaya hazır, havuzdan alınmış çerçeve
+     */
+    public static ByteBuffer encodeText(MessageType type, CharSequence text) {
+        int maxLength = 2 + text.length() * 3;
+        ByteBuffer frame = FrameCodec.beginFrame(maxLength);
+        frame.put((byte) type.ordinal());
+        if (type == MessageType.GAME_UPDATE) {
+            frame.put(UPDATE_TEXT);
+        }
+        FrameCodec.writeUtf8(text, frame);
+        return FrameCodec.endFrame(frame, maxLength);
+    }
+    
+    /**
+     * Veri içermeyen bir GAME_UPDATE türünü çerçeveler
+     * @param kind Güncelleme türü (UPDATE_*)
+     * @return Okumaya hazır, havuzdan alınmış çerçeve
+     */
+    public static ByteBuffer encodeUpdate(byte kind) {
+        ByteBuffer frame = FrameCodec.beginFrame(2);
+        frame.put((byte) MessageType.GAME_UPDATE.ordinal());
+        frame.put(kind);
+        return FrameCodec.endFrame(frame, 2);
+    }
+    
+    /**
+     * Hamleyi sabit uzunlukta çerçeveler
+     * @param move Hamle
+     * @return Okumaya hazır, havuzdan alınmış çerçeve
+     */
+    public static ByteBuffer encodeMove(Move move) {
+        ByteBuffer frame = FrameCodec.beginFrame(9);
+        frame.put((byte) MessageType.MOVE.ordinal());
+        frame.putInt(move.getPlayerId());
+        frame.putInt(packCoordinates(move.getX(), move.getY()));
+        return FrameCodec.endFrame(frame, 9);
+    }
+    
+    /**
+     * Tip baytından sonraki hamle verisini çözer
+     * @param body Hamle verisi
+     * @return Hamle
+     */
+    public static Move decodeMove(ByteBuffer body) {
+        int playerId = body.getInt();
+        int packed = body.getInt();
+        return new Move(unpackX(packed), unpackY(packed), playerId);
+    }
+    
+    /**
+     * Hamle sonucunu çerçeveler
+     * @param x Hamlenin x koordinatı
+     * @param y Hamlenin y koordinatı
+     * @param hit İsabet mi?
+     * @param sunk Hamle bir gemiyi batırdı mı?
+     * @return Okumaya hazır, havuzdan alınmış çerçeve
+     */
+    public static ByteBuffer encodeMoveResult(int x, int y, boolean hit, boolean sunk) {
+        ByteBuffer frame = FrameCodec.beginFrame(7);
+        frame.put((byte) MessageType.GAME_UPDATE.ordinal());
+        frame.put(UPDATE_MOVE_RESULT);
+        frame.putInt(packCoordinates(x, y));
+        frame.put((byte) (sunk ? RESULT_SUNK : hit ? RESULT_HIT : RESULT_MISS));
+        return FrameCodec.endFrame(frame, 7);
+    }
+    
+    /**
+     * Değişen hücreleri çerçeveler
+     * @param sequence Tahta sıra numarası
+     * @param changes packChange ile paketlenmiş hücre değişiklikleri
+     * @param count Dizideki geçerli değişiklik sayısı
+     * @return Okumaya hazır, havuzdan alınmış çerçeve
+     */
+    public static ByteBuffer encodeBoardDelta(int sequence, long[] changes, int count) {
+        int maxLength = 8 + count * CELL_ENTRY_LENGTH;
+        ByteBuffer frame = FrameCodec.beginFrame(maxLength);
+        frame.put((byte) MessageType.GAME_UPDATE.ordinal());
+        frame.put(UPDATE_BOARD_DELTA);
+        frame.putInt(sequence);
+        frame.putShort((short) count);
+        for (int i = 0; i < count; i++) {
+            long change = changes[i];
+            frame.putInt(changeCoordinates(change));
+            frame.put((byte) (changeBoard(change) << 2 | changeState(change)));
+        }
+        return FrameCodec.endFrame(frame, maxLength);
+    }
+    
+    /**
+     * Tek bir hücreyi fark ve seyrek tahta mesajlarındaki biçimde yazar
+     * @param out Hedef tampon; en az CELL_ENTRY_LENGTH bayt boş yer olmalıdır
+     * @param board BOARD_OWN ya da BOARD_OPPONENT
+     * @param x X koordinatı
+     * @param y Y koordinatı
+     * @param state Hücre durumu (0-3)
+     */
+    public static void putCell(ByteBuffer out, int board, int x, int y, int state) {
+        out.putInt(packCoordinates(x, y));
+        out.put((byte) (board << 2 | state));
+    }
+    
+    /**
+     * Tip ve türden sonraki fark verisini çözer. Sıra numarası ayrıca
+     * okunmuş olmalıdır.
+     * @param body Hücre sayısıyla başlayan fark verisi
+     * @return packChange ile paketlenmiş hücre değişiklikleri
+     */
+    public static long[] decodeBoardChanges(ByteBuffer body) {
+        return decodeCells(body, body.getShort() & 0xFFFF);
+    }
+    
+    /**
+     * Tip ve türden sonraki seyrek tahta verisini çözer. Sıra numarası ve
+     * boyutlar ayrıca okunmuş olmalıdır.
+     * @param body Hücre sayısıyla başlayan seyrek tahta verisi
+     * @return packChange ile paketlenmiş işaretli hücreler
+     * @throws IllegalArgumentException Hücre sayısı veriyle uyuşmuyorsa
+     */
+    public static long[] decodeSparseCells(ByteBuffer body) {
+        int count = body.getInt();
+        if (count < 0 || (long) count * CELL_ENTRY_LENGTH > body.remaining()) {
+            throw new IllegalArgumentException("Geçersiz hücre sayısı: " + count);
+        }
+        return decodeCells(body, count);
+    }
+    
+    private static long[] decodeCells(ByteBuffer body, int count) {
+        long[] changes = new long[count];
+        for (int i = 0; i < changes.length; i++) {
+            int packed = body.getInt();
+            int boardAndState = body.get();
+            changes[i] = packChange((boardAndState >> 2) & 0x1, unpackX(packed), unpackY(packed), boardAndState & 0x3);
+        }
+        return changes;
+    }
+    
+    /**
+     * Tek bir hücre değişikliğini long içine paketler
+     * @param board BOARD_OWN ya da BOARD_OPPONENT
+     * @param x X koordinatı
+     * @param y Y koordinatı
+     * @param state Yeni hücre durumu (0-3)
+     * @return Paketlenmiş değişiklik
+     */
+    public static long packChange(int board, int x, int y, int state) {
+        return ((long) packCoordinates(x, y) & 0xFFFFFFFFL) << 8 | board << 2 | state;
+    }
+    
+    /**
+     * Paketlenmiş değişikliğin tahtasını döndürür
+     * @param change Paketlenmiş değişiklik
+     * @return BOARD_OWN ya da BOARD_OPPONENT
+     */
+    public static int changeBoard(long change) {
+        return (int) (change >> 2) & 0x1;
+    }
+    
+    /**
+     * Paketlenmiş değişikliğin koordinatını döndürür
+     * @param change Paketlenmiş değişiklik
+     * @return Paketlenmiş koordinat (bkz. packCoordinates)
+     */
+    public static int changeCoordinates(long change) {
+        return (int) (change >>> 8);
+    }
+    
+    /**
+     * Paketlenmiş değişikliğin yeni hücre durumunu döndürür
+     * @param change Paketlenmiş değişiklik
+     * @return Hücre durumu (0-3)
+     */
+    public static int changeState(long change) {
+        return (int) change & 0x3;
+    }
+    
+    /**
+     * İki koordinatı tek bir int içine paketler
+     * @param x X koordinatı (0-65535)
+     * @param y Y koordinatı (0-65535)
+     * @return Paketlenmiş koordinat
+     */
+    public static int packCoordinates(int x, int y) {
+        return (x << 16) | (y & 0xFFFF);
+    }
+    
+    /**
+     * Paketlenmiş koordinattan x değerini çıkarır
+     * @param packed Paketlenmiş koordinat
+     * @return X koordinatı
+     */
+    public static int unpackX(int packed) {
+        return packed >>> 16;
+    }
+    
+    /**
+     * Paketlenmiş koordinattan y değerini çıkarır
+     * @param packed Paketlenmiş koordinat
+     * @return Y koordinatı
+     */
+    public static int unpackY(int packed) {
+        return packed & 0xFFFF;
+    }
+    
+    /**
+     * Verilen sayıda hücrenin paketlenmiş halde kaç bayt tuttuğunu döndürür
+     * @param cellCount Hücre sayısı
+     * @return Bayt sayısı
+     */
+    public static int packedBoardLength(int cellCount) {
+        return (cellCount + 3) / 4;
+    }
+    
+    /**
+     * Paketlenmiş tahtayı hücre başına bir baytlık diziye açar
+     * @param in Paketlenmiş tahta verisi; konum tahtanın sonuna ilerler
+     * @param cellCount Hücre sayısı
+     * @return Hücre durumları (0-3), satır satır
+     */
+    public static byte[] unpackBoard(ByteBuffer in, int cellCount) {
+        byte[] cells = new byte[cellCount];
+        int index = 0;
+        for (int i = packedBoardLength(cellCount); i > 0; i--) {
+            int packed = in.get();
+            for (int shift = 0; shift < 8 && index < cellCount; shift += 2) {
+                cells[index++] = (byte) ((packed >> shift) & 0x3);
+            }
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,81 @@
+package com.mycompany.savasgemisi.common;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Mesaj çerçeveleri için yeniden kullanılabilir ByteBuffer havuzu.
+ * Tamponlar 2'nin kuvveti olan boyut sınıflarında tutulur (256 B - 64 KB).
+ * Daha büyük istekler havuza girmeden doğrudan ayrılır. Havuz thread
+ * güvenlidir; her boyut sınıfı sınırlı sayıda tampon saklar.
+ */
+public final class BufferPool {
+    /** Uygulama genelinde paylaşılan havuz */
+    public static final BufferPool SHARED = new BufferPool(1024);
+    
+    private static final int MIN_SHIFT = 8;
+    private static final int MAX_SHIFT = 16;
+    
+    private final List<ArrayBlockingQueue<ByteBuffer>> classes;
+    
+    /**
+     * Yeni bir tampon havuzu oluşturur
+     * @param buffersPerClass Her boyut sınıfında saklanacak en fazla tampon sayısı
+     */
+    public BufferPool(int buffersPerClass) {
+        List<ArrayBlockingQueue<ByteBuffer>> queues = new ArrayList<>(MAX_SHIFT - MIN_SHIFT + 1);
+        for (int shift = MIN_SHIFT; shift <= MAX_SHIFT; shift++) {
+            queues.add(new ArrayBlockingQueue<>(buffersPerClass));
+        }
+        classes = List.copyOf(queues);
+    }
+    
+    /**
+     * En az verilen kapasitede, temizlenmiş bir tampon döndürür
+     * @param capacity İstenen en küçük kapasite
+     * @return Yazmaya hazır tampon
+     */
+    public ByteBuffer acquire(int capacity) {
+        int index = classIndex(capacity);
+        if (index < 0) {
+            return ByteBuffer.allocate(capacity);
+        }
+        ByteBuffer buffer = classes.get(index).poll();
+        if (buffer == null) {
+            return ByteBuffer.allocate(1 << (index + MIN_SHIFT));
+        }
+        buffer.clear();
+        return buffer;
+    }
+    
+    /**
+     * Tamponu havuza geri verir. Boyut sınıfına uymayan tamponlar
+     * çöp toplayıcıya bırakılır.
+     * @param buffer İade edilen tampon (null olabilir)
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.hasArray() || buffer.arrayOffset() != 0
+                || buffer.array().length != buffer.capacity()) {
+            // Salt okunur görünümler ve dilimler havuza alınmaz
+            return;
+        }
+        int capacity = buffer.capacity();
+        if (Integer.bitCount(capacity) != 1) {
+            return;
+        }
+        int index = Integer.numberOfTrailingZeros(capacity) - MIN_SHIFT;
+        if (index >= 0 && index < classes.size()) {
+            classes.get(index).offer(buffer);
+        }
+    }
+    
+    private static int classIndex(int capacity) {
+        if (capacity > (1 << MAX_SHIFT)) {
+            return -1;
+        }
+        int shift = capacity <= (1 << MIN_SHIFT) ? MIN_SHIFT : 32 - Integer.numberOfLeadingZeros(capacity - 1);
+        return shift - MIN_SHIFT;
+    }
+}
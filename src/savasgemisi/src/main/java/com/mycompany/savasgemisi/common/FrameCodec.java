@@ -0,0 +1,224 @@
+package com.mycompany.savasgemisi.common;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * İstemci ve sunucunun ortak kullandığı çerçeveleme katmanı.
+ * Her mesaj, işaretsiz varint (LEB128) uzunluk öneki ve ardından gelen
+ * mesaj baytlarından oluşur. 128 bayttan kısa mesajlarda önek tek bayttır.
+ * Çerçeveler BufferPool'dan alınan tamponlarda tutulur; tamponu alan
+ * taraf işi bitince havuza geri vermekle sorumludur.
+ */
+public final class FrameCodec {
+    /** Kabul edilen en büyük mesaj uzunluğu; bozuk veriye karşı sınır */
+    public static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+    
+    /** Varint önekinin alabileceği en fazla bayt sayısı */
+    public static final int MAX_HEADER_LENGTH = 5;
+    
+    /** Dizisine erişilemeyen çerçeveler akışa bu uzunlukta parçalarla kopyalanır */
+    private static final int COPY_CHUNK_LENGTH = 4096;
+    
+    private FrameCodec() {
+    }
+    
+    /**
+     * Verilen uzunluğun varint olarak kaç bayt tutacağını hesaplar
+     * @param value Uzunluk
+     * @return Bayt sayısı
+     */
+    public static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+    
+    /**
+     * Uzunluğu varint olarak tampona yazar
+     * @param buffer Hedef tampon
+     * @param value Uzunluk
+     */
+    public static void writeVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+    
+    /**
+     * Hazır mesaj baytlarını çerçeveler
+     * @param payload Mesaj baytları
+     * @return Okumaya hazır, havuzdan alınmış çerçeve
+     */
+    public static ByteBuffer encode(byte[] payload) {
+        ByteBuffer frame = BufferPool.SHARED.acquire(varintSize(payload.length) + payload.length);
+        writeVarint(frame, payload.length);
+        frame.put(payload);
+        frame.flip();
+        return frame;
+    }
+    
+    /**
+     * Metin mesajını ara byte[] oluşturmadan UTF-8 olarak çerçeveler
+     * @param text Mesaj metni
+     * @return Okumaya hazır, havuzdan alınmış çerçeve
+     */
+    public static ByteBuffer encodeText(CharSequence text) {
+        int maxLength = text.length() * 3;
+        ByteBuffer frame = beginFrame(maxLength);
+        writeUtf8(text, frame);
+        return endFrame(frame, maxLength);
+    }
+    
+    /**
+     * Uzunluğu önceden bilinmeyen bir çerçeve için tampon hazırlar. Başlık
+     * için en büyük uzunluğa göre yer ayrılır ve konum mesajın başına alınır.
+     * @param maxPayloadLength Mesajın alabileceği en büyük uzunluk
+     * @return Mesaj baytlarının yazılacağı, havuzdan alınmış tampon
+     */
+    public static ByteBuffer beginFrame(int maxPayloadLength) {
+        int reserved = varintSize(maxPayloadLength);
+        ByteBuffer frame = BufferPool.SHARED.acquire(reserved + maxPayloadLength);
+        frame.position(reserved);
+        return frame;
+    }
+    
+    /**
+     * beginFrame ile başlatılan çerçevenin başlığını yazar ve tamponu
+     * okumaya hazırlar. Başlık, ayrılan alanın sonuna hizalanır; böylece
+     * mesaj baytları kopyalanmaz.
+     * @param frame Mesaj baytları yazılmış tampon
+     * @param maxPayloadLength beginFrame'e verilen en büyük uzunluk
+     * @return Okumaya hazır çerçeve
+     */
+    public static ByteBuffer endFrame(ByteBuffer frame, int maxPayloadLength) {
+        int reserved = varintSize(maxPayloadLength);
+        int length = frame.position() - reserved;
+        int start = reserved - varintSize(length);
+        frame.position(start);
+        writeVarint(frame, length);
+        frame.limit(reserved + length);
+        frame.position(start);
+        return frame;
+    }
+    
+    /**
+     * Çerçevenin mesaj kısmını UTF-8 metin olarak çözer
+     * @param payload Yalnızca mesaj baytlarını içeren tampon
+     * @return Mesaj metni
+     */
+    public static String decodeText(ByteBuffer payload) {
+        return new String(payload.array(), payload.arrayOffset() + payload.position(),
+                payload.remaining(), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Bloklayan akıştan tek bir çerçeve okur. Kısmi okumalar tamamlanana
+     * kadar beklenir.
+     * @param in Girdi akışı
+     * @return Mesaj baytlarını içeren, havuzdan alınmış tampon; akış bittiyse null
+     * @throws IOException Okuma hatası ya da geçersiz çerçeve durumunda
+     */
+    public static ByteBuffer readFrame(InputStream in) throws IOException {
+        int length = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.read();
+            if (b == -1) {
+                if (shift == 0) {
+                    return null;
+                }
+                throw new EOFException("Çerçeve başlığı yarıda kesildi");
+            }
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            shift += 7;
+            if (shift >= 7 * MAX_HEADER_LENGTH) {
+                throw new IOException("Geçersiz çerçeve başlığı");
+            }
+        }
+        checkLength(length);
+        
+        ByteBuffer payload = BufferPool.SHARED.acquire(length);
+        int offset = 0;
+        while (offset < length) {
+            int read = in.read(payload.array(), offset, length - offset);
+            if (read == -1) {
+                BufferPool.SHARED.release(payload);
+                throw new EOFException("Çerçeve yarıda kesildi");
+            }
+            offset += read;
+        }
+        payload.limit(length);
+        return payload;
+    }
+    
+    /**
+     * Çerçeveyi bloklayan akışa tek bir yazma çağrısıyla gönderir. Dizisine
+     * erişilemeyen (salt okunur, paylaşılan) çerçeveler parça parça kopyalanır.
+     * @param out Çıktı akışı
+     * @param frame Gönderilecek çerçeve
+     * @throws IOException Yazma hatası durumunda
+     */
+    public static void writeFrame(OutputStream out, ByteBuffer frame) throws IOException {
+        if (frame.hasArray()) {
+            out.write(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+            frame.position(frame.limit());
+            return;
+        }
+        byte[] chunk = new byte[Math.min(frame.remaining(), COPY_CHUNK_LENGTH)];
+        while (frame.hasRemaining()) {
+            int length = Math.min(frame.remaining(), chunk.length);
+            frame.get(chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+    
+    static void checkLength(int length) throws IOException {
+        if (length < 0 || length > MAX_FRAME_LENGTH) {
+            throw new IOException("Geçersiz çerçeve uzunluğu: " + length);
+        }
+    }
+    
+    /**
+     * Metni UTF-8 olarak tampona yazar
+     * @param text Metin
+     * @param out Hedef tampon; en az 3 * text.length() bayt boş yer olmalı
+     */
+    static void writeUtf8(CharSequence text, ByteBuffer out) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                out.put((byte) (0xF0 | (cp >> 18)));
+                out.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.mycompany.savasgemisi.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Bloklamayan kanallar için durum tutan çerçeve çözücü.
+ * Okunan baytlar parça parça gelebilir; tamamlanan her çerçeve işleyiciye
+ * verilir, yarım kalan kısım bir sonraki okumaya kadar havuzdan alınmış
+ * bir biriktirme tamponunda saklanır. Bağlantı boştayken hiçbir tampon
+ * tutulmaz, böylece çok sayıda boşta bağlantı az bellek harcar.
+ */
+public final class FrameDecoder {
+    
+    /**
+     * Tamamlanan çerçeveleri işleyen arayüz
+     */
+    public interface FrameHandler {
+        /**
+         * Bir çerçeve tamamlandığında çağrılır. Tampon yalnızca çağrı
+         * süresince geçerlidir.
+         * @param payload Mesaj baytları
+         */
+        void onFrame(ByteBuffer payload);
+    }
+    
+    private ByteBuffer cumulation;
+    
+    /**
+     * Yeni okunan baytları çözer ve tamamlanan çerçeveleri işleyiciye verir
+     * @param input Okuma modunda yeni gelen baytlar; çağrıdan sonra tamamı tüketilmiş olur
+     * @param handler Çerçeve işleyici
+     * @throws IOException Geçersiz çerçeve durumunda
+     */
+    public void decode(ByteBuffer input, FrameHandler handler) throws IOException {
+        ByteBuffer source = input;
+        if (cumulation != null) {
+            append(input);
+            cumulation.flip();
+            source = cumulation;
+        }
+        
+        while (source.hasRemaining()) {
+            int start = source.position();
+            int length = readLength(source);
+            if (length < 0 || source.remaining() < length) {
+                source.position(start);
+                break;
+            }
+            int end = source.position() + length;
+            int limit = source.limit();
+            source.limit(end);
+            handler.onFrame(source);
+            source.limit(limit);
+            source.position(end);
+        }
+        
+        if (source == cumulation) {
+            if (cumulation.hasRemaining()) {
+                cumulation.compact();
+            } else {
+                release();
+            }
+        } else if (source.hasRemaining()) {
+            cumulation = BufferPool.SHARED.acquire(Math.max(256, source.remaining()));
+            cumulation.put(source);
+        }
+    }
+    
+    /**
+     * Biriktirme tamponunu havuza geri verir
+     */
+    public void release() {
+        BufferPool.SHARED.release(cumulation);
+        cumulation = null;
+    }
+    
+    /**
+     * Yeni baytları biriktirme tamponuna ekler. Tampon yetmezse kapasitesi
+     * iki katına (en çok bir tam çerçeve kadar) büyütülür; büyük bir çerçeve
+     * parça parça gelirken her okumada yeniden kopyalanmaz.
+     */
+    private void append(ByteBuffer input) {
+        if (cumulation.remaining() < input.remaining()) {
+            int needed = cumulation.position() + input.remaining();
+            int doubled = Math.min(2 * cumulation.capacity(), FrameCodec.MAX_FRAME_LENGTH + FrameCodec.MAX_HEADER_LENGTH);
+            ByteBuffer larger = BufferPool.SHARED.acquire(Math.max(needed, doubled));
+            cumulation.flip();
+            larger.put(cumulation);
+            BufferPool.SHARED.release(cumulation);
+            cumulation = larger;
+        }
+        cumulation.put(input);
+    }
+    
+    /**
+     * Varint uzunluğu okur
+     * @return Uzunluk; başlık henüz tamamlanmadıysa -1
+     */
+    private static int readLength(ByteBuffer source) throws IOException {
+        int length = 0;
+        int shift = 0;
+        while (source.hasRemaining()) {
+            int b = source.get() & 0xFF;
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                FrameCodec.checkLength(length);
+                return length;
+            }
+            shift += 7;
+            if (shift >= 7 * FrameCodec.MAX_HEADER_LENGTH) {
+                throw new IOException("Geçersiz çerçeve başlığı");
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,152 @@
+package com.mycompany.savasgemisi.common;
+
+import java.util.Arrays;
+
+/**
+ * Bir oyun oturumunun kurallarını temsil eden sınıf: tahta boyutu ve
+ * filodaki gemilerin boyutları. Sunucu kuralları GAME_START mesajında
+ * "Kurallar:GENİŞLİKxYÜKSEKLİK:boy,boy,..." biçiminde bildirir; istemci
+ * tahtalarını buna göre kurar. Kural içermeyen GAME_START mesajları
+ * standart kuralları kullanır.
+ */
+public final class GameRules {
+    /** GAME_START mesajında kuralları başlatan etiket */
+    public static final String PREFIX = "Kurallar:";
+    /** Koordinatlar protokolde 16 bit ile taşındığı için en büyük kenar uzunluğu */
+    public static final int MAX_DIMENSION = 65535;
+    /** Tam tahta çerçevesi FrameCodec.MAX_FRAME_LENGTH sınırına sığsın diye en büyük hücre sayısı */
+    public static final int MAX_CELLS = 1 << 24;
+    
+    /** Klasik 10x10 tahta ve 5, 4, 3, 3, 2 boyutlu filo */
+    public static final GameRules STANDARD = new GameRules(10, 10, new int[] {5, 4, 3, 3, 2});
+    
+    private final int width;
+    private final int height;
+    private final int[] fleet;
+    
+    /**
+     * Yeni kurallar oluşturur
+     * @param width Tahta genişliği
+     * @param height Tahta yüksekliği
+     * @param fleet Gemi boyutları
+     * @throws IllegalArgumentException Boyutlar geçersizse ya da bir gemi tahtaya sığmıyorsa
+     */
+    public GameRules(int width, int height, int[] fleet) {
+        if (width < 1 || height < 1 || width > MAX_DIMENSION || height > MAX_DIMENSION
+                || (long) width * height > MAX_CELLS) {
+            throw new IllegalArgumentException("Geçersiz tahta boyutu: " + width + "x" + height);
+        }
+        if (fleet.length == 0) {
+            throw new IllegalArgumentException("Filo boş olamaz");
+        }
+        long shipCells = 0;
+        for (int size : fleet) {
+            if (size < 1 || size > Math.max(width, height)) {
+                throw new IllegalArgumentException("Geçersiz gemi boyu: " + size);
+            }
+            shipCells += size;
+        }
+        if (shipCells > (long) width * height) {
+            throw new IllegalArgumentException("Filo tahtaya sığmıyor");
+        }
+        this.width = width;
+        this.height = height;
+        this.fleet = fleet.clone();
+    }
+    
+    /**
+     * "GENİŞLİKxYÜKSEKLİK:boy,boy,..." biçimindeki kuralları ayrıştırır
+     * @param text Kural metni
+     * @return Kurallar
+     * @throws IllegalArgumentException Metin geçersizse
+     */
+    public static GameRules parse(String text) {
+        try {
+            int colon = text.indexOf(':');
+            String[] size = text.substring(0, colon).split("x");
+            String[] ships = text.substring(colon + 1).split(",");
+            int[] fleet = new int[ships.length];
+            for (int i = 0; i < ships.length; i++) {
+                fleet[i] = Integer.parseInt(ships[i].trim());
+            }
+            return new GameRules(Integer.parseInt(size[0].trim()), Integer.parseInt(size[1].trim()), fleet);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Geçersiz kural metni: " + text, e);
+        }
+    }
+    
+    /**
+     * GAME_START mesajındaki kuralları bulur
+     * @param data GAME_START mesajının verisi
+     * @return Mesajdaki kurallar; mesaj kural içermiyorsa standart kurallar
+     * @throws IllegalArgumentException Kurallar geçersizse
+     */
+    public static GameRules fromStartMessage(String data) {
+        int start = data.indexOf(PREFIX);
+        if (start < 0) {
+            return STANDARD;
+        }
+        start += PREFIX.length();
+        int end = data.indexOf(' ', start);
+        return parse(end < 0 ? data.substring(start) : data.substring(start, end));
+    }
+    
+    /**
+     * Kuralları GAME_START mesajına eklenecek metne çevirir
+     * @return "GENİŞLİKxYÜKSEKLİK:boy,boy,..." biçiminde kurallar
+     */
+    public String encode() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(width).append('x').append(height).append(':');
+        for (int i = 0; i < fleet.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(fleet[i]);
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Tahta genişliğini döndürür
+     * @return Tahta genişliği
+     */
+    public int getWidth() {
+        return width;
+    }
+    
+    /**
+     * Tahta yüksekliğini döndürür
+     * @return Tahta yüksekliği
+     */
+    public int getHeight() {
+        return height;
+    }
+    
+    /**
+     * Filodaki gemilerin boyutlarını döndürür
+     * @return Gemi boyutlarının kopyası
+     */
+    public int[] getFleet() {
+        return fleet.clone();
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof GameRules)) {
+            return false;
+        }
+        GameRules other = (GameRules) obj;
+        return width == other.width && height == other.height && Arrays.equals(fleet, other.fleet);
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * (31 * width + height) + Arrays.hashCode(fleet);
+    }
+    
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
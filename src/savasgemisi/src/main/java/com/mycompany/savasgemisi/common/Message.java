@@ -4,6 +4,18 @@ package com.mycompany.savasgemisi.common;
  * İstemci ve sunucu arasındaki mesajlaşmayı yöneten sınıf.
  */
 public class Message {
+    /** Bağlantı isteğinde devam anahtarı istendiğini bildirir; eski istemcilerin yanıtı "OK:id" olarak kalır */
+    public static final String TOKEN_REQUEST_OPTION = "TOKEN";
+    /** Bağlantı yanıtında istemciye verilen devam anahtarının öneki (onaltılık) */
+    public static final String TOKEN_OPTION = "TOKEN=";
+    /** Bağlantı isteğinde kopan oyuna devam etmek için gönderilen anahtarın öneki */
+    public static final String RESUME_OPTION = "RESUME=";
+    /** Bağlantı isteğinde yalnızca oyun izlemek için bağlanıldığını bildirir; istemci eşleşmeye girmez */
+    public static final String WATCH_OPTION = "WATCH";
+    /** Sunucunun sessiz bağlantılara gönderdiği yoklama (HEARTBEAT mesajının verisi) */
+    public static final String HEARTBEAT_PING = "PING";
+    /** İstemcinin yoklamaya yanıtı */
+    public static final String HEARTBEAT_PONG = "PONG";
     
     /**
      * Verilen mesaj tipi ve veri ile formatlanmış bir mesaj oluşturur.
@@ -10,5 +10,7 @@ public enum MessageType {
     MOVE,                 // Hamle
     GAME_UPDATE,          // Oyun durumu güncellemesi
     GAME_OVER,            // Oyun sonu
-    ERROR                 // Hata
+    ERROR,                // Hata
+    HEARTBEAT,            // Bağlantı yoklaması (PING/PONG)
+    SPECTATE              // Bir oyunu izleme isteği
 } 
\ No newline at end of file
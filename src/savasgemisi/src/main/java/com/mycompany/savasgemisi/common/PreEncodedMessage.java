@@ -0,0 +1,56 @@
+package com.mycompany.savasgemisi.common;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Her oyunda aynı kalan bir mesajın iki protokoldeki çerçeveleri.
+ * Çerçeveler oluşturulurken bir kez kodlanır ve değişmez dizilerde
+ * paylaşılır; her gönderimde yalnızca havuzdan alınan bir tampona
+ * kopyalanır. Böylece sıra bildirimi gibi sık gönderilen mesajlar için
+ * metin birleştirme ve UTF-8 kodlaması tekrarlanmaz.
+ */
+public final class PreEncodedMessage {
+    private final byte[] textFrame;
+    private final byte[] binaryFrame;
+    
+    /**
+     * İki protokol için hazır çerçevelerden mesaj oluşturur
+     * @param textFrame Metin protokolü çerçevesi; içeriği kopyalanıp havuza geri verilir
+     * @param binaryFrame İkili protokol çerçevesi; içeriği kopyalanıp havuza geri verilir
+     */
+    public PreEncodedMessage(ByteBuffer textFrame, ByteBuffer binaryFrame) {
+        this.textFrame = toArray(textFrame);
+        this.binaryFrame = toArray(binaryFrame);
+    }
+    
+    /**
+     * Metin içerikli bir mesajı iki protokol için kodlar
+     * @param type Mesaj tipi
+     * @param data Mesaj verisi
+     * @return Hazır mesaj
+     */
+    public static PreEncodedMessage of(MessageType type, String data) {
+        return new PreEncodedMessage(FrameCodec.encodeText(Message.generateMessage(type, data)),
+                BinaryProtocol.encodeText(type, data));
+    }
+    
+    private static byte[] toArray(ByteBuffer frame) {
+        byte[] bytes = new byte[frame.remaining()];
+        frame.get(bytes);
+        BufferPool.SHARED.release(frame);
+        return bytes;
+    }
+    
+    /**
+     * Mesajın istenen protokoldeki çerçevesini döndürür
+     * @param binary İkili protokol mü?
+     * @return Okumaya hazır, havuzdan alınmış çerçeve
+     */
+    public ByteBuffer frame(boolean binary) {
+        byte[] bytes = binary ? binaryFrame : textFrame;
+        ByteBuffer frame = BufferPool.SHARED.acquire(bytes.length);
+        frame.put(bytes);
+        frame.flip();
+        return frame;
+    }
+}
@@ -1,7 +1,9 @@
 package com.mycompany.savasgemisi.server;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
+import com.mycompany.savasgemisi.common.GameRules;
 import com.mycompany.savasgemisi.server.Player.Board;
 
 /**
@@ -13,7 +15,18 @@ public class BattleshipGame {
     private Player player2;
     private int currentPlayerId;
     private GameState state;
-    private Random random = new Random();
+    /** Tahta boyutu ve filo */
+    private final GameRules rules;
+    /** Kurallardaki gemi boyutları; her yerleşimde kopyalanmasın diye bir kez alınır */
+    private final int[] shipSizes;
+    /** Filo yerleşmezse tahtanın baştan doldurulacağı en fazla deneme */
+    private static final int MAX_FLEET_ATTEMPTS = 64;
+    
+    /** Oturuma özel üreteç; aynı tohumla aynı yerleşim tekrar üretilir */
+    private SplittableRandom random;
+    private long seed;
+    /** Son geçerli hamle bir gemiyi batırdı mı? */
+    private boolean lastShotSunk = false;
     
     /**
      * Oyunun olası durumlarını tanımlayan enum
@@ -27,10 +40,40 @@ public class BattleshipGame {
     }
     
     /**
-     * Yeni bir oyun oluşturur
+     * Standart kurallarla yeni bir oyun oluşturur
      */
     public BattleshipGame() {
+        this(GameRules.STANDARD);
+    }
+    
+    /**
+     * Verilen kurallarla yeni bir oyun oluşturur
+     * @param rules Tahta boyutu ve filo
+     */
+    public BattleshipGame(GameRules rules) {
+        this(rules, ThreadLocalRandom.current().nextLong());
+    }
+    
+    /**
+     * Standart kurallar ve belirli bir tohumla yeni bir oyun oluşturur
+     * @param seed Rastgele sayı üreteci tohumu
+     */
+    public BattleshipGame(long seed) {
+        this(GameRules.STANDARD, seed);
+    }
+    
+    /**
+     * Belirli kurallar ve tohumla yeni bir oyun oluşturur; gemi yerleşimleri
+     * tohumdan tekrar üretilebilir
+     * @param rules Tahta boyutu ve filo
+     * @param seed Rastgele sayı üreteci tohumu
+     */
+    public BattleshipGame(GameRules rules, long seed) {
         this.state = GameState.WAITING_FOR_PLAYERS;
+        this.rules = rules;
+        this.shipSizes = rules.getFleet();
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
     }
     
     /**
@@ -42,34 +85,50 @@ public class BattleshipGame {
             throw new IllegalStateException("Oyun başlatılamıyor: İki oyuncu da bağlı değil.");
         }
         
-        player1.setBoard(new Player.Board(10, 10));
-        player2.setBoard(new Player.Board(10, 10));
+        player1.setBoard(Board.create(rules.getWidth(), rules.getHeight()));
+        player2.setBoard(Board.create(rules.getWidth(), rules.getHeight()));
         
         state = GameState.PLACING_SHIPS;
     }
     
     /**
-     * Oyuncunun gemilerini rastgele yerleştirir
+     * Aynı oyuncu ve kurallarla yeni bir tura başlar. initializeBoards ile
+     * hazırlanmış tahtalar yeni tahta oluşturulmadan boşaltılır; ardından gemiler placeShips ile
+     * yeniden yerleştirilmelidir. Çok sayıda oyunu art arda oynatan
+     * simülasyonlarda nesnelerin yeniden kullanılması için vardır.
+     * @param seed Yeni turun rastgele sayı üreteci tohumu
+     * @throws IllegalStateException İki oyuncu da bağlı değilse
+     */
+    public void restart(long seed) {
+        if (player1 == null || player2 == null) {
+            throw new IllegalStateException("Oyun başlatılamıyor: İki oyuncu da bağlı değil.");
+        }
+        player1.getBoard().clear();
+        player1.getOpponentView().clear();
+        player2.getBoard().clear();
+        player2.getOpponentView().clear();
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.lastShotSunk = false;
+        this.state = GameState.PLACING_SHIPS;
+    }
+    
+    /**
+     * Oyuncunun gemilerini rastgele yerleştirir. Her gemi, tahtadaki yasal
+     * yerleşimler arasından doğrudan seçilir (bkz. FleetPlacer).
      * @param player Gemi yerleştirilecek oyuncu
+     * @throws IllegalStateException Filo tahtaya sığdırılamazsa
      */
     public void placeShips(Player player) {
-        // Oyuncunun gemilerini rastgele yerleştir
         Board board = player.getBoard();
+        FleetPlacer placer = FleetPlacer.forBoard(board.getWidth(), board.getHeight());
         
-        int[] shipSizes = {5, 4, 3, 3, 2};
-        
-        for (int size : shipSizes) {
-            boolean placed = false;
-            while (!placed) {
-                int x = random.nextInt(board.getWidth());
-                int y = random.nextInt(board.getHeight());
-                boolean horizontal = random.nextBoolean();
-                
-                if (canPlaceShip(board, x, y, size, horizontal)) {
-                    placeShip(board, x, y, size, horizontal);
-                    placed = true;
-                }
+        for (int attempt = 1; !placer.placeFleet(board, shipSizes, random); attempt++) {
+            if (attempt == MAX_FLEET_ATTEMPTS) {
+                throw new IllegalStateException("Filo tahtaya yerleştirilemedi.");
             }
+            // Önceki gemiler kalanlara yer bırakmadı; tahtayı boşaltıp yeniden dene
+            board.clear();
         }
         
         if (allShipsPlaced()) {
@@ -79,52 +138,14 @@ public class BattleshipGame {
     }
     
     /**
-     * Belirtilen konuma gemi yerleştirilebilir mi kontrol eder
-     * @param board Oyun tahtası
-     * @param x Başlangıç x koordinatı
-     * @param y Başlangıç y koordinatı
-     * @param size Gemi boyutu
-     * @param horizontal Yatay yerleştirme mi?
-     * @return Gemi yerleştirilebilir mi?
+     * Kayıttan yeniden kurulan oyunun durumunu ve sırasını geri yükler
+     * (bkz. SessionSnapshot). Tahtalar önceden kurulmuş olmalıdır.
+     * @param state Kaydedilen oyun durumu
+     * @param currentPlayerId Kaydedilen sıradaki oyuncu
      */
-    private boolean canPlaceShip(Board board, int x, int y, int size, boolean horizontal) {
-        int width = board.getWidth();
-        int height = board.getHeight();
-        
-        if (horizontal) {
-            if (x + size > width) return false;
-        } else {
-            if (y + size > height) return false;
-        }
-        
-        // Geminin diğer gemilerle çakışmadığını kontrol et
-        for (int i = 0; i < size; i++) {
-            int checkX = horizontal ? x + i : x;
-            int checkY = horizontal ? y : y + i;
-            
-            if (checkX < 0 || checkX >= width || checkY < 0 || checkY >= height || 
-                board.getCell(checkX, checkY) == Player.Board.CellState.SHIP) {
-                return false;
-            }
-        }
-        
-        return true;
-    }
-    
-    /**
-     * Gemiyi tahtaya yerleştirir
-     * @param board Oyun tahtası
-     * @param x Başlangıç x koordinatı
-     * @param y Başlangıç y koordinatı
-     * @param size Gemi boyutu
-     * @param horizontal Yatay yerleştirme mi?
-     */
-    private void placeShip(Board board, int x, int y, int size, boolean horizontal) {
-        for (int i = 0; i < size; i++) {
-            int placeX = horizontal ? x + i : x;
-            int placeY = horizontal ? y : y + i;
-            board.setCell(placeX, placeY, Player.Board.CellState.SHIP);
-        }
+    void restoreTurn(GameState state, int currentPlayerId) {
+        this.state = state;
+        this.currentPlayerId = currentPlayerId;
     }
     
     /**
@@ -150,28 +171,65 @@ public class BattleshipGame {
         if (player.getId() != currentPlayerId) {
             throw new IllegalStateException("Sıra sizde değil.");
         }
+        lastShotSunk = false;
         Player targetPlayer = (player.getId() == player1.getId()) ? player2 : player1;
         Board targetBoard = targetPlayer.getBoard();
         if (x < 0 || x >= targetBoard.getWidth() || y < 0 || y >= targetBoard.getHeight()) {
             return false;
         }
-        Player.Board.CellState cellState = targetBoard.getCell(x, y);
-        if (cellState == Player.Board.CellState.HIT || cellState == Player.Board.CellState.MISS) {
+        Board.ShotResult result = targetBoard.fire(x, y);
+        if (result == Board.ShotResult.REPEATED) {
             return false;
         }
-        boolean isHit = cellState == Player.Board.CellState.SHIP;
-        targetBoard.setCell(x, y, isHit ? Player.Board.CellState.HIT : Player.Board.CellState.MISS);
+        boolean isHit = result != Board.ShotResult.MISS;
+        lastShotSunk = result == Board.ShotResult.SUNK;
         player.getOpponentView().setCell(x, y, isHit ? Player.Board.CellState.HIT : Player.Board.CellState.MISS);
         if (!isHit) {
             currentPlayerId = (currentPlayerId == player1.getId()) ? player2.getId() : player1.getId();
             state = (currentPlayerId == player1.getId()) ? GameState.PLAYER1_TURN : GameState.PLAYER2_TURN;
         }
-        if (checkVictory()) {
+        if (!targetBoard.hasShips()) {
             state = GameState.GAME_OVER;
         }
         return isHit;
     }
     
+    /**
+     * Sırayı hamle yapılmadan rakibe geçirir; hamle süresi dolduğunda kullanılır
+     * @throws IllegalStateException Oyun sürmüyorsa
+     */
+    void skipTurn() {
+        if (state != GameState.PLAYER1_TURN && state != GameState.PLAYER2_TURN) {
+            throw new IllegalStateException("Şu anda sıra geçirilemez.");
+        }
+        currentPlayerId = (currentPlayerId == player1.getId()) ? player2.getId() : player1.getId();
+        state = (currentPlayerId == player1.getId()) ? GameState.PLAYER1_TURN : GameState.PLAYER2_TURN;
+    }
+    
+    /**
+     * Son geçerli hamlenin bir gemiyi batırıp batırmadığını döndürür
+     * @return Son hamle bir gemiyi batırdıysa true
+     */
+    public boolean wasLastShotSunk() {
+        return lastShotSunk;
+    }
+    
+    /**
+     * Oyunun rastgele sayı üreteci tohumunu döndürür
+     * @return Tohum
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Oyunun kurallarını döndürür
+     * @return Tahta boyutu ve filo
+     */
+    public GameRules getRules() {
+        return rules;
+    }
+    
     /**
      * Oyuncunun tahta durumunu döndürür
      * @param player Oyuncu
@@ -187,8 +245,8 @@ public class BattleshipGame {
      */
     public boolean checkVictory() {
         
-        boolean player1HasShips = hasRemainingShips(player1.getBoard());
-        boolean player2HasShips = hasRemainingShips(player2.getBoard());
+        boolean player1HasShips = player1.getBoard().hasShips();
+        boolean player2HasShips = player2.getBoard().hasShips();
         
         if (!player1HasShips || !player2HasShips) {
             return true;
@@ -197,22 +255,6 @@ public class BattleshipGame {
         return false;
     }
     
-    /**
-     * Tahtada hala gemi olup olmadığını kontrol eder
-     * @param board Kontrol edilecek tahta
-     * @return Tahtada gemi var mı?
-     */
-    private boolean hasRemainingShips(Board board) {
-        for (int y = 0; y < board.getHeight(); y++) {
-            for (int x = 0; x < board.getWidth(); x++) {
-                if (board.getCell(x, y) == Player.Board.CellState.SHIP) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-    
     /**
      * Oyunun kazananını döndürür
      * @return Kazanan oyuncu (null ise beraberlik veya oyun bitmedi)
@@ -222,8 +264,8 @@ public class BattleshipGame {
             return null;
         }
         
-        boolean player1HasShips = hasRemainingShips(player1.getBoard());
-        boolean player2HasShips = hasRemainingShips(player2.getBoard());
+        boolean player1HasShips = player1.getBoard().hasShips();
+        boolean player2HasShips = player2.getBoard().hasShips();
         
         if (!player1HasShips) {
             return player2;
@@ -0,0 +1,185 @@
+package com.mycompany.savasgemisi.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.mycompany.savasgemisi.common.BufferPool;
+import com.mycompany.savasgemisi.common.FrameCodec;
+
+/**
+ * Her bağlantı için ayrı bir okuma thread'i kullanan klasik taşıma katmanı.
+ * Okuma döngüsü bloklayan soket akışları üzerinde çalışır ve gelen her
+ * mesajı bağlı olduğu SClient nesnesine iletir. Okuma thread'i platform
+ * ya da sanal thread olabilir.
+ *
+ * Gönderilen çerçeveler kuyruğa eklenir ve bağlantının kendi yazıcısı
+ * (gerektiğinde başlatılan bir sanal thread) tarafından sırasıyla yazılır.
+ * Böylece oturum havuzundaki thread'ler soket yazmasında beklemez; TCP
+ * penceresi dolan bir istemci yalnızca kendi yazıcısını bekletir. Kuyruk
+ * MAX_QUEUED_BYTES sınırını aşmışken gönderim gelirse bağlantı kapatılır.
+ */
+public class BlockingClientChannel implements ClientChannel, Runnable {
+    /** Okuma tamponu; çok sayıda bağlantıda bellek kullanımını düşük tutmak için küçüktür */
+    private static final int INPUT_BUFFER_SIZE = 512;
+    /** Yazma tamponu; bir olayın ürettiği mesajlar tek bir write çağrısında birleşir */
+    private static final int OUTPUT_BUFFER_SIZE = 1024;
+    
+    private Socket socket;
+    private OutputStream output;
+    private InputStream input;
+    private SClient client;
+    /** Yazıcının gönderilmeyi bekleyen çerçeveleri */
+    private final Queue<ByteBuffer> writeQueue = new ConcurrentLinkedQueue<>();
+    /** Kuyruktaki çerçevelerin bayt sayısı */
+    private final AtomicLong queuedBytes = new AtomicLong();
+    /** Yazıcı sırada ya da çalışıyor mu? */
+    private final AtomicBoolean writing = new AtomicBoolean(false);
+    private ThreadFactory writerThreads;
+    /** Okuma döngüsünün çalışma durumu */
+    private volatile boolean running = true;
+    
+    /**
+     * Yeni bir bloklayan bağlantı oluşturur
+     * @param socket İstemci soketi
+     * @throws IOException Soket akışları alınamazsa
+     */
+    public BlockingClientChannel(Socket socket) throws IOException {
+        this.socket = socket;
+        // Mesajlar SClient kuyruğunda zaten birleştiriliyor; Nagle yalnızca gecikme ekler
+        socket.setTcpNoDelay(true);
+        this.output = new BufferedOutputStream(socket.getOutputStream(), OUTPUT_BUFFER_SIZE);
+        this.input = new BufferedInputStream(socket.getInputStream(), INPUT_BUFFER_SIZE);
+    }
+    
+    /**
+     * Bağlantıyı verilen istemciye bağlar ve okuma thread'ini başlatır
+     * @param client Gelen mesajları işleyecek istemci
+     * @param threads Okuma thread'ini oluşturacak thread üreticisi
+     */
+    public void start(SClient client, Thread.Builder threads) {
+        this.client = client;
+        this.writerThreads = Thread.ofVirtual().name("SClient-" + client.getClientId() + "-writer").factory();
+        threads.name("SClient-" + client.getClientId()).start(this);
+    }
+    
+    @Override
+    public void send(ByteBuffer[] frames, int count) throws IOException {
+        if (!running) {
+            for (int i = 0; i < count; i++) {
+                BufferPool.SHARED.release(frames[i]);
+            }
+            throw new IOException("Bağlantı kapalı");
+        }
+        if (queuedBytes.get() > MAX_QUEUED_BYTES) {
+            for (int i = 0; i < count; i++) {
+                BufferPool.SHARED.release(frames[i]);
+            }
+            System.err.println("İstemci " + getRemoteAddress() + " okumuyor, " + queuedBytes.get()
+                    + " bayt gönderilemedi; bağlantı kapatılıyor.");
+            close();
+            throw new IOException("Gönderim kuyruğu doldu");
+        }
+        long added = 0;
+        for (int i = 0; i < count; i++) {
+            added += frames[i].remaining();
+            writeQueue.add(frames[i]);
+        }
+        queuedBytes.addAndGet(added);
+        if (writing.compareAndSet(false, true)) {
+            writerThreads.newThread(this::writeQueued).start();
+        }
+    }
+    
+    /**
+     * Yazıcının döngüsü. Kuyruk boşalana kadar çerçeveleri yazar ve akışı
+     * bir kez boşaltır; yazma hatasında bağlantıyı kapatır.
+     */
+    private void writeQueued() {
+        try {
+            while (true) {
+                ByteBuffer frame;
+                while ((frame = writeQueue.poll()) != null) {
+                    queuedBytes.addAndGet(-frame.remaining());
+                    try {
+                        FrameCodec.writeFrame(output, frame);
+                    } finally {
+                        BufferPool.SHARED.release(frame);
+                    }
+                }
+                output.flush();
+                writing.set(false);
+                if (writeQueue.isEmpty() || !writing.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            if (running) {
+                System.err.println("İstemciye mesaj gönderilirken hata: " + e.getMessage());
+            }
+            close();
+            ByteBuffer frame;
+            while ((frame = writeQueue.poll()) != null) {
+                BufferPool.SHARED.release(frame);
+            }
+            queuedBytes.set(0);
+        }
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        try {
+            if (socket != null && !socket.isClosed()) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            System.err.println("İstemci bağlantısı kapatılırken hata: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public long getPendingBytes() {
+        return queuedBytes.get();
+    }
+    
+    @Override
+    public String getRemoteAddress() {
+        return String.valueOf(socket.getInetAddress());
+    }
+    
+    /**
+     * Thread'in ana döngüsü. İstemciden gelen mesajları dinler ve işler
+     */
+    @Override
+    public void run() {
+        try {
+            while (running && socket.isConnected()) {
+                ByteBuffer payload = FrameCodec.readFrame(input);
+                if (payload == null) break;
+                
+                try {
+                    client.receiveFrame(payload);
+                } finally {
+                    BufferPool.SHARED.release(payload);
+                }
+            }
+        } catch (IOException e) {
+            if (running) {
+                System.err.println("İstemci dinleme döngüsünde hata: " + e.getMessage());
+            }
+        } finally {
+            client.connectionClosed();
+            close();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.mycompany.savasgemisi.server;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.mycompany.savasgemisi.common.GameRules;
+import com.mycompany.savasgemisi.common.MessageType;
+import com.mycompany.savasgemisi.common.Move;
+import com.mycompany.savasgemisi.common.PreEncodedMessage;
+
+/**
+ * GameSession'da ikinci SClient yerine oynayan sunucu botu.
+ * Bağlantısı yoktur: oturumun gönderdiği mesajlar kodlanmadan yok sayılır,
+ * yalnızca sıra bildirimi ve kendi atışlarının sonuçları kullanılır.
+ * Sıra bota geldiğinde hamle BotPool'da hesaplanır ve gerçek bir istemcinin
+ * hamlesi gibi sunucu üzerinden oturumun olay kutusuna eklenir.
+ *
+ * Atış sonuçları oturum thread'inde, hamle hesabı bot thread'inde işlenir.
+ * Bot yalnızca kendi sırasında hamle yaptığı ve sıra bildirimi sonuçlardan
+ * sonra geldiği için ikisi aynı anda çalışmaz.
+ */
+public class BotClient extends SClient {
+    /**
+     * Botun oynayabileceği en büyük tahta; yoğunluk tablosu ve hamle başına
+     * tarama hücre sayısıyla orantılıdır
+     */
+    public static final int MAX_CELLS = Player.Board.SPARSE_THRESHOLD;
+    /** Aşırı yük nedeniyle reddedilen hamlenin yeniden deneneceği süre */
+    private static final long RETRY_DELAY_MILLIS = 50;
+    
+    private final GameServer server;
+    private final BotPool pool;
+    private final ShotStrategy targeting;
+    private final int width;
+    /** Botun son gönderdiği hamle; sonucu rakibin hamlelerinden ayırmak için */
+    private Move lastMove;
+    private volatile boolean ended = false;
+    
+    /**
+     * Yeni bir bot oluşturur
+     * @param server Sunucu referansı
+     * @param pool Hamlelerin hesaplanacağı havuz
+     * @param clientId Botun oyuncu ID'si
+     * @param rules Oyunun kuralları
+     */
+    public BotClient(GameServer server, BotPool pool, int clientId, GameRules rules) {
+        super(null, server, clientId);
+        this.server = server;
+        this.pool = pool;
+        this.width = rules.getWidth();
+        this.targeting = new ProbabilityTargeting(rules, new SplittableRandom(ThreadLocalRandom.current().nextLong()));
+    }
+    
+    /**
+     * Bot thread'inde sıradaki atışı seçip gönderir
+     */
+    private void play() {
+        if (ended) {
+            return;
+        }
+        int cell = targeting.nextShot();
+        if (cell < 0) {
+            return;
+        }
+        Move move = new Move(cell % width, cell / width, getClientId());
+        lastMove = move;
+        server.processPlayerMove(this, move);
+    }
+    
+    /**
+     * Oyunu biten botu durdurur ve havuzdaki yerini serbest bırakır.
+     * Oturum sonunda bir kez çağrılır.
+     */
+    void gameEnded() {
+        ended = true;
+        pool.release();
+    }
+    
+    @Override
+    public void sendTurn(boolean yourTurn) {
+        if (yourTurn && !ended) {
+            pool.execute(this::play);
+        }
+    }
+    
+    @Override
+    public void sendMoveResult(Move move, boolean hit, boolean sunk) {
+        if (move == lastMove) {
+            targeting.recordResult(move.getY() * width + move.getX(), hit, sunk);
+        }
+    }
+    
+    /**
+     * Hamle aşırı yük nedeniyle reddedildiyse kısa bir süre sonra yeniden
+     * denenir; diğer mesajlar yok sayılır
+     */
+    @Override
+    public void sendMessage(MessageType type, String data) {
+        if (type == MessageType.ERROR && !ended) {
+            pool.schedule(this::play, RETRY_DELAY_MILLIS);
+        }
+    }
+    
+    @Override
+    public void sendMessage(String msg) {
+    }
+    
+    @Override
+    public void sendMessage(PreEncodedMessage message) {
+    }
+    
+    @Override
+    public void sendBoards(int sequence, Player.Board board, Player.Board opponentView) {
+    }
+    
+    @Override
+    public void sendBoardDelta(int sequence, Player player, long[] changes, int count) {
+    }
+    
+    @Override
+    public void disconnect() {
+        ended = true;
+    }
+}
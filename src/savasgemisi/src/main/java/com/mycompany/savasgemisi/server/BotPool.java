@@ -0,0 +1,129 @@
+package com.mycompany.savasgemisi.server;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sunucu botlarının hamlelerini hesaplayan ayrı ve sınırlı havuz.
+ * Bot hesapları I/O ve oturum thread'lerinde yapılmaz; böylece botlar
+ * yoğunken bile gerçek oyuncuların okuma/yazma işleri beklemez. Aynı anda
+ * oynayan bot sayısı sınırlıdır ve her bot en fazla bir hamle görevi
+ * beklettiği için havuzun kuyruğu da bu sayıyla sınırlı kalır.
+ *
+ * Havuz ayrıca eşleşme kuyruğunda belirli bir süreden uzun bekleyen
+ * istemcileri düzenli aralıklarla botlarla eşleştirir.
+ */
+public class BotPool {
+    /** Bekleme kontrolünün en kısa aralığı */
+    private static final long MIN_SWEEP_MILLIS = 10;
+    
+    private final ScheduledThreadPoolExecutor executor;
+    private final int maxBots;
+    private final long waitMillis;
+    private final AtomicInteger activeBots = new AtomicInteger();
+    
+    /**
+     * Yeni bir bot havuzu oluşturur
+     * @param threads Bot hamlelerini hesaplayan thread sayısı
+     * @param maxBots Aynı anda oynayabilecek en fazla bot
+     * @param waitMillis Bir istemcinin botla eşleşmeden önce rakip bekleyeceği süre (ms)
+     */
+    public BotPool(int threads, int maxBots, long waitMillis) {
+        AtomicInteger threadCounter = new AtomicInteger(1);
+        ThreadFactory factory = task -> {
+            Thread thread = new Thread(task, "bot-" + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, threads), factory);
+        this.maxBots = maxBots;
+        this.waitMillis = waitMillis;
+    }
+    
+    /**
+     * Uzun bekleyen istemcileri düzenli olarak botlarla eşleştirmeye başlar
+     * @param server Eşleştirmeyi yapacak sunucu
+     */
+    void start(GameServer server) {
+        long period = Math.max(MIN_SWEEP_MILLIS, waitMillis / 4);
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                server.pairWaitingWithBots();
+            } catch (RuntimeException e) {
+                System.err.println("Bot eşleştirmesinde hata: " + e.getMessage());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Yeni bir bot için yer ayırır
+     * @return Sınıra ulaşılmadıysa true
+     */
+    boolean tryAcquire() {
+        int active;
+        do {
+            active = activeBots.get();
+            if (active >= maxBots) {
+                return false;
+            }
+        } while (!activeBots.compareAndSet(active, active + 1));
+        return true;
+    }
+    
+    /**
+     * Oyunu biten botun yerini serbest bırakır
+     */
+    void release() {
+        activeBots.decrementAndGet();
+    }
+    
+    /**
+     * Bot hamlesini havuzda çalıştırır
+     * @param task Hamle görevi
+     */
+    void execute(Runnable task) {
+        executor.execute(task);
+    }
+    
+    /**
+     * Bot hamlesini belirli bir gecikmeyle havuzda çalıştırır
+     * @param task Hamle görevi
+     * @param delayMillis Gecikme (ms)
+     */
+    void schedule(Runnable task, long delayMillis) {
+        executor.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Botla eşleşmeden önceki bekleme süresini döndürür
+     * @return Bekleme süresi (ms)
+     */
+    public long getWaitMillis() {
+        return waitMillis;
+    }
+    
+    /**
+     * Yeni bot için kalan yer sayısını döndürür
+     * @return Boş bot yeri
+     */
+    public int getAvailableBots() {
+        return Math.max(0, maxBots - activeBots.get());
+    }
+    
+    /**
+     * Oynayan bot sayısını döndürür
+     * @return Aktif bot sayısı
+     */
+    public int getActiveBots() {
+        return activeBots.get();
+    }
+    
+    /**
+     * Havuzu kapatır; bekleyen bot hamleleri çalıştırılmaz
+     */
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
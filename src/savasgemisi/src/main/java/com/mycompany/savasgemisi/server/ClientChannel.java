@@ -0,0 +1,51 @@
+package com.mycompany.savasgemisi.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Bir istemci bağlantısının taşıma (I/O) katmanını soyutlayan arayüz.
+ * SClient, protokol durumunu tutar; baytların sokete nasıl yazılıp
+ * okunacağı ise bu arayüzü uygulayan sunucu motoruna bırakılır.
+ */
+public interface ClientChannel {
+    /**
+     * Kanal kuyruğunda tutulabilecek gönderilmemiş bayt sınırı. Kuyruğu bu
+     * sınırı aşmış bağlantıya yeni gönderim gelirse istemci okumuyor sayılır
+     * ve bağlantı kapatılır. Sınır gönderimden önce denetlenir; tek bir büyük
+     * gönderim (ör. büyük tahtaların tamamı) her zaman kabul edilir.
+     */
+    long MAX_QUEUED_BYTES = 16L * 1024 * 1024;
+    
+    /**
+     * Çerçevelenmiş mesajları sırasıyla, mümkünse tek bir yazma çağrısıyla
+     * istemciye gönderir. Çağıranı soket yazmasında bekletmez; yazılamayan
+     * çerçeveler kanalın kuyruğunda bekler. Çerçeve tamponları BufferPool'dan alınmıştır ve
+     * gönderim bitince (hata durumunda da) kanal tarafından havuza geri verilir;
+     * paylaşılan salt okunur çerçeveleri havuz kendisi geri çevirir.
+     * @param frames Okumaya hazır çerçeveler
+     * @param count Dizideki geçerli çerçeve sayısı
+     * @throws IOException Mesajlar gönderilemezse
+     */
+    void send(ByteBuffer[] frames, int count) throws IOException;
+    
+    /**
+     * Bağlantıyı kapatır. Birden fazla kez çağrılması güvenlidir.
+     */
+    void close();
+    
+    /**
+     * Kanalın kabul edip henüz sokete yazamadığı bayt sayısını döndürür.
+     * Yavaş okuyan istemciler (ör. izleyiciler) bununla fark edilir.
+     * @return Bekleyen bayt sayısı; kanal bunu izlemiyorsa 0
+     */
+    default long getPendingBytes() {
+        return 0;
+    }
+    
+    /**
+     * Uzak istemcinin adresini döndürür
+     * @return İstemci adresi
+     */
+    String getRemoteAddress();
+}
@@ -0,0 +1,216 @@
+package com.mycompany.savasgemisi.server;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+
+/**
+ * Hücre durumlarını bit maskelerinde tutan tahta.
+ * Her durum için ayrı bir bit maskesi bulunur; 10x10 tahta her maskede iki
+ * long'a sığar. Bir hücre en fazla bir maskede işaretlidir; hiçbirinde
+ * değilse boştur. SHIP maskesi yalnızca vurulmamış gemi hücrelerini tutar.
+ * Bellek hücre sayısıyla orantılı olduğu için küçük ve orta boy tahtalar
+ * için kullanılır (bkz. Player.Board.create).
+ */
+public final class DenseBoard extends Player.Board {
+    private final long[] ships;
+    private final long[] hits;
+    private final long[] misses;
+    /*
+     * Hücreden gemi numarasına eşleme (numara + 1; 0 gemi yok).
+     * İlk gemi yerleştirilene kadar ayrılmaz; rakip görünümü tahtaları
+     * bu diziyi hiç kullanmaz.
+     */
+    private short[] shipAt;
+    
+    /**
+     * Yeni bir tahta oluşturur
+     * @param width Tahta genişliği
+     * @param height Tahta yüksekliği
+     */
+    public DenseBoard(int width, int height) {
+        super(width, height);
+        int words = (width * height + 63) >>> 6;
+        this.ships = new long[words];
+        this.hits = new long[words];
+        this.misses = new long[words];
+    }
+    
+    /**
+     * Hücrenin durumunu sıra numarası olarak döndürür:
+     * düşük bit SHIP ya da MISS, yüksek bit HIT ya da MISS maskesidir.
+     */
+    @Override
+    protected int stateAt(int index) {
+        int word = index >>> 6;
+        int shift = index & 63;
+        long low = (ships[word] | misses[word]) >>> shift;
+        long high = (hits[word] | misses[word]) >>> shift;
+        return (int) (low & 1 | (high & 1) << 1);
+    }
+    
+    @Override
+    protected void setStateAt(int index, int state) {
+        int word = index >>> 6;
+        long bit = 1L << index;
+        ships[word] &= ~bit;
+        hits[word] &= ~bit;
+        misses[word] &= ~bit;
+        switch (state) {
+            case SHIP -> ships[word] |= bit;
+            case HIT -> hits[word] |= bit;
+            case MISS -> misses[word] |= bit;
+            default -> { }
+        }
+    }
+    
+    @Override
+    protected int shipNumberAt(int index) {
+        return shipAt == null ? 0 : shipAt[index];
+    }
+    
+    @Override
+    protected void setShipNumberAt(int index, int number) {
+        if (shipAt == null) {
+            if (number == 0) {
+                return;
+            }
+            shipAt = new short[width * height];
+        }
+        shipAt[index] = (short) number;
+    }
+    
+    @Override
+    protected void clearCells() {
+        Arrays.fill(ships, 0);
+        Arrays.fill(hits, 0);
+        Arrays.fill(misses, 0);
+        if (shipAt != null) {
+            Arrays.fill(shipAt, (short) 0);
+        }
+    }
+    
+    @Override
+    protected int maxShips() {
+        return Short.MAX_VALUE;
+    }
+    
+    /**
+     * Maskeler üzerinden doğrudan ateş eder; sonuç Player.Board.fire ile aynıdır
+     */
+    @Override
+    public ShotResult fire(int x, int y) {
+        int index = index(x, y);
+        int word = index >>> 6;
+        long bit = 1L << index;
+        if (((hits[word] | misses[word]) & bit) != 0) {
+            return ShotResult.REPEATED;
+        }
+        if ((ships[word] & bit) == 0) {
+            misses[word] |= bit;
+            markDirty();
+            return ShotResult.MISS;
+        }
+        ships[word] &= ~bit;
+        hits[word] |= bit;
+        markDirty();
+        return recordHit(index);
+    }
+    
+    /**
+     * Yatay gemiler için 64 hücreye kadar tek maske okumasıyla kontrol eder
+     */
+    @Override
+    public boolean canPlaceShip(int x, int y, int size, boolean horizontal) {
+        if (x < 0 || y < 0 || (horizontal ? x + size > width : y + size > height)) {
+            return false;
+        }
+        int start = y * width + x;
+        if (horizontal && size <= 64) {
+            return (FleetPlacer.bitsAt(ships, start) & (-1L >>> (64 - size))) == 0;
+        }
+        int step = horizontal ? 1 : width;
+        for (int i = 0, index = start; i < size; i++, index += step) {
+            if ((ships[index >>> 6] & 1L << index) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Dizi tahtanın kendisidir; yalnızca okunmalıdır.
+     */
+    @Override
+    long[] shipMask() {
+        return ships;
+    }
+    
+    @Override
+    public int getMarkedCellCount() {
+        int count = 0;
+        for (int word = 0; word < ships.length; word++) {
+            count += Long.bitCount(ships[word] | hits[word] | misses[word]);
+        }
+        return count;
+    }
+    
+    @Override
+    public void writeMarkedCells(ByteBuffer out, int board) {
+        for (int word = 0; word < ships.length; word++) {
+            long marked = ships[word] | hits[word] | misses[word];
+            while (marked != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(marked);
+                marked &= marked - 1;
+                BinaryProtocol.putCell(out, board, index % width, index / width, stateAt(index));
+            }
+        }
+    }
+    
+    @Override
+    protected void serializeCells(byte[] digits) {
+        for (int index = 0; index < digits.length; index++) {
+            digits[index] = (byte) ('0' + stateAt(index));
+        }
+    }
+    
+    /**
+     * Her maske kelimesinin 32 hücrelik yarıları iç içe geçirilerek
+     * tek adımda 8 bayta dönüştürülür.
+     */
+    @Override
+    protected void packCells(ByteBuffer out) {
+        boolean littleEndian = out.order() == ByteOrder.LITTLE_ENDIAN;
+        int remaining = BinaryProtocol.packedBoardLength(width * height);
+        for (int word = 0; word < ships.length && remaining > 0; word++) {
+            long low = ships[word] | misses[word];
+            long high = hits[word] | misses[word];
+            for (int half = 0; half < 64 && remaining > 0; half += 32) {
+                long packed = spread(low >>> half) | spread(high >>> half) << 1;
+                if (remaining >= 8) {
+                    out.putLong(littleEndian ? packed : Long.reverseBytes(packed));
+                    remaining -= 8;
+                } else {
+                    for (; remaining > 0; remaining--, packed >>>= 8) {
+                        out.put((byte) packed);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Alt 32 biti çift numaralı bitlere dağıtır (i. bit 2i. bite gider)
+     */
+    private static long spread(long bits) {
+        bits &= 0xFFFFFFFFL;
+        bits = (bits | bits << 16) & 0x0000FFFF0000FFFFL;
+        bits = (bits | bits << 8) & 0x00FF00FF00FF00FFL;
+        bits = (bits | bits << 4) & 0x0F0F0F0F0F0F0F0FL;
+        bits = (bits | bits << 2) & 0x3333333333333333L;
+        bits = (bits | bits << 1) & 0x5555555555555555L;
+        return bits;
+    }
+}
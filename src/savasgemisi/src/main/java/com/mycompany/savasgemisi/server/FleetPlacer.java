@@ -0,0 +1,210 @@
+package com.mycompany.savasgemisi.server;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.mycompany.savasgemisi.server.Player.Board;
+
+/**
+ * Gemileri tahtaya rastgele yerleştiren sınıf.
+ * Her gemi için önce az sayıda rastgele konum ve yön denenir; tahta
+ * boşken bunlardan biri neredeyse her zaman tutar. Tutmazsa geminin tüm
+ * yasal başlangıç hücreleri bit maskeleriyle hesaplanır: boş hücre maskesi
+ * geminin her hücresi için kaydırılıp kendisiyle AND'lenir, satırdan taşan
+ * başlangıçlar önceden hesaplanmış bir maskeyle atılır ve yasal yerleşimler
+ * arasından biri doğrudan seçilir. İki adımda da her yasal yerleşim eşit
+ * olasılıklıdır; tahta ne kadar dolu olursa olsun süre, birkaç denemeyle
+ * tek bir maske taramasını aşmaz.
+ *
+ * Seyrek tahtalarda maske yalnızca tarama gerektiğinde kurulur; rastgele
+ * denemeler tahtanın kendi çakışma kontrolünü kullanır.
+ *
+ * Tahta boyutu başına bir örnek paylaşılır; örnekler değişmez olduğu için
+ * farklı oturumlardan aynı anda kullanılabilir.
+ */
+public class FleetPlacer {
+    private static final Map<Long, FleetPlacer> PLACERS = new ConcurrentHashMap<>();
+    /** Maske taramasına geçmeden önce denenecek rastgele konum sayısı */
+    private static final int QUICK_ATTEMPTS = 16;
+    
+    private final int width;
+    private final int height;
+    private final int cellCount;
+    private final int words;
+    /** Gemi boyuna göre, yatay geminin satırdan taşmadığı başlangıç hücreleri */
+    private final AtomicReferenceArray<long[]> horizontalStarts;
+    
+    private FleetPlacer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cellCount = width * height;
+        this.words = (cellCount + 63) >>> 6;
+        this.horizontalStarts = new AtomicReferenceArray<>(width + 1);
+    }
+    
+    /**
+     * Verilen boyuttaki tahtalar için yerleştiriciyi döndürür
+     * @param width Tahta genişliği
+     * @param height Tahta yüksekliği
+     * @return Paylaşılan yerleştirici
+     */
+    public static FleetPlacer forBoard(int width, int height) {
+        return PLACERS.computeIfAbsent((long) width << 32 | height, key -> new FleetPlacer(width, height));
+    }
+    
+    /**
+     * Filonun tüm gemilerini sırayla tahtaya yerleştirir
+     * @param board Gemilerin yerleştirileceği tahta
+     * @param shipSizes Gemi boyutları
+     * @param random Oturumun rastgele sayı üreteci
+     * @return Tüm gemiler yerleştiyse true; bir gemiye yer kalmadıysa false
+     *         (tahta bu durumda kısmen doludur)
+     */
+    public boolean placeFleet(Board board, int[] shipSizes, SplittableRandom random) {
+        long[][] scratch = new long[3][];
+        for (int size : shipSizes) {
+            if (!placeShip(board, size, random, scratch)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean placeShip(Board board, int size, SplittableRandom random, long[][] scratch) {
+        for (int attempt = 0; attempt < QUICK_ATTEMPTS; attempt++) {
+            int start = random.nextInt(cellCount);
+            boolean isHorizontal = random.nextBoolean();
+            int x = start % width;
+            int y = start / width;
+            if (board.canPlaceShip(x, y, size, isHorizontal)) {
+                board.placeShip(x, y, size, isHorizontal);
+                return true;
+            }
+        }
+        
+        // Tarama dizileri yalnızca ilk kez gerektiğinde ayrılır
+        if (scratch[0] == null) {
+            for (int i = 0; i < scratch.length; i++) {
+                scratch[i] = new long[words];
+            }
+        }
+        long[] free = scratch[0];
+        long[] horizontal = scratch[1];
+        long[] vertical = scratch[2];
+        long[] ships = board.shipMask();
+        for (int i = 0; i < words; i++) {
+            free[i] = ~ships[i];
+        }
+        clearFrom(free, cellCount);
+        
+        // Başlangıç hücresinden itibaren size hücre boş olmalı
+        System.arraycopy(free, 0, horizontal, 0, words);
+        System.arraycopy(free, 0, vertical, 0, words);
+        for (int k = 1; k < size; k++) {
+            andShifted(horizontal, free, k);
+            andShifted(vertical, free, k * width);
+        }
+        long[] starts = horizontalStarts(size);
+        for (int i = 0; i < words; i++) {
+            horizontal[i] &= starts[i];
+        }
+        clearFrom(vertical, Math.max(0, height - size + 1) * width);
+        
+        int horizontalCount = bitCount(horizontal);
+        int total = horizontalCount + bitCount(vertical);
+        if (total == 0) {
+            return false;
+        }
+        int choice = random.nextInt(total);
+        boolean isHorizontal = choice < horizontalCount;
+        int start = isHorizontal ? select(horizontal, choice) : select(vertical, choice - horizontalCount);
+        board.placeShip(start % width, start / width, size, isHorizontal);
+        return true;
+    }
+    
+    private long[] horizontalStarts(int size) {
+        if (size > width) {
+            return new long[words];
+        }
+        long[] starts = horizontalStarts.get(size);
+        if (starts == null) {
+            starts = new long[words];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x + size <= width; x++) {
+                    int index = y * width + x;
+                    starts[index >>> 6] |= 1L << index;
+                }
+            }
+            horizontalStarts.compareAndSet(size, null, starts);
+        }
+        return starts;
+    }
+    
+    /**
+     * acc'nin her bitini, src'nin shift kadar ilerisindeki bitiyle AND'ler
+     */
+    private static void andShifted(long[] acc, long[] src, int shift) {
+        for (int i = 0; i < acc.length; i++) {
+            acc[i] &= bitsAt(src, (i << 6) + shift);
+        }
+    }
+    
+    /**
+     * Maskenin offset numaralı bitinden başlayan 64 biti döndürür;
+     * maske dışındaki bitler sıfırdır
+     */
+    static long bitsAt(long[] mask, int offset) {
+        int word = offset >>> 6;
+        if (word >= mask.length) {
+            return 0;
+        }
+        int shift = offset & 63;
+        long bits = mask[word] >>> shift;
+        if (shift != 0 && word + 1 < mask.length) {
+            bits |= mask[word + 1] << (64 - shift);
+        }
+        return bits;
+    }
+    
+    /**
+     * from numaralı bitten itibaren tüm bitleri sıfırlar
+     */
+    private static void clearFrom(long[] mask, int from) {
+        int word = from >>> 6;
+        if (word < mask.length && (from & 63) != 0) {
+            mask[word] &= (1L << from) - 1;
+            word++;
+        }
+        for (; word < mask.length; word++) {
+            mask[word] = 0;
+        }
+    }
+    
+    private static int bitCount(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+    
+    /**
+     * Maskedeki rank numaralı (0'dan başlayarak) işaretli bitin yerini döndürür
+     */
+    private static int select(long[] mask, int rank) {
+        for (int i = 0; i < mask.length; i++) {
+            int count = Long.bitCount(mask[i]);
+            if (rank < count) {
+                long word = mask[i];
+                for (; rank > 0; rank--) {
+                    word &= word - 1;
+                }
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+            rank -= count;
+        }
+        throw new IllegalArgumentException("Maskede " + rank + ". bit yok");
+    }
+}
@@ -3,15 +3,23 @@ package com.mycompany.savasgemisi.server;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.file.Path;
+import java.security.SecureRandom;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-import com.mycompany.savasgemisi.common.Message;
+import com.mycompany.savasgemisi.common.GameRules;
 import com.mycompany.savasgemisi.common.MessageType;
 import com.mycompany.savasgemisi.common.Move;
+import com.mycompany.savasgemisi.common.PreEncodedMessage;
 
 /**
  * Sunucu ana sınıfı.
@@ -20,22 +28,126 @@ import com.mycompany.savasgemisi.common.Move;
  * - Oyuncuları eşleştirir
  * - Oyun oturumlarını yönetir
  * - İstemciler arası iletişimi koordine eder
+ * - Süren oyunları izlemek isteyen istemcileri oturumların yayınına ekler
  */
 public class GameServer {
+    /** Bekleyen bağlantı kuyruğunun uzunluğu */
+    private static final int ACCEPT_BACKLOG = 4096;
+    private static final PreEncodedMessage WAITING_FOR_OPPONENT =
+            PreEncodedMessage.of(MessageType.GAME_UPDATE, "Rakip bekleniyor...");
+    private static final PreEncodedMessage MATCHED_WITH_BOT =
+            PreEncodedMessage.of(MessageType.GAME_UPDATE, "Rakip bulunamadı, sunucu botuyla eşleştiniz.");
+    /** Aynı anda oynayabilecek varsayılan en fazla bot */
+    private static final int DEFAULT_MAX_BOTS = 1000;
+    /** Bağlantısı kopan oyuncunun oyuna dönmesi için varsayılan süre (ms) */
+    public static final long DEFAULT_RECONNECT_GRACE_MILLIS = 30_000;
+    /** Sessiz bağlantılara yoklama gönderme aralığı (ms) */
+    public static final long DEFAULT_HEARTBEAT_MILLIS = 15_000;
+    /** Bağlantının kapatılması için yanıtsız geçmesi gereken yoklama aralığı sayısı */
+    public static final int IDLE_HEARTBEATS = 3;
+    /** Oyuncunun hamle yapması için varsayılan süre (ms) */
+    public static final long DEFAULT_TURN_TIMEOUT_MILLIS = 60_000;
+    
     private int port;
+    private IoMode ioMode;
+    private int ioThreads;
     private ServerSocket serverSocket;
-    private List<SClient> waitingClients = new ArrayList<>();
-    private List<SClient> connectedClients = new ArrayList<>();
-    private Map<Integer, GameSession> gameSessions = new HashMap<>();
+    private NioServer nioServer;
+    /** Oturum olaylarını işleyen ortak havuz */
+    private SessionExecutor sessionExecutor;
+    /** Eşleşme bekleyen istemcileri kilitsiz bir kuyrukta toplayıp eşleştirir */
+    private final Matchmaker matchmaker = new Matchmaker();
+    /** Trafik, hamle ve mesaj işleme süresi sayaçları */
+    private final ServerMetrics metrics = new ServerMetrics();
+    /** Durum raporundaki hamle hızı */
+    private final ServerMetrics.MoveRate reportMoveRate = metrics.newMoveRate();
+    /** Ölçümleri JSON olarak sunan yerel HTTP sunucusu; null ise kapalı */
+    private MetricsHttpServer metricsServer;
+    /** Uzun bekleyen istemcilerle oynayan botların havuzu; null ise botlar kapalı */
+    private volatile BotPool botPool;
+    /** Oyunların tekrar oynatılabilmesi için hamle günlüğü; null ise kapalı */
+    private volatile MoveJournal journal;
+    /** Süren oturumların çökme sonrası kurtarma kayıtları; null ise kapalı */
+    private volatile SnapshotStore snapshotStore;
+    /** Süren oturumlar, oyuncularının devam anahtarına göre; oturum bitince silinir */
+    private final Map<Long, GameSession> resumableSessions = new ConcurrentHashMap<>();
+    /** Bağlantısı kopan oyuncunun yeniden bağlanabileceği süre (ms); 0 ise oyun hemen biter */
+    private volatile long reconnectGraceMillis = DEFAULT_RECONNECT_GRACE_MILLIS;
+    /** Yoklama, boşta bağlantı, hamle ve yeniden bağlanma sürelerini izleyen ortak zamanlayıcı */
+    private final HashedWheelTimer timer;
+    /** Sessiz bağlantılara yoklama gönderme aralığı (ms); 0 ise yoklama ve boşta bağlantı kapatma kapalı */
+    private volatile long heartbeatMillis = DEFAULT_HEARTBEAT_MILLIS;
+    /** Bu süre boyunca hiçbir şey göndermeyen bağlantı kapatılır (ms) */
+    private volatile long idleTimeoutMillis = IDLE_HEARTBEATS * DEFAULT_HEARTBEAT_MILLIS;
+    /** Oyuncunun hamle yapması için süre (ms); 0 ise sınırsız */
+    private volatile long turnTimeoutMillis = DEFAULT_TURN_TIMEOUT_MILLIS;
+    /** Gönderilen yoklama, boşta kaldığı için kapatılan bağlantı, süresi dolan hamle ve süre yüzünden kaybedilen oyun sayıları */
+    private final AtomicLong heartbeatsSent = new AtomicLong();
+    private final AtomicLong idleConnectionsReaped = new AtomicLong();
+    private final AtomicLong turnTimeouts = new AtomicLong();
+    private final AtomicLong turnForfeits = new AtomicLong();
+    /** Yeniden bağlanması beklenen oyuncu sayısı */
+    private final AtomicInteger awaitingReconnect = new AtomicInteger();
+    /** Süresi içinde oyuna dönen ve süresi dolan oyuncu sayıları */
+    private final AtomicLong reconnectedPlayers = new AtomicLong();
+    private final AtomicLong expiredReconnects = new AtomicLong();
+    /** Devam anahtarları tahmin edilemesin diye */
+    private final SecureRandom tokenRandom = new SecureRandom();
+    /** Yeni oturumların tahta boyutu ve filosu */
+    private volatile GameRules rules = GameRules.STANDARD;
+    /** Bağlı istemciler, istemci ID'sine göre; arama ve silme O(1), genel kilit yok */
+    private Map<Integer, SClient> connectedClients = new ConcurrentHashMap<>();
+    /** İstemci ID'sinden oturuma; hamleler yalnızca kendi oturumlarının kilidini alır */
+    private Map<Integer, GameSession> gameSessions = new ConcurrentHashMap<>();
+    /** Süren oturumlar, oturum numarasına göre; izleme istekleri bununla bulunur */
+    private final Map<Integer, GameSession> liveSessions = new ConcurrentHashMap<>();
+    /** İzleyicinin ID'sinden izlediği oturuma */
+    private final Map<Integer, GameSession> spectating = new ConcurrentHashMap<>();
+    /** İzleyici yayınlarını dağıtan ve izleyicilere yazan sanal thread'ler; yavaş izleyici yalnızca kendi thread'ini bekletir */
+    private final ExecutorService spectatorWriters = Executors.newVirtualThreadPerTaskExecutor();
     private AtomicInteger clientIdCounter = new AtomicInteger(1);
-    private boolean running = false;
+    private volatile boolean running = false;
+    
+    /**
+     * Sunucunun bağlantıları yönetmek için kullanabileceği I/O motorları
+     */
+    public enum IoMode {
+        THREAD,     // Her bağlantı için ayrı bir platform thread'i
+        VIRTUAL,    // Her bağlantı için ayrı bir sanal thread
+        NIO         // Az sayıda selector thread'i ile bloklamayan I/O
+    }
     
     /**
      * GameServer yapıcı metodu
      * @param port Sunucunun dinleyeceği port numarası
      */
     public GameServer(int port) {
+        this(port, IoMode.THREAD, 0);
+    }
+    
+    /**
+     * Belirli bir I/O motoru ile çalışan sunucu oluşturur
+     * @param port Sunucunun dinleyeceği port numarası
+     * @param ioMode Kullanılacak I/O motoru
+     * @param ioThreads NIO motorundaki olay döngüsü sayısı (0 ise işlemci sayısı)
+     */
+    public GameServer(int port, IoMode ioMode, int ioThreads) {
+        this(port, ioMode, ioThreads, 0);
+    }
+    
+    /**
+     * Belirli bir I/O motoru ve oturum havuzu boyutu ile çalışan sunucu oluşturur
+     * @param port Sunucunun dinleyeceği port numarası
+     * @param ioMode Kullanılacak I/O motoru
+     * @param ioThreads NIO motorundaki olay döngüsü sayısı (0 ise işlemci sayısı)
+     * @param sessionThreads Oturum olaylarını işleyen thread sayısı (0 ise işlemci sayısı)
+     */
+    public GameServer(int port, IoMode ioMode, int ioThreads, int sessionThreads) {
         this.port = port;
+        this.ioMode = ioMode;
+        this.ioThreads = ioThreads > 0 ? ioThreads : Runtime.getRuntime().availableProcessors();
+        this.sessionExecutor = new SessionExecutor(sessionThreads);
+        this.timer = new HashedWheelTimer("timer-wheel");
     }
     
     /**
@@ -43,42 +155,113 @@ public class GameServer {
      */
     public void startServer() {
         try {
-            serverSocket = new ServerSocket(port);
             running = true;
-            System.out.println("Sunucu " + port + " portunda başlatıldı. Bağlantılar bekleniyor...");
-            
-            acceptConnections();
+            if (ioMode == IoMode.NIO) {
+                nioServer = new NioServer(this, port, ioThreads);
+                nioServer.start();
+                System.out.println("Sunucu " + port + " portunda başlatıldı (NIO, " + ioThreads
+                        + " olay döngüsü). Bağlantılar bekleniyor...");
+            } else {
+                serverSocket = new ServerSocket(port, ACCEPT_BACKLOG);
+                System.out.println("Sunucu " + port + " portunda başlatıldı (" + ioMode
+                        + "). Bağlantılar bekleniyor...");
+                
+                acceptConnections();
+            }
         } catch (IOException e) {
+            running = false;
             System.err.println("Sunucu başlatılırken hata: " + e.getMessage());
         }
     }
     
     /**
      * Yeni istemci bağlantılarını kabul eden thread'i başlatır
-     * Her yeni bağlantı için bir SClient nesnesi oluşturur
+     * Her yeni bağlantı için bir SClient nesnesi oluşturur. VIRTUAL modunda
+     * hem kabul döngüsü hem de bağlantı okuyucuları sanal thread'lerde çalışır.
      */
     public void acceptConnections() {
-        new Thread(() -> {
+        boolean virtual = ioMode == IoMode.VIRTUAL;
+        Thread.Builder acceptorThreads = virtual ? Thread.ofVirtual() : Thread.ofPlatform();
+        Thread.Builder clientThreads = virtual ? Thread.ofVirtual() : Thread.ofPlatform();
+        
+        acceptorThreads.name("acceptor").start(() -> {
             try {
                 while (running) {
                     Socket clientSocket = serverSocket.accept();
                     System.out.println("Yeni bağlantı: " + clientSocket.getInetAddress());
                     
-                    int clientId = clientIdCounter.getAndIncrement();
-                    SClient client = new SClient(clientSocket, this, clientId);
-                    
-                    synchronized (connectedClients) {
-                        connectedClients.add(client);
-                    }
-                    
-                    client.listen();
+                    BlockingClientChannel channel = new BlockingClientChannel(clientSocket);
+                    SClient client = registerClient(channel);
+                    channel.start(client, clientThreads);
                 }
             } catch (IOException e) {
                 if (running) {
                     System.err.println("Bağlantı kabul edilirken hata: " + e.getMessage());
                 }
             }
-        }).start();
+        });
+    }
+    
+    /**
+     * Sunucu motorunun kabul ettiği yeni bağlantı için istemci kaydı oluşturur
+     * @param channel Bağlantının taşıma katmanı
+     * @return Oluşturulan istemci
+     */
+    SClient registerClient(ClientChannel channel) {
+        int clientId = clientIdCounter.getAndIncrement();
+        SClient client = new SClient(channel, this, clientId);
+        
+        connectedClients.put(clientId, client);
+        client.startHeartbeat();
+        return client;
+    }
+    
+    /**
+     * Bağlanan istemciye verilecek yeni bir devam anahtarı üretir
+     * @return Sıfırdan farklı anahtar
+     */
+    long newResumeToken() {
+        long token;
+        do {
+            token = tokenRandom.nextLong();
+        } while (token == 0);
+        return token;
+    }
+    
+    /**
+     * Devam anahtarı süren bir oturumdaki oyuncuya aitse istemci oyuncunun
+     * ID'sini alır. Oyuncunun eski bağlantısı henüz kopmuş görünmüyorsa
+     * (yarı açık TCP bağlantısı) oturuma eklenirken kapatılır.
+     * @param client Yeniden bağlanan istemci
+     * @param token İstemcinin gönderdiği devam anahtarı
+     * @return Devam edilecek oturum; anahtar geçersizse null
+     */
+    GameSession claimResumableSession(SClient client, long token) {
+        GameSession session = resumableSessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        int playerId = session.getClient1().getResumeToken() == token
+                ? session.getClient1().getClientId()
+                : session.getClient2().getClientId();
+        connectedClients.remove(client.getClientId(), client);
+        client.adoptClientId(playerId);
+        connectedClients.put(playerId, client);
+        System.out.println("İstemci oturum " + session.getSessionId() + " oyununa devam ediyor: ID=" + playerId);
+        return session;
+    }
+    
+    /**
+     * Oturumdaki oyuncuların devam anahtarlarını kaydeder; bağlantısı kopan
+     * oyuncu bu anahtarla oyuna döner. Botların anahtarı olmadığı için atlanır.
+     * @param session Başlayan oturum
+     */
+    private void registerResumeTokens(GameSession session) {
+        for (SClient client : new SClient[] {session.getClient1(), session.getClient2()}) {
+            if (client.getResumeToken() != 0) {
+                resumableSessions.put(client.getResumeToken(), session);
+            }
+        }
     }
     
     /**
@@ -86,62 +269,48 @@ public class GameServer {
      * @param client Bağlanan istemci
      */
     public void clientConnected(SClient client) {
-        System.out.println("İstemci bağlandı: ID=" + client.getClientId());
+        clientConnected(client, true);
+    }
+    
+    /**
+     * Yeni bağlanan istemciyi işler
+     * @param client Bağlanan istemci
+     * @param matchmaking İstemci eşleşmeye girsin mi? İzleyiciler için false
+     */
+    void clientConnected(SClient client, boolean matchmaking) {
+        System.out.println("İstemci bağlandı: ID=" + client.getClientId() + (matchmaking ? "" : " (izleyici)"));
         
-        synchronized (waitingClients) {
-            waitingClients.add(client);
-            
-            if (waitingClients.size() >= 2) {
-                SClient client1 = waitingClients.get(0);
-                SClient client2 = waitingClients.get(1);
-                
-                GameSession session = new GameSession(client1, client2, this);
-                
-                synchronized (gameSessions) {
-                    gameSessions.put(client1.getClientId(), session);
-                    gameSessions.put(client2.getClientId(), session);
-                }
-                
-                waitingClients.remove(client1);
-                waitingClients.remove(client2);
-                
-                session.startSession();
-            } else {
-                try {
-                    client.sendMessage(Message.generateMessage(MessageType.GAME_UPDATE, "Rakip bekleniyor..."));
-                } catch (IOException e) {
-                    System.err.println("Bekleme mesajı gönderilirken hata: " + e.getMessage());
-                }
-            }
+        if (matchmaking) {
+            enqueueForMatch(client);
         }
     }
     
     /**
-     * Bağlantısı kesilen istemciyi işler ve gerekli temizlik işlemlerini yapar
+     * Bağlantısı kesilen istemciyi işler ve gerekli temizlik işlemlerini yapar.
+     * İstemci bir oyundaysa oyun hemen bitmez; oyuncunun yeniden bağlanma
+     * süresi başlar (bkz. setReconnectGraceMillis).
      * @param client Bağlantısı kesilen istemci
      */
     public void clientDisconnected(SClient client) {
         System.out.println("İstemci bağlantısı kesildi: ID=" + client.getClientId());
         
-        synchronized (connectedClients) {
-            connectedClients.remove(client);
-        }
+        connectedClients.remove(client.getClientId(), client);
+        stopSpectating(client);
         
-        synchronized (gameSessions) {
-            GameSession session = gameSessions.get(client.getClientId());
-            if (session != null) {
-                session.endSession();
-                
-                gameSessions.remove(client.getClientId());
-                
-                SClient otherClient = (session.getClient1() == client) ? session.getClient2() : session.getClient1();
-                gameSessions.remove(otherClient.getClientId());
-            }
+        GameSession session = gameSessions.get(client.getClientId());
+        if (session != null && reconnectGraceMillis > 0 && client.getResumeToken() != 0) {
+            // Oyun hemen bitmez; oyuncu süresi içinde devam anahtarıyla dönebilir
+            session.playerDisconnected(client);
+        } else if (session != null) {
+            session.endSession();
+            
+            gameSessions.remove(client.getClientId(), session);
+            
+            SClient otherClient = (session.getClient1() == client) ? session.getClient2() : session.getClient1();
+            gameSessions.remove(otherClient.getClientId(), session);
         }
         
-        synchronized (waitingClients) {
-            waitingClients.remove(client);
-        }
+        matchmaker.remove(client);
     }
     
     /**
@@ -149,77 +318,631 @@ public class GameServer {
      * @param client İstekte bulunan istemci
      */
     public void requestGameStart(SClient client) {
-        synchronized (waitingClients) {
-            if (!waitingClients.contains(client)) {
-                waitingClients.add(client);
+        stopSpectating(client);
+        enqueueForMatch(client);
+    }
+    
+    /**
+     * İstemcinin izleme isteğini işler. İstemci izlediği başka bir oyun
+     * varsa ondan ayrılır ve eşleşme kuyruğundan çıkarılır.
+     * @param client İstekte bulunan istemci
+     * @param data İzlenecek oturum numarası; boşsa süren herhangi bir oturum
+     */
+    public void requestSpectate(SClient client, String data) {
+        String error = null;
+        GameSession session = findLiveSession(data);
+        if (gameSessions.containsKey(client.getClientId())) {
+            error = "Oyundayken başka bir oyunu izleyemezsiniz.";
+        } else if (session == null) {
+            error = "İzlenecek oyun bulunamadı.";
+        } else {
+            matchmaker.remove(client);
+            GameSession previous = spectating.put(client.getClientId(), session);
+            if (previous == session) {
+                return;
             }
-            if (waitingClients.size() >= 2) {
-                SClient client1 = waitingClients.get(0);
-                SClient client2 = waitingClients.get(1);
-                GameSession session = new GameSession(client1, client2, this);
-                synchronized (gameSessions) {
-                    gameSessions.put(client1.getClientId(), session);
-                    gameSessions.put(client2.getClientId(), session);
-                }
-                waitingClients.remove(client1);
-                waitingClients.remove(client2);
-                session.startSession();
-            } else {
-                try {
-                    client.sendMessage(Message.generateMessage(MessageType.GAME_UPDATE, "Rakip bekleniyor..."));
-                } catch (IOException e) {
-                    System.err.println("Bekleme mesajı gönderilirken hata: " + e.getMessage());
-                }
+            if (previous != null) {
+                previous.removeSpectator(client);
+            }
+            session.addSpectator(client);
+            System.out.println("İstemci " + client.getClientId() + " oturum " + session.getSessionId() + " oyununu izliyor.");
+        }
+        
+        if (error != null) {
+            try {
+                client.sendMessage(MessageType.ERROR, error);
+            } catch (IOException e) {
+                System.err.println("Hata mesajı gönderilirken hata: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * İzleme isteğindeki oturumu bulur
+     * @param data Oturum numarası; boşsa ya da 0 ise süren herhangi bir oturum
+     * @return Oturum; bulunamazsa null
+     */
+    private GameSession findLiveSession(String data) {
+        String id = data == null ? "" : data.trim();
+        if (id.isEmpty() || id.equals("0")) {
+            for (GameSession session : liveSessions.values()) {
+                return session;
+            }
+            return null;
+        }
+        try {
+            return liveSessions.get(Integer.parseInt(id));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * İstemci bir oyunu izliyorsa oturumun yayınından çıkarır
+     * @param client İstemci
+     */
+    private void stopSpectating(SClient client) {
+        GameSession watched = spectating.remove(client.getClientId());
+        if (watched != null) {
+            watched.removeSpectator(client);
+        }
+    }
+    
+    /**
+     * Oturumun yayını izleyiciyi çıkardığında (oyun bitti ya da izleyici
+     * geride kaldı) çağrılır
+     * @param client İzleyici
+     * @param session İzlenen oturum
+     */
+    void spectatorRemoved(SClient client, GameSession session) {
+        spectating.remove(client.getClientId(), session);
+    }
+    
+    /**
+     * Oyun izleyen istemci sayısını döndürür
+     * @return İzleyici sayısı
+     */
+    public int getSpectatorCount() {
+        return spectating.size();
+    }
+    
+    /**
+     * İzleyici yayınlarının ve izleyicilere yazmanın yapıldığı havuzu döndürür.
+     * Oturum thread'leri izleyicilerin soketlerine hiçbir zaman yazmaz.
+     * @return İzleyici yazıcıları
+     */
+    Executor getSpectatorExecutor() {
+        return spectatorWriters;
+    }
+    
+    /**
+     * İstemciyi eşleşme kuyruğuna ekler. Kuyrukta bekleyen yoksa istemci
+     * büyük olasılıkla bekleyecektir; bekleme mesajı kuyruğa girmeden önce
+     * gönderilir ki başka bir thread'in başlattığı oyunun mesajlarından
+     * sonra gelmesin.
+     * @param client Oyun bekleyen istemci
+     */
+    private void enqueueForMatch(SClient client) {
+        if (matchmaker.getQueueDepth() == 0) {
+            try {
+                client.sendMessage(WAITING_FOR_OPPONENT);
+            } catch (IOException e) {
+                System.err.println("Bekleme mesajı gönderilirken hata: " + e.getMessage());
+            }
+        }
+        matchmaker.enqueue(client, this);
+    }
+    
+    /**
+     * Eşleştirici tarafından eşlenen iki istemci için oyun oturumu başlatır.
+     * Hiçbir ortak kilit tutulmaz; başlatma oturumun olay kutusuna eklenir.
+     * @param client1 Birinci oyuncu
+     * @param client2 İkinci oyuncu
+     */
+    void startGameSession(SClient client1, SClient client2) {
+        GameSession session = new GameSession(client1, client2, this, rules);
+        
+        gameSessions.put(client1.getClientId(), session);
+        gameSessions.put(client2.getClientId(), session);
+        registerResumeTokens(session);
+        metrics.sessionStarted();
+        
+        liveSessions.put(session.getSessionId(), session);
+        session.startSession();
+    }
+    
+    /**
+     * Rakip bekleme süresini aşan istemcilerin botlarla eşleşmesini açar.
+     * Bot hamleleri işlemci sayısının dörtte biri kadar thread'li ayrı bir
+     * havuzda hesaplanır.
+     * @param waitMillis Botla eşleşmeden önce rakip beklenecek süre (ms)
+     */
+    public void enableBots(long waitMillis) {
+        enableBots(Math.max(1, Runtime.getRuntime().availableProcessors() / 4), DEFAULT_MAX_BOTS, waitMillis);
+    }
+    
+    /**
+     * Rakip bekleme süresini aşan istemcilerin botlarla eşleşmesini açar
+     * @param threads Bot hamlelerini hesaplayan thread sayısı
+     * @param maxBots Aynı anda oynayabilecek en fazla bot
+     * @param waitMillis Botla eşleşmeden önce rakip beklenecek süre (ms)
+     */
+    public void enableBots(int threads, int maxBots, long waitMillis) {
+        if (botPool != null) {
+            botPool.shutdown();
+        }
+        botPool = new BotPool(threads, maxBots, waitMillis);
+        botPool.start(this);
+    }
+    
+    /**
+     * Bekleme süresini aşan istemcileri kuyruktan alıp botlarla eşleştirir.
+     * BotPool tarafından düzenli olarak tek bir thread'de çağrılır.
+     */
+    void pairWaitingWithBots() {
+        BotPool pool = botPool;
+        GameRules sessionRules = rules;
+        if (pool == null || !running
+                || (long) sessionRules.getWidth() * sessionRules.getHeight() > BotClient.MAX_CELLS) {
+            return;
+        }
+        long minWait = TimeUnit.MILLISECONDS.toNanos(pool.getWaitMillis());
+        for (SClient client : matchmaker.takeWaitingLongerThan(minWait, pool.getAvailableBots())) {
+            if (!pool.tryAcquire()) {
+                matchmaker.enqueue(client, this);
+                continue;
             }
+            startBotSession(client, pool, sessionRules);
         }
     }
     
     /**
-     * Oyuncunun hamlesini işler ve ilgili oyun oturumuna iletir
+     * İstemci için bir bot rakiple oyun oturumu başlatır
+     * @param client Rakip bekleyen istemci
+     * @param pool Botun hamlelerini hesaplayacak havuz
+     * @param sessionRules Oyunun kuralları
+     */
+    private void startBotSession(SClient client, BotPool pool, GameRules sessionRules) {
+        BotClient bot = new BotClient(this, pool, clientIdCounter.getAndIncrement(), sessionRules);
+        try {
+            client.sendMessage(MATCHED_WITH_BOT);
+        } catch (IOException e) {
+            System.err.println("Bot eşleşme mesajı gönderilirken hata: " + e.getMessage());
+        }
+        
+        GameSession session = new GameSession(client, bot, this, sessionRules);
+        gameSessions.put(client.getClientId(), session);
+        gameSessions.put(bot.getClientId(), session);
+        registerResumeTokens(session);
+        metrics.sessionStarted();
+        liveSessions.put(session.getSessionId(), session);
+        session.startSession();
+    }
+    
+    /**
+     * Oyuncunun hamlesini ilgili oyun oturumunun olay kutusuna iletir.
+     * Hamle oturum havuzunda işlenir; çağıran okuma thread'i beklemez.
+     * Sunucu aşırı yüklüyse hamle reddedilir ve istemciye bildirilir.
      * @param client Hamle yapan istemci
      * @param move Yapılan hamle
      */
     public void processPlayerMove(SClient client, Move move) {
-        synchronized (gameSessions) {
-            GameSession session = gameSessions.get(client.getClientId());
-            if (session != null) {
-                session.processPlayerMove(client.getClientId(), move);
-            } else {
-                try {
-                    client.sendMessage(Message.generateMessage(
-                        MessageType.ERROR, 
-                        "Aktif bir oyunda değilsiniz."
-                    ));
-                } catch (IOException e) {
-                    System.err.println("Hata mesajı gönderilirken hata: " + e.getMessage());
-                }
+        GameSession session = gameSessions.get(client.getClientId());
+        String error = null;
+        if (session == null) {
+            error = "Aktif bir oyunda değilsiniz.";
+        } else if (!session.processPlayerMove(client.getClientId(), move)) {
+            error = "Sunucu yoğun, hamleniz işlenemedi. Lütfen tekrar deneyin.";
+        }
+        
+        if (error != null) {
+            try {
+                client.sendMessage(MessageType.ERROR, error);
+            } catch (IOException e) {
+                System.err.println("Hata mesajı gönderilirken hata: " + e.getMessage());
             }
         }
     }
     
     /**
-     * Oyun oturumunu sonlandırır ve kaynakları temizler
+     * İstemcinin tahtasında boşluk oluştuğunda tam tahta gönderir
+     * @param client İsteği yapan istemci
+     */
+    public void requestBoardSync(SClient client) {
+        GameSession session = gameSessions.get(client.getClientId());
+        if (session != null) {
+            session.sendSnapshot(client);
+        }
+    }
+    
+    /**
+     * Oyun oturumunu sonlandırır ve kaynakları temizler. Yalnızca bu
+     * oturuma ait kayıtlar silinir; oyuncu bu arada yeni bir oyuna
+     * başladıysa yeni oturum korunur.
      * @param session Sonlandırılacak oyun oturumu
      */
     public void endGameSession(GameSession session) {
-        synchronized (gameSessions) {
-            gameSessions.remove(session.getClient1().getClientId());
-            gameSessions.remove(session.getClient2().getClientId());
+        metrics.sessionEnded();
+        liveSessions.remove(session.getSessionId(), session);
+        gameSessions.remove(session.getClient1().getClientId(), session);
+        gameSessions.remove(session.getClient2().getClientId(), session);
+        resumableSessions.remove(session.getClient1().getResumeToken(), session);
+        resumableSessions.remove(session.getClient2().getResumeToken(), session);
+        
+        for (SClient client : new SClient[] {session.getClient1(), session.getClient2()}) {
+            if (client instanceof BotClient bot) {
+                bot.gameEnded();
+            }
         }
     }
     
+    /**
+     * Ölçümleri yerel adreste HTTP üzerinden JSON olarak sunmaya başlar
+     * (bkz. MetricsHttpServer)
+     * @param port Dinlenecek port
+     * @throws IOException Port açılamazsa
+     */
+    public void startMetricsEndpoint(int port) throws IOException {
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
+        metricsServer = new MetricsHttpServer(this, port);
+    }
+    
+    /**
+     * Yeni oturumları hamle günlüğüne yazmaya başlar (bkz. MoveJournal)
+     * @param directory Günlük dizini
+     * @throws IOException Dizin ya da ilk segment oluşturulamazsa
+     */
+    public void enableJournal(Path directory) throws IOException {
+        MoveJournal old = journal;
+        journal = new MoveJournal(directory);
+        if (old != null) {
+            old.close();
+        }
+    }
+    
+    /**
+     * Süren oturumların çökme sonrası kurtarılmak üzere kaydedilmesini açar
+     * (bkz. SnapshotStore). Dizinde önceki çalıştırmadan kalan oturumlar
+     * varsa yeniden kurulur; oyuncuları devam anahtarlarıyla bağlanınca
+     * oyunlarına kaldıkları yerden devam eder. Yeniden bağlanma süresi
+     * içinde dönmeyen oyuncunun oyunu biter. Sunucu başlatılmadan önce
+     * çağrılmalıdır.
+     * @param directory Kayıt dizini
+     * @param intervalMillis Değişen oturumların kaydedilme aralığı (ms)
+     * @return Kayıttan kurulan oturum sayısı
+     * @throws IOException Kayıtlar okunamaz ya da yazılamazsa
+     */
+    public int enableSnapshots(Path directory, long intervalMillis) throws IOException {
+        SnapshotStore store = new SnapshotStore(directory, intervalMillis);
+        int restored = 0;
+        int lastSessionId = 0;
+        int lastPlayerId = 0;
+        for (SessionSnapshot snapshot : store.getRecoveredSessions()) {
+            lastSessionId = Math.max(lastSessionId, snapshot.getSessionId());
+            lastPlayerId = Math.max(lastPlayerId, Math.max(snapshot.getPlayer1(), snapshot.getPlayer2()));
+            GameSession session;
+            try {
+                session = new GameSession(snapshot, this);
+            } catch (RuntimeException e) {
+                System.err.println("Oturum " + snapshot.getSessionId() + " kayıttan kurulamadı: " + e.getMessage());
+                store.discard(snapshot.getSessionId());
+                continue;
+            }
+            gameSessions.put(snapshot.getPlayer1(), session);
+            gameSessions.put(snapshot.getPlayer2(), session);
+            registerResumeTokens(session);
+            metrics.sessionStarted();
+            store.track(session, true);
+            session.awaitReconnects();
+            liveSessions.put(session.getSessionId(), session);
+            restored++;
+        }
+        GameSession.reserveSessionIds(lastSessionId);
+        clientIdCounter.accumulateAndGet(lastPlayerId + 1, Math::max);
+        
+        SnapshotStore old = snapshotStore;
+        snapshotStore = store;
+        if (old != null) {
+            old.close();
+        }
+        return restored;
+    }
+    
+    /**
+     * Sunucunun ortak zamanlayıcısını döndürür. Bağlantı ya da oturum başına
+     * ayrı Timer veya uyuyan thread yerine bu zamanlayıcı kullanılmalıdır.
+     * @return Zamanlayıcı
+     */
+    public HashedWheelTimer getTimer() {
+        return timer;
+    }
+    
+    /**
+     * Bağlantısı kopan oyuncunun süresi dolduğunda çalışacak görevi zamanlar
+     * @param task Süre dolunca çalışacak görev
+     * @param delayMillis Süre (ms)
+     * @return İptal edilebilir görev
+     */
+    HashedWheelTimer.Timeout scheduleReconnectExpiry(Runnable task, long delayMillis) {
+        return timer.schedule(task, delayMillis);
+    }
+    
+    /**
+     * Gönderilen bir yoklamayı sayar
+     */
+    void heartbeatSent() {
+        heartbeatsSent.incrementAndGet();
+    }
+    
+    /**
+     * Boşta kaldığı için kapatılan bir bağlantıyı sayar
+     */
+    void idleConnectionReaped() {
+        idleConnectionsReaped.incrementAndGet();
+    }
+    
+    /**
+     * Süresi dolan bir hamleyi sayar
+     * @param forfeited Oyuncu bu yüzden oyunu kaybettiyse true
+     */
+    void turnTimedOut(boolean forfeited) {
+        turnTimeouts.incrementAndGet();
+        if (forfeited) {
+            turnForfeits.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Gönderilen yoklama sayısını döndürür
+     * @return Yoklama sayısı
+     */
+    public long getHeartbeatsSent() {
+        return heartbeatsSent.get();
+    }
+    
+    /**
+     * Boşta kaldığı için kapatılan bağlantı sayısını döndürür
+     * @return Bağlantı sayısı
+     */
+    public long getIdleConnectionsReaped() {
+        return idleConnectionsReaped.get();
+    }
+    
+    /**
+     * Süresi dolan hamle sayısını döndürür
+     * @return Hamle sayısı
+     */
+    public long getTurnTimeouts() {
+        return turnTimeouts.get();
+    }
+    
+    /**
+     * Hamle süresini üst üste doldurduğu için kaybedilen oyun sayısını döndürür
+     * @return Oyun sayısı
+     */
+    public long getTurnForfeits() {
+        return turnForfeits.get();
+    }
+    
+    /**
+     * Yoklama aralığını döndürür
+     * @return Aralık (ms); 0 ise yoklama kapalı
+     */
+    public long getHeartbeatMillis() {
+        return heartbeatMillis;
+    }
+    
+    /**
+     * Bağlantının boşta sayılıp kapatılacağı süreyi döndürür
+     * @return Süre (ms)
+     */
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+    
+    /**
+     * Sessiz bağlantılara yoklama gönderme aralığını ayarlar. Bağlantı
+     * IDLE_HEARTBEATS aralık boyunca hiçbir şey göndermezse kapatılır.
+     * Yalnızca bundan sonra kabul edilen bağlantıları etkiler.
+     * @param heartbeatMillis Aralık (ms); 0 ise yoklama ve boşta bağlantı kapatma kapalı
+     */
+    public void setHeartbeatMillis(long heartbeatMillis) {
+        this.heartbeatMillis = heartbeatMillis;
+        this.idleTimeoutMillis = IDLE_HEARTBEATS * heartbeatMillis;
+    }
+    
+    /**
+     * Oyuncunun hamle yapması için süreyi döndürür
+     * @return Süre (ms); 0 ise sınırsız
+     */
+    public long getTurnTimeoutMillis() {
+        return turnTimeoutMillis;
+    }
+    
+    /**
+     * Oyuncunun hamle yapması için süreyi ayarlar. Süresinde hamle yapmayan
+     * oyuncunun sırası rakibe geçer; üst üste GameSession.MAX_MISSED_TURNS
+     * kez süresini dolduran oyuncu oyunu kaybeder.
+     * @param turnTimeoutMillis Süre (ms); 0 ise sınırsız
+     */
+    public void setTurnTimeoutMillis(long turnTimeoutMillis) {
+        this.turnTimeoutMillis = turnTimeoutMillis;
+    }
+    
+    /**
+     * Yeniden bağlanması beklenen oyuncu sayısını günceller
+     * @param delta Eklenen (+1) ya da çıkan (-1) oyuncu
+     */
+    void awaitingReconnect(int delta) {
+        awaitingReconnect.addAndGet(delta);
+    }
+    
+    /**
+     * Süresi içinde oyuna dönen bir oyuncuyu sayar
+     */
+    void playerReconnected() {
+        reconnectedPlayers.incrementAndGet();
+    }
+    
+    /**
+     * Yeniden bağlanma süresi dolan bir oyuncuyu sayar
+     */
+    void reconnectExpired() {
+        expiredReconnects.incrementAndGet();
+    }
+    
+    /**
+     * Bağlantısı kopan oyuncunun oyuna dönebileceği süreyi döndürür
+     * @return Süre (ms); 0 ise bağlantı kopunca oyun biter
+     */
+    public long getReconnectGraceMillis() {
+        return reconnectGraceMillis;
+    }
+    
+    /**
+     * Bağlantısı kopan oyuncunun oyuna dönebileceği süreyi ayarlar. Süre
+     * içinde devam anahtarıyla bağlanan oyuncu oyuna kaldığı yerden devam
+     * eder; dönmezse rakibi kazanır.
+     * @param reconnectGraceMillis Süre (ms); 0 ise bağlantı kopunca oyun hemen biter
+     */
+    public void setReconnectGraceMillis(long reconnectGraceMillis) {
+        this.reconnectGraceMillis = reconnectGraceMillis;
+    }
+    
+    /**
+     * Oturum kurtarma kayıtlarının deposunu döndürür
+     * @return Depo; kapalıysa null
+     */
+    public SnapshotStore getSnapshotStore() {
+        return snapshotStore;
+    }
+    
+    /**
+     * Hamle günlüğünü döndürür
+     * @return Günlük; kapalıysa null
+     */
+    public MoveJournal getJournal() {
+        return journal;
+    }
+    
+    /**
+     * Konsoldaki status komutu için çok satırlı durum raporu oluşturur
+     * @return Durum raporu
+     */
+    public String getStatusReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Sunucu çalışıyor (%.0f sn). Bağlı istemci: %d, süren oturum: %d, bekleyen oturum olayı: %d, reddedilen: %d%n",
+                metrics.getUptimeSeconds(), getConnectedClientCount(), metrics.getLiveSessions(),
+                sessionExecutor.getPendingEvents(), sessionExecutor.getRejectedEvents()));
+        report.append(String.format("Eşleşme kuyruğu: %d, eşleşen oyuncu: %d, eşleşme süresi ort/en çok: %.1f/%.1f ms%n",
+                matchmaker.getQueueDepth(), matchmaker.getMatchedPlayers(),
+                matchmaker.getAverageTimeToMatchMillis(), matchmaker.getMaxTimeToMatchMillis()));
+        if (botPool != null) {
+            report.append("Oynayan bot: ").append(botPool.getActiveBots()).append(System.lineSeparator());
+        }
+        SnapshotStore store = snapshotStore;
+        if (store != null) {
+            report.append(String.format("Oturum kayıtları: %d oturum izleniyor, %d kayıt yazıldı, son tur %.1f ms%n",
+                    store.getTrackedSessions(), store.getSnapshotsWritten(), store.getLastCycleNanos() / 1_000_000.0));
+        }
+        report.append(String.format("Yeniden bağlanma: bekleyen %d, dönen %d, süresi dolan %d%n",
+                awaitingReconnect.get(), reconnectedPlayers.get(), expiredReconnects.get()));
+        report.append(String.format("Zaman aşımı: yoklama %d, boşta kapatılan %d, süresi dolan hamle %d, süreden kaybedilen oyun %d%n",
+                heartbeatsSent.get(), idleConnectionsReaped.get(), turnTimeouts.get(), turnForfeits.get()));
+        report.append(String.format("Zamanlayıcı: bekleyen %d, zamanlanan %d, çalışan %d, iptal edilen %d%n",
+                timer.getPending(), timer.getScheduled(), timer.getExpired(), timer.getCancelled()));
+        report.append(String.format("İzleyici: %d, paylaşılan çerçeve: %d kodlandı / %d dağıtıldı, aralıklı tahtaya düşen %d, canlıya dönen %d, kapatılan %d%n",
+                spectating.size(), metrics.getSpectatorEncodes(), metrics.getSpectatorFrames(),
+                metrics.getSpectatorDowngrades(), metrics.getSpectatorRecoveries(), metrics.getSpectatorDrops()));
+        MoveJournal moveJournal = journal;
+        if (moveJournal != null) {
+            report.append(String.format("Hamle günlüğü: %s, %d kayıt, %d bayt%n", moveJournal.getDirectory(),
+                    moveJournal.getRecordCount(), moveJournal.getBytesWritten()));
+        }
+        report.append(String.format("Hamle: %d (%.1f/sn), gelen: %d bayt / %d çerçeve, giden: %d bayt / %d çerçeve%n",
+                metrics.getMoves(), reportMoveRate.perSecond(), metrics.getBytesIn(), metrics.getFramesIn(),
+                metrics.getBytesOut(), metrics.getFramesOut()));
+        report.append("Mesaj işleme süreleri (µs):").append(System.lineSeparator());
+        for (MessageType type : MessageType.values()) {
+            LatencyStats.Snapshot latency = metrics.getMessageLatency(type);
+            if (latency.getCount() > 0) {
+                appendLatency(report, type.name(), latency);
+            }
+        }
+        appendLatency(report, "MOVE (oturumda)", metrics.getMoveLatency());
+        appendLatency(report, "Zamanlayıcı gecikmesi", timer.getLateness());
+        appendLatency(report, "Zamanlayıcı tıkı", timer.getTickDuration());
+        appendLatency(report, "İzleyici dağıtımı", metrics.getFanOutLatency());
+        return report.toString().stripTrailing();
+    }
+    
+    private static void appendLatency(StringBuilder report, String label, LatencyStats.Snapshot latency) {
+        report.append(String.format("  %-20s n=%d ort=%.1f p50=%.1f p90=%.1f p99=%.1f max=%.1f%n", label,
+                latency.getCount(), latency.getMean() / 1_000, latency.percentile(0.50) / 1_000.0,
+                latency.percentile(0.90) / 1_000.0, latency.percentile(0.99) / 1_000.0, latency.getMax() / 1_000.0));
+    }
+    
+    /**
+     * Sunucunun ölçüm sayaçlarını döndürür
+     * @return Ölçümler
+     */
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Oturum olaylarını işleyen havuzu döndürür
+     * @return Oturum havuzu
+     */
+    public SessionExecutor getSessionExecutor() {
+        return sessionExecutor;
+    }
+    
+    /**
+     * Oyun bekleyen istemcileri eşleştiren bileşeni döndürür
+     * @return Eşleştirici
+     */
+    public Matchmaker getMatchmaker() {
+        return matchmaker;
+    }
+    
+    /**
+     * Bot havuzunu döndürür
+     * @return Bot havuzu; botlar kapalıysa null
+     */
+    public BotPool getBotPool() {
+        return botPool;
+    }
+    
+    /**
+     * Yeni oturumlarda kullanılan kuralları döndürür
+     * @return Tahta boyutu ve filo
+     */
+    public GameRules getRules() {
+        return rules;
+    }
+    
+    /**
+     * Bundan sonra başlayacak oturumların kurallarını ayarlar;
+     * süren oturumlar kendi kurallarıyla devam eder
+     * @param rules Tahta boyutu ve filo
+     */
+    public void setRules(GameRules rules) {
+        this.rules = rules;
+    }
+    
     /**
      * Tüm bağlı istemcilere mesaj gönderir
      * @param msg Gönderilecek mesaj
      */
     public void broadcastMessage(String msg) {
-        synchronized (connectedClients) {
-            for (SClient client : connectedClients) {
-                try {
-                    client.sendMessage(msg);
-                } catch (IOException e) {
-                    System.err.println("Toplu mesaj gönderilirken hata: " + e.getMessage());
-                }
+        for (SClient client : connectedClients.values()) {
+            try {
+                client.sendMessage(msg);
+            } catch (IOException e) {
+                System.err.println("Toplu mesaj gönderilirken hata: " + e.getMessage());
             }
         }
     }
@@ -230,40 +953,73 @@ public class GameServer {
      * @param msg Gönderilecek mesaj
      */
     public void sendToClient(int clientId, String msg) {
-        synchronized (connectedClients) {
-            for (SClient client : connectedClients) {
-                if (client.getClientId() == clientId) {
-                    try {
-                        client.sendMessage(msg);
-                    } catch (IOException e) {
-                        System.err.println("İstemciye mesaj gönderilirken hata: " + e.getMessage());
-                    }
-                    break;
-                }
+        SClient client = connectedClients.get(clientId);
+        if (client != null) {
+            try {
+                client.sendMessage(msg);
+            } catch (IOException e) {
+                System.err.println("İstemciye mesaj gönderilirken hata: " + e.getMessage());
             }
         }
     }
     
+    /**
+     * ID'si verilen bağlı istemciyi döndürür
+     * @param clientId İstemci ID'si
+     * @return İstemci; bağlı değilse null
+     */
+    public SClient getClient(int clientId) {
+        return connectedClients.get(clientId);
+    }
+    
+    /**
+     * Bağlı istemci sayısını döndürür
+     * @return İstemci sayısı
+     */
+    public int getConnectedClientCount() {
+        return connectedClients.size();
+    }
+    
     /**
      * Sunucuyu güvenli bir şekilde kapatır
      * Tüm bağlantıları ve kaynakları temizler
      */
     public void shutdown() {
         running = false;
+        // Bağlantılar kapanınca biten oturumlar kayıttan silinmesin; yeniden başlatılan sunucu oyunlara devam eder
+        if (snapshotStore != null) {
+            snapshotStore.close();
+        }
         try {
             if (serverSocket != null && !serverSocket.isClosed()) {
                 serverSocket.close();
             }
+            if (nioServer != null) {
+                nioServer.shutdown();
+            }
+            if (metricsServer != null) {
+                metricsServer.stop();
+            }
             
-            synchronized (connectedClients) {
-                for (SClient client : connectedClients) {
-                    client.disconnect();
-                }
-                connectedClients.clear();
+            List<SClient> clients = new ArrayList<>(connectedClients.values());
+            connectedClients.clear();
+            for (SClient client : clients) {
+                client.disconnect();
             }
             
-            waitingClients.clear();
+            matchmaker.clear();
             gameSessions.clear();
+            liveSessions.clear();
+            spectating.clear();
+            spectatorWriters.shutdownNow();
+            sessionExecutor.shutdown();
+            timer.stop();
+            if (botPool != null) {
+                botPool.shutdown();
+            }
+            if (journal != null) {
+                journal.close();
+            }
         } catch (IOException e) {
             System.err.println("Sunucu kapatılırken hata: " + e.getMessage());
         }
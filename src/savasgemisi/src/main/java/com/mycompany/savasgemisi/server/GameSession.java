@@ -1,102 +1,425 @@
 package com.mycompany.savasgemisi.server;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+import com.mycompany.savasgemisi.common.GameRules;
 import com.mycompany.savasgemisi.common.Message;
 import com.mycompany.savasgemisi.common.MessageType;
 import com.mycompany.savasgemisi.common.Move;
+import com.mycompany.savasgemisi.common.PreEncodedMessage;
 
 /**
  * İki oyuncu arasındaki oyun oturumunu yöneten sınıf.
  * Bu sınıf, iki oyuncu arasındaki oyun akışını kontrol eder ve
  * oyuncular arasındaki iletişimi koordine eder.
+ *
+ * Oturum bir aktör gibi çalışır: dışarıdan gelen istekler (başlatma, hamle,
+ * tahta isteği, bağlantı kopması) olay kutusuna eklenir ve SessionExecutor
+ * havuzunda sırayla işlenir. Oturum aynı anda yalnızca bir thread'de
+ * çalıştığı için oyun durumu kilitsizdir; okuma thread'leri yalnızca olay
+ * ekleyip I/O'ya geri döner.
+ *
+ * Bağlantısı kopan oyuncunun yeri, sunucunun yeniden bağlanma süresi
+ * boyunca bağlantısız bir istemciyle tutulur. Oyuncu bu sürede devam
+ * anahtarıyla bağlanırsa oyuna kaldığı yerden devam eder; dönmezse rakibi kazanır.
+ *
+ * Sıradaki oyuncunun hamle süresi sunucunun ortak zamanlayıcısında işler.
+ * Süresinde hamle yapmayan oyuncunun sırası rakibe geçer; üst üste
+ * MAX_MISSED_TURNS kez süresini dolduran oyuncu oyunu kaybeder.
+ *
+ * Oturumu izleyen istemciler oyunculardan ayrı bir yayından (SpectatorFeed)
+ * beslenir: her güncelleme oturum thread'inde bir kez kodlanır, izleyicilere
+ * yazılması ise oturumu bekletmez.
  */
 public class GameSession {
-    private SClient client1;
-    private SClient client2;
+    /** Tek bir oturumda bekleyebilecek en fazla ertelenebilir olay sayısı */
+    private static final int MAX_MAILBOX_SIZE = 32;
+    /** Bir boşaltma görevinde işlenecek en fazla olay; diğer oturumlar aç kalmasın */
+    private static final int DRAIN_BATCH = 16;
+    /** Oyuncunun oyunu kaybetmeden önce üst üste doldurabileceği hamle süresi sayısı */
+    static final int MAX_MISSED_TURNS = 3;
+    /** Oyun sonu mesajları; her oyunda aynı olduğu için bir kez kodlanır */
+    private static final PreEncodedMessage GAME_WON = PreEncodedMessage.of(MessageType.GAME_OVER, "Tebrikler! Kazandınız!");
+    private static final PreEncodedMessage GAME_LOST = PreEncodedMessage.of(MessageType.GAME_OVER, "Üzgünüz, kaybettiniz.");
+    private static final PreEncodedMessage GAME_DRAWN = PreEncodedMessage.of(MessageType.GAME_OVER, "Oyun bitti! Beraberlik.");
+    private static final PreEncodedMessage OPPONENT_RETURNED = PreEncodedMessage.of(MessageType.GAME_UPDATE, "Rakip oyuna geri döndü.");
+    private static final PreEncodedMessage TURN_SKIPPED = PreEncodedMessage.of(MessageType.GAME_UPDATE, "Hamle süreniz doldu, sıra rakibe geçti.");
+    private static final PreEncodedMessage OPPONENT_TURN_SKIPPED = PreEncodedMessage.of(MessageType.GAME_UPDATE, "Rakip süresinde hamle yapmadı.");
+    
+    /** Oyuncular yeniden bağlandığında oturum thread'inde değiştirilir */
+    private volatile SClient client1;
+    private volatile SClient client2;
     private BattleshipGame game;
     private GameServer server;
     private static AtomicInteger sessionCounter = new AtomicInteger(1);
     private int sessionId;
+    /** Her tahta değişikliğinde artan sıra numarası; istemciler boşlukları bununla fark eder */
+    private int boardSequence = 0;
+    /** Fark mesajları için yeniden kullanılan tampon */
+    private final long[] changes = new long[1];
+    /** Oturum sonlandı mı? Sonraki olaylar yok sayılır */
+    private boolean ended = false;
+    /** Kaydedilmesi gereken her durum değişikliğinde artar (bkz. SnapshotStore) */
+    private volatile int stateVersion = 0;
+    /** Bağlantısı kopan oyuncuların (birinci, ikinci) yeniden bağlanma süreleri; null ise oyuncu bağlı */
+    private final HashedWheelTimer.Timeout[] reconnectTimers = new HashedWheelTimer.Timeout[2];
+    /** Sıradaki oyuncunun hamle süresi; null ise süre işlemiyor */
+    private HashedWheelTimer.Timeout turnClock;
+    /** Her yeni hamle süresinde artar; eski sürelerin olayları bununla ayırt edilir */
+    private int turnNumber = 0;
+    /** Oyuncuların (birinci, ikinci) üst üste doldurduğu hamle süresi sayısı */
+    private final int[] missedTurns = new int[2];
+    /** Oturumu izleyenlere güncellemeleri dağıtan yayın; ilk izleyici gelince oluşturulur */
+    private SpectatorFeed spectators;
+    /** Yayına eklenmeyi bekleyen izleyiciler; aynı anda gelenler tek bir olayda eklenir */
+    private final Queue<SClient> pendingSpectators = new ConcurrentLinkedQueue<>();
+    /** Bekleyen izleyicileri ekleyecek olay kutuda mı? */
+    private final AtomicBoolean admittingSpectators = new AtomicBoolean(false);
+    
+    private final SessionExecutor executor;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger mailboxSize = new AtomicInteger();
+    /** Oturumun boşaltma görevi havuzda sırada ya da çalışıyor mu? */
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
     
     /**
-     * Yeni bir oyun oturumu oluşturur
+     * Standart kurallarla yeni bir oyun oturumu oluşturur
      * @param client1 Birinci oyuncunun istemci bağlantısı
      * @param client2 İkinci oyuncunun istemci bağlantısı
      * @param server Sunucu referansı
      */
     public GameSession(SClient client1, SClient client2, GameServer server) {
+        this(client1, client2, server, GameRules.STANDARD);
+    }
+    
+    /**
+     * Verilen kurallarla yeni bir oyun oturumu oluşturur
+     * @param client1 Birinci oyuncunun istemci bağlantısı
+     * @param client2 İkinci oyuncunun istemci bağlantısı
+     * @param server Sunucu referansı
+     * @param rules Oturumun tahta boyutu ve filosu
+     */
+    public GameSession(SClient client1, SClient client2, GameServer server, GameRules rules) {
         this.client1 = client1;
         this.client2 = client2;
         this.server = server;
-        this.game = new BattleshipGame();
+        this.executor = server.getSessionExecutor();
+        this.game = new BattleshipGame(rules);
         this.sessionId = sessionCounter.getAndIncrement();
         
-        this.game.setPlayer1(new Player(client1.getClientId(), "Player " + client1.getClientId()));
-        this.game.setPlayer2(new Player(client2.getClientId(), "Player " + client2.getClientId()));
+        this.game.setPlayer1(new Player(client1.getClientId(), "Player " + client1.getClientId(),
+                rules.getWidth(), rules.getHeight()));
+        this.game.setPlayer2(new Player(client2.getClientId(), "Player " + client2.getClientId(),
+                rules.getWidth(), rules.getHeight()));
+    }
+    
+    /**
+     * Kayıttan yeniden kurulan bir oturum oluşturur. Oyuncular bağlı değildir;
+     * devam anahtarlarıyla bağlandıklarında reattach ile oturuma eklenirler.
+     * @param snapshot Oturumun kaydedilmiş durumu
+     * @param server Sunucu referansı
+     * @throws IllegalStateException Kayıt gemi yerleşimiyle uyuşmuyorsa
+     */
+    GameSession(SessionSnapshot snapshot, GameServer server) {
+        this.server = server;
+        this.executor = server.getSessionExecutor();
+        this.game = snapshot.restoreGame();
+        this.sessionId = snapshot.getSessionId();
+        this.boardSequence = snapshot.getBoardSequence();
+        this.client1 = SClient.detached(server, snapshot.getPlayer1(), snapshot.getToken(snapshot.getPlayer1()));
+        this.client2 = SClient.detached(server, snapshot.getPlayer2(), snapshot.getToken(snapshot.getPlayer2()));
+    }
+    
+    /**
+     * Yeni oturumlara verilecek numaraların kayıttan kurulan oturumlarla
+     * çakışmaması için sayacı ilerletir
+     * @param lastSessionId Kullanılmış en büyük oturum numarası
+     */
+    static void reserveSessionIds(int lastSessionId) {
+        sessionCounter.accumulateAndGet(lastSessionId + 1, Math::max);
     }
     
     /**
      * Oyun oturumunu başlatır ve oyuncuları hazırlar
      */
     public void startSession() {
+        submit(this::start, true);
+    }
+    
+    /**
+     * Oyuncunun hamlesini oturumun olay kutusuna ekler
+     * @param playerId Hamle yapan oyuncunun ID'si
+     * @param move Yapılan hamle
+     * @return Hamle kabul edildiyse true; sunucu ya da oturum aşırı yüklüyse false
+     */
+    public boolean processPlayerMove(int playerId, Move move) {
+        long queued = System.nanoTime();
+        return submit(() -> applyMove(playerId, move, queued), false);
+    }
+    
+    /**
+     * Oyun oturumunu beraberlik durumunda sonlandırır
+     */
+    public void endSession() {
+        submit(() -> endSession(null), true);
+    }
+    
+    /**
+     * Oturumdan durumunu kaydetmesini ister; durum oturum thread'inde kopyalanıp SnapshotStore'a verilir
+     */
+    void requestSnapshot() {
+        submit(this::captureSnapshot, true);
+    }
+    
+    /**
+     * Bağlantısı kopan oyuncunun yeni bağlantısını oturuma ekler ve ona
+     * oyunun güncel durumunu gönderir. İstemci oyuncunun ID'sini almış olmalıdır.
+     * @param client Oyuncunun yeni bağlantısı
+     */
+    void reattach(SClient client) {
+        submit(() -> attach(client), true);
+    }
+    
+    /**
+     * Oyuncunun bağlantısı koptuğunda oyunu bitirmek yerine yeniden
+     * bağlanma süresini başlatır
+     * @param client Bağlantısı kopan istemci
+     */
+    void playerDisconnected(SClient client) {
+        submit(() -> detach(client), true);
+    }
+    
+    /**
+     * Kayıttan kurulan oturumda iki oyuncu için de yeniden bağlanma süresini
+     * başlatır; kimse dönmezse oturum sonsuza dek bellekte kalmaz
+     */
+    void awaitReconnects() {
+        submit(() -> {
+            long grace = server.getReconnectGraceMillis();
+            if (grace <= 0) {
+                grace = GameServer.DEFAULT_RECONNECT_GRACE_MILLIS;
+            }
+            awaitReconnect(0, client1, grace);
+            awaitReconnect(1, client2, grace);
+        }, true);
+    }
+    
+    /**
+     * Her iki oyuncuya güncel oyun durumunu tam olarak gönderir
+     */
+    public void broadcastGameState() {
+        submit(() -> {
+            writeSnapshot(client1);
+            writeSnapshot(client2);
+        }, false);
+    }
+    
+    /**
+     * Bir oyuncuya kendi tahtasını ve rakip görünümünü tam olarak gönderir.
+     * İstemci fark mesajlarında boşluk fark ettiğinde kullanılır.
+     * @param client Tahtaları alacak istemci
+     */
+    public void sendSnapshot(SClient client) {
+        submit(() -> writeSnapshot(client), false);
+    }
+    
+    /**
+     * İstemciyi oturumun izleyicisi yapar. İzleyici oyuncuların gemi
+     * yerleşimlerini oyun bitene kadar görmez. Aynı anda katılan izleyiciler
+     * tek bir olayda eklenir ve aynı kodlanmış tahtayı paylaşır; katılma
+     * dalgası oturumun kutusunu doldurup hamleleri reddettirmez.
+     * @param client İzlemek isteyen istemci
+     */
+    void addSpectator(SClient client) {
+        pendingSpectators.add(client);
+        if (admittingSpectators.compareAndSet(false, true)) {
+            submit(this::admitSpectators, true);
+        }
+    }
+    
+    /**
+     * İzleyiciyi oturumun yayınından çıkarır
+     * @param client İzleyici
+     */
+    void removeSpectator(SClient client) {
+        submit(() -> {
+            if (spectators != null) {
+                spectators.leave(client);
+            }
+        }, true);
+    }
+    
+    /**
+     * Yayın, geride kalan izleyicilere tam tahta gönderme zamanı geldiğinde
+     * ortak zamanlayıcıda çağırır
+     */
+    void spectatorSnapshotDue() {
+        submit(() -> {
+            if (!ended && spectators != null) {
+                spectators.snapshotDue(boardSequence, publicBoard(0), publicBoard(1));
+            }
+        }, true);
+    }
+    
+    /**
+     * Olayı oturumun kutusuna ekler ve oturum havuzda sırada değilse sıraya alır
+     * @param event Oturum thread'inde çalışacak olay
+     * @param critical Aşırı yükte bile kabul edilmeli mi?
+     * @return Olay kabul edildiyse true
+     */
+    private boolean submit(Runnable event, boolean critical) {
+        if (!critical && mailboxSize.get() >= MAX_MAILBOX_SIZE) {
+            executor.rejected();
+            return false;
+        }
+        if (!executor.tryAcquire(critical)) {
+            return false;
+        }
+        mailboxSize.incrementAndGet();
+        mailbox.add(event);
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+        return true;
+    }
+    
+    /**
+     * Havuz thread'inde olay kutusunu boşaltır. Olayların ürettiği mesajlar
+     * tek bir OutboundBatch içinde toplanıp sonda gönderilir.
+     */
+    private void drain() {
+        int processed = 0;
+        OutboundBatch.open();
+        try {
+            Runnable event;
+            while (processed < DRAIN_BATCH && (event = mailbox.poll()) != null) {
+                processed++;
+                try {
+                    event.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Oturum olayı işlenirken hata: " + e.getMessage());
+                }
+            }
+        } finally {
+            OutboundBatch.close();
+            mailboxSize.addAndGet(-processed);
+            executor.release(processed);
+            scheduled.set(false);
+            if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+    }
+    
+    /**
+     * Tahtaları hazırlar ve oyunculara başlangıç durumunu gönderir
+     */
+    private void start() {
+        if (ended) {
+            return;
+        }
         game.initializeBoards();
         
         game.placeShips(game.getPlayer1());
         game.placeShips(game.getPlayer2());
+        MoveJournal journal = server.getJournal();
+        if (journal != null) {
+            journal.recordSessionStart(sessionId, game);
+        }
+        SnapshotStore snapshots = server.getSnapshotStore();
+        if (snapshots != null && client1.getResumeToken() != 0 && client2.getResumeToken() != 0) {
+            snapshots.track(this, false);
+        }
         
-        String startMsg = Message.generateMessage(MessageType.GAME_START, 
-            "Oyun başladı! SessionID:" + sessionId + " Oyuncular: " + client1.getClientId() + " & " + client2.getClientId());
+        String startMsg = gameStartMessage();
         System.out.println("GAME_START mesajı: " + startMsg);
         try {
             client1.sendMessage(startMsg);
             client2.sendMessage(startMsg);
             
-            broadcastGameState();
+            writeSnapshot(client1);
+            writeSnapshot(client2);
             
-            String turnMsg = Message.generateMessage(MessageType.GAME_UPDATE, "Sıra sizde");
-            client1.sendMessage(turnMsg);
-            client2.sendMessage(Message.generateMessage(MessageType.GAME_UPDATE, "Rakibin sırası"));
+            client1.sendTurn(true);
+            client2.sendTurn(false);
         } catch (Exception e) {
             System.err.println("Oyun oturumu başlatılırken hata: " + e.getMessage());
         }
+        restartTurnClock();
     }
     
     /**
      * Oyuncunun hamlesini işler ve sonuçları oyunculara bildirir
      * @param playerId Hamle yapan oyuncunun ID'si
      * @param move Yapılan hamle
+     * @param queued Hamlenin olay kutusuna eklendiği an (System.nanoTime)
      */
-    public void processPlayerMove(int playerId, Move move) {
-        Player currentPlayer = (playerId == game.getPlayer1().getId()) 
-                             ? game.getPlayer1() 
+    private void applyMove(int playerId, Move move, long queued) {
+        if (ended) {
+            return;
+        }
+        Player currentPlayer = (playerId == game.getPlayer1().getId())
+                             ? game.getPlayer1()
                              : game.getPlayer2();
         
-        boolean isHit = game.makeMove(currentPlayer, move.getX(), move.getY());
+        Player targetPlayer = (currentPlayer == game.getPlayer1()) ? game.getPlayer2() : game.getPlayer1();
+        Player.Board targetBoard = targetPlayer.getBoard();
+        int x = move.getX();
+        int y = move.getY();
+        boolean inBounds = x >= 0 && x < targetBoard.getWidth() && y >= 0 && y < targetBoard.getHeight();
+        Player.Board.CellState before = inBounds ? targetBoard.getCell(x, y) : null;
         
-        updateGameState();
+        boolean isHit = game.makeMove(currentPlayer, x, y);
+        boolean sunk = isHit && game.wasLastShotSunk();
+        server.getMetrics().recordMove(queued);
+        if (inBounds && targetBoard.getCell(x, y) != before) {
+            stateVersion++;
+            missedTurns[currentPlayer == game.getPlayer1() ? 0 : 1] = 0;
+            // Geçersiz hamleler süreyi yeniden başlatmaz; yoksa oyuncu süreyi sonsuza dek uzatabilirdi
+            restartTurnClock();
+            MoveJournal journal = server.getJournal();
+            if (journal != null) {
+                int result = sunk ? BinaryProtocol.RESULT_SUNK : isHit ? BinaryProtocol.RESULT_HIT : BinaryProtocol.RESULT_MISS;
+                journal.recordMove(sessionId, playerId, x, y, result);
+            }
+        }
         
-        String resultMsg = Message.generateMessage(
-            MessageType.GAME_UPDATE, 
-            "Hamle: " + move.getX() + "," + move.getY() + " - " + (isHit ? "İSABET!" : "ISKA")
-        );
+        updateGameState();
         
         try {
             SClient senderClient = (playerId == client1.getClientId()) ? client1 : client2;
             SClient otherClient = (playerId == client1.getClientId()) ? client2 : client1;
             
-            senderClient.sendMessage(resultMsg);
-            otherClient.sendMessage(resultMsg);
+            senderClient.sendMoveResult(move, isHit, sunk);
+            otherClient.sendMoveResult(move, isHit, sunk);
             
-            broadcastGameState();
+            Player.Board.CellState after = inBounds ? targetBoard.getCell(x, y) : null;
+            if (after != before) {
+                boardSequence++;
+                int state = after.ordinal();
+                changes[0] = BinaryProtocol.packChange(BinaryProtocol.BOARD_OPPONENT, x, y, state);
+                senderClient.sendBoardDelta(boardSequence, currentPlayer, changes, 1);
+                changes[0] = BinaryProtocol.packChange(BinaryProtocol.BOARD_OWN, x, y, state);
+                otherClient.sendBoardDelta(boardSequence, targetPlayer, changes, 1);
+                if (spectators != null) {
+                    // İzleyicilerde birinci oyuncunun tahtası BOARD_OWN, ikincininki BOARD_OPPONENT'tır
+                    int board = targetPlayer == game.getPlayer1() ? BinaryProtocol.BOARD_OWN : BinaryProtocol.BOARD_OPPONENT;
+                    spectators.publishMove(boardSequence, BinaryProtocol.packChange(board, x, y, state),
+                            publicBoard(0), publicBoard(1));
+                }
+            }
             
             int currentPlayerId = game.getCurrentPlayerId();
             if (game.getState() != BattleshipGame.GameState.GAME_OVER) {
                 SClient currentTurnClient = (currentPlayerId == client1.getClientId()) ? client1 : client2;
                 SClient waitingClient = (currentPlayerId == client1.getClientId()) ? client2 : client1;
                 
-                currentTurnClient.sendMessage(Message.generateMessage(MessageType.GAME_UPDATE, "Sıra sizde"));
-                waitingClient.sendMessage(Message.generateMessage(MessageType.GAME_UPDATE, "Rakibin sırası"));
+                currentTurnClient.sendTurn(true);
+                waitingClient.sendTurn(false);
             }
         } catch (Exception e) {
             System.err.println("Oyuncu hamlesi işlenirken hata: " + e.getMessage());
@@ -104,7 +427,8 @@ public class GameSession {
     }
     
     /**
-     * Oyun durumunu günceller ve gerekirse oyunu sonlandırır
+     * Oyun durumunu günceller ve gerekirse oyunu sonlandırır.
+     * Yalnızca oturum thread'inde çağrılmalıdır.
      */
     public void updateGameState() {
         if (game.getState() == BattleshipGame.GameState.GAME_OVER) {
@@ -114,34 +438,41 @@ public class GameSession {
     }
     
     /**
-     * Oyun oturumunu beraberlik durumunda sonlandırır
-     */
-    public void endSession() {
-        endSession(null);
-    }
-    
-    /**
-     * Oyun oturumunu kazanan belirli olarak sonlandırır
+     * Oyun oturumunu kazanan belirli olarak sonlandırır.
+     * Yalnızca oturum thread'inde çağrılmalıdır.
      * @param winner Kazanan oyuncu (null ise beraberlik)
      */
     public void endSession(Player winner) {
+        if (ended) {
+            return;
+        }
+        ended = true;
+        stopAwaiting(0);
+        stopAwaiting(1);
+        stopTurnClock();
+        MoveJournal journal = server.getJournal();
+        if (journal != null) {
+            journal.recordSessionEnd(sessionId, winner == null ? 0 : winner.getId());
+        }
+        SnapshotStore snapshots = server.getSnapshotStore();
+        if (snapshots != null) {
+            snapshots.remove(sessionId);
+        }
+        if (spectators != null) {
+            // Gemi yerleşimleri ancak şimdi izleyicilere açılır
+            spectators.finish(boardSequence, game.getPlayer1().getBoard(), game.getPlayer2().getBoard(),
+                    winner == null ? "Oyun bitti! Beraberlik." : "Oyun bitti! Kazanan: Oyuncu " + winner.getId());
+        }
         try {
-            String endMsg;
             if (winner != null) {
-                endMsg = Message.generateMessage(
-                    MessageType.GAME_OVER, 
-                    "Oyun bitti! Kazanan: Player " + winner.getId()
-                );
-                
                 SClient winnerClient = (winner.getId() == client1.getClientId()) ? client1 : client2;
                 SClient loserClient = (winner.getId() == client1.getClientId()) ? client2 : client1;
                 
-                winnerClient.sendMessage(Message.generateMessage(MessageType.GAME_OVER, "Tebrikler! Kazandınız!"));
-                loserClient.sendMessage(Message.generateMessage(MessageType.GAME_OVER, "Üzgünüz, kaybettiniz."));
+                winnerClient.sendMessage(GAME_WON);
+                loserClient.sendMessage(GAME_LOST);
             } else {
-                endMsg = Message.generateMessage(MessageType.GAME_OVER, "Oyun bitti! Beraberlik.");
-                client1.sendMessage(endMsg);
-                client2.sendMessage(endMsg);
+                client1.sendMessage(GAME_DRAWN);
+                client2.sendMessage(GAME_DRAWN);
             }
             
             server.endGameSession(this);
@@ -151,18 +482,242 @@ public class GameSession {
     }
     
     /**
-     * Her iki oyuncuya güncel oyun durumunu gönderir
+     * Sıradaki oyuncunun hamle süresini baştan başlatır
      */
-    public void broadcastGameState() {
+    private void restartTurnClock() {
+        stopTurnClock();
+        long timeout = server.getTurnTimeoutMillis();
+        if (ended || timeout <= 0 || game.getState() == BattleshipGame.GameState.GAME_OVER) {
+            return;
+        }
+        int turn = ++turnNumber;
+        turnClock = server.getTimer().schedule(() -> submit(() -> turnExpired(turn), true), timeout);
+    }
+    
+    private void stopTurnClock() {
+        if (turnClock != null) {
+            turnClock.cancel();
+            turnClock = null;
+        }
+    }
+    
+    /**
+     * Süresinde hamle yapmayan oyuncunun sırasını rakibe geçirir; oyuncu
+     * üst üste MAX_MISSED_TURNS kez süresini doldurduysa rakibi kazanır.
+     * Oyuncunun bağlantısı kopmuşsa yeniden bağlanma süresi geçerlidir;
+     * oyuncu dönünce hamle süresi yeniden başlar.
+     * @param turn Süresi dolan hamle süresinin numarası
+     */
+    private void turnExpired(int turn) {
+        if (ended || turn != turnNumber || turnClock == null) {
+            return;
+        }
+        turnClock = null;
+        int slot = game.getCurrentPlayerId() == game.getPlayer1().getId() ? 0 : 1;
+        if (reconnectTimers[slot] != null) {
+            return;
+        }
+        missedTurns[slot]++;
+        boolean forfeited = missedTurns[slot] >= MAX_MISSED_TURNS;
+        server.turnTimedOut(forfeited);
+        SClient idle = slot == 0 ? client1 : client2;
+        SClient opponent = slot == 0 ? client2 : client1;
+        if (forfeited) {
+            System.out.println("Oyuncu " + idle.getClientId() + " üst üste " + MAX_MISSED_TURNS
+                    + " kez hamle yapmadı, oturum " + sessionId + " sona eriyor.");
+            endSession(slot == 0 ? game.getPlayer2() : game.getPlayer1());
+            return;
+        }
+        game.skipTurn();
+        stateVersion++;
         try {
-            Player player1 = game.getPlayer1();
-            Player player2 = game.getPlayer2();
-            
-            String p1Data = player1.getBoard().serialize() + "," + player1.getOpponentView().serialize();
-            client1.sendMessage(Message.generateMessage(MessageType.GAME_UPDATE, "BOARD:" + p1Data));
-            
-            String p2Data = player2.getBoard().serialize() + "," + player2.getOpponentView().serialize();
-            client2.sendMessage(Message.generateMessage(MessageType.GAME_UPDATE, "BOARD:" + p2Data));
+            idle.sendMessage(TURN_SKIPPED);
+            opponent.sendMessage(OPPONENT_TURN_SKIPPED);
+            idle.sendTurn(false);
+            opponent.sendTurn(true);
+        } catch (Exception e) {
+            System.err.println("Hamle süresi bildirilirken hata: " + e.getMessage());
+        }
+        restartTurnClock();
+    }
+    
+    /**
+     * Oturumun durumunu kodlayıp kayıt deposuna verir. Oturum thread'inde
+     * çalıştığı için hamlelerle aynı anda çalışmaz; kopyalama hamleleri
+     * yalnızca bu oturumda ve kodlama süresi kadar geciktirir.
+     */
+    private void captureSnapshot() {
+        SnapshotStore snapshots = server.getSnapshotStore();
+        if (ended || snapshots == null) {
+            return;
+        }
+        snapshots.offer(sessionId, SessionSnapshot.encode(game, client1.getResumeToken(),
+                client2.getResumeToken(), boardSequence));
+    }
+    
+    /**
+     * Oyuncunun yerini bağlantısız bir istemciyle tutar ve yeniden bağlanma
+     * süresini başlatır. Oyuncunun yerine yeni bir bağlantı geçmişse eski
+     * bağlantının kopması yok sayılır.
+     */
+    private void detach(SClient client) {
+        if (ended || (client != client1 && client != client2)) {
+            return;
+        }
+        int slot = client == client1 ? 0 : 1;
+        SClient placeholder = SClient.detached(server, client.getClientId(), client.getResumeToken());
+        if (slot == 0) {
+            client1 = placeholder;
+        } else {
+            client2 = placeholder;
+        }
+        long grace = server.getReconnectGraceMillis();
+        awaitReconnect(slot, placeholder, grace);
+        
+        SClient opponent = slot == 0 ? client2 : client1;
+        try {
+            opponent.sendMessage(MessageType.GAME_UPDATE, "Rakibin bağlantısı koptu; "
+                    + grace / 1000 + " sn içinde dönmezse oyunu kazanırsınız.");
+        } catch (Exception e) {
+            System.err.println("Bağlantı kopması bildirilirken hata: " + e.getMessage());
+        }
+    }
+    
+    private void awaitReconnect(int slot, SClient placeholder, long graceMillis) {
+        reconnectTimers[slot] = server.scheduleReconnectExpiry(
+                () -> submit(() -> reconnectExpired(placeholder), true), graceMillis);
+        server.awaitingReconnect(1);
+    }
+    
+    /**
+     * Oyuncunun yeniden bağlanma süresini durdurur
+     * @return Oyuncunun dönmesi bekleniyor idiyse true
+     */
+    private boolean stopAwaiting(int slot) {
+        HashedWheelTimer.Timeout timer = reconnectTimers[slot];
+        if (timer == null) {
+            return false;
+        }
+        timer.cancel();
+        reconnectTimers[slot] = null;
+        server.awaitingReconnect(-1);
+        return true;
+    }
+    
+    /**
+     * Süresinde dönmeyen oyuncu oyunu kaybeder; rakibinin de bağlantısı
+     * yoksa oyun berabere biter
+     */
+    private void reconnectExpired(SClient placeholder) {
+        if (ended || (placeholder != client1 && placeholder != client2)) {
+            return;
+        }
+        int slot = placeholder == client1 ? 0 : 1;
+        stopAwaiting(slot);
+        server.reconnectExpired();
+        System.out.println("Oyuncu " + placeholder.getClientId() + " süresi içinde dönmedi, oturum "
+                + sessionId + " sona eriyor.");
+        SClient opponent = slot == 0 ? client2 : client1;
+        Player winner = null;
+        if (!opponent.isClosed()) {
+            winner = opponent.getClientId() == game.getPlayer1().getId() ? game.getPlayer1() : game.getPlayer2();
+        }
+        endSession(winner);
+    }
+    
+    /**
+     * Oyuncunun yeni bağlantısını eski bağlantısının yerine koyar ve ona
+     * oyunun başlangıç mesajını, tahtalarını ve sırayı gönderir. Eski
+     * bağlantı hâlâ açık görünüyorsa (yarı açık TCP bağlantısı) kapatılır.
+     * Oyun bu arada bittiyse istemci yeni bir oyun için eşleşmeye girer.
+     */
+    private void attach(SClient client) {
+        try {
+            if (ended) {
+                client.sendMessage(MessageType.GAME_UPDATE, "Önceki oyun sona erdi.");
+                server.requestGameStart(client);
+                return;
+            }
+            int slot = client.getClientId() == game.getPlayer1().getId() ? 0 : 1;
+            SClient previous = slot == 0 ? client1 : client2;
+            if (slot == 0) {
+                client1 = client;
+            } else {
+                client2 = client;
+            }
+            server.playerReconnected();
+            if (stopAwaiting(slot)) {
+                (slot == 0 ? client2 : client1).sendMessage(OPPONENT_RETURNED);
+            } else if (previous != client) {
+                previous.disconnect();
+            }
+            client.sendMessage(gameStartMessage());
+            writeSnapshot(client);
+            if (game.getState() != BattleshipGame.GameState.GAME_OVER) {
+                client.sendTurn(game.getCurrentPlayerId() == client.getClientId());
+            }
+        } catch (Exception e) {
+            System.err.println("Oyuncu oturuma yeniden eklenirken hata: " + e.getMessage());
+        }
+        if (!ended && (turnClock == null || game.getCurrentPlayerId() == client.getClientId())) {
+            restartTurnClock();
+        }
+    }
+    
+    private void admitSpectators() {
+        admittingSpectators.set(false);
+        SClient client;
+        while ((client = pendingSpectators.poll()) != null) {
+            watch(client);
+        }
+    }
+    
+    /**
+     * İzleyiciyi oturumun yayınına ekler; oyun bittiyse istemciye bildirir
+     */
+    private void watch(SClient client) {
+        if (ended) {
+            server.spectatorRemoved(client, this);
+            try {
+                client.sendMessage(MessageType.ERROR, "Oyun sona erdi.");
+            } catch (Exception e) {
+                System.err.println("İzleme yanıtı gönderilirken hata: " + e.getMessage());
+            }
+            return;
+        }
+        if (spectators == null) {
+            spectators = new SpectatorFeed(this, server, Message.generateMessage(MessageType.GAME_START,
+                    "İzleniyor! SessionID:" + sessionId + " Oyuncular: " + game.getPlayer1().getId() + " & "
+                    + game.getPlayer2().getId() + " " + GameRules.PREFIX + game.getRules().encode()));
+        }
+        spectators.join(client, boardSequence, publicBoard(0), publicBoard(1));
+    }
+    
+    /**
+     * Oyuncunun tahtasının rakibine (ve izleyicilere) görünen kısmını döndürür
+     * @param slot Oyuncu (0 birinci, 1 ikinci)
+     * @return Yalnızca atışları içeren tahta
+     */
+    private Player.Board publicBoard(int slot) {
+        return (slot == 0 ? game.getPlayer2() : game.getPlayer1()).getOpponentView();
+    }
+    
+    private String gameStartMessage() {
+        return Message.generateMessage(MessageType.GAME_START,
+            "Oyun başladı! SessionID:" + sessionId + " Oyuncular: " + game.getPlayer1().getId() + " & " + game.getPlayer2().getId()
+            + " " + GameRules.PREFIX + game.getRules().encode());
+    }
+    
+    /**
+     * Bir oyuncuya tahtalarını oturum thread'inde gönderir
+     * @param client Tahtaları alacak istemci
+     */
+    private void writeSnapshot(SClient client) {
+        try {
+            Player player = (client.getClientId() == game.getPlayer1().getId())
+                          ? game.getPlayer1()
+                          : game.getPlayer2();
+            client.sendBoards(boardSequence, player.getBoard(), player.getOpponentView());
         } catch (Exception e) {
             System.err.println("Oyun durumu yayınlanırken hata: " + e.getMessage());
         }
@@ -183,4 +738,20 @@ public class GameSession {
     public SClient getClient2() {
         return client2;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Oturum numarasını döndürür
+     * @return Oturum numarası
+     */
+    public int getSessionId() {
+        return sessionId;
+    }
+    
+    /**
+     * Oturumun durum sürümünü döndürür; kaydedilmesi gereken her değişiklikte artar
+     * @return Durum sürümü
+     */
+    public int getStateVersion() {
+        return stateVersion;
+    }
+}
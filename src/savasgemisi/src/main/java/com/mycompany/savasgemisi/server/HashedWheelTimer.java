@@ -0,0 +1,364 @@
+package com.mycompany.savasgemisi.server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sunucudaki tüm zaman aşımlarını (yoklama, boşta bağlantı, hamle süresi,
+ * yeniden bağlanma süresi) tek bir thread'de izleyen karma çarklı zamanlayıcı.
+ *
+ * Çark, her biri bir tık süresini temsil eden kovalardan oluşur. Zaman aşımı
+ * süresinin düştüğü kovaya eklenir ve çarkın kaç tur döneceği kaydedilir;
+ * thread her tıkta yalnızca sıradaki kovayı gezer. Ekleme ve iptal O(1)'dir,
+ * zaman aşımı başına tek bir küçük nesne tutulur ve bağlantı başına ayrı bir
+ * Timer ya da uyuyan thread gerekmez. Karşılığında süreler tık
+ * hassasiyetindedir: görev en geç bir tık geç çalışır.
+ *
+ * Ekleme ve iptaller kilitsiz kuyruklara yazılır ve çark thread'inde
+ * uygulanır; kovalar yalnızca bu thread tarafından değiştirilir. Süresi
+ * dolan görevler çark thread'inde çalışır, bu yüzden kısa olmalı ve
+ * bloklamamalıdır; uzun işler oturumun olay kutusuna ya da bir havuza
+ * aktarılmalıdır.
+ */
+public final class HashedWheelTimer {
+    /** Varsayılan tık süresi */
+    public static final long DEFAULT_TICK_MILLIS = 100;
+    /** Varsayılan kova sayısı; varsayılan tıkla bir tur yaklaşık 51 sn sürer */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+    /** Bir tıkta kovalara aktarılacak en fazla yeni zaman aşımı; ani yüklerde tık gecikmesin */
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+    
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Thread worker;
+    private final long startNanos = System.nanoTime();
+    private final Queue<Timeout> additions = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancellations = new ConcurrentLinkedQueue<>();
+    /** Zamanlanmış ama henüz çalışmamış ve iptal edilmemiş zaman aşımı sayısı */
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    /** Görevlerin süresi dolduktan sonra ne kadar geç çalıştığı */
+    private final LatencyStats lateness = new LatencyStats();
+    /** Bir tıkın işlenme süresi (aktarma, iptal ve süresi dolan görevler dahil) */
+    private final LatencyStats tickDuration = new LatencyStats();
+    private volatile boolean running = true;
+    /** Çark thread'inin işlediği son tık; yalnızca çark thread'i yazar */
+    private long tick = 0;
+    
+    /**
+     * Çarktaki kovalardan biri; zaman aşımlarını çift yönlü bağlı listede tutar
+     */
+    private static final class Bucket {
+        Timeout head;
+        Timeout tail;
+        
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+        
+        Timeout remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            return next;
+        }
+    }
+    
+    /**
+     * Zamanlanmış bir görev. İptal, görev çalışmadan önce yapılırsa görev hiç çalışmaz.
+     */
+    public static final class Timeout {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        /** Durum ayrı bir AtomicInteger yerine alanda tutulur; zaman aşımı başına bir nesne az */
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+        
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        /** Çarkın başlangıcından itibaren süre sonu (ns) */
+        private final long deadline;
+        private volatile int state = WAITING;
+        /* Aşağıdakiler yalnızca çark thread'inde kullanılır */
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+        
+        private Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+        
+        /**
+         * Görevi iptal eder. Birden fazla kez çağrılması güvenlidir.
+         * @return Görev henüz çalışmamışsa ve bu çağrıyla iptal edildiyse true
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, WAITING, CANCELLED)) {
+                return false;
+            }
+            timer.pending.decrementAndGet();
+            timer.cancelled.increment();
+            timer.cancellations.add(this);
+            return true;
+        }
+        
+        /**
+         * Görevin iptal edilip edilmediğini döndürür
+         * @return İptal edildiyse true
+         */
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+        
+        /**
+         * Görevin süresinin dolup dolmadığını döndürür
+         * @return Görev çalıştıysa true
+         */
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+        
+        private void expire() {
+            if (!STATE.compareAndSet(this, WAITING, EXPIRED)) {
+                return;
+            }
+            timer.pending.decrementAndGet();
+            timer.expired.increment();
+            timer.lateness.record(System.nanoTime() - timer.startNanos - deadline);
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Zamanlanmış görevde hata: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Varsayılan tık süresi ve kova sayısıyla zamanlayıcıyı oluşturur ve başlatır
+     * @param name Çark thread'inin adı
+     */
+    public HashedWheelTimer(String name) {
+        this(name, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+    }
+    
+    /**
+     * Zamanlayıcıyı oluşturur ve çark thread'ini başlatır
+     * @param name Çark thread'inin adı
+     * @param tickMillis Tık süresi (ms); görevler en fazla bu kadar geç çalışır
+     * @param wheelSize Kova sayısı; ikinin kuvvetine yuvarlanır
+     */
+    public HashedWheelTimer(String name, long tickMillis, int wheelSize) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tık süresi ve kova sayısı pozitif olmalıdır");
+        }
+        int size = Integer.highestOneBit(Math.min(wheelSize, 1 << 30));
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+    
+    /**
+     * Görevi verilen süre sonra çark thread'inde çalışacak şekilde zamanlar
+     * @param task Kısa ve bloklamayan görev
+     * @param delayMillis Süre (ms)
+     * @return İptal edilebilir zaman aşımı
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        long deadline = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        Timeout timeout = new Timeout(this, task, deadline);
+        pending.incrementAndGet();
+        scheduled.increment();
+        if (!running) {
+            // Kapatılmış zamanlayıcıdaki görev hiç çalışmaz
+            timeout.cancel();
+            return timeout;
+        }
+        additions.add(timeout);
+        return timeout;
+    }
+    
+    /**
+     * Çark thread'inin ana döngüsü: her tık sınırına kadar uyur, ardından
+     * bekleyen eklemeleri ve iptalleri uygular ve sıradaki kovayı işler
+     */
+    private void run() {
+        while (running) {
+            long tickDeadline = (tick + 1) * tickNanos;
+            long sleepNanos = tickDeadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        break;
+                    }
+                    continue;
+                }
+            }
+            long start = System.nanoTime();
+            applyCancellations();
+            transferAdditions();
+            expireBucket(wheel[(int) (tick & mask)], tickDeadline);
+            tick++;
+            tickDuration.record(System.nanoTime() - start);
+        }
+        // Kapanışta bekleyen görevler çalışmaz; sayaçlar sızıntı gibi görünmesin
+        Timeout timeout;
+        while ((timeout = additions.poll()) != null) {
+            timeout.cancel();
+        }
+        for (Bucket bucket : wheel) {
+            for (Timeout t = bucket.head; t != null; t = t.next) {
+                t.cancel();
+            }
+            bucket.head = bucket.tail = null;
+        }
+        cancellations.clear();
+    }
+    
+    private void applyCancellations() {
+        Timeout timeout;
+        while ((timeout = cancellations.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+    
+    private void transferAdditions() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = additions.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state != Timeout.WAITING) {
+                continue;
+            }
+            // Süresi geçmiş görevler sıradaki kovaya konur; geriye dönük kova yoktur
+            long ticks = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.remainingRounds = (ticks - tick) / wheel.length;
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+    
+    private void expireBucket(Bucket bucket, long tickDeadline) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            if (timeout.state != Timeout.WAITING) {
+                timeout = bucket.remove(timeout);
+            } else if (timeout.remainingRounds <= 0 && timeout.deadline <= tickDeadline) {
+                Timeout next = bucket.remove(timeout);
+                timeout.expire();
+                timeout = next;
+            } else {
+                timeout.remainingRounds--;
+                timeout = timeout.next;
+            }
+        }
+    }
+    
+    /**
+     * Zamanlayıcıyı durdurur; bekleyen görevler çalışmaz
+     */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+    
+    /**
+     * Zamanlanmış, henüz çalışmamış ve iptal edilmemiş görev sayısını döndürür.
+     * Bağlantı ve oturum sayısından sürekli büyükse bir yerde iptal unutulmuştur.
+     * @return Bekleyen görev sayısı
+     */
+    public int getPending() {
+        return pending.get();
+    }
+    
+    /**
+     * Zamanlanan toplam görev sayısını döndürür
+     * @return Görev sayısı
+     */
+    public long getScheduled() {
+        return scheduled.sum();
+    }
+    
+    /**
+     * Süresi dolup çalışan görev sayısını döndürür
+     * @return Görev sayısı
+     */
+    public long getExpired() {
+        return expired.sum();
+    }
+    
+    /**
+     * Çalışmadan iptal edilen görev sayısını döndürür
+     * @return Görev sayısı
+     */
+    public long getCancelled() {
+        return cancelled.sum();
+    }
+    
+    /**
+     * Görevlerin süresi dolduktan sonra ne kadar geç çalıştığının dağılımını döndürür
+     * @return Anlık görüntü
+     */
+    public LatencyStats.Snapshot getLateness() {
+        return lateness.snapshot();
+    }
+    
+    /**
+     * Bir tıkın işlenme süresinin dağılımını döndürür; çark thread'inin yükünü gösterir
+     * @return Anlık görüntü
+     */
+    public LatencyStats.Snapshot getTickDuration() {
+        return tickDuration.snapshot();
+    }
+    
+    /**
+     * Tık süresini döndürür
+     * @return Tık süresi (ms)
+     */
+    public long getTickMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(tickNanos);
+    }
+}
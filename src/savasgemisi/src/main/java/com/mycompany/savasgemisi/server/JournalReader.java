@@ -0,0 +1,242 @@
+package com.mycompany.savasgemisi.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+import com.mycompany.savasgemisi.common.GameRules;
+
+/**
+ * MoveJournal segmentlerini yazıldıkları sırayla okuyup kayıtları bir
+ * dinleyiciye ileten sınıf. Yarım kalmış (sunucu çökerken yazılan) bir
+ * kayıtta o segmentin okunması durur; sonraki segmentlerle devam edilir.
+ */
+public final class JournalReader {
+    
+    /**
+     * Okunan kayıtları alan arayüz
+     */
+    public interface Listener {
+        
+        /**
+         * Bir oturumun başlangıç kaydı okunduğunda çağrılır
+         * @param start Oturumun kuralları ve gemi yerleşimleri
+         */
+        void sessionStarted(SessionStart start);
+        
+        /**
+         * Bir hamle kaydı okunduğunda çağrılır
+         * @param sessionId Oturum numarası
+         * @param playerId Hamleyi yapan oyuncu
+         * @param x Hedef x koordinatı
+         * @param y Hedef y koordinatı
+         * @param result BinaryProtocol.RESULT_* sonucu
+         */
+        void moveRecorded(int sessionId, int playerId, int x, int y, int result);
+        
+        /**
+         * Bir oturumun bitiş kaydı okunduğunda çağrılır
+         * @param sessionId Oturum numarası
+         * @param winnerId Kazanan oyuncu; beraberlik ya da yarıda kalan oyun için 0
+         */
+        void sessionEnded(int sessionId, int winnerId);
+    }
+    
+    /**
+     * Oturum başlangıç kaydının içeriği
+     */
+    public static final class SessionStart {
+        private final int sessionId;
+        private final long seed;
+        private final long startMillis;
+        private final int player1;
+        private final int player2;
+        private final GameRules rules;
+        private final int[] ships1;
+        private final int[] ships2;
+        
+        private SessionStart(int sessionId, long seed, long startMillis, int player1, int player2,
+                GameRules rules, int[] ships1, int[] ships2) {
+            this.sessionId = sessionId;
+            this.seed = seed;
+            this.startMillis = startMillis;
+            this.player1 = player1;
+            this.player2 = player2;
+            this.rules = rules;
+            this.ships1 = ships1;
+            this.ships2 = ships2;
+        }
+        
+        /**
+         * Oturum numarasını döndürür
+         * @return Oturum numarası
+         */
+        public int getSessionId() {
+            return sessionId;
+        }
+        
+        /**
+         * Oyunun tohumunu döndürür
+         * @return Tohum
+         */
+        public long getSeed() {
+            return seed;
+        }
+        
+        /**
+         * Oturumun başlangıç zamanını döndürür
+         * @return Epoch milisaniye
+         */
+        public long getStartMillis() {
+            return startMillis;
+        }
+        
+        /**
+         * Birinci oyuncunun ID'sini döndürür
+         * @return Oyuncu ID'si
+         */
+        public int getPlayer1() {
+            return player1;
+        }
+        
+        /**
+         * İkinci oyuncunun ID'sini döndürür
+         * @return Oyuncu ID'si
+         */
+        public int getPlayer2() {
+            return player2;
+        }
+        
+        /**
+         * Oturumun kurallarını döndürür
+         * @return Tahta boyutu ve filo
+         */
+        public GameRules getRules() {
+            return rules;
+        }
+        
+        /**
+         * Oyuncunun gemi hücrelerini döndürür
+         * @param playerId Oyuncu ID'si
+         * @return BinaryProtocol.packCoordinates ile paketlenmiş hücreler
+         */
+        public int[] getShipCells(int playerId) {
+            return playerId == player1 ? ships1.clone() : ships2.clone();
+        }
+    }
+    
+    private JournalReader() {
+    }
+    
+    /**
+     * Dizindeki tüm segmentleri sırayla okur
+     * @param directory Günlük dizini
+     * @param listener Kayıtları alacak dinleyici
+     * @return Okunan kayıt sayısı
+     * @throws IOException Segmentler okunamazsa
+     */
+    public static long read(Path directory, Listener listener) throws IOException {
+        long count = 0;
+        for (Path segment : MoveJournal.listSegments(directory)) {
+            count += readSegment(segment, listener);
+        }
+        return count;
+    }
+    
+    private static long readSegment(Path path, Listener listener) throws IOException {
+        MappedByteBuffer in;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (in.remaining() < MoveJournal.SEGMENT_HEADER_LENGTH || in.getInt() != MoveJournal.MAGIC) {
+            System.err.println("Geçersiz günlük segmenti: " + path);
+            return 0;
+        }
+        int version = in.getInt();
+        if (version != MoveJournal.VERSION) {
+            System.err.println("Desteklenmeyen günlük sürümü " + version + ": " + path);
+            return 0;
+        }
+        long count = 0;
+        while (in.remaining() >= MoveJournal.RECORD_HEADER_LENGTH) {
+            byte type = in.get();
+            if (type == 0) {
+                break;
+            }
+            int length = in.getInt();
+            if (length < 0 || length > in.remaining()) {
+                System.err.println("Yarım kalmış günlük kaydı: " + path + " @" + (in.position() - MoveJournal.RECORD_HEADER_LENGTH));
+                break;
+            }
+            ByteBuffer record = in.slice(in.position(), length);
+            in.position(in.position() + length);
+            try {
+                dispatch(type, record, listener);
+                count++;
+            } catch (RuntimeException e) {
+                System.err.println("Günlük kaydı okunamadı: " + path + " - " + e.getMessage());
+            }
+        }
+        return count;
+    }
+    
+    private static void dispatch(byte type, ByteBuffer record, Listener listener) {
+        switch (type) {
+            case MoveJournal.RECORD_SESSION_START -> listener.sessionStarted(readSessionStart(record));
+            case MoveJournal.RECORD_MOVE -> {
+                int sessionId = record.getInt();
+                int playerId = record.getInt();
+                int packed = record.getInt();
+                int result = record.get();
+                listener.moveRecorded(sessionId, playerId,
+                        BinaryProtocol.unpackX(packed), BinaryProtocol.unpackY(packed), result);
+            }
+            case MoveJournal.RECORD_SESSION_END -> listener.sessionEnded(record.getInt(), record.getInt());
+            default -> {
+                // Sonraki sürümlerin kayıt türleri atlanır
+            }
+        }
+    }
+    
+    private static SessionStart readSessionStart(ByteBuffer record) {
+        int sessionId = record.getInt();
+        long seed = record.getLong();
+        long startMillis = record.getLong();
+        int player1 = record.getInt();
+        int player2 = record.getInt();
+        int width = record.getShort() & 0xFFFF;
+        int height = record.getShort() & 0xFFFF;
+        int[] fleet = new int[checkedCount(record, record.getInt(), 2)];
+        for (int i = 0; i < fleet.length; i++) {
+            fleet[i] = record.getShort() & 0xFFFF;
+        }
+        int[] ships1 = readCells(record);
+        int[] ships2 = readCells(record);
+        return new SessionStart(sessionId, seed, startMillis, player1, player2,
+                new GameRules(width, height, fleet), ships1, ships2);
+    }
+    
+    /**
+     * Kayıttaki eleman sayısının kalan veriye sığdığını doğrular
+     * @throws IllegalArgumentException Sayı veriyle uyuşmuyorsa
+     */
+    private static int checkedCount(ByteBuffer record, int count, int entryLength) {
+        if (count < 0 || (long) count * entryLength > record.remaining()) {
+            throw new IllegalArgumentException("Geçersiz eleman sayısı: " + count);
+        }
+        return count;
+    }
+    
+    private static int[] readCells(ByteBuffer record) {
+        int[] cells = new int[checkedCount(record, record.getInt(), BinaryProtocol.CELL_ENTRY_LENGTH)];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = record.getInt();
+            record.get();
+        }
+        return cells;
+    }
+}
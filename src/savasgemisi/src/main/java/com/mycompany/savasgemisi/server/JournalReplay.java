@@ -0,0 +1,200 @@
+package com.mycompany.savasgemisi.server;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+
+/**
+ * Hamle günlüğündeki oyunları listeleyen ve bir oyunu hamle hamle yeniden
+ * kuran komut satırı aracı. Yeniden kurulan tahtalarda her atışın sonucu
+ * günlükteki sonuçla karşılaştırılır; uyuşmazlıklar raporlanır.
+ *
+ * Kullanım: java -cp target/classes com.mycompany.savasgemisi.server.JournalReplay
+ *           [günlük dizini] [oturum no]
+ * Oturum numarası verilmezse günlükteki oyunlar özetlenir. Aynı numaralı
+ * birden fazla oyun varsa (sunucu yeniden başlatıldıysa) sonuncusu oynatılır.
+ */
+public class JournalReplay {
+    /** Bu genişlikten büyük tahtalar çizilmez */
+    private static final int MAX_DRAWN_WIDTH = 64;
+    
+    /**
+     * Günlükteki bir oyunun kayıtları
+     */
+    private static final class Game {
+        final JournalReader.SessionStart start;
+        /** Oyuncu, paketlenmiş koordinat ve sonuç; hamle başına üç eleman */
+        int[] moves = new int[3 * 64];
+        int moveCount = 0;
+        boolean ended = false;
+        int winnerId = 0;
+        
+        Game(JournalReader.SessionStart start) {
+            this.start = start;
+        }
+        
+        void addMove(int playerId, int x, int y, int result) {
+            if (moveCount * 3 == moves.length) {
+                moves = Arrays.copyOf(moves, moves.length * 2);
+            }
+            moves[moveCount * 3] = playerId;
+            moves[moveCount * 3 + 1] = BinaryProtocol.packCoordinates(x, y);
+            moves[moveCount * 3 + 2] = result;
+            moveCount++;
+        }
+    }
+    
+    public static void main(String[] args) {
+        Path directory = Path.of(args.length > 0 ? args[0] : "journal");
+        Integer sessionId = args.length > 1 ? Integer.valueOf(args[1]) : null;
+        
+        List<Game> games = new ArrayList<>();
+        Map<Integer, Game> open = new HashMap<>();
+        try {
+            long records = JournalReader.read(directory, new JournalReader.Listener() {
+                @Override
+                public void sessionStarted(JournalReader.SessionStart start) {
+                    if (sessionId != null && start.getSessionId() != sessionId) {
+                        return;
+                    }
+                    Game game = new Game(start);
+                    open.put(start.getSessionId(), game);
+                    games.add(game);
+                }
+                
+                @Override
+                public void moveRecorded(int session, int playerId, int x, int y, int result) {
+                    Game game = open.get(session);
+                    if (game != null) {
+                        game.addMove(playerId, x, y, result);
+                    }
+                }
+                
+                @Override
+                public void sessionEnded(int session, int winnerId) {
+                    Game game = open.remove(session);
+                    if (game != null) {
+                        game.ended = true;
+                        game.winnerId = winnerId;
+                    }
+                }
+            });
+            System.out.println("Okunan kayıt: " + records);
+        } catch (IOException e) {
+            System.err.println("Günlük okunamadı: " + e.getMessage());
+            return;
+        }
+        
+        if (sessionId == null) {
+            for (Game game : games) {
+                printSummary(game);
+            }
+            System.out.println("Toplam oyun: " + games.size());
+        } else if (games.isEmpty()) {
+            System.out.println("Günlükte " + sessionId + " numaralı oturum yok.");
+        } else {
+            replay(games.get(games.size() - 1));
+        }
+    }
+    
+    private static void printSummary(Game game) {
+        JournalReader.SessionStart start = game.start;
+        System.out.printf("Oturum %-8d %s  %d & %d  %s  %d hamle  %s%n", start.getSessionId(),
+                Instant.ofEpochMilli(start.getStartMillis()), start.getPlayer1(), start.getPlayer2(),
+                start.getRules(), game.moveCount, outcome(game));
+    }
+    
+    private static String outcome(Game game) {
+        if (!game.ended) {
+            return "bitmedi";
+        }
+        return game.winnerId == 0 ? "berabere/yarıda kaldı" : "kazanan " + game.winnerId;
+    }
+    
+    /**
+     * Oyunu baştan kurar ve hamleleri sırayla uygular
+     */
+    private static void replay(Game game) {
+        JournalReader.SessionStart start = game.start;
+        int width = start.getRules().getWidth();
+        int height = start.getRules().getHeight();
+        Player.Board board1 = fleetBoard(start, start.getPlayer1(), width, height);
+        Player.Board board2 = fleetBoard(start, start.getPlayer2(), width, height);
+        System.out.printf("Oturum %d, %s, tohum %d, oyuncular %d & %d, kurallar %s%n", start.getSessionId(),
+                Instant.ofEpochMilli(start.getStartMillis()), start.getSeed(), start.getPlayer1(),
+                start.getPlayer2(), start.getRules());
+        
+        int mismatches = 0;
+        for (int i = 0; i < game.moveCount; i++) {
+            int playerId = game.moves[i * 3];
+            int x = BinaryProtocol.unpackX(game.moves[i * 3 + 1]);
+            int y = BinaryProtocol.unpackY(game.moves[i * 3 + 1]);
+            int recorded = game.moves[i * 3 + 2];
+            Player.Board target = playerId == start.getPlayer1() ? board2 : board1;
+            Player.Board.ShotResult shot = target.fire(x, y);
+            boolean hit = shot == Player.Board.ShotResult.HIT || shot == Player.Board.ShotResult.SUNK;
+            boolean matches = hit == (recorded != BinaryProtocol.RESULT_MISS);
+            if (!matches) {
+                mismatches++;
+            }
+            System.out.printf("%5d. Oyuncu %d -> %d,%d %s%s%n", i + 1, playerId, x, y, describe(recorded),
+                    matches ? "" : "  (UYUŞMAZLIK: tahtada " + shot + ")");
+        }
+        
+        System.out.println("Sonuç: " + outcome(game) + (mismatches == 0 ? "" : ", uyuşmazlık: " + mismatches));
+        if (width <= MAX_DRAWN_WIDTH) {
+            System.out.println("Oyuncu " + start.getPlayer1() + " tahtası:");
+            draw(board1);
+            System.out.println("Oyuncu " + start.getPlayer2() + " tahtası:");
+            draw(board2);
+        }
+    }
+    
+    /**
+     * Oyuncunun gemilerini boş bir tahtaya yerleştirir. Günlük gemileri ayrı
+     * ayrı değil hücre olarak tuttuğu için batma bilgisi günlükteki sonuçtan okunur.
+     */
+    private static Player.Board fleetBoard(JournalReader.SessionStart start, int playerId, int width, int height) {
+        Player.Board board = Player.Board.create(width, height);
+        for (int cell : start.getShipCells(playerId)) {
+            board.setCell(BinaryProtocol.unpackX(cell), BinaryProtocol.unpackY(cell), Player.Board.CellState.SHIP);
+        }
+        return board;
+    }
+    
+    private static String describe(int result) {
+        return switch (result) {
+            case BinaryProtocol.RESULT_MISS -> "ISKA";
+            case BinaryProtocol.RESULT_HIT -> "İSABET!";
+            case BinaryProtocol.RESULT_SUNK -> "İSABET! Gemi battı!";
+            default -> "bilinmeyen sonuç " + result;
+        };
+    }
+    
+    /**
+     * Tahtayı satır satır çizer: . boş, # gemi, X isabet, o ıska
+     */
+    private static void draw(Player.Board board) {
+        StringBuilder row = new StringBuilder();
+        for (int y = 0; y < board.getHeight(); y++) {
+            row.setLength(0);
+            row.append("  ");
+            for (int x = 0; x < board.getWidth(); x++) {
+                row.append(switch (board.getCell(x, y)) {
+                    case EMPTY -> '.';
+                    case SHIP -> '#';
+                    case HIT -> 'X';
+                    case MISS -> 'o';
+                });
+            }
+            System.out.println(row);
+        }
+    }
+}
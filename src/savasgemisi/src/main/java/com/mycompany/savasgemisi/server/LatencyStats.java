@@ -0,0 +1,151 @@
+package com.mycompany.savasgemisi.server;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Birçok thread'in aynı anda yazabildiği, nanosaniye cinsinden süreler için
+ * logaritmik histogram. Her ikinin kuvveti aralığı 8 alt kutuya bölünür;
+ * yüzdelikler en fazla %12.5 hatayla raporlanır. Kutular LongAdder
+ * olduğundan yazan thread'ler aynı sayaç üzerinde çekişmez; ölçüm sayısı
+ * ayrıca tutulmaz, kutulardan toplanır. Okuma (snapshot) yazmaları
+ * durdurmaz, bu yüzden anlık görüntü yaklaşıktır.
+ */
+public final class LatencyStats {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = 64 * SUB_BUCKETS;
+    
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    
+    /**
+     * Boş bir histogram oluşturur
+     */
+    public LatencyStats() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+    
+    /**
+     * Bir ölçümü ekler
+     * @param nanos Süre (ns); negatif değerler 0 sayılır
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[bucket(value)].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+    
+    /**
+     * Histogramın o anki kopyasını alır
+     * @return Anlık görüntü
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        return new Snapshot(counts, total, sum.sum(), max.get());
+    }
+    
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) | sub;
+    }
+    
+    /**
+     * Kutudaki en büyük değer
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        long lower = (long) (SUB_BUCKETS | bucket & (SUB_BUCKETS - 1)) << shift;
+        return lower + (1L << shift) - 1;
+    }
+    
+    /**
+     * Histogramın değişmeyen kopyası
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+        
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+        
+        /**
+         * Ölçüm sayısını döndürür
+         * @return Ölçüm sayısı
+         */
+        public long getCount() {
+            return count;
+        }
+        
+        /**
+         * Ortalama süreyi döndürür
+         * @return Ortalama (ns); ölçüm yoksa 0
+         */
+        public double getMean() {
+            return count == 0 ? 0 : sum / (double) count;
+        }
+        
+        /**
+         * En uzun süreyi döndürür
+         * @return En büyük ölçüm (ns)
+         */
+        public long getMax() {
+            return max;
+        }
+        
+        /**
+         * Verilen süreyi aşmayan ölçümlerin sayısını döndürür
+         * @param nanos Üst sınır (ns)
+         * @return Kutusunun üst sınırı bu süreyi aşmayan ölçüm sayısı
+         */
+        public long countAtMost(long nanos) {
+            long seen = 0;
+            for (int i = 0; i < counts.length && upperBound(i) <= nanos; i++) {
+                seen += counts[i];
+            }
+            return seen;
+        }
+        
+        /**
+         * Verilen yüzdeliğe karşılık gelen süreyi döndürür
+         * @param p 0 ile 1 arasında yüzdelik
+         * @return Süre (ns); ölçüm yoksa 0
+         */
+        public long percentile(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(p * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
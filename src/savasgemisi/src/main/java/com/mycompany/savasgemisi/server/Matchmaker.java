@@ -0,0 +1,217 @@
+package com.mycompany.savasgemisi.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Oyun bekleyen istemcileri eşleştiren bileşen.
+ * İstemciler kilitsiz bir kuyruğa eklenir; kuyruğu aynı anda yalnızca bir
+ * thread boşaltır ve bekleyenleri gruplar halinde ikişer ikişer eşleştirir.
+ * Eşleşmeyi yapan thread herhangi bir ortak kilit tutmaz; oturum başlatma
+ * da yalnızca oturumun olay kutusuna eklenir. Bağlantısı kopan istemcinin
+ * bileti O(1)'de iptal edilir ve kuyruktan sırası gelince atlanır.
+ */
+public class Matchmaker {
+    /** Bir eşleştirme turunda kuyruktan alınacak en fazla bilet */
+    private static final int PAIRING_BATCH = 256;
+    
+    private final Queue<Ticket> queue = new ConcurrentLinkedQueue<>();
+    /** İstemci ID'sinden geçerli bilete; kuyruk derinliği bu haritanın boyutudur */
+    private final Map<Integer, Ticket> waiting = new ConcurrentHashMap<>();
+    /** Kuyruğu şu an bir thread boşaltıyor mu? */
+    private final AtomicBoolean pairing = new AtomicBoolean(false);
+    /** Önceki turdan eşsiz kalan bilet; yalnızca pairing sahibi erişir */
+    private Ticket held;
+    
+    private final LongAdder matchedPlayers = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    
+    /**
+     * Bekleyen bir istemcinin kuyruktaki kaydı
+     */
+    private static final class Ticket {
+        final SClient client;
+        final long enqueuedAt;
+        volatile boolean cancelled = false;
+        
+        Ticket(SClient client) {
+            this.client = client;
+            this.enqueuedAt = System.nanoTime();
+        }
+    }
+    
+    /**
+     * İstemciyi eşleşme kuyruğuna ekler ve bekleyenleri eşleştirmeyi dener
+     * @param client Oyun bekleyen istemci
+     * @param server Eşleşen istemciler için oturum başlatacak sunucu
+     * @return İstemci hâlâ bekliyorsa true; hemen eşleştiyse false
+     */
+    public boolean enqueue(SClient client, GameServer server) {
+        Ticket ticket = new Ticket(client);
+        if (waiting.putIfAbsent(client.getClientId(), ticket) == null) {
+            queue.add(ticket);
+        }
+        pairWaiting(server);
+        return waiting.containsKey(client.getClientId());
+    }
+    
+    /**
+     * İstemciyi kuyruktan çıkarır (ör. bağlantı koptuğunda)
+     * @param client Çıkarılacak istemci
+     */
+    public void remove(SClient client) {
+        Ticket ticket = waiting.remove(client.getClientId());
+        if (ticket != null) {
+            ticket.cancelled = true;
+        }
+    }
+    
+    /**
+     * Belirtilen süreden uzun bekleyen istemcileri kuyruktan alır (ör. botla
+     * eşleştirmek için). Biletler eşleştirmedeki gibi sahiplenilir; kuyrukta
+     * kalan kopyaları sırası gelince atlanır.
+     * @param minWaitNanos En az bekleme süresi (ns)
+     * @param limit En fazla alınacak istemci
+     * @return Kuyruktan alınan istemciler
+     */
+    public List<SClient> takeWaitingLongerThan(long minWaitNanos, int limit) {
+        List<SClient> taken = new ArrayList<>();
+        long now = System.nanoTime();
+        for (Ticket ticket : waiting.values()) {
+            if (taken.size() >= limit) {
+                break;
+            }
+            long waited = now - ticket.enqueuedAt;
+            if (waited >= minWaitNanos && claim(ticket)) {
+                recordWait(waited);
+                taken.add(ticket.client);
+            }
+        }
+        return taken;
+    }
+    
+    /**
+     * Kuyruğu boşaltır; sunucu kapanırken kullanılır
+     */
+    public void clear() {
+        for (Ticket ticket : waiting.values()) {
+            ticket.cancelled = true;
+        }
+        waiting.clear();
+    }
+    
+    /**
+     * Kuyruğu boşaltan thread yoksa bu thread boşaltır. Boşaltma bittikten
+     * sonra kuyruğa yeni bilet eklenmişse tekrar denenir; böylece aynı anda
+     * gelen binlerce bağlantı birkaç turda eşleştirilir.
+     */
+    private void pairWaiting(GameServer server) {
+        while (!queue.isEmpty() && pairing.compareAndSet(false, true)) {
+            try {
+                pairBatch(server);
+            } finally {
+                pairing.set(false);
+            }
+        }
+    }
+    
+    private void pairBatch(GameServer server) {
+        Ticket ticket;
+        int taken = 0;
+        while (taken < PAIRING_BATCH && (ticket = queue.poll()) != null) {
+            taken++;
+            if (ticket.cancelled) {
+                continue;
+            }
+            if (held == null) {
+                held = ticket;
+                continue;
+            }
+            Ticket first = held;
+            if (!claim(first)) {
+                held = ticket;
+                continue;
+            }
+            if (!claim(ticket)) {
+                // Rakip bu arada ayrıldı; ilk bilet beklemeye geri döner
+                held = restore(first) ? first : null;
+                continue;
+            }
+            held = null;
+            
+            long now = System.nanoTime();
+            recordWait(now - first.enqueuedAt);
+            recordWait(now - ticket.enqueuedAt);
+            server.startGameSession(first.client, ticket.client);
+        }
+    }
+    
+    /**
+     * Bileti bekleme listesinden düşürür
+     * @return Bilet hâlâ geçerliyse true
+     */
+    private boolean claim(Ticket ticket) {
+        return !ticket.cancelled && waiting.remove(ticket.client.getClientId(), ticket);
+    }
+    
+    /**
+     * Düşürülen bileti bekleme listesine geri koyar. İstemcinin bağlantısı
+     * bu arada koptuysa remove() bileti bulamamış olabilir; bu durumda
+     * bilet geri konmaz.
+     * @return Bilet geri konduysa true
+     */
+    private boolean restore(Ticket ticket) {
+        if (ticket.client.isClosed()) {
+            return false;
+        }
+        return waiting.putIfAbsent(ticket.client.getClientId(), ticket) == null;
+    }
+    
+    private void recordWait(long nanos) {
+        matchedPlayers.increment();
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+    
+    /**
+     * Eşleşme bekleyen istemci sayısını döndürür
+     * @return Kuyruk derinliği
+     */
+    public int getQueueDepth() {
+        return waiting.size();
+    }
+    
+    /**
+     * Şimdiye kadar eşleşen oyuncu sayısını döndürür
+     * @return Eşleşen oyuncu sayısı
+     */
+    public long getMatchedPlayers() {
+        return matchedPlayers.sum();
+    }
+    
+    /**
+     * Kuyruğa girişten eşleşmeye kadar geçen ortalama süreyi döndürür
+     * @return Ortalama süre (ms)
+     */
+    public double getAverageTimeToMatchMillis() {
+        long matched = matchedPlayers.sum();
+        return matched == 0 ? 0 : totalWaitNanos.sum() / (double) matched / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+    
+    /**
+     * Kuyruğa girişten eşleşmeye kadar geçen en uzun süreyi döndürür
+     * @return En uzun süre (ms)
+     */
+    public double getMaxTimeToMatchMillis() {
+        return maxWaitNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,157 @@
+package com.mycompany.savasgemisi.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import com.mycompany.savasgemisi.common.MessageType;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Sunucu ölçümlerini izleme araçlarının okuyabileceği JSON biçiminde
+ * sunan küçük HTTP sunucusu (JDK'nın com.sun.net.httpserver paketi).
+ * Yalnızca yerel adreste dinler; istekler tek bir thread'de yanıtlanır ve
+ * oyun trafiğini taşıyan thread'lere dokunmaz.
+ *
+ * GET /stats yanıtındaki süreler mikrosaniyedir.
+ */
+public class MetricsHttpServer {
+    /** Ölçümlerin sunulduğu yol */
+    public static final String PATH = "/stats";
+    
+    private final GameServer server;
+    private final HttpServer http;
+    /** Yanıtlardaki hamle hızı; durum raporunun okumalarından bağımsızdır */
+    private final ServerMetrics.MoveRate moveRate;
+    
+    /**
+     * Ölçüm sunucusunu oluşturur ve yerel adreste dinlemeye başlar
+     * @param server Ölçümleri okunacak oyun sunucusu
+     * @param port Dinlenecek port
+     * @throws IOException Port açılamazsa
+     */
+    public MetricsHttpServer(GameServer server, int port) throws IOException {
+        this.server = server;
+        this.moveRate = server.getMetrics().newMoveRate();
+        this.http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        http.createContext(PATH, this::handle);
+        http.start();
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = toJson(server, moveRate).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+    
+    /**
+     * Sunucunun anlık ölçümlerini JSON olarak yazar
+     * @param server Oyun sunucusu
+     * @param moveRate Hamle hızının okunacağı ölçer
+     * @return JSON nesnesi
+     */
+    public static String toJson(GameServer server, ServerMetrics.MoveRate moveRate) {
+        ServerMetrics metrics = server.getMetrics();
+        BotPool bots = server.getBotPool();
+        StringBuilder json = new StringBuilder(1024);
+        json.append('{');
+        field(json, "uptimeSeconds", String.format(Locale.ROOT, "%.1f", metrics.getUptimeSeconds())).append(',');
+        field(json, "connections", server.getConnectedClientCount()).append(',');
+        field(json, "waitingPlayers", server.getMatchmaker().getQueueDepth()).append(',');
+        field(json, "liveSessions", metrics.getLiveSessions()).append(',');
+        field(json, "sessionsStarted", metrics.getSessionsStarted()).append(',');
+        field(json, "activeBots", bots == null ? 0 : bots.getActiveBots()).append(',');
+        field(json, "moves", metrics.getMoves()).append(',');
+        field(json, "movesPerSecond", String.format(Locale.ROOT, "%.1f", moveRate.perSecond())).append(',');
+        field(json, "bytesIn", metrics.getBytesIn()).append(',');
+        field(json, "bytesOut", metrics.getBytesOut()).append(',');
+        field(json, "framesIn", metrics.getFramesIn()).append(',');
+        field(json, "framesOut", metrics.getFramesOut()).append(',');
+        field(json, "pendingSessionEvents", server.getSessionExecutor().getPendingEvents()).append(',');
+        field(json, "rejectedSessionEvents", server.getSessionExecutor().getRejectedEvents()).append(',');
+        field(json, "heartbeatsSent", server.getHeartbeatsSent()).append(',');
+        field(json, "idleConnectionsReaped", server.getIdleConnectionsReaped()).append(',');
+        field(json, "turnTimeouts", server.getTurnTimeouts()).append(',');
+        field(json, "turnForfeits", server.getTurnForfeits()).append(',');
+        HashedWheelTimer timer = server.getTimer();
+        json.append("\"timer\":{");
+        field(json, "pending", timer.getPending()).append(',');
+        field(json, "scheduled", timer.getScheduled()).append(',');
+        field(json, "expired", timer.getExpired()).append(',');
+        field(json, "cancelled", timer.getCancelled()).append(',');
+        json.append("\"latenessMicros\":");
+        latency(json, timer.getLateness());
+        json.append(",\"tickMicros\":");
+        latency(json, timer.getTickDuration());
+        json.append("},");
+        json.append("\"spectators\":{");
+        field(json, "watching", server.getSpectatorCount()).append(',');
+        field(json, "sharedEncodes", metrics.getSpectatorEncodes()).append(',');
+        field(json, "framesQueued", metrics.getSpectatorFrames()).append(',');
+        field(json, "downgrades", metrics.getSpectatorDowngrades()).append(',');
+        field(json, "recoveries", metrics.getSpectatorRecoveries()).append(',');
+        field(json, "drops", metrics.getSpectatorDrops()).append(',');
+        json.append("\"fanOutMicros\":");
+        latency(json, metrics.getFanOutLatency());
+        json.append("},");
+        json.append("\"messageLatencyMicros\":{");
+        MessageType[] types = MessageType.values();
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(types[i].name()).append("\":");
+            latency(json, metrics.getMessageLatency(types[i]));
+        }
+        json.append("},\"moveLatencyMicros\":");
+        latency(json, metrics.getMoveLatency());
+        return json.append('}').toString();
+    }
+    
+    private static StringBuilder field(StringBuilder json, String name, Object value) {
+        return json.append('"').append(name).append("\":").append(value);
+    }
+    
+    private static void latency(StringBuilder json, LatencyStats.Snapshot snapshot) {
+        json.append('{');
+        field(json, "count", snapshot.getCount()).append(',');
+        field(json, "mean", micros(snapshot.getMean())).append(',');
+        field(json, "p50", micros(snapshot.percentile(0.50))).append(',');
+        field(json, "p90", micros(snapshot.percentile(0.90))).append(',');
+        field(json, "p99", micros(snapshot.percentile(0.99))).append(',');
+        field(json, "max", micros(snapshot.getMax()));
+        json.append('}');
+    }
+    
+    private static String micros(double nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000.0);
+    }
+    
+    /**
+     * Ölçüm sunucusunu kapatır
+     */
+    public void stop() {
+        http.stop(0);
+    }
+    
+    /**
+     * Dinlenen portu döndürür
+     * @return Port numarası
+     */
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+}
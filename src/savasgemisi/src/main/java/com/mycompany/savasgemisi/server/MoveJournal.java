@@ -0,0 +1,511 @@
+package com.mycompany.savasgemisi.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+import com.mycompany.savasgemisi.common.GameRules;
+
+/**
+ * Oyunların yalnızca sona eklenen ikili günlüğü. Her oturumun başlangıcı
+ * (kurallar, tohum ve iki oyuncunun gemi yerleşimi), tahtayı değiştiren
+ * her hamle ve sonucu ile oturumun sonu kaydedilir; JournalReplay bir
+ * oyunu bu kayıtlardan hamle hamle yeniden kurar.
+ *
+ * Kayıtlar sabit boyutlu, belleğe eşlenmiş (memory-mapped) segment
+ * dosyalarına yazılır. Hamle yolunda yazma yalnızca eşlenmiş belleğe
+ * kopyalamadır: yazan, segmentin yazma konumunu CAS ile ilerleterek
+ * kaydına yer ayırır ve kaydı kilit tutmadan kopyalar; böylece farklı
+ * oturumların thread'leri birbirini beklemez. Kilit yalnızca segment
+ * değişiminde alınır. Kayıt başlığı veriden sonra yazılır; başlığı henüz
+ * yazılmamış kayıt okuyucuya verinin sonu gibi görünür.
+ *
+ * Diske aktarma (force) ayrı bir thread'de belirli aralıklarla toplu
+ * yapılır. Sunucu çökerse en fazla son aralığın kayıtları kaybolabilir.
+ * Bir sonraki segment de bu thread'de önceden hazırlanır; böylece segment
+ * değişiminde dosya oluşturmak gerekmez.
+ *
+ * Segment biçimi: 4 bayt MAGIC, 4 bayt sürüm, ardından kayıtlar.
+ * Kayıt: 1 bayt tür (RECORD_*), 4 bayt veri uzunluğu, veri. Tür 0
+ * segmentteki verinin bittiğini gösterir (dosya sıfırlarla oluşturulur).
+ * - RECORD_SESSION_START: oturum, tohum (8), başlangıç zamanı (8, epoch ms),
+ *   oyuncu 1, oyuncu 2, u16 genişlik, u16 yükseklik, 4 bayt gemi sayısı ve
+ *   gemi başına u16 boy; sonra her oyuncu için 4 bayt hücre sayısı ve gemi
+ *   hücreleri (BinaryProtocol.putCell biçiminde)
+ * - RECORD_MOVE: oturum, oyuncu, paketlenmiş koordinat, 1 bayt sonuç (BinaryProtocol.RESULT_*)
+ * - RECORD_SESSION_END: oturum, kazanan oyuncu (0 ise beraberlik ya da yarıda kalma)
+ *
+ * Oturum numaraları sunucu her başladığında 1'den başlar; her çalıştırma
+ * yeni bir segmentle başladığı için aynı numaralı oyunlar sırayla ayırt edilir.
+ */
+public class MoveJournal {
+    /** Segment dosyalarının ilk 4 baytı ("SGJ1") */
+    public static final int MAGIC = 0x53474A31;
+    public static final int VERSION = 1;
+    /** Segment başlığının uzunluğu */
+    public static final int SEGMENT_HEADER_LENGTH = 8;
+    /** Kayıt başlığının uzunluğu: tür + veri uzunluğu */
+    public static final int RECORD_HEADER_LENGTH = 5;
+    public static final byte RECORD_SESSION_START = 1;
+    public static final byte RECORD_MOVE = 2;
+    public static final byte RECORD_SESSION_END = 3;
+    /** Varsayılan segment boyutu */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    /** Varsayılan diske aktarma aralığı */
+    public static final long DEFAULT_SYNC_MILLIS = 200;
+    
+    private static final int MOVE_LENGTH = 13;
+    private static final int END_LENGTH = 8;
+    /** Segment.reserved içinde kapanmış segment işareti */
+    private static final int SEALED = Integer.MIN_VALUE;
+    
+    private final Path directory;
+    private final int segmentSize;
+    /** Segment değişimini ve hazırlanan segmenti korur; kayıt yazarken alınmaz */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService syncer;
+    /** Değişimden sonra son kez diske aktarılıp kapatılacak segmentler */
+    private final Queue<Segment> retired = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger nextSegmentNumber;
+    private final LongAdder records = new LongAdder();
+    
+    /** Yazılan segment; yalnızca lock tutulurken değiştirilir */
+    private volatile Segment current;
+    private volatile boolean closed = false;
+    /** Senkronizasyon thread'inin önceden hazırladığı segment; lock ile korunur */
+    private Segment prepared;
+    /** Değiştirilen segmentlere yazılan bayt sayısı; lock ile korunur */
+    private long retiredBytes = 0;
+    
+    /**
+     * Belleğe eşlenmiş bir segment dosyası
+     */
+    private static final class Segment {
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        /** Kayıtlara ayrılan bölümün sonu; SEALED biti segmentin kapandığını gösterir */
+        final AtomicInteger reserved = new AtomicInteger(SEGMENT_HEADER_LENGTH);
+        /** Yazımı biten kayıtların toplam uzunluğu */
+        final LongAdder completed = new LongAdder();
+        /** Diske aktarılmış bölümün sonu; yalnızca senkronizasyon thread'i yazar */
+        int synced = 0;
+        
+        Segment(Path path, int size) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+        }
+        
+        /**
+         * Kayıt için yer ayırır
+         * @param total Başlık dahil kayıt uzunluğu
+         * @return Kaydın segmentteki konumu; segment dolduysa ya da kapandıysa -1
+         */
+        int reserve(int total) {
+            while (true) {
+                int position = reserved.get();
+                if ((position & SEALED) != 0 || position > buffer.capacity() - total) {
+                    return -1;
+                }
+                if (reserved.compareAndSet(position, position + total)) {
+                    return position;
+                }
+            }
+        }
+        
+        /**
+         * Segmenti kapatır; sonraki yer ayırmalar başarısız olur
+         */
+        void seal() {
+            reserved.getAndUpdate(position -> position | SEALED);
+        }
+        
+        /**
+         * Ayrılan bölümün sonunu döndürür
+         */
+        int end() {
+            return reserved.get() & ~SEALED;
+        }
+        
+        /**
+         * Ayrılan bölümün tamamı yazıldıysa sonunu, yazılmakta olan kayıt varsa -1 döndürür.
+         * Tamamlanan uzunluk konumdan önce okunur; böylece sayılan her kayıt dönen sınırın içindedir.
+         */
+        int completedEnd() {
+            long done = completed.sum();
+            int end = end();
+            return done + SEGMENT_HEADER_LENGTH == end ? end : -1;
+        }
+    }
+    
+    /**
+     * Varsayılan segment boyutu ve aktarma aralığıyla günlüğü açar
+     * @param directory Segmentlerin yazılacağı dizin; yoksa oluşturulur
+     * @throws IOException Dizin ya da ilk segment oluşturulamazsa
+     */
+    public MoveJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_SYNC_MILLIS);
+    }
+    
+    /**
+     * Günlüğü açar. Dizindeki eski segmentler korunur; yazma yeni bir segmentle başlar.
+     * @param directory Segmentlerin yazılacağı dizin; yoksa oluşturulur
+     * @param segmentSize Segment dosyası boyutu (bayt)
+     * @param syncMillis Kayıtların diske aktarılma aralığı (ms)
+     * @throws IOException Dizin ya da ilk segment oluşturulamazsa
+     */
+    public MoveJournal(Path directory, int segmentSize, long syncMillis) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.nextSegmentNumber = new AtomicInteger(lastSegmentNumber(directory) + 1);
+        this.current = newSegment();
+        this.syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::sync, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Dizindeki segment dosyalarını ad sırasıyla döndürür
+     * @param directory Günlük dizini
+     * @return Segment yolları
+     * @throws IOException Dizin okunamazsa
+     */
+    public static Path[] listSegments(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().matches("journal-\\d{8}\\.seg"))
+                    .sorted()
+                    .toArray(Path[]::new);
+        }
+    }
+    
+    private static int lastSegmentNumber(Path directory) throws IOException {
+        Path[] segments = listSegments(directory);
+        if (segments.length == 0) {
+            return 0;
+        }
+        String name = segments[segments.length - 1].getFileName().toString();
+        return Integer.parseInt(name.substring("journal-".length(), name.length() - ".seg".length()));
+    }
+    
+    private Segment newSegment() throws IOException {
+        Path path = directory.resolve(String.format("journal-%08d.seg", nextSegmentNumber.getAndIncrement()));
+        return new Segment(path, segmentSize);
+    }
+    
+    /**
+     * Oturumun başlangıcını kaydeder; gemiler yerleştirilmiş olmalıdır
+     * @param sessionId Oturum numarası
+     * @param game Oturumun oyunu
+     */
+    public void recordSessionStart(int sessionId, BattleshipGame game) {
+        GameRules rules = game.getRules();
+        int[] fleet = rules.getFleet();
+        Player.Board board1 = game.getPlayer1().getBoard();
+        Player.Board board2 = game.getPlayer2().getBoard();
+        int cells1 = board1.getMarkedCellCount();
+        int cells2 = board2.getMarkedCellCount();
+        long length = 44L + 2L * fleet.length
+                + (long) (cells1 + cells2) * BinaryProtocol.CELL_ENTRY_LENGTH;
+        if (closed || RECORD_HEADER_LENGTH + length > segmentSize) {
+            return;
+        }
+        int total = RECORD_HEADER_LENGTH + (int) length;
+        Segment segment = current;
+        int position;
+        while ((position = segment.reserve(total)) < 0) {
+            if ((segment = rollover(segment, total)) == null) {
+                return;
+            }
+        }
+        try {
+            ByteBuffer out = segment.buffer.duplicate();
+            out.limit(position + total).position(position + RECORD_HEADER_LENGTH);
+            out.putInt(sessionId);
+            out.putLong(game.getSeed());
+            out.putLong(System.currentTimeMillis());
+            out.putInt(game.getPlayer1().getId());
+            out.putInt(game.getPlayer2().getId());
+            out.putShort((short) rules.getWidth());
+            out.putShort((short) rules.getHeight());
+            out.putInt(fleet.length);
+            for (int size : fleet) {
+                out.putShort((short) size);
+            }
+            out.putInt(cells1);
+            board1.writeMarkedCells(out, BinaryProtocol.BOARD_OWN);
+            out.putInt(cells2);
+            board2.writeMarkedCells(out, BinaryProtocol.BOARD_OWN);
+        } finally {
+            commit(segment, position, RECORD_SESSION_START, (int) length);
+        }
+    }
+    
+    /**
+     * Tahtayı değiştiren bir hamleyi kaydeder
+     * @param sessionId Oturum numarası
+     * @param playerId Hamleyi yapan oyuncu
+     * @param x Hedef x koordinatı
+     * @param y Hedef y koordinatı
+     * @param result BinaryProtocol.RESULT_* sonucu
+     */
+    public void recordMove(int sessionId, int playerId, int x, int y, int result) {
+        if (closed) {
+            return;
+        }
+        int total = RECORD_HEADER_LENGTH + MOVE_LENGTH;
+        Segment segment = current;
+        int position;
+        while ((position = segment.reserve(total)) < 0) {
+            if ((segment = rollover(segment, total)) == null) {
+                return;
+            }
+        }
+        MappedByteBuffer out = segment.buffer;
+        int data = position + RECORD_HEADER_LENGTH;
+        out.putInt(data, sessionId);
+        out.putInt(data + 4, playerId);
+        out.putInt(data + 8, BinaryProtocol.packCoordinates(x, y));
+        out.put(data + 12, (byte) result);
+        commit(segment, position, RECORD_MOVE, MOVE_LENGTH);
+    }
+    
+    /**
+     * Oturumun sonunu kaydeder
+     * @param sessionId Oturum numarası
+     * @param winnerId Kazanan oyuncu; beraberlik ya da yarıda kalan oyun için 0
+     */
+    public void recordSessionEnd(int sessionId, int winnerId) {
+        if (closed) {
+            return;
+        }
+        int total = RECORD_HEADER_LENGTH + END_LENGTH;
+        Segment segment = current;
+        int position;
+        while ((position = segment.reserve(total)) < 0) {
+            if ((segment = rollover(segment, total)) == null) {
+                return;
+            }
+        }
+        MappedByteBuffer out = segment.buffer;
+        out.putInt(position + RECORD_HEADER_LENGTH, sessionId);
+        out.putInt(position + RECORD_HEADER_LENGTH + 4, winnerId);
+        commit(segment, position, RECORD_SESSION_END, END_LENGTH);
+    }
+    
+    /**
+     * Kaydın başlığını verilerinden sonra yazar ve kaydı tamamlanmış sayar
+     */
+    private void commit(Segment segment, int position, byte type, int length) {
+        MappedByteBuffer out = segment.buffer;
+        out.putInt(position + 1, length);
+        out.put(position, type);
+        segment.completed.add(RECORD_HEADER_LENGTH + length);
+        records.increment();
+    }
+    
+    /**
+     * Yer kalmayan segmenti sıradakiyle değiştirir. Aynı anda yer bulamayan
+     * yazanlardan yalnızca biri değiştirir; diğerleri yeni segmenti kullanır.
+     * @param full Kaydın sığmadığı segment
+     * @param total Başlık dahil kayıt uzunluğu
+     * @return Kaydın yeniden deneneceği segment; günlük kapandıysa, kayıt
+     *         boş bir segmente de sığmıyorsa ya da segment oluşturulamazsa null
+     */
+    private Segment rollover(Segment full, int total) {
+        if (total > segmentSize - SEGMENT_HEADER_LENGTH) {
+            return null;
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                return null;
+            }
+            if (current != full) {
+                return current;
+            }
+            Segment next = prepared;
+            prepared = null;
+            if (next == null) {
+                try {
+                    next = newSegment();
+                } catch (IOException e) {
+                    System.err.println("Günlük segmenti oluşturulamadı: " + e.getMessage());
+                    return null;
+                }
+            }
+            full.seal();
+            retiredBytes += full.end() - SEGMENT_HEADER_LENGTH;
+            retired.add(full);
+            current = next;
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Yazılan kayıtları diske aktarır ve gerekirse bir sonraki segmenti
+     * hazırlar. Senkronizasyon thread'inde çalışır; yazanları bekletmez.
+     */
+    private void sync() {
+        try {
+            for (int i = retired.size(); i > 0; i--) {
+                Segment old = retired.poll();
+                if (flush(old)) {
+                    old.channel.close();
+                } else {
+                    // Kapanmadan önce yer ayıran bir yazan henüz bitirmedi
+                    retired.add(old);
+                }
+            }
+            Segment segment = current;
+            flush(segment);
+            boolean prepare;
+            lock.lock();
+            try {
+                prepare = !closed && prepared == null && segment.end() > segmentSize / 2;
+            } finally {
+                lock.unlock();
+            }
+            if (prepare) {
+                prepare(segment, newSegment());
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Günlük diske yazılırken hata: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Segmentin yazılan bölümünü diske aktarır. Aktarılmış bölümün sonu
+     * yalnızca o noktaya kadarki bütün kayıtlar bittiyse ilerletilir;
+     * aktarma sırasında yazılmakta olan kayıt sonraki turda yeniden aktarılır.
+     * @return Ayrılan bölümün tamamı yazılıp aktarıldıysa true
+     */
+    private static boolean flush(Segment segment) {
+        int completedEnd = segment.completedEnd();
+        int end = completedEnd < 0 ? segment.end() : completedEnd;
+        if (end > segment.synced) {
+            segment.buffer.force(segment.synced, end - segment.synced);
+            if (completedEnd >= 0) {
+                segment.synced = completedEnd;
+            }
+        }
+        return completedEnd >= 0 && segment.synced == completedEnd;
+    }
+    
+    /**
+     * Hazırlanan segmenti sıradaki segment olarak kaydeder. Bu arada yazanlar
+     * segmenti kendileri değiştirdiyse hazırlanan segment sırasız kalacağı
+     * için silinir.
+     * @param segment Hazırlık kararı verilirken yazılan segment
+     * @param next Hazırlanan segment
+     */
+    private void prepare(Segment segment, Segment next) throws IOException {
+        lock.lock();
+        try {
+            if (!closed && current == segment && prepared == null) {
+                prepared = next;
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        next.channel.close();
+        Files.deleteIfExists(next.path);
+    }
+    
+    /**
+     * Yazılan kayıt sayısını döndürür
+     * @return Kayıt sayısı
+     */
+    public long getRecordCount() {
+        return records.sum();
+    }
+    
+    /**
+     * Yazılan toplam bayt sayısını döndürür
+     * @return Bayt sayısı (segment başlıkları hariç, yazılmakta olan kayıtlar dahil)
+     */
+    public long getBytesWritten() {
+        lock.lock();
+        try {
+            return retiredBytes + current.end() - SEGMENT_HEADER_LENGTH;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Günlük dizinini döndürür
+     * @return Dizin
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * Kalan kayıtları diske aktarır ve günlüğü kapatır; sonraki kayıtlar yok sayılır
+     */
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            current.seal();
+        } finally {
+            lock.unlock();
+        }
+        syncer.shutdown();
+        try {
+            syncer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Kapanmadan önce yer ayıran yazanlar kopyalamayı bitirsin
+        while (current.completedEnd() < 0) {
+            Thread.onSpinWait();
+        }
+        for (Segment old : retired) {
+            while (old.completedEnd() < 0) {
+                Thread.onSpinWait();
+            }
+        }
+        sync();
+        lock.lock();
+        try {
+            current.channel.close();
+            Segment unused = prepared;
+            prepared = null;
+            if (unused != null) {
+                unused.channel.close();
+                Files.deleteIfExists(unused.path);
+            }
+        } catch (IOException e) {
+            System.err.println("Günlük kapatılırken hata: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.mycompany.savasgemisi.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import com.mycompany.savasgemisi.common.BufferPool;
+import com.mycompany.savasgemisi.common.FrameDecoder;
+
+/**
+ * NIO motorunda tek bir istemci bağlantısının durumunu tutan sınıf.
+ * Okumalar yalnızca sahibi olan olay döngüsünde, döngünün ortak okuma
+ * tamponuna yapılır; yarım kalan çerçeveler FrameDecoder'da birikir.
+ * Yazmalar herhangi bir thread'den gelebilir; bir olayın çerçeveleri tek
+ * bir toplu (gathering) yazmayla gönderilir. Soket o an yazılamıyorsa kalan
+ * çerçeveler kuyruğa alınır ve döngü OP_WRITE ile kalan kısmı gönderir.
+ * Kuyruk MAX_QUEUED_BYTES sınırını aşmışken gönderim gelirse istemci
+ * okumuyor sayılır ve bağlantı kapatılır; sunucu okumayan bir istemci için
+ * sınırsız bellek ayırmaz.
+ */
+class NioClientChannel implements ClientChannel {
+    private final SocketChannel socketChannel;
+    private final SelectionKey key;
+    private final NioServer.EventLoop loop;
+    private final FrameDecoder decoder = new FrameDecoder();
+    private final Queue<ByteBuffer> writeQueue = new ArrayDeque<>();
+    /** Kuyruktaki çerçevelerin gönderilmemiş bayt sayısı; writeQueue kilidiyle güncellenir */
+    private volatile long queuedBytes = 0;
+    private final String remoteAddress;
+    private SClient client;
+    private volatile boolean closed = false;
+    
+    NioClientChannel(SocketChannel socketChannel, SelectionKey key, NioServer.EventLoop loop) throws IOException {
+        this.socketChannel = socketChannel;
+        this.key = key;
+        this.loop = loop;
+        this.remoteAddress = String.valueOf(socketChannel.getRemoteAddress());
+    }
+    
+    /**
+     * Bağlantıyı mesajları işleyecek istemciye bağlar
+     * @param client İstemci
+     */
+    void bind(SClient client) {
+        this.client = client;
+    }
+    
+    @Override
+    public void send(ByteBuffer[] frames, int count) throws IOException {
+        if (queuedBytes > MAX_QUEUED_BYTES) {
+            for (int i = 0; i < count; i++) {
+                BufferPool.SHARED.release(frames[i]);
+            }
+            System.err.println("İstemci " + remoteAddress + " okumuyor, " + queuedBytes
+                    + " bayt gönderilemedi; bağlantı kapatılıyor.");
+            close();
+            throw new IOException("Gönderim kuyruğu doldu");
+        }
+        synchronized (writeQueue) {
+            if (closed) {
+                for (int i = 0; i < count; i++) {
+                    BufferPool.SHARED.release(frames[i]);
+                }
+                throw new IOException("Bağlantı kapalı");
+            }
+            int first = 0;
+            if (writeQueue.isEmpty()) {
+                try {
+                    socketChannel.write(frames, 0, count);
+                } catch (IOException e) {
+                    for (int i = 0; i < count; i++) {
+                        BufferPool.SHARED.release(frames[i]);
+                    }
+                    throw e;
+                }
+                while (first < count && !frames[first].hasRemaining()) {
+                    BufferPool.SHARED.release(frames[first++]);
+                }
+                if (first == count) {
+                    return;
+                }
+            }
+            long added = 0;
+            for (int i = first; i < count; i++) {
+                writeQueue.add(frames[i]);
+                added += frames[i].remaining();
+            }
+            queuedBytes += added;
+            setWriteInterest(true);
+        }
+        loop.wakeup();
+    }
+    
+    /**
+     * Soket okunabilir olduğunda olay döngüsü tarafından çağrılır
+     * @param readBuffer Döngünün tüm bağlantılar için ortak kullandığı okuma tamponu
+     */
+    void handleRead(ByteBuffer readBuffer) {
+        try {
+            while (true) {
+                readBuffer.clear();
+                int read = socketChannel.read(readBuffer);
+                if (read == -1) {
+                    close();
+                    return;
+                }
+                if (read == 0) {
+                    return;
+                }
+                readBuffer.flip();
+                OutboundBatch.open();
+                try {
+                    decoder.decode(readBuffer, client::receiveFrame);
+                } finally {
+                    OutboundBatch.close();
+                }
+                if (closed || readBuffer.capacity() > read) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("İstemci okuma hatası: " + e.getMessage());
+            close();
+        }
+    }
+    
+    /**
+     * Soket yazılabilir olduğunda kuyruktaki verileri gönderir
+     */
+    void handleWrite() {
+        synchronized (writeQueue) {
+            try {
+                while (!writeQueue.isEmpty()) {
+                    ByteBuffer frame = writeQueue.peek();
+                    queuedBytes -= socketChannel.write(frame);
+                    if (frame.hasRemaining()) {
+                        return;
+                    }
+                    BufferPool.SHARED.release(writeQueue.poll());
+                }
+                setWriteInterest(false);
+                return;
+            } catch (IOException e) {
+                System.err.println("İstemci yazma hatası: " + e.getMessage());
+            }
+        }
+        close();
+    }
+    
+    private void setWriteInterest(boolean enabled) {
+        try {
+            int ops = enabled ? (SelectionKey.OP_READ | SelectionKey.OP_WRITE) : SelectionKey.OP_READ;
+            key.interestOps(ops);
+        } catch (CancelledKeyException e) {
+            // Bağlantı bu arada kapanmış olabilir
+        }
+    }
+    
+    @Override
+    public void close() {
+        synchronized (writeQueue) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            while (!writeQueue.isEmpty()) {
+                BufferPool.SHARED.release(writeQueue.poll());
+            }
+            queuedBytes = 0;
+        }
+        // Çözücü yalnızca döngü thread'inde kullanılır; tamponu orada bırak
+        loop.execute(decoder::release);
+        key.cancel();
+        try {
+            socketChannel.close();
+        } catch (IOException e) {
+            System.err.println("İstemci bağlantısı kapatılırken hata: " + e.getMessage());
+        }
+        if (client != null) {
+            client.connectionClosed();
+        }
+    }
+    
+    @Override
+    public long getPendingBytes() {
+        return queuedBytes;
+    }
+    
+    @Override
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+}
@@ -0,0 +1,246 @@
+package com.mycompany.savasgemisi.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Selector tabanlı sunucu motoru.
+ * Bağlantı başına thread açmak yerine, az sayıda olay döngüsü (event loop)
+ * thread'i tüm soketleri bloklamadan yönetir. Kabul edilen her bağlantı
+ * döngülere sırayla dağıtılır ve bağlantının tüm okuma/yazma işleri
+ * o döngünün thread'inde yapılır.
+ */
+public class NioServer {
+    /** Bekleyen bağlantı kuyruğunun uzunluğu; ani bağlantı yığılmaları için büyük tutulur */
+    private static final int ACCEPT_BACKLOG = 4096;
+    /** Olay döngüsü başına okuma tamponu boyutu */
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    
+    private GameServer gameServer;
+    private int port;
+    private EventLoop[] loops;
+    private ServerSocketChannel serverChannel;
+    private int nextLoop = 0;
+    private volatile boolean running = false;
+    
+    /**
+     * Yeni bir NIO sunucu motoru oluşturur
+     * @param gameServer Bağlantıların bildirileceği sunucu
+     * @param port Dinlenecek port
+     * @param loopCount Olay döngüsü thread sayısı
+     */
+    public NioServer(GameServer gameServer, int port, int loopCount) {
+        this.gameServer = gameServer;
+        this.port = port;
+        this.loops = new EventLoop[Math.max(1, loopCount)];
+    }
+    
+    /**
+     * Dinleme soketini açar ve olay döngülerini başlatır
+     * @throws IOException Soket açılamazsa
+     */
+    public void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(new InetSocketAddress(port), ACCEPT_BACKLOG);
+        serverChannel.configureBlocking(false);
+        
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new EventLoop(i);
+        }
+        running = true;
+        
+        // Kabul işlemleri ilk döngünün selector'ında yapılır
+        loops[0].execute(() -> {
+            try {
+                serverChannel.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+            } catch (IOException e) {
+                System.err.println("Dinleme soketi kaydedilirken hata: " + e.getMessage());
+            }
+        });
+        
+        for (EventLoop loop : loops) {
+            Thread thread = new Thread(loop, "nio-loop-" + loop.index);
+            thread.start();
+        }
+    }
+    
+    /**
+     * Motoru durdurur ve tüm döngüleri kapatır
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Dinleme soketi kapatılırken hata: " + e.getMessage());
+        }
+        for (EventLoop loop : loops) {
+            if (loop != null) {
+                loop.selector.wakeup();
+            }
+        }
+    }
+    
+    /**
+     * Bekleyen tüm bağlantıları kabul eder ve döngülere dağıtır
+     */
+    private void acceptPending() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Bağlantı kabul edilirken hata: " + e.getMessage());
+                }
+                return;
+            }
+            if (channel == null) {
+                return;
+            }
+            
+            try {
+                channel.configureBlocking(false);
+                // Mesajlar SClient kuyruğunda zaten birleştiriliyor; Nagle yalnızca gecikme ekler
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                EventLoop loop = loops[nextLoop];
+                nextLoop = (nextLoop + 1) % loops.length;
+                loop.execute(() -> loop.register(channel));
+            } catch (IOException e) {
+                System.err.println("Bağlantı yapılandırılırken hata: " + e.getMessage());
+                closeQuietly(channel);
+            }
+        }
+    }
+    
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Kapatma sırasında oluşan hata önemsiz
+        }
+    }
+    
+    /**
+     * Tek bir selector'ı ve ona kayıtlı bağlantıları yöneten olay döngüsü
+     */
+    final class EventLoop implements Runnable {
+        private final int index;
+        private final Selector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        /** Döngüdeki tüm bağlantıların ortak okuma tamponu */
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        
+        EventLoop(int index) throws IOException {
+            this.index = index;
+            this.selector = Selector.open();
+        }
+        
+        /**
+         * Görevi döngü thread'inde çalıştırılmak üzere kuyruğa ekler
+         * @param task Çalıştırılacak görev
+         */
+        void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+        
+        /**
+         * Yeni kabul edilen soketi bu döngüye kaydeder ve oturum açar
+         * @param socketChannel Kabul edilen soket
+         */
+        private void register(SocketChannel socketChannel) {
+            try {
+                SelectionKey key = socketChannel.register(selector, SelectionKey.OP_READ);
+                NioClientChannel channel = new NioClientChannel(socketChannel, key, this);
+                SClient client = gameServer.registerClient(channel);
+                channel.bind(client);
+                key.attach(channel);
+            } catch (IOException e) {
+                System.err.println("Bağlantı kaydedilirken hata: " + e.getMessage());
+                closeQuietly(socketChannel);
+            }
+        }
+        
+        /**
+         * Selector'ı uyandırır; başka thread'lerden yapılan ilgi değişikliklerinin
+         * hemen işlenmesi için kullanılır
+         */
+        void wakeup() {
+            selector.wakeup();
+        }
+        
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    runTasks();
+                    
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            acceptPending();
+                            continue;
+                        }
+                        NioClientChannel channel = (NioClientChannel) key.attachment();
+                        if (channel == null) {
+                            continue;
+                        }
+                        if (key.isReadable()) {
+                            channel.handleRead(readBuffer);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            channel.handleWrite();
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (running) {
+                    System.err.println("Olay döngüsünde hata: " + e.getMessage());
+                }
+            } finally {
+                closeAll();
+            }
+        }
+        
+        private void runTasks() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+        
+        private void closeAll() {
+            try {
+                for (SelectionKey key : selector.keys()) {
+                    Object attachment = key.attachment();
+                    if (attachment instanceof NioClientChannel) {
+                        ((NioClientChannel) attachment).close();
+                    }
+                }
+                selector.close();
+            } catch (IOException | ClosedSelectorException e) {
+                System.err.println("Selector kapatılırken hata: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.mycompany.savasgemisi.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tek bir gelen olayın işlenmesi sırasında üretilen giden mesajları toplayan
+ * thread'e özgü kapsam. Kapsam açıkken SClient'lar mesajlarını yalnızca
+ * kendi kuyruklarına ekler; kapsam kapanınca her istemcinin kuyruğu tek bir
+ * toplu yazmayla gönderilir. Böylece yazmalar oturum kilidi tutulurken
+ * yapılmaz ve bir hamlenin ürettiği mesajlar tek bir TCP segmentinde gider.
+ * Kapsamlar iç içe açılabilir; gönderim en dıştaki kapsam kapanınca yapılır.
+ */
+final class OutboundBatch {
+    private static final ThreadLocal<OutboundBatch> CURRENT = new ThreadLocal<>();
+    
+    private final List<SClient> pending = new ArrayList<>(4);
+    private int depth;
+    
+    private OutboundBatch() {
+    }
+    
+    /**
+     * Bu thread için bir kapsam açar; kapsam zaten açıksa derinliği artırır
+     */
+    static void open() {
+        OutboundBatch batch = CURRENT.get();
+        if (batch == null) {
+            batch = new OutboundBatch();
+            CURRENT.set(batch);
+        }
+        batch.depth++;
+    }
+    
+    /**
+     * Kapsamı kapatır. En dıştaki kapsamsa bekleyen tüm istemcilerin
+     * kuyruklarını gönderir.
+     */
+    static void close() {
+        OutboundBatch batch = CURRENT.get();
+        if (batch == null || --batch.depth > 0) {
+            return;
+        }
+        CURRENT.remove();
+        
+        for (SClient client : batch.pending) {
+            client.flushQuietly();
+        }
+    }
+    
+    /**
+     * İstemcinin kuyruğunun kapsam sonunda gönderilmesini ister
+     * @param client Kuyruğuna mesaj eklenen istemci
+     * @return Açık bir kapsam varsa true; yoksa çağıran hemen göndermelidir
+     */
+    static boolean defer(SClient client) {
+        OutboundBatch batch = CURRENT.get();
+        if (batch == null) {
+            return false;
+        }
+        if (!batch.pending.contains(client)) {
+            batch.pending.add(client);
+        }
+        return true;
+    }
+}
@@ -1,7 +1,13 @@
 package com.mycompany.savasgemisi.server;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+import com.mycompany.savasgemisi.common.GameRules;
+
 /**
  * Oyuncu bilgilerini ve oyun tahtasını temsil eden sınıf.
  * Her oyuncu kendi tahtasına ve rakibinin tahtasının görünen kısmına sahiptir.
@@ -13,15 +19,26 @@ public class Player {
     private Board opponentView;
     
     /**
-     * Yeni bir oyuncu oluşturur
+     * Standart boyutlu tahtalarla yeni bir oyuncu oluşturur
      * @param id Oyuncu ID'si
      * @param name Oyuncu adı
      */
     public Player(int id, String name) {
+        this(id, name, GameRules.STANDARD.getWidth(), GameRules.STANDARD.getHeight());
+    }
+    
+    /**
+     * Verilen boyutta tahtalarla yeni bir oyuncu oluşturur
+     * @param id Oyuncu ID'si
+     * @param name Oyuncu adı
+     * @param width Tahta genişliği
+     * @param height Tahta yüksekliği
+     */
+    public Player(int id, String name, int width, int height) {
         this.id = id;
         this.name = name;
-        this.board = new Board(10, 10); 
-        this.opponentView = new Board(10, 10);
+        this.board = Board.create(width, height);
+        this.opponentView = Board.create(width, height);
     }
     
     /**
@@ -66,9 +83,13 @@ public class Player {
     
     /**
      * Oyun tahtasını temsil eden iç sınıf
-     * Tahta, hücrelerin durumlarını ve boyutlarını yönetir
+     * Tahta, hücrelerin durumlarını ve boyutlarını yönetir.
+     * Hücrelerin nasıl saklandığı alt sınıflara bırakılır: küçük tahtalar
+     * bit maskelerinde (DenseBoard), çok büyük tahtalar yalnızca gemi ve
+     * atış içeren hücreleri tutan bir tabloda (SparseBoard) saklanır.
+     * Hücreler satır satır (y * genişlik + x) numaralanır.
      */
-    public static class Board {
+    public abstract static class Board {
         /**
          * Tahta hücrelerinin olası durumları
          */
@@ -79,25 +100,127 @@ public class Player {
             MISS        // Iskalama
         }
         
-        private CellState[][] cells;
-        private int width;
-        private int height;
+        /**
+         * Bir atışın tahtadaki sonucu
+         */
+        public enum ShotResult {
+            MISS,       // Iska
+            HIT,        // İsabet, gemi hâlâ yüzüyor
+            SUNK,       // İsabet, gemi battı
+            REPEATED    // Hücreye daha önce ateş edilmiş
+        }
+        
+        /** Bu hücre sayısını aşan tahtalar seyrek tutulur */
+        public static final int SPARSE_THRESHOLD = 1 << 16;
+        
+        /** values() her çağrıda yeni dizi döndürdüğü için tek kopya tutulur */
+        static final CellState[] STATES = CellState.values();
+        static final int EMPTY = 0;
+        static final int SHIP = 1;
+        static final int HIT = 2;
+        static final int MISS = 3;
+        private static final int[] NO_SHIPS = new int[0];
+        
+        protected final int width;
+        protected final int height;
+        /** Vurulmamış gemi hücresi sayısı; zafer kontrolü bununla O(1) yapılır */
+        private int remainingShipCells = 0;
+        /*
+         * placeShip ile yerleştirilen gemilerin kalan sağlam hücre sayısı.
+         * Hücreden gemi numarasına eşleme alt sınıflarda tutulur
+         * (numara + 1; 0 gemi yok).
+         */
+        private int[] shipHealth = NO_SHIPS;
+        private int shipCount = 0;
+        private int shipsAfloat = 0;
+        /*
+         * Tahtanın son kodlanmış halleri. Tahta her değiştiğinde kirli
+         * işaretlenir; bir sonraki istekte aynı diziye yeniden yazılır.
+         * Değişmeyen tahta tekrar gönderilirken yeniden kodlanmaz.
+         */
+        private byte[] serializedCache;
+        private boolean serializedDirty = true;
+        private byte[] packedCache;
+        private boolean packedDirty = true;
         
         /**
          * Yeni bir tahta oluşturur
          * @param width Tahta genişliği
          * @param height Tahta yüksekliği
          */
-        public Board(int width, int height) {
+        protected Board(int width, int height) {
             this.width = width;
             this.height = height;
-            this.cells = new CellState[height][width];
-            
-            for (CellState[] row : cells) {
-                Arrays.fill(row, CellState.EMPTY);
+        }
+        
+        /**
+         * Boyuta uygun saklama biçimiyle yeni bir tahta oluşturur
+         * @param width Tahta genişliği
+         * @param height Tahta yüksekliği
+         * @return SPARSE_THRESHOLD'dan büyük tahtalar için seyrek, diğerleri için bit maskeli tahta
+         */
+        public static Board create(int width, int height) {
+            if ((long) width * height > SPARSE_THRESHOLD) {
+                return new SparseBoard(width, height);
             }
+            return new DenseBoard(width, height);
         }
         
+        /**
+         * Tüm hücreleri boşaltır; ayrılmış diziler korunur
+         */
+        protected abstract void clearCells();
+        
+        /**
+         * Hücrenin durumunu sıra numarası olarak döndürür (0-3)
+         * @param index Hücre numarası
+         * @return Hücre durumu
+         */
+        protected abstract int stateAt(int index);
+        
+        /**
+         * Hücrenin durumunu sıra numarası olarak ayarlar; sayaçlara dokunmaz
+         * @param index Hücre numarası
+         * @param state Yeni durum (0-3)
+         */
+        protected abstract void setStateAt(int index, int state);
+        
+        /**
+         * Hücredeki geminin numarasını döndürür
+         * @param index Hücre numarası
+         * @return Gemi numarası + 1; hücrede izlenen gemi yoksa 0
+         */
+        protected abstract int shipNumberAt(int index);
+        
+        /**
+         * Hücredeki geminin numarasını ayarlar
+         * @param index Hücre numarası
+         * @param number Gemi numarası + 1; 0 gemi yok
+         */
+        protected abstract void setShipNumberAt(int index, int number);
+        
+        /**
+         * Boş olmayan hücre sayısını döndürür
+         * @return Gemi, isabet ya da ıska içeren hücre sayısı
+         */
+        public abstract int getMarkedCellCount();
+        
+        /**
+         * Boş olmayan hücreleri fark mesajı girdisi biçiminde tampona yazar
+         * (bkz. BinaryProtocol.putCell). Tamponda getMarkedCellCount() * 5
+         * bayt boş yer olmalıdır.
+         * @param out Hedef tampon
+         * @param board BinaryProtocol.BOARD_OWN ya da BOARD_OPPONENT
+         */
+        public abstract void writeMarkedCells(ByteBuffer out, int board);
+        
+        /**
+         * Gemi hücrelerinin bit maskesini döndürür (bkz. FleetPlacer).
+         * Dönen dizi yalnızca okunmalıdır.
+         * @return Satır satır numaralanmış gemi hücresi maskesi
+         */
+        abstract long[] shipMask();
+        
         /**
          * Belirtilen koordinattaki hücrenin durumunu döndürür
          * @param x X koordinatı
@@ -106,10 +229,7 @@ public class Player {
          * @throws IllegalArgumentException Geçersiz koordinatlar için
          */
         public CellState getCell(int x, int y) {
-            if (x < 0 || x >= width || y < 0 || y >= height) {
-                throw new IllegalArgumentException("Geçersiz hücre koordinatları: " + x + "," + y);
-            }
-            return cells[y][x];
+            return STATES[stateAt(index(x, y))];
         }
         
         /**
@@ -120,10 +240,185 @@ public class Player {
          * @throws IllegalArgumentException Geçersiz koordinatlar için
          */
         public void setCell(int x, int y, CellState state) {
+            int index = index(x, y);
+            boolean wasShip = stateAt(index) == SHIP;
+            if (wasShip != (state == CellState.SHIP)) {
+                if (wasShip) {
+                    remainingShipCells--;
+                    damageShip(index);
+                } else {
+                    remainingShipCells++;
+                }
+            }
+            setStateAt(index, state.ordinal());
+            markDirty();
+        }
+        
+        /**
+         * Tahtayı gemisiz ve atışsız ilk haline döndürür. Aynı boyutta yeni
+         * bir tahta oluşturmak yerine kullanılabilir; ayrılmış diziler
+         * yeniden kullanılır.
+         */
+        public void clear() {
+            clearCells();
+            remainingShipCells = 0;
+            shipCount = 0;
+            shipsAfloat = 0;
+            markDirty();
+        }
+        
+        /**
+         * Gemi tahtaya sığıyor ve hiçbir gemiyle çakışmıyor mu?
+         * @param x Başlangıç x koordinatı
+         * @param y Başlangıç y koordinatı
+         * @param size Gemi boyutu
+         * @param horizontal Yatay yerleştirme mi?
+         * @return Gemi yerleştirilebilirse true
+         */
+        public boolean canPlaceShip(int x, int y, int size, boolean horizontal) {
+            if (x < 0 || y < 0 || (horizontal ? x + size > width : y + size > height)) {
+                return false;
+            }
+            int start = y * width + x;
+            int step = horizontal ? 1 : width;
+            for (int i = 0, index = start; i < size; i++, index += step) {
+                if (stateAt(index) == SHIP) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        /**
+         * Gemiyi tahtaya yerleştirir ve sağlamlığını izlemeye başlar.
+         * Geminin tahtaya sığdığı ve diğer gemilerle çakışmadığı
+         * çağıran tarafından kontrol edilmiş olmalıdır.
+         * @param x Başlangıç x koordinatı
+         * @param y Başlangıç y koordinatı
+         * @param size Gemi boyutu
+         * @param horizontal Yatay yerleştirme mi?
+         * @throws IllegalArgumentException Gemi tahtaya sığmıyorsa
+         * @throws IllegalStateException Gemi sayısı sınırı aşılırsa
+         */
+        public void placeShip(int x, int y, int size, boolean horizontal) {
+            if (shipCount == maxShips()) {
+                throw new IllegalStateException("Tahtada çok fazla gemi var");
+            }
+            if (shipCount == shipHealth.length) {
+                shipHealth = Arrays.copyOf(shipHealth, Math.max(8, shipCount * 2));
+            }
+            int ship = shipCount++;
+            for (int i = 0; i < size; i++) {
+                int placeX = horizontal ? x + i : x;
+                int placeY = horizontal ? y : y + i;
+                setCell(placeX, placeY, CellState.SHIP);
+                setShipNumberAt(index(placeX, placeY), ship + 1);
+            }
+            shipHealth[ship] = size;
+            shipsAfloat++;
+        }
+        
+        /**
+         * Hücreye ateş eder ve sonucu tahtaya işler. Vurulan geminin
+         * kalan sağlamlığı O(1)'de güncellenir.
+         * @param x X koordinatı
+         * @param y Y koordinatı
+         * @return Atışın sonucu
+         * @throws IllegalArgumentException Geçersiz koordinatlar için
+         */
+        public ShotResult fire(int x, int y) {
+            int index = index(x, y);
+            int state = stateAt(index);
+            if (state == HIT || state == MISS) {
+                return ShotResult.REPEATED;
+            }
+            markDirty();
+            if (state != SHIP) {
+                setStateAt(index, MISS);
+                return ShotResult.MISS;
+            }
+            setStateAt(index, HIT);
+            return recordHit(index);
+        }
+        
+        /**
+         * Vurulan gemi hücresini sayaçlara işler. Hücrenin durumu çağıran
+         * tarafından HIT yapılmış olmalıdır.
+         * @param index Vurulan hücre numarası
+         * @return Gemi bu vuruşla battıysa SUNK, değilse HIT
+         */
+        protected final ShotResult recordHit(int index) {
+            remainingShipCells--;
+            return damageShip(index) ? ShotResult.SUNK : ShotResult.HIT;
+        }
+        
+        /**
+         * Önbellekteki kodlanmış halleri geçersiz kılar; hücre durumunu
+         * doğrudan değiştiren alt sınıflar her değişiklikte çağırmalıdır
+         */
+        protected final void markDirty() {
+            serializedDirty = true;
+            packedDirty = true;
+        }
+        
+        /**
+         * Tahtada izlenebilecek en fazla gemi sayısını döndürür
+         * @return Gemi sayısı sınırı
+         */
+        protected int maxShips() {
+            return Integer.MAX_VALUE;
+        }
+        
+        /**
+         * Hücredeki geminin sağlamlığını bir azaltır
+         * @return Gemi bu vuruşla battıysa true
+         */
+        private boolean damageShip(int index) {
+            int number = shipNumberAt(index);
+            if (number == 0) {
+                return false;
+            }
+            setShipNumberAt(index, 0);
+            if (--shipHealth[number - 1] == 0) {
+                shipsAfloat--;
+                return true;
+            }
+            return false;
+        }
+        
+        /**
+         * Koordinatı hücre numarasına çevirir
+         * @throws IllegalArgumentException Geçersiz koordinatlar için
+         */
+        protected int index(int x, int y) {
             if (x < 0 || x >= width || y < 0 || y >= height) {
                 throw new IllegalArgumentException("Geçersiz hücre koordinatları: " + x + "," + y);
             }
-            cells[y][x] = state;
+            return y * width + x;
+        }
+        
+        /**
+         * Tahtada vurulmamış gemi hücresi olup olmadığını kontrol eder
+         * @return Vurulmamış gemi hücresi varsa true
+         */
+        public boolean hasShips() {
+            return remainingShipCells > 0;
+        }
+        
+        /**
+         * Vurulmamış gemi hücresi sayısını döndürür
+         * @return Kalan gemi hücresi sayısı
+         */
+        public int getRemainingShipCells() {
+            return remainingShipCells;
+        }
+        
+        /**
+         * placeShip ile yerleştirilip henüz batmamış gemi sayısını döndürür
+         * @return Batmamış gemi sayısı
+         */
+        public int getShipsAfloat() {
+            return shipsAfloat;
         }
         
         /**
@@ -147,13 +442,97 @@ public class Player {
          * @return Tahta durumlarının string temsili
          */
         public String serialize() {
-            StringBuilder sb = new StringBuilder();
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    sb.append(cells[y][x].ordinal());
+            return new String(serializedBytes(), StandardCharsets.US_ASCII);
+        }
+        
+        /**
+         * Tahtanın string temsilini ASCII olarak tampona yazar; tahta
+         * değişmediyse önceki kodlama kopyalanır
+         * @param out Hedef tampon; en az genişlik * yükseklik bayt boş yer olmalıdır
+         */
+        public void writeSerialized(ByteBuffer out) {
+            out.put(serializedBytes());
+        }
+        
+        /**
+         * Tahtayı hücre başına 2 bit olacak şekilde tampona yazar
+         * (bkz. BinaryProtocol); tahta değişmediyse önceki kodlama kopyalanır.
+         * Tampon en az BinaryProtocol.packedBoardLength(genişlik * yükseklik)
+         * bayt boş yere sahip olmalıdır.
+         * @param out Hedef tampon
+         */
+        public void writePacked(ByteBuffer out) {
+            out.put(packedBytes());
+        }
+        
+        private byte[] serializedBytes() {
+            if (serializedCache == null || !isCached()) {
+                serializedCache = new byte[width * height];
+                serializedDirty = true;
+            }
+            if (serializedDirty) {
+                serializeCells(serializedCache);
+                serializedDirty = false;
+            }
+            return serializedCache;
+        }
+        
+        private byte[] packedBytes() {
+            if (packedCache == null || !isCached()) {
+                packedCache = new byte[BinaryProtocol.packedBoardLength(width * height)];
+                packedDirty = true;
+            }
+            if (packedDirty) {
+                packCells(ByteBuffer.wrap(packedCache).order(ByteOrder.LITTLE_ENDIAN));
+                packedDirty = false;
+            }
+            return packedCache;
+        }
+        
+        /**
+         * Seyrek tutulan büyük tahtaların kodlamaları alanla orantılı yer
+         * kapladığı için saklanmaz
+         */
+        private boolean isCached() {
+            return width * height <= SPARSE_THRESHOLD;
+        }
+        
+        /**
+         * Hücre durumlarını ASCII rakamları ('0'-'3') olarak diziye yazar
+         * @param digits Hücre başına bir baytlık hedef dizi
+         */
+        protected void serializeCells(byte[] digits) {
+            Arrays.fill(digits, (byte) '0');
+            ByteBuffer marked = ByteBuffer.allocate(getMarkedCellCount() * BinaryProtocol.CELL_ENTRY_LENGTH);
+            writeMarkedCells(marked, BinaryProtocol.BOARD_OWN);
+            marked.flip();
+            while (marked.hasRemaining()) {
+                int packed = marked.getInt();
+                int state = marked.get() & 0x3;
+                digits[BinaryProtocol.unpackY(packed) * width + BinaryProtocol.unpackX(packed)] = (byte) ('0' + state);
+            }
+        }
+        
+        /**
+         * Hücre durumlarını hücre başına 2 bit olacak şekilde tampona yazar
+         * @param out Hedef tampon
+         */
+        protected void packCells(ByteBuffer out) {
+            int cellCount = width * height;
+            int packed = 0;
+            int shift = 0;
+            for (int index = 0; index < cellCount; index++) {
+                packed |= stateAt(index) << shift;
+                shift += 2;
+                if (shift == 8) {
+                    out.put((byte) packed);
+                    packed = 0;
+                    shift = 0;
                 }
             }
-            return sb.toString();
+            if (shift != 0) {
+                out.put((byte) packed);
+            }
         }
         
         /**
@@ -169,10 +548,13 @@ public class Player {
             int index = 0;
             for (int y = 0; y < height; y++) {
                 for (int x = 0; x < width; x++) {
-                    int ordinal = Character.getNumericValue(data.charAt(index++));
-                    cells[y][x] = CellState.values()[ordinal];
+                    int ordinal = data.charAt(index++) - '0';
+                    if (ordinal < 0 || ordinal >= STATES.length) {
+                        throw new IllegalArgumentException("Geçersiz hücre durumu: " + data.charAt(index - 1));
+                    }
+                    setCell(x, y, STATES[ordinal]);
                 }
             }
         }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,393 @@
+package com.mycompany.savasgemisi.server;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import com.mycompany.savasgemisi.common.GameRules;
+
+/**
+ * Sunucu botunun atış seçimi: olasılık yoğunluğu ile avlanma/hedefleme.
+ *
+ * Avlanma kipinde her hücrenin yoğunluğu, kalan gemilerin o hücreyi
+ * kapsayan ve ıskalanmış hücre içermeyen yerleşim sayısıdır;
+ * en yoğun atılmamış hücreye ateş edilir. Yoğunluk her atışta baştan
+ * hesaplanmaz: bir ıska yalnızca o hücreden geçen yerleşimleri (gemi başına
+ * en fazla 2 x boy) geçersiz kılar. Yalnızca bir gemi battığında kalan filo
+ * değiştiği için tablo yeniden kurulur.
+ *
+ * Batmamış isabet varsa hedefleme kipine geçilir: yalnızca bu isabetlerden
+ * geçen geçerli yerleşimler sayılır ve atılmamış hücreleri puanlanır.
+ * Sunucu batan geminin boyunu bildirmediği için gemi, batıran atışı içeren
+ * isabet dizisinden kalan filoya uyan en uzun parça olarak çıkarılır.
+ * Bitişik gemilerde bu çıkarım yanlış olabileceğinden batmış hücreler
+ * yerleşimleri engellemez; yalnızca ıskalar engeller.
+ *
+ * Bir nesne tek bir oyuna aittir ve eşzamanlı kullanım için değildir.
+ */
+public final class ProbabilityTargeting implements ShotStrategy {
+    private static final byte UNKNOWN = 0;
+    private static final byte MISS = 1;
+    /** İsabet alan ama henüz batmadığı düşünülen hücre */
+    private static final byte OPEN_HIT = 2;
+    private static final byte SUNK = 3;
+    
+    private final int width;
+    private final int height;
+    private SplittableRandom random;
+    /** Filodaki farklı gemi boyları (büyükten küçüğe) ve her boydan kalan gemi sayısı */
+    private final int[] sizes;
+    private final int[] remaining;
+    /** Her boydan filodaki gemi sayısı */
+    private final int[] fleetCounts;
+    private final byte[] cells;
+    /** Avlanma kipindeki yerleşim yoğunluğu */
+    private final int[] density;
+    /** Hedefleme puanları; yalnızca dokunulan hücreler sıfırlanır */
+    private final int[] scores;
+    private int[] touched = new int[16];
+    private int touchedCount = 0;
+    private int[] openHits = new int[8];
+    private int openHitCount = 0;
+    
+    /**
+     * Yeni bir oyun için boş bir yoğunluk tablosu oluşturur
+     * @param rules Tahta boyutu ve rakip filosu
+     * @param random Eşit yoğunluklu hücreler arasında seçim için üreteç
+     */
+    public ProbabilityTargeting(GameRules rules, SplittableRandom random) {
+        this.width = rules.getWidth();
+        this.height = rules.getHeight();
+        this.random = random;
+        int[] fleet = rules.getFleet();
+        int[] sorted = fleet.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        int[] sizeList = new int[sorted.length];
+        int[] countList = new int[sorted.length];
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            if (distinct > 0 && sizeList[distinct - 1] == sorted[i]) {
+                countList[distinct - 1]++;
+            } else {
+                sizeList[distinct] = sorted[i];
+                countList[distinct++] = 1;
+            }
+        }
+        this.sizes = Arrays.copyOf(sizeList, distinct);
+        this.remaining = Arrays.copyOf(countList, distinct);
+        this.fleetCounts = remaining.clone();
+        int count = width * height;
+        this.cells = new byte[count];
+        this.density = new int[count];
+        this.scores = new int[count];
+        rebuildDensity();
+    }
+    
+    @Override
+    public void reset(SplittableRandom random) {
+        this.random = random;
+        Arrays.fill(cells, UNKNOWN);
+        System.arraycopy(fleetCounts, 0, remaining, 0, remaining.length);
+        openHitCount = 0;
+        rebuildDensity();
+    }
+    
+    @Override
+    public int nextShot() {
+        if (openHitCount > 0) {
+            int target = targetShot();
+            if (target >= 0) {
+                return target;
+            }
+        }
+        int best = bestCell(density);
+        if (best >= 0 && density[best] <= 0 && resetFleet()) {
+            best = bestCell(density);
+        }
+        return best;
+    }
+    
+    /**
+     * Atılmamış hiçbir hücreden geçerli yerleşim kalmadıysa batan gemilerden
+     * biri yanlış çıkarılmıştır; kalan filo bilinmediği için tüm filo
+     * yeniden hesaba katılır
+     * @return Tablo yeniden kurulduysa true
+     */
+    private boolean resetFleet() {
+        if (Arrays.equals(remaining, fleetCounts)) {
+            return false;
+        }
+        System.arraycopy(fleetCounts, 0, remaining, 0, remaining.length);
+        rebuildDensity();
+        return true;
+    }
+    
+    @Override
+    public void recordResult(int cell, boolean hit, boolean sunk) {
+        if (cells[cell] != UNKNOWN) {
+            return;
+        }
+        if (!hit) {
+            block(cell);
+            cells[cell] = MISS;
+            return;
+        }
+        cells[cell] = OPEN_HIT;
+        if (openHitCount == openHits.length) {
+            openHits = Arrays.copyOf(openHits, openHitCount * 2);
+        }
+        openHits[openHitCount++] = cell;
+        if (sunk) {
+            markSunk(cell);
+        }
+    }
+    
+    /**
+     * Iskalanan hücreden geçen ve o ana kadar geçerli olan yerleşimleri
+     * yoğunluktan çıkarır. Hücre henüz işaretlenmemiş olmalıdır.
+     */
+    private void block(int cell) {
+        int x = cell % width;
+        int y = cell / width;
+        for (int i = 0; i < sizes.length; i++) {
+            int weight = remaining[i];
+            if (weight == 0) {
+                continue;
+            }
+            int size = sizes[i];
+            for (int startX = Math.max(0, x - size + 1); startX <= Math.min(x, width - size); startX++) {
+                int start = y * width + startX;
+                if (isFree(start, size, 1)) {
+                    addPlacement(start, size, 1, -weight);
+                }
+            }
+            for (int startY = Math.max(0, y - size + 1); startY <= Math.min(y, height - size); startY++) {
+                int start = startY * width + x;
+                if (isFree(start, size, width)) {
+                    addPlacement(start, size, width, -weight);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Kalan filo için yoğunluk tablosunu baştan kurar
+     */
+    private void rebuildDensity() {
+        Arrays.fill(density, 0);
+        for (int i = 0; i < sizes.length; i++) {
+            int weight = remaining[i];
+            if (weight == 0) {
+                continue;
+            }
+            int size = sizes[i];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x + size <= width; x++) {
+                    int start = y * width + x;
+                    if (isFree(start, size, 1)) {
+                        addPlacement(start, size, 1, weight);
+                    }
+                }
+            }
+            for (int y = 0; y + size <= height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int start = y * width + x;
+                    if (isFree(start, size, width)) {
+                        addPlacement(start, size, width, weight);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Yerleşimde ıska var mı? Batmış hücreler kabul edilir; bitişik gemilerde
+     * batan geminin hücreleri yanlış çıkarılmış olabilir.
+     */
+    private boolean isFree(int start, int size, int step) {
+        for (int i = 0, cell = start; i < size; i++, cell += step) {
+            if (cells[cell] == MISS) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void addPlacement(int start, int size, int step, int weight) {
+        for (int i = 0, cell = start; i < size; i++, cell += step) {
+            density[cell] += weight;
+        }
+    }
+    
+    /**
+     * Batmamış isabetlerden geçen ve ıska içermeyen yerleşimlerin atılmamış
+     * hücrelerini puanlar. Birden fazla isabetten geçen yerleşim her isabet için ayrıca
+     * sayılır; böylece isabetleri birleştiren hücreler öne çıkar.
+     * @return En yüksek puanlı hücre; aday yoksa -1
+     */
+    private int targetShot() {
+        for (int h = 0; h < openHitCount; h++) {
+            int hit = openHits[h];
+            int x = hit % width;
+            int y = hit / width;
+            for (int i = 0; i < sizes.length; i++) {
+                int weight = remaining[i];
+                if (weight == 0) {
+                    continue;
+                }
+                int size = sizes[i];
+                for (int startX = Math.max(0, x - size + 1); startX <= Math.min(x, width - size); startX++) {
+                    int start = y * width + startX;
+                    if (isFree(start, size, 1)) {
+                        scorePlacement(start, size, 1, weight);
+                    }
+                }
+                for (int startY = Math.max(0, y - size + 1); startY <= Math.min(y, height - size); startY++) {
+                    int start = startY * width + x;
+                    if (isFree(start, size, width)) {
+                        scorePlacement(start, size, width, weight);
+                    }
+                }
+            }
+        }
+        if (touchedCount == 0) {
+            // Kalan filo isabetlere uymuyor; isabetlerin komşuları denenir
+            for (int h = 0; h < openHitCount; h++) {
+                int hit = openHits[h];
+                int x = hit % width;
+                if (x > 0) {
+                    scorePlacement(hit - 1, 1, 1, 1);
+                }
+                if (x < width - 1) {
+                    scorePlacement(hit + 1, 1, 1, 1);
+                }
+                if (hit >= width) {
+                    scorePlacement(hit - width, 1, 1, 1);
+                }
+                if (hit + width < cells.length) {
+                    scorePlacement(hit + width, 1, 1, 1);
+                }
+            }
+        }
+        int best = -1;
+        int bestScore = 0;
+        int ties = 0;
+        for (int t = 0; t < touchedCount; t++) {
+            int cell = touched[t];
+            int score = scores[cell];
+            scores[cell] = 0;
+            if (score > bestScore) {
+                best = cell;
+                bestScore = score;
+                ties = 1;
+            } else if (score == bestScore && score > 0 && random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        touchedCount = 0;
+        return best;
+    }
+    
+    private void scorePlacement(int start, int size, int step, int weight) {
+        for (int i = 0, cell = start; i < size; i++, cell += step) {
+            if (cells[cell] != UNKNOWN) {
+                continue;
+            }
+            if (scores[cell] == 0) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = cell;
+            }
+            scores[cell] += weight;
+        }
+    }
+    
+    /**
+     * Atılmamış hücreler arasında en yüksek değerliyi seçer; eşitlikte
+     * rastgele seçer
+     * @return Hücre; atılmamış hücre kalmadıysa -1
+     */
+    private int bestCell(int[] values) {
+        int best = -1;
+        int bestValue = Integer.MIN_VALUE;
+        int ties = 0;
+        for (int cell = 0; cell < values.length; cell++) {
+            if (cells[cell] != UNKNOWN) {
+                continue;
+            }
+            int value = values[cell];
+            if (value > bestValue) {
+                best = cell;
+                bestValue = value;
+                ties = 1;
+            } else if (value == bestValue && random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Batıran atışı içeren yatay ve dikey isabet dizilerinden kalan filoya
+     * uyan en uzun gemiyi seçer, hücrelerini batmış işaretler ve yoğunluk
+     * tablosunu kalan filoya göre yeniden kurar
+     */
+    private void markSunk(int cell) {
+        int x = cell % width;
+        int y = cell / width;
+        int left = x;
+        while (left > 0 && cells[cell - (x - left) - 1] == OPEN_HIT) {
+            left--;
+        }
+        int right = x;
+        while (right < width - 1 && cells[cell + (right - x) + 1] == OPEN_HIT) {
+            right++;
+        }
+        int top = y;
+        while (top > 0 && cells[cell - (y - top + 1) * width] == OPEN_HIT) {
+            top--;
+        }
+        int bottom = y;
+        while (bottom < height - 1 && cells[cell + (bottom - y + 1) * width] == OPEN_HIT) {
+            bottom++;
+        }
+        int horizontalRun = right - left + 1;
+        int verticalRun = bottom - top + 1;
+        boolean horizontal = horizontalRun >= verticalRun;
+        int run = Math.max(horizontalRun, verticalRun);
+        
+        // Uyan gemi yoksa (önceki bir çıkarım yanlıştı) en küçük gemi düşülür
+        int ship = -1;
+        for (int i = 0; i < sizes.length; i++) {
+            if (remaining[i] == 0) {
+                continue;
+            }
+            ship = i;
+            if (sizes[i] <= run) {
+                break;
+            }
+        }
+        if (ship < 0) {
+            return;
+        }
+        int size = Math.min(sizes[ship], run);
+        remaining[ship]--;
+        
+        int position = horizontal ? x : y;
+        int runStart = horizontal ? left : top;
+        int segmentStart = Math.max(runStart, position - size + 1);
+        int step = horizontal ? 1 : width;
+        int first = horizontal ? y * width + segmentStart : segmentStart * width + x;
+        for (int i = 0, sunkCell = first; i < size; i++, sunkCell += step) {
+            cells[sunkCell] = SUNK;
+        }
+        int kept = 0;
+        for (int h = 0; h < openHitCount; h++) {
+            if (cells[openHits[h]] == OPEN_HIT) {
+                openHits[kept++] = openHits[h];
+            }
+        }
+        openHitCount = kept;
+        rebuildDensity();
+    }
+}
@@ -1,81 +1,506 @@
 package com.mycompany.savasgemisi.server;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+import com.mycompany.savasgemisi.common.BufferPool;
+import com.mycompany.savasgemisi.common.FrameCodec;
 import com.mycompany.savasgemisi.common.Message;
 import com.mycompany.savasgemisi.common.MessageType;
 import com.mycompany.savasgemisi.common.Move;
+import com.mycompany.savasgemisi.common.PreEncodedMessage;
 
 /**
- * Sunucu tarafında her istemci için oluşturulan thread sınıfı.
+ * Sunucu tarafında her istemci için tutulan bağlantı durumu.
  * Her istemci bağlantısı için ayrı bir SClient nesnesi oluşturulur ve
- * bu nesne istemci ile sunucu arasındaki iletişimi yönetir.
+ * bu nesne istemci ile sunucu arasındaki iletişimi yönetir. Soket
+ * okuma/yazma işleri, sunucu motoruna ait ClientChannel tarafından yapılır.
+ *
+ * Giden mesajlar önce istemcinin kuyruğuna eklenir. Gelen bir olay
+ * işlenirken (bkz. OutboundBatch) kuyruk olay bitince tek seferde
+ * gönderilir; olay dışında gönderilen mesajlar hemen yazılır.
+ *
+ * Hamle başına gönderilen mesajlar ara String oluşturmadan doğrudan
+ * havuzdan alınan çerçevelere yazılır; sabit mesajlar bir kez kodlanır.
+ *
+ * Her bağlantının sunucunun ortak zamanlayıcısında tek bir yoklama
+ * kontrolü vardır. Bağlantı bir yoklama aralığı boyunca sessiz kalırsa
+ * istemciye HEARTBEAT#PING gönderilir; boşta kalma süresini aşan (ör. yarı
+ * açık TCP) bağlantılar kapatılır ve oyundaki oyuncu için yeniden
+ * bağlanma süresi başlar. Yoklamalar yalnızca ikili protokol kullanan ya
+ * da bir HEARTBEAT mesajı göndermiş istemcilere uygulanır; yoklamayı
+ * bilmeyen metin istemcileri eşleşme beklerken sessiz kalabilir.
  */
-public class SClient extends Thread {
-    private Socket socket;
-    private OutputStream output;
-    private InputStream input;
+public class SClient {
+    private static final PreEncodedMessage YOUR_TURN = new PreEncodedMessage(
+            FrameCodec.encodeText(Message.generateMessage(MessageType.GAME_UPDATE, "Sıra sizde")),
+            BinaryProtocol.encodeUpdate(BinaryProtocol.UPDATE_YOUR_TURN));
+    private static final PreEncodedMessage OPPONENT_TURN = new PreEncodedMessage(
+            FrameCodec.encodeText(Message.generateMessage(MessageType.GAME_UPDATE, "Rakibin sırası")),
+            BinaryProtocol.encodeUpdate(BinaryProtocol.UPDATE_OPPONENT_TURN));
+    /** Metin protokolündeki hamle sonucu ve tahta mesajlarının sabit parçaları (UTF-8) */
+    private static final byte[] MOVE_PREFIX = utf8(Message.generateMessage(MessageType.GAME_UPDATE, "Hamle: "));
+    private static final byte[] MOVE_MISS = utf8(" - ISKA");
+    private static final byte[] MOVE_HIT = utf8(" - İSABET!");
+    private static final byte[] MOVE_SUNK = utf8(" - İSABET! Gemi battı!");
+    private static final byte[] BOARD_PREFIX = utf8(Message.generateMessage(MessageType.GAME_UPDATE, "BOARD:"));
+    private static final PreEncodedMessage HEARTBEAT_PING = PreEncodedMessage.of(MessageType.HEARTBEAT, Message.HEARTBEAT_PING);
+    
+    
+    private ClientChannel channel;
     private GameServer gameServer;
-    private int clientId;
-    /** Thread'in çalışma durumu */
-    private boolean running = true;
+    /** Oyuncu kayıttan kurulan bir oyuna yeniden bağlanırsa eski ID'sini alır */
+    private volatile int clientId;
+    /** Bağlantı yanıtında verilen, kopan oyuna yeniden bağlanmayı sağlayan anahtar; 0 ise yok */
+    private volatile long resumeToken = 0;
+    /** Bağlantı isteğinde ikili protokol üzerinde anlaşıldı mı? */
+    private volatile boolean binary = false;
+    /** Bağlantı kapanışının sunucuya yalnızca bir kez bildirilmesi için */
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    /** Gönderilmeyi bekleyen çerçeveler */
+    private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+    /** Kuyruğun sırası bozulmadan boşaltılması için */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    /** Toplu yazma için yeniden kullanılan dizi; flushLock ile korunur */
+    private ByteBuffer[] batch = new ByteBuffer[8];
+    /** Son çerçevenin okunduğu an (System.nanoTime); boşta bağlantılar bununla bulunur */
+    private volatile long lastReadNanos = System.nanoTime();
+    /** Sıradaki yoklama kontrolü; bağlantı kapanınca iptal edilir */
+    private volatile HashedWheelTimer.Timeout heartbeat;
+    /** İstemci metin protokolünde bir HEARTBEAT mesajı gönderdi mi? (yoklamayı bildiğini gösterir) */
+    private volatile boolean heartbeatAware = false;
     
     /**
      * Yeni bir istemci bağlantısı oluşturur
-     * @param socket İstemci soketi
+     * @param channel İstemcinin taşıma katmanı
      * @param gameServer Sunucu referansı
      * @param clientId İstemci ID'si
-     * @throws IOException Soket bağlantısı kurulamazsa
      */
-    public SClient(Socket socket, GameServer gameServer, int clientId) throws IOException {
-        this.socket = socket;
+    public SClient(ClientChannel channel, GameServer gameServer, int clientId) {
+        this.channel = channel;
         this.gameServer = gameServer;
         this.clientId = clientId;
-        this.output = socket.getOutputStream();
-        this.input = socket.getInputStream();
     }
     
     /**
-     * İstemci dinleme thread'ini başlatır
+     * Kayıttan kurulan bir oturumda henüz yeniden bağlanmamış oyuncunun
+     * yerini tutan istemci oluşturur. Bağlantısı kapalı sayılır; ona
+     * gönderilen mesajlar yazılmadan bırakılır.
+     * @param gameServer Sunucu referansı
+     * @param clientId Oyuncunun ID'si
+     * @param resumeToken Oyuncunun devam anahtarı
+     * @return Bağlantısız istemci
      */
-    public void listen() {
-        this.start();
+    static SClient detached(GameServer gameServer, int clientId, long resumeToken) {
+        SClient client = new SClient(DetachedChannel.INSTANCE, gameServer, clientId);
+        client.resumeToken = resumeToken;
+        client.closed.set(true);
+        return client;
     }
     
     /**
-     * İstemciye mesaj gönderir
+     * Bağlantısız istemcilerin kanalı; hiçbir şey yazmaz
+     */
+    private enum DetachedChannel implements ClientChannel {
+        INSTANCE;
+        
+        @Override
+        public void send(ByteBuffer[] frames, int count) {
+            for (int i = 0; i < count; i++) {
+                BufferPool.SHARED.release(frames[i]);
+            }
+        }
+        
+        @Override
+        public void close() {
+        }
+        
+        @Override
+        public String getRemoteAddress() {
+            return "bağlı değil";
+        }
+    }
+    
+    /**
+     * İstemciye hazır formatlanmış (type#data) bir mesaj gönderir.
+     * İkili protokoldeki istemciler için mesaj yeniden kodlanır.
      * @param msg Gönderilecek mesaj
      * @throws IOException Mesaj gönderilemezse
      */
     public void sendMessage(String msg) throws IOException {
-        byte[] msgBytes = msg.getBytes();
-        output.write(msgBytes.length);
-        output.write(msgBytes);
-        output.flush();
+        if (binary) {
+            Message.ParsedMessage parsedMsg = Message.parseMessage(msg);
+            sendMessage(parsedMsg.getType(), parsedMsg.getData());
+        } else {
+            enqueue(FrameCodec.encodeText(msg));
+        }
+    }
+    
+    /**
+     * İstemciye istemcinin protokolüne uygun biçimde mesaj gönderir
+     * @param type Mesaj tipi
+     * @param data Mesaj verisi
+     * @throws IOException Mesaj gönderilemezse
+     */
+    public void sendMessage(MessageType type, String data) throws IOException {
+        if (binary) {
+            enqueue(BinaryProtocol.encodeText(type, data));
+        } else {
+            enqueue(FrameCodec.encodeText(Message.generateMessage(type, data)));
+        }
+    }
+    
+    /**
+     * Önceden kodlanmış bir mesajı istemcinin protokolünde gönderir
+     * @param message Gönderilecek mesaj
+     * @throws IOException Mesaj gönderilemezse
+     */
+    public void sendMessage(PreEncodedMessage message) throws IOException {
+        enqueue(message.frame(binary));
+    }
+    
+    /**
+     * Sıranın kimde olduğunu bildirir
+     * @param yourTurn Sıra bu istemcide mi?
+     * @throws IOException Mesaj gönderilemezse
+     */
+    public void sendTurn(boolean yourTurn) throws IOException {
+        sendMessage(yourTurn ? YOUR_TURN : OPPONENT_TURN);
+    }
+    
+    /**
+     * Bir hamlenin sonucunu bildirir
+     * @param move Yapılan hamle
+     * @param hit Hamle isabetli mi?
+     * @param sunk Hamle bir gemiyi batırdı mı?
+     * @throws IOException Mesaj gönderilemezse
+     */
+    public void sendMoveResult(Move move, boolean hit, boolean sunk) throws IOException {
+        if (binary) {
+            enqueue(BinaryProtocol.encodeMoveResult(move.getX(), move.getY(), hit, sunk));
+        } else {
+            // "GAME_UPDATE#Hamle: x,y - İSABET!" ara String oluşturmadan yazılır
+            byte[] suffix = sunk ? MOVE_SUNK : hit ? MOVE_HIT : MOVE_MISS;
+            int maxLength = MOVE_PREFIX.length + 2 * 11 + 1 + suffix.length;
+            ByteBuffer frame = FrameCodec.beginFrame(maxLength);
+            frame.put(MOVE_PREFIX);
+            putDecimal(frame, move.getX());
+            frame.put((byte) ',');
+            putDecimal(frame, move.getY());
+            frame.put(suffix);
+            enqueue(FrameCodec.endFrame(frame, maxLength));
+        }
+    }
+    
+    /**
+     * Oyuncunun kendi tahtasını ve rakip görünümünü tam olarak gönderir
+     * @param sequence Oturumun güncel tahta sıra numarası
+     * @param board Oyuncunun tahtası
+     * @param opponentView Rakip tahtasının görünen kısmı
+     * @throws IOException Mesaj gönderilemezse
+     */
+    public void sendBoards(int sequence, Player.Board board, Player.Board opponentView) throws IOException {
+        enqueue(encodeBoards(binary, sequence, board, opponentView));
+    }
+    
+    /**
+     * İki tahtayı istenen protokolde tam olarak kodlar. İkili protokolde
+     * işaretli hücreleri göndermek paketlenmiş tahtadan daha kısaysa
+     * tahtalar seyrek biçimde kodlanır.
+     * @param binary İkili protokol mü?
+     * @param sequence Oturumun güncel tahta sıra numarası
+     * @param board Mesajdaki ilk (BOARD_OWN) tahta
+     * @param opponentView Mesajdaki ikinci (BOARD_OPPONENT) tahta
+     * @return Okumaya hazır, havuzdan alınmış çerçeve
+     */
+    static ByteBuffer encodeBoards(boolean binary, int sequence, Player.Board board, Player.Board opponentView) {
+        if (binary) {
+            int cells = board.getWidth() * board.getHeight();
+            long marked = (long) board.getMarkedCellCount() + opponentView.getMarkedCellCount();
+            if (marked * BinaryProtocol.CELL_ENTRY_LENGTH < 2L * BinaryProtocol.packedBoardLength(cells)) {
+                return encodeSparseBoards(sequence, board, opponentView, (int) marked);
+            }
+            int maxLength = 10 + 2 * BinaryProtocol.packedBoardLength(cells);
+            ByteBuffer frame = FrameCodec.beginFrame(maxLength);
+            frame.put((byte) MessageType.GAME_UPDATE.ordinal());
+            frame.put(BinaryProtocol.UPDATE_BOARDS);
+            frame.putInt(sequence);
+            frame.putShort((short) board.getWidth());
+            frame.putShort((short) board.getHeight());
+            board.writePacked(frame);
+            opponentView.writePacked(frame);
+            return FrameCodec.endFrame(frame, maxLength);
+        }
+        // Tahtaların önbellekteki ASCII kodlamaları doğrudan çerçeveye kopyalanır
+        int cells = board.getWidth() * board.getHeight();
+        int maxLength = BOARD_PREFIX.length + 2 * cells + 1;
+        ByteBuffer frame = FrameCodec.beginFrame(maxLength);
+        frame.put(BOARD_PREFIX);
+        board.writeSerialized(frame);
+        frame.put((byte) ',');
+        opponentView.writeSerialized(frame);
+        return FrameCodec.endFrame(frame, maxLength);
+    }
+    
+    /**
+     * Tahtaların yalnızca işaretli hücrelerini kodlar
+     */
+    private static ByteBuffer encodeSparseBoards(int sequence, Player.Board board, Player.Board opponentView,
+            int marked) {
+        int maxLength = 14 + marked * BinaryProtocol.CELL_ENTRY_LENGTH;
+        ByteBuffer frame = FrameCodec.beginFrame(maxLength);
+        frame.put((byte) MessageType.GAME_UPDATE.ordinal());
+        frame.put(BinaryProtocol.UPDATE_SPARSE_BOARDS);
+        frame.putInt(sequence);
+        frame.putShort((short) board.getWidth());
+        frame.putShort((short) board.getHeight());
+        frame.putInt(marked);
+        board.writeMarkedCells(frame, BinaryProtocol.BOARD_OWN);
+        opponentView.writeMarkedCells(frame, BinaryProtocol.BOARD_OPPONENT);
+        return FrameCodec.endFrame(frame, maxLength);
+    }
+    
+    /**
+     * Yalnızca değişen hücreleri gönderir. Metin protokolündeki istemciler
+     * fark mesajını tanımadığı için onlara tam tahta gönderilir.
+     * @param sequence Değişiklikten sonraki tahta sıra numarası
+     * @param player İstemcinin oyuncusu
+     * @param changes BinaryProtocol.packChange ile paketlenmiş değişiklikler
+     * @param count Dizideki geçerli değişiklik sayısı
+     * @throws IOException Mesaj gönderilemezse
+     */
+    public void sendBoardDelta(int sequence, Player player, long[] changes, int count) throws IOException {
+        if (binary) {
+            enqueue(BinaryProtocol.encodeBoardDelta(sequence, changes, count));
+        } else {
+            sendBoards(sequence, player.getBoard(), player.getOpponentView());
+        }
+    }
+    
+    /**
+     * Başka istemcilerle paylaşılan, önceden kodlanmış bir çerçeveyi gönderir
+     * (bkz. SpectatorFeed). Çerçeve yeniden kodlanmaz ve havuza geri verilmez.
+     * @param frame Paylaşılan çerçevenin bu istemciye ait salt okunur kopyası
+     * @throws IOException Hemen gönderim sırasında hata olursa
+     */
+    void sendShared(ByteBuffer frame) throws IOException {
+        enqueue(frame);
+    }
+    
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Sayıyı ara String oluşturmadan ASCII rakamlarla yazar
+     */
+    private static void putDecimal(ByteBuffer out, int value) {
+        long remaining = value;
+        if (remaining < 0) {
+            out.put((byte) '-');
+            remaining = -remaining;
+        }
+        long divisor = 1;
+        while (divisor * 10 <= remaining) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.put((byte) ('0' + remaining / divisor));
+            remaining %= divisor;
+        }
+    }
+    
+    /**
+     * Çerçeveyi giden kuyruğa ekler. Açık bir olay kapsamı yoksa kuyruk hemen gönderilir.
+     * @param frame Okumaya hazır, havuzdan alınmış çerçeve
+     * @throws IOException Hemen gönderim sırasında hata olursa
+     */
+    private void enqueue(ByteBuffer frame) throws IOException {
+        outbound.add(frame);
+        if (!OutboundBatch.defer(this)) {
+            flush();
+        }
+    }
+    
+    /**
+     * Kuyruktaki tüm çerçeveleri tek bir toplu yazmayla gönderir
+     * @throws IOException Mesajlar gönderilemezse
+     */
+    void flush() throws IOException {
+        flushLock.lock();
+        try {
+            int count = 0;
+            ByteBuffer frame;
+            while ((frame = outbound.poll()) != null) {
+                if (closed.get()) {
+                    BufferPool.SHARED.release(frame);
+                    continue;
+                }
+                if (count == batch.length) {
+                    batch = Arrays.copyOf(batch, count * 2);
+                }
+                batch[count++] = frame;
+            }
+            if (count > 0) {
+                long bytes = 0;
+                for (int i = 0; i < count; i++) {
+                    bytes += batch[i].remaining();
+                }
+                gameServer.getMetrics().recordFramesOut(count, bytes);
+                try {
+                    channel.send(batch, count);
+                } finally {
+                    Arrays.fill(batch, 0, count, null);
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    /**
+     * Kuyruğu gönderir; hata yalnızca loglanır. Bağlantının kapanması
+     * okuma tarafında ayrıca fark edilir.
+     */
+    void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println("İstemciye mesaj gönderilirken hata: " + e.getMessage());
+        }
     }
     
     /**
      * İstemci bağlantısını kapatır ve kaynakları temizler
      */
     public void disconnect() {
-        running = false;
+        channel.close();
+    }
+    
+    /**
+     * Bağlantının yoklama kontrollerini başlatır (bkz. GameServer.setHeartbeat)
+     */
+    void startHeartbeat() {
+        long interval = gameServer.getHeartbeatMillis();
+        if (interval > 0) {
+            scheduleHeartbeat(interval);
+        }
+    }
+    
+    private void scheduleHeartbeat(long delayMillis) {
+        HashedWheelTimer.Timeout next = gameServer.getTimer().schedule(this::checkIdle, delayMillis);
+        heartbeat = next;
+        if (closed.get()) {
+            // Bağlantı bu arada kapandıysa kontrol zamanlayıcıda kalmasın
+            next.cancel();
+        }
+    }
+    
+    /**
+     * Zamanlayıcı thread'inde çalışır: bağlantı boşta kalma süresini aştıysa
+     * kapatır, bir yoklama aralığı boyunca sessizse yoklama gönderir ve bir
+     * sonraki kontrolü zamanlar. Yoklamayı bilmeyen istemciler yalnızca
+     * yeniden kontrol edilir. Kanal gönderimi bloklamadığından yoklama bu
+     * thread'den gönderilir; kapatma ise zamanlayıcıyı bekletmesin diye
+     * oturum havuzunda yapılır.
+     */
+    private void checkIdle() {
+        long interval = gameServer.getHeartbeatMillis();
+        if (closed.get() || interval <= 0) {
+            return;
+        }
+        if (!binary && !heartbeatAware) {
+            scheduleHeartbeat(interval);
+            return;
+        }
+        long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastReadNanos);
+        if (idleMillis >= gameServer.getIdleTimeoutMillis()) {
+            gameServer.idleConnectionReaped();
+            System.out.println("İstemci " + clientId + " " + idleMillis / 1000 + " sn'dir sessiz, bağlantı kapatılıyor.");
+            gameServer.getSessionExecutor().execute(this::disconnect);
+            return;
+        }
+        if (idleMillis >= interval) {
+            sendHeartbeat();
+            scheduleHeartbeat(interval);
+        } else {
+            scheduleHeartbeat(interval - idleMillis);
+        }
+    }
+    
+    private void sendHeartbeat() {
         try {
-            if (socket != null && !socket.isClosed()) {
-                socket.close();
-            }
+            sendMessage(HEARTBEAT_PING);
+            gameServer.heartbeatSent();
         } catch (IOException e) {
-            System.err.println("İstemci bağlantısı kapatılırken hata: " + e.getMessage());
+            System.err.println("Yoklama gönderilirken hata: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Taşıma katmanından gelen tam bir çerçeveyi işler
+     * @param payload İstemciden gelen mesaj baytları; yalnızca çağrı süresince geçerlidir
+     */
+    void receiveFrame(ByteBuffer payload) {
+        ServerMetrics metrics = gameServer.getMetrics();
+        int length = payload.remaining();
+        metrics.recordFrameIn(FrameCodec.varintSize(length) + length);
+        long start = System.nanoTime();
+        lastReadNanos = start;
+        MessageType type;
+        OutboundBatch.open();
+        try {
+            if (binary) {
+                type = parseBinaryMessage(payload);
+            } else {
+                type = parseMessage(FrameCodec.decodeText(payload));
+            }
+        } finally {
+            OutboundBatch.close();
+        }
+        if (type != null) {
+            metrics.recordMessage(type, System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Taşıma katmanı bağlantının kapandığını bildirdiğinde çağrılır.
+     * Sunucu yalnızca ilk çağrıda bilgilendirilir.
+     */
+    void connectionClosed() {
+        if (closed.compareAndSet(false, true)) {
+            HashedWheelTimer.Timeout check = heartbeat;
+            if (check != null) {
+                check.cancel();
+            }
+            OutboundBatch.open();
+            try {
+                gameServer.clientDisconnected(this);
+            } finally {
+                OutboundBatch.close();
+            }
+            
+            ByteBuffer frame;
+            while ((frame = outbound.poll()) != null) {
+                BufferPool.SHARED.release(frame);
+            }
         }
     }
     
     /**
      * Gelen mesajı ayrıştırır ve uygun işleyiciye yönlendirir
      * @param msg Ayrıştırılacak mesaj
+     * @return Mesajın tipi; mesaj ayrıştırılamadıysa null
      */
-    private void parseMessage(String msg) {
+    private MessageType parseMessage(String msg) {
         try {
             Message.ParsedMessage parsedMsg = Message.parseMessage(msg);
             MessageType type = parsedMsg.getType();
@@ -91,27 +516,118 @@ public class SClient extends Thread {
                 case GAME_START:
                     handleGameStart();
                     break;
+                case HEARTBEAT:
+                    // Yoklama yanıtı; okunma anı receiveFrame'de kaydedildi
+                    heartbeatAware = true;
+                    break;
+                case SPECTATE:
+                    gameServer.requestSpectate(this, data);
+                    break;
+                default:
+                    System.out.println("Tanınmayan mesaj tipi: " + type);
+            }
+            return type;
+        } catch (Exception e) {
+            System.err.println("Mesaj ayrıştırılırken hata: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * İkili protokolde gelen mesajı ayrıştırır ve uygun işleyiciye yönlendirir
+     * @param payload Mesaj baytları
+     * @return Mesajın tipi; mesaj ayrıştırılamadıysa null
+     */
+    private MessageType parseBinaryMessage(ByteBuffer payload) {
+        try {
+            MessageType type = BinaryProtocol.readType(payload);
+            
+            switch (type) {
+                case MOVE:
+                    handleMove(BinaryProtocol.decodeMove(payload));
+                    break;
+                case GAME_START:
+                    handleGameStart();
+                    break;
+                case GAME_UPDATE:
+                    byte kind = payload.get();
+                    if (kind == BinaryProtocol.UPDATE_RESYNC) {
+                        gameServer.requestBoardSync(this);
+                    } else {
+                        System.out.println("Tanınmayan güncelleme türü: " + kind);
+                    }
+                    break;
+                case HEARTBEAT:
+                    break;
+                case SPECTATE:
+                    gameServer.requestSpectate(this, FrameCodec.decodeText(payload));
+                    break;
                 default:
                     System.out.println("Tanınmayan mesaj tipi: " + type);
             }
+            return type;
         } catch (Exception e) {
             System.err.println("Mesaj ayrıştırılırken hata: " + e.getMessage());
+            return null;
         }
     }
     
     /**
-     * Bağlantı isteğini işler ve istemciye yanıt gönderir
+     * Bağlantı isteğini işler ve istemciye yanıt gönderir.
+     * İstek "CONNECT:BIN" içeriyorsa yanıttan sonra ikili protokole geçilir.
+     * İstek "TOKEN" ya da "RESUME=anahtar" içeriyorsa istemciye bir devam
+     * anahtarı verilir ve yanıtta gönderilir ("OK:id[:BIN]:TOKEN=anahtar");
+     * aksi halde anahtar verilmez ve yanıt eski istemcilerin beklediği
+     * "OK:id[:BIN]" biçimindedir. Anahtarı olmayan oyuncunun oyunu kayda
+     * alınmaz ve bağlantısı kopunca oyun hemen biter.
+     * İstek "RESUME=anahtar" içeriyorsa ve anahtar kayıttan kurulan bir oyuna
+     * aitse istemci oyuncunun ID'sini alır ve oyuna kaldığı yerden devam eder;
+     * aksi halde yeni bir oyuncu olarak eşleşmeye girer. İstek "WATCH" içeriyorsa
+     * istemci eşleşmeye girmez; SPECTATE ile bir oyunu izlemesi beklenir.
      * @param data İstek verisi
      * @throws IOException Mesaj gönderilemezse
      */
     private void handleConnectionRequest(String data) throws IOException {
+        boolean wantsBinary = false;
+        boolean watchOnly = false;
+        boolean wantsToken = false;
+        long requestedToken = 0;
+        for (String option : data.split(":")) {
+            if (option.equals(BinaryProtocol.CAPABILITY)) {
+                wantsBinary = true;
+            } else if (option.equals(Message.WATCH_OPTION)) {
+                watchOnly = true;
+            } else if (option.equals(Message.TOKEN_REQUEST_OPTION)) {
+                wantsToken = true;
+            } else if (option.startsWith(Message.RESUME_OPTION)) {
+                wantsToken = true;
+                try {
+                    requestedToken = Long.parseUnsignedLong(option.substring(Message.RESUME_OPTION.length()), 16);
+                } catch (NumberFormatException e) {
+                    System.err.println("Geçersiz devam anahtarı: " + option);
+                }
+            }
+        }
+        
+        GameSession resumed = requestedToken != 0 ? gameServer.claimResumableSession(this, requestedToken) : null;
+        if (resumed != null) {
+            resumeToken = requestedToken;
+        } else if (wantsToken) {
+            resumeToken = gameServer.newResumeToken();
+        }
         String response = Message.generateMessage(
             MessageType.CONNECTION_REQUEST,
-            "OK:" + clientId
+            "OK:" + clientId + (wantsBinary ? ":" + BinaryProtocol.CAPABILITY : "")
+            + (wantsToken ? ":" + Message.TOKEN_OPTION + Long.toHexString(resumeToken) : "")
         );
         sendMessage(response);
+        binary = wantsBinary;
         
-        gameServer.clientConnected(this);
+        if (resumed != null) {
+            resumed.reattach(this);
+        } else {
+            gameServer.clientConnected(this, !watchOnly);
+        }
     }
     
     /**
@@ -120,13 +636,20 @@ public class SClient extends Thread {
      */
     private void handleMove(String moveData) {
         try {
-            Move move = Move.parse(moveData);
-            gameServer.processPlayerMove(this, move);
+            handleMove(Move.parse(moveData));
         } catch (Exception e) {
             System.err.println("Hamle işlenirken hata: " + e.getMessage());
         }
     }
     
+    /**
+     * Ayrıştırılmış oyuncu hamlesini sunucuya iletir
+     * @param move Hamle
+     */
+    private void handleMove(Move move) {
+        gameServer.processPlayerMove(this, move);
+    }
+    
     /**
      * Oyun başlatma isteğini işler
      */
@@ -135,27 +658,27 @@ public class SClient extends Thread {
     }
     
     /**
-     * Thread'in ana döngüsü. İstemciden gelen mesajları dinler ve işler
+     * Bağlantının kapanıp kapanmadığını döndürür
+     * @return Bağlantı kapandıysa true
      */
-    @Override
-    public void run() {
-        try {
-            while (running && socket.isConnected()) {
-                int size = input.read();
-                if (size == -1) break;
-                
-                byte[] buffer = new byte[size];
-                input.read(buffer);
-                String message = new String(buffer);
-                
-                parseMessage(message);
-            }
-        } catch (IOException e) {
-            System.err.println("İstemci dinleme döngüsünde hata: " + e.getMessage());
-        } finally {
-            gameServer.clientDisconnected(this);
-            disconnect();
-        }
+    public boolean isClosed() {
+        return closed.get();
+    }
+    
+    /**
+     * İstemcinin ikili protokolde olup olmadığını döndürür
+     * @return Bağlantı isteğinde ikili protokol üzerinde anlaşıldıysa true
+     */
+    boolean isBinary() {
+        return binary;
+    }
+    
+    /**
+     * Kanalın henüz sokete yazamadığı bayt sayısını döndürür
+     * @return Bayt sayısı (bkz. ClientChannel.getPendingBytes)
+     */
+    long getPendingBytes() {
+        return channel.getPendingBytes();
     }
     
     /**
@@ -165,4 +688,20 @@ public class SClient extends Thread {
     public int getClientId() {
         return clientId;
     }
+    
+    /**
+     * İstemciye kayıttan kurulan oyundaki oyuncunun ID'sini verir
+     * @param clientId Oyuncunun ID'si
+     */
+    void adoptClientId(int clientId) {
+        this.clientId = clientId;
+    }
+    
+    /**
+     * İstemcinin devam anahtarını döndürür
+     * @return Devam anahtarı; bağlantı isteği gelmediyse (ya da bot ise) 0
+     */
+    public long getResumeToken() {
+        return resumeToken;
+    }
 } 
\ No newline at end of file
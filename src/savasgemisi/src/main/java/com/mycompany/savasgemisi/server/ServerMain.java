@@ -1,7 +1,10 @@
 package com.mycompany.savasgemisi.server;
 
+import java.nio.file.Path;
 import java.util.Scanner;
 
+import com.mycompany.savasgemisi.common.GameRules;
+
 /**
  * Sunucu uygulamasını başlatan ana sınıf.
  * Bu sınıf, sunucuyu başlatır ve konsol komutlarını işler.
@@ -9,20 +12,90 @@ import java.util.Scanner;
 public class ServerMain {
     /**
      * Uygulamanın ana giriş noktası
-     * @param args Komut satırı argümanları (opsiyonel port numarası)
+     * @param args Komut satırı argümanları: [port] [thread|virtual|nio] [olay döngüsü sayısı] [oturum thread sayısı]
+     *             [kurallar, ör. 10x10:5,4,3,3,2] [botla eşleşme bekleme süresi (ms); 0 ise botlar kapalı]
+     *             [ölçüm HTTP portu; 0 ise kapalı] [hamle günlüğü dizini; "-" ya da verilmezse kapalı]
+     *             [oturum kayıt dizini; "-" ya da verilmezse kapalı]
+     *             [bağlantısı kopan oyuncunun yeniden bağlanma süresi (sn); 0 ise oyun hemen biter]
+     *             [sessiz bağlantılara yoklama aralığı (sn); 3 aralık yanıtsız kalan bağlantı kapatılır, 0 ise kapalı]
+     *             [hamle süresi (sn); 0 ise sınırsız]
      */
     public static void main(String[] args) {
         int port = 5000; // Varsayılan port
+        GameServer.IoMode ioMode = GameServer.IoMode.THREAD;
+        int ioThreads = 0;
+        int sessionThreads = 0;
+        GameRules rules = GameRules.STANDARD;
+        long botWaitMillis = 0;
+        int metricsPort = 0;
+        Path journalDirectory = null;
+        Path snapshotDirectory = null;
+        long reconnectGraceMillis = GameServer.DEFAULT_RECONNECT_GRACE_MILLIS;
+        long heartbeatMillis = GameServer.DEFAULT_HEARTBEAT_MILLIS;
+        long turnTimeoutMillis = GameServer.DEFAULT_TURN_TIMEOUT_MILLIS;
         
         try {
             if (args.length > 0) {
                 port = Integer.parseInt(args[0]);
             }
+            if (args.length > 1) {
+                ioMode = GameServer.IoMode.valueOf(args[1].toUpperCase());
+            }
+            if (args.length > 2) {
+                ioThreads = Integer.parseInt(args[2]);
+            }
+            if (args.length > 3) {
+                sessionThreads = Integer.parseInt(args[3]);
+            }
+            if (args.length > 4) {
+                rules = GameRules.parse(args[4]);
+            }
+            if (args.length > 5) {
+                botWaitMillis = Long.parseLong(args[5]);
+            }
+            if (args.length > 6) {
+                metricsPort = Integer.parseInt(args[6]);
+            }
+            if (args.length > 7 && !args[7].equals("-")) {
+                journalDirectory = Path.of(args[7]);
+            }
+            if (args.length > 8 && !args[8].equals("-")) {
+                snapshotDirectory = Path.of(args[8]);
+            }
+            if (args.length > 9) {
+                reconnectGraceMillis = Long.parseLong(args[9]) * 1000;
+            }
+            if (args.length > 10) {
+                heartbeatMillis = Long.parseLong(args[10]) * 1000;
+            }
+            if (args.length > 11) {
+                turnTimeoutMillis = Long.parseLong(args[11]) * 1000;
+            }
             
-            GameServer server = new GameServer(port);
+            GameServer server = new GameServer(port, ioMode, ioThreads, sessionThreads);
+            server.setRules(rules);
+            server.setReconnectGraceMillis(reconnectGraceMillis);
+            server.setHeartbeatMillis(heartbeatMillis);
+            server.setTurnTimeoutMillis(turnTimeoutMillis);
+            if (botWaitMillis > 0) {
+                server.enableBots(botWaitMillis);
+            }
+            if (journalDirectory != null) {
+                server.enableJournal(journalDirectory);
+                System.out.println("Hamle günlüğü: " + journalDirectory.toAbsolutePath());
+            }
+            if (snapshotDirectory != null) {
+                int restored = server.enableSnapshots(snapshotDirectory, SnapshotStore.DEFAULT_INTERVAL_MILLIS);
+                System.out.printf("Oturum kayıtları: %s (%d oturum %.1f ms'de kuruldu)%n", snapshotDirectory.toAbsolutePath(),
+                        restored, server.getSnapshotStore().getRecoveryNanos() / 1_000_000.0);
+            }
             server.startServer();
+            if (metricsPort > 0) {
+                server.startMetricsEndpoint(metricsPort);
+                System.out.println("Ölçümler: http://localhost:" + metricsPort + MetricsHttpServer.PATH);
+            }
             
-            System.out.println("Savaş Gemisi Sunucusu başlatıldı. (Port: " + port + ")");
+            System.out.println("Savaş Gemisi Sunucusu başlatıldı. (Port: " + port + ", Motor: " + ioMode + ", Kurallar: " + rules + ")");
             System.out.println("Çıkış için 'quit' yazın.");
             
             Scanner scanner = new Scanner(System.in);
@@ -36,7 +109,7 @@ public class ServerMain {
                     server.shutdown();
                     break;
                 } else if (command.equalsIgnoreCase("status")) {
-                    System.out.println("Sunucu çalışıyor.");
+                    System.out.println(server.getStatusReport());
                 } else {
                     System.out.println("Bilinmeyen komut. Geçerli komutlar: quit, status");
                 }
@@ -47,4 +120,4 @@ public class ServerMain {
             System.err.println("Sunucu hatası: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,308 @@
+package com.mycompany.savasgemisi.server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.mycompany.savasgemisi.common.MessageType;
+
+/**
+ * Sunucunun çalışma sayaçları: trafik, hamleler, oturumlar ve mesaj
+ * işleme süreleri. Sayaçlar I/O ve oturum thread'lerinden sıcak yolda
+ * güncellendiği için LongAdder kullanılır; her thread kendi hücresine
+ * yazar, toplam yalnızca okunurken hesaplanır. Anlık değerler (bağlantı,
+ * bekleyen oyuncu) sayaç tutulmadan GameServer'dan okunur.
+ */
+public final class ServerMetrics {
+    /** Hamle hızının hesaplandığı en kısa aralık */
+    private static final long MIN_RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    
+    private final long startNanos = System.nanoTime();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder framesIn = new LongAdder();
+    private final LongAdder framesOut = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder sessionsStarted = new LongAdder();
+    private final LongAdder sessionsEnded = new LongAdder();
+    /** Gelen mesajların okuma thread'inde işlenme süresi, mesaj tipine göre */
+    private final LatencyStats[] messageLatency = new LatencyStats[MessageType.values().length];
+    /** Hamlenin olay kutusuna eklenmesinden oturumda işlenmesine kadar geçen süre */
+    private final LatencyStats moveLatency = new LatencyStats();
+    /** İzleyiciler için bir kez kodlanan paylaşılan çerçeveler ve izleyicilere verilen kopyaları */
+    private final LongAdder spectatorEncodes = new LongAdder();
+    private final LongAdder spectatorFrames = new LongAdder();
+    /** Aralıklı tam tahtaya düşürülen, canlı yayına dönen ve bağlantısı kapatılan izleyiciler */
+    private final LongAdder spectatorDowngrades = new LongAdder();
+    private final LongAdder spectatorRecoveries = new LongAdder();
+    private final LongAdder spectatorDrops = new LongAdder();
+    /** Bir güncellemenin bir oturumun tüm izleyicilerinin kuyruğuna eklenme süresi */
+    private final LatencyStats fanOutLatency = new LatencyStats();
+    
+    /**
+     * Boş sayaçlarla yeni bir ölçüm nesnesi oluşturur
+     */
+    public ServerMetrics() {
+        for (int i = 0; i < messageLatency.length; i++) {
+            messageLatency[i] = new LatencyStats();
+        }
+    }
+    
+    /**
+     * İstemciden okunan bir çerçeveyi sayar
+     * @param bytes Başlık dahil çerçeve uzunluğu
+     */
+    void recordFrameIn(int bytes) {
+        framesIn.increment();
+        bytesIn.add(bytes);
+    }
+    
+    /**
+     * İstemciye yazılan çerçeveleri sayar
+     * @param frames Çerçeve sayısı
+     * @param bytes Toplam uzunluk
+     */
+    void recordFramesOut(int frames, long bytes) {
+        framesOut.add(frames);
+        bytesOut.add(bytes);
+    }
+    
+    /**
+     * Gelen bir mesajın işlenme süresini kaydeder
+     * @param type Mesaj tipi
+     * @param nanos Süre (ns)
+     */
+    void recordMessage(MessageType type, long nanos) {
+        messageLatency[type.ordinal()].record(nanos);
+    }
+    
+    /**
+     * Oturumda işlenen bir hamleyi kaydeder
+     * @param queuedNanos Hamlenin olay kutusuna eklendiği an (System.nanoTime)
+     */
+    void recordMove(long queuedNanos) {
+        moves.increment();
+        moveLatency.record(System.nanoTime() - queuedNanos);
+    }
+    
+    /**
+     * İzleyiciler için kodlanan paylaşılan bir çerçeveyi sayar
+     */
+    void recordSpectatorEncode() {
+        spectatorEncodes.increment();
+    }
+    
+    /**
+     * Bir güncellemenin izleyicilere dağıtımını kaydeder
+     * @param frames Kuyruğa eklenen çerçeve kopyası sayısı
+     * @param nanos Dağıtım süresi (ns)
+     */
+    void recordFanOut(int frames, long nanos) {
+        spectatorFrames.add(frames);
+        fanOutLatency.record(nanos);
+    }
+    
+    /**
+     * Aralıklı tam tahtaya düşürülen bir izleyiciyi sayar
+     */
+    void spectatorDowngraded() {
+        spectatorDowngrades.increment();
+    }
+    
+    /**
+     * Canlı yayına dönen bir izleyiciyi sayar
+     */
+    void spectatorRecovered() {
+        spectatorRecoveries.increment();
+    }
+    
+    /**
+     * Geride kaldığı için bağlantısı kapatılan bir izleyiciyi sayar
+     */
+    void spectatorDropped() {
+        spectatorDrops.increment();
+    }
+    
+    /**
+     * Başlayan bir oturumu sayar
+     */
+    void sessionStarted() {
+        sessionsStarted.increment();
+    }
+    
+    /**
+     * Sona eren bir oturumu sayar
+     */
+    void sessionEnded() {
+        sessionsEnded.increment();
+    }
+    
+    /**
+     * Sunucunun çalışma süresini döndürür
+     * @return Süre (sn)
+     */
+    public double getUptimeSeconds() {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+    
+    /**
+     * İstemcilerden okunan toplam baytı döndürür
+     * @return Bayt
+     */
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+    
+    /**
+     * İstemcilere yazılan toplam baytı döndürür
+     * @return Bayt
+     */
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+    
+    /**
+     * İstemcilerden okunan çerçeve sayısını döndürür
+     * @return Çerçeve sayısı
+     */
+    public long getFramesIn() {
+        return framesIn.sum();
+    }
+    
+    /**
+     * İstemcilere yazılan çerçeve sayısını döndürür
+     * @return Çerçeve sayısı
+     */
+    public long getFramesOut() {
+        return framesOut.sum();
+    }
+    
+    /**
+     * Oturumlarda işlenen toplam hamle sayısını döndürür
+     * @return Hamle sayısı
+     */
+    public long getMoves() {
+        return moves.sum();
+    }
+    
+    /**
+     * Hamle hızını okuyan yeni bir ölçer oluşturur. Hızı düzenli okuyan her
+     * yer (durum raporu, HTTP uç noktası) kendi ölçerini tutar; böylece bir
+     * okuma diğerinin ölçüm aralığını sıfırlamaz.
+     * @return Oluşturulduğu andan itibaren sayan ölçer
+     */
+    public MoveRate newMoveRate() {
+        return new MoveRate();
+    }
+    
+    /**
+     * Süren oturum sayısını döndürür
+     * @return Başlatılıp henüz bitmemiş oturum sayısı
+     */
+    public long getLiveSessions() {
+        return Math.max(0, sessionsStarted.sum() - sessionsEnded.sum());
+    }
+    
+    /**
+     * Başlatılan toplam oturum sayısını döndürür
+     * @return Oturum sayısı
+     */
+    public long getSessionsStarted() {
+        return sessionsStarted.sum();
+    }
+    
+    /**
+     * Bir mesaj tipinin işlenme süresi dağılımını döndürür
+     * @param type Mesaj tipi
+     * @return Anlık görüntü
+     */
+    public LatencyStats.Snapshot getMessageLatency(MessageType type) {
+        return messageLatency[type.ordinal()].snapshot();
+    }
+    
+    /**
+     * Hamlelerin olay kutusunda bekleme dahil işlenme süresi dağılımını döndürür
+     * @return Anlık görüntü
+     */
+    public LatencyStats.Snapshot getMoveLatency() {
+        return moveLatency.snapshot();
+    }
+    
+    /**
+     * İzleyiciler için kodlanan paylaşılan çerçeve sayısını döndürür
+     * @return Çerçeve sayısı
+     */
+    public long getSpectatorEncodes() {
+        return spectatorEncodes.sum();
+    }
+    
+    /**
+     * İzleyicilerin kuyruğuna eklenen çerçeve sayısını döndürür; her biri paylaşılan bir çerçevenin kopyasıdır
+     * @return Çerçeve sayısı
+     */
+    public long getSpectatorFrames() {
+        return spectatorFrames.sum();
+    }
+    
+    /**
+     * Aralıklı tam tahtaya düşürülen izleyici sayısını döndürür
+     * @return İzleyici sayısı
+     */
+    public long getSpectatorDowngrades() {
+        return spectatorDowngrades.sum();
+    }
+    
+    /**
+     * Canlı yayına dönen izleyici sayısını döndürür
+     * @return İzleyici sayısı
+     */
+    public long getSpectatorRecoveries() {
+        return spectatorRecoveries.sum();
+    }
+    
+    /**
+     * Geride kaldığı için bağlantısı kapatılan izleyici sayısını döndürür
+     * @return İzleyici sayısı
+     */
+    public long getSpectatorDrops() {
+        return spectatorDrops.sum();
+    }
+    
+    /**
+     * Güncellemelerin izleyicilere dağıtım süresi dağılımını döndürür
+     * @return Anlık görüntü
+     */
+    public LatencyStats.Snapshot getFanOutLatency() {
+        return fanOutLatency.snapshot();
+    }
+    
+    /**
+     * Saniyedeki hamle sayısını, sahibinin bir önceki okumasından bu yana
+     * geçen süre üzerinden hesaplayan ölçer
+     */
+    public final class MoveRate {
+        private long sampleNanos = System.nanoTime();
+        private long sampleMoves = moves.sum();
+        private double movesPerSecond = 0;
+        
+        private MoveRate() {
+        }
+        
+        /**
+         * Saniyedeki hamle sayısını döndürür. Değer, bu ölçerle en az bir
+         * saniye arayla yapılan son iki okuma arasındaki ortalamadır; daha
+         * sık okumalarda önceki değer döner.
+         * @return Hamle/sn
+         */
+        public synchronized double perSecond() {
+            long now = System.nanoTime();
+            long elapsed = now - sampleNanos;
+            if (elapsed >= MIN_RATE_WINDOW_NANOS) {
+                long total = moves.sum();
+                movesPerSecond = (total - sampleMoves) * 1e9 / elapsed;
+                sampleNanos = now;
+                sampleMoves = total;
+            }
+            return movesPerSecond;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.mycompany.savasgemisi.server;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Oyun oturumlarının olay kutularını boşaltan ortak iş parçacığı havuzu.
+ * Her oturum olaylarını kendi kutusunda biriktirir ve havuza tek bir
+ * boşaltma görevi olarak gönderilir; böylece bir oturum aynı anda en fazla
+ * bir thread tarafından işlenir ve oyun durumu kilitsiz kalır. Havuz,
+ * boşta kalan thread'lerin diğerlerinin kuyruğundan iş çaldığı bir
+ * ForkJoinPool'dur (FIFO kipinde).
+ *
+ * Aşırı yük durumunda tüm oturumlarda bekleyen olay sayısı sınırı aşılırsa
+ * hamle gibi ertelenebilir olaylar reddedilir; oturum sonu gibi kaynakları
+ * serbest bırakan olaylar her zaman kabul edilir.
+ */
+public class SessionExecutor {
+    /** Tüm oturumlarda bekleyebilecek en fazla ertelenebilir olay sayısı */
+    private static final int MAX_PENDING_EVENTS = 100_000;
+    
+    private final ForkJoinPool pool;
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+    private final AtomicLong rejectedEvents = new AtomicLong();
+    
+    /**
+     * Yeni bir oturum havuzu oluşturur
+     * @param threads Thread sayısı (0 ise işlemci sayısı)
+     */
+    public SessionExecutor(int threads) {
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+                (thread, e) -> System.err.println("Oturum thread'inde beklenmeyen hata: " + e.getMessage()), true);
+    }
+    
+    /**
+     * Bir oturumun boşaltma görevini havuza gönderir
+     * @param task Boşaltma görevi
+     */
+    void execute(Runnable task) {
+        pool.execute(task);
+    }
+    
+    /**
+     * Yeni bir olay için yer ayırır
+     * @param critical Olay her durumda kabul edilmeli mi?
+     * @return Olay kabul edildiyse true; aşırı yük nedeniyle reddedildiyse false
+     */
+    boolean tryAcquire(boolean critical) {
+        if (!critical && pendingEvents.get() >= MAX_PENDING_EVENTS) {
+            rejectedEvents.incrementAndGet();
+            return false;
+        }
+        pendingEvents.incrementAndGet();
+        return true;
+    }
+    
+    /**
+     * İşlenen ya da reddedilen olayların yerini serbest bırakır
+     * @param count Olay sayısı
+     */
+    void release(int count) {
+        pendingEvents.addAndGet(-count);
+    }
+    
+    /**
+     * Kayıt sırasında reddedilen bir olayı sayar
+     */
+    void rejected() {
+        rejectedEvents.incrementAndGet();
+    }
+    
+    /**
+     * İşlenmeyi bekleyen olay sayısını döndürür
+     * @return Bekleyen olay sayısı
+     */
+    public int getPendingEvents() {
+        return pendingEvents.get();
+    }
+    
+    /**
+     * Aşırı yük nedeniyle reddedilen olay sayısını döndürür
+     * @return Reddedilen olay sayısı
+     */
+    public long getRejectedEvents() {
+        return rejectedEvents.get();
+    }
+    
+    /**
+     * Havuz thread sayısını döndürür
+     * @return Thread sayısı
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+    
+    /**
+     * Havuzu kapatır; kuyruktaki olayların bitmesi kısa bir süre beklenir
+     */
+    public void shutdown() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.mycompany.savasgemisi.server;
+
+import java.nio.ByteBuffer;
+
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+import com.mycompany.savasgemisi.common.GameRules;
+
+/**
+ * Süren bir oyun oturumunun yeniden kurulabilmesi için gereken durumu.
+ * Gemi yerleşimleri oyunun tohumundan yeniden üretildiği için yalnızca
+ * tohum, oyuncular, sıra ve iki oyuncunun atışları saklanır; kaydın
+ * boyutu tahta boyutuna değil, yapılan atış sayısına bağlıdır (atış başına 5 bayt).
+ *
+ * Kodlanmış biçim: 8 bayt tohum, u16 genişlik, u16 yükseklik, 4 bayt gemi
+ * sayısı ve gemi başına u16 boy, her oyuncu için 4 bayt ID ve 8 bayt devam
+ * anahtarı, 1 bayt oyun durumu (BattleshipGame.GameState sırası), 4 bayt
+ * sıradaki oyuncu, 4 bayt tahta sıra numarası; ardından her oyuncu için
+ * 4 bayt hücre sayısı ve rakip görünümündeki hücreler (BinaryProtocol.putCell
+ * biçiminde).
+ */
+public final class SessionSnapshot {
+    private final int sessionId;
+    private final long seed;
+    private final GameRules rules;
+    private final int player1;
+    private final int player2;
+    private final long token1;
+    private final long token2;
+    private final BattleshipGame.GameState state;
+    private final int currentPlayerId;
+    private final int boardSequence;
+    private final int[] shots1;
+    private final int[] shots2;
+    
+    private SessionSnapshot(int sessionId, long seed, GameRules rules, int player1, int player2,
+            long token1, long token2, BattleshipGame.GameState state, int currentPlayerId,
+            int boardSequence, int[] shots1, int[] shots2) {
+        this.sessionId = sessionId;
+        this.seed = seed;
+        this.rules = rules;
+        this.player1 = player1;
+        this.player2 = player2;
+        this.token1 = token1;
+        this.token2 = token2;
+        this.state = state;
+        this.currentPlayerId = currentPlayerId;
+        this.boardSequence = boardSequence;
+        this.shots1 = shots1;
+        this.shots2 = shots2;
+    }
+    
+    /**
+     * Oyunun durumunu kodlar. Oturum thread'inde çağrılmalıdır; dönen dizi
+     * oyunla paylaşılmaz, yazma başka bir thread'de yapılabilir.
+     * @param game Gemileri yerleştirilmiş oyun
+     * @param token1 Birinci oyuncunun devam anahtarı
+     * @param token2 İkinci oyuncunun devam anahtarı
+     * @param boardSequence Oturumun tahta sıra numarası
+     * @return Kodlanmış durum
+     */
+    public static byte[] encode(BattleshipGame game, long token1, long token2, int boardSequence) {
+        GameRules rules = game.getRules();
+        int[] fleet = rules.getFleet();
+        Player.Board view1 = game.getPlayer1().getOpponentView();
+        Player.Board view2 = game.getPlayer2().getOpponentView();
+        int shots1 = view1.getMarkedCellCount();
+        int shots2 = view2.getMarkedCellCount();
+        ByteBuffer out = ByteBuffer.allocate(57 + 2 * fleet.length
+                + (shots1 + shots2) * BinaryProtocol.CELL_ENTRY_LENGTH);
+        out.putLong(game.getSeed());
+        out.putShort((short) rules.getWidth());
+        out.putShort((short) rules.getHeight());
+        out.putInt(fleet.length);
+        for (int size : fleet) {
+            out.putShort((short) size);
+        }
+        out.putInt(game.getPlayer1().getId());
+        out.putLong(token1);
+        out.putInt(game.getPlayer2().getId());
+        out.putLong(token2);
+        out.put((byte) game.getState().ordinal());
+        out.putInt(game.getCurrentPlayerId());
+        out.putInt(boardSequence);
+        out.putInt(shots1);
+        view1.writeMarkedCells(out, BinaryProtocol.BOARD_OPPONENT);
+        out.putInt(shots2);
+        view2.writeMarkedCells(out, BinaryProtocol.BOARD_OPPONENT);
+        return out.array();
+    }
+    
+    /**
+     * Kodlanmış durumu çözer
+     * @param sessionId Oturum numarası
+     * @param in Kodlanmış durum
+     * @return Oturum durumu
+     * @throws IllegalArgumentException Kayıt bozuksa
+     */
+    static SessionSnapshot decode(int sessionId, ByteBuffer in) {
+        try {
+            long seed = in.getLong();
+            int width = in.getShort() & 0xFFFF;
+            int height = in.getShort() & 0xFFFF;
+            int[] fleet = new int[checkedCount(in, in.getInt(), 2)];
+            for (int i = 0; i < fleet.length; i++) {
+                fleet[i] = in.getShort() & 0xFFFF;
+            }
+            int player1 = in.getInt();
+            long token1 = in.getLong();
+            int player2 = in.getInt();
+            long token2 = in.getLong();
+            BattleshipGame.GameState state = BattleshipGame.GameState.values()[in.get()];
+            int currentPlayerId = in.getInt();
+            int boardSequence = in.getInt();
+            int[] shots1 = readCells(in);
+            int[] shots2 = readCells(in);
+            return new SessionSnapshot(sessionId, seed, new GameRules(width, height, fleet), player1, player2,
+                    token1, token2, state, currentPlayerId, boardSequence, shots1, shots2);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Bozuk oturum kaydı " + sessionId + ": " + e, e);
+        }
+    }
+    
+    private static int checkedCount(ByteBuffer in, int count, int entryLength) {
+        if (count < 0 || (long) count * entryLength > in.remaining()) {
+            throw new IllegalArgumentException("Geçersiz eleman sayısı: " + count);
+        }
+        return count;
+    }
+    
+    /**
+     * Hücreleri ardışık (paketlenmiş koordinat, CellState sırası) çiftleri olarak okur
+     */
+    private static int[] readCells(ByteBuffer in) {
+        int count = checkedCount(in, in.getInt(), BinaryProtocol.CELL_ENTRY_LENGTH);
+        int[] cells = new int[count * 2];
+        for (int i = 0; i < count; i++) {
+            cells[2 * i] = in.getInt();
+            cells[2 * i + 1] = in.get() & 0x3;
+        }
+        return cells;
+    }
+    
+    /**
+     * Oyunu kaydedildiği ana kadar yeniden kurar: gemiler tohumdan aynı
+     * sırayla yerleştirilir, ardından iki oyuncunun atışları rakip tahtasına
+     * uygulanır
+     * @return Kaydedilen durumda oyun
+     * @throws IllegalStateException Atışlar yerleşimle uyuşmuyorsa
+     */
+    BattleshipGame restoreGame() {
+        BattleshipGame game = new BattleshipGame(rules, seed);
+        game.setPlayer1(new Player(player1, "Player " + player1, rules.getWidth(), rules.getHeight()));
+        game.setPlayer2(new Player(player2, "Player " + player2, rules.getWidth(), rules.getHeight()));
+        game.initializeBoards();
+        game.placeShips(game.getPlayer1());
+        game.placeShips(game.getPlayer2());
+        applyShots(game.getPlayer1(), game.getPlayer2(), shots1);
+        applyShots(game.getPlayer2(), game.getPlayer1(), shots2);
+        game.restoreTurn(state, currentPlayerId);
+        return game;
+    }
+    
+    private static void applyShots(Player shooter, Player target, int[] shots) {
+        Player.Board board = target.getBoard();
+        Player.Board view = shooter.getOpponentView();
+        for (int i = 0; i < shots.length; i += 2) {
+            int x = BinaryProtocol.unpackX(shots[i]);
+            int y = BinaryProtocol.unpackY(shots[i]);
+            Player.Board.CellState recorded = Player.Board.STATES[shots[i + 1]];
+            Player.Board.ShotResult result = board.fire(x, y);
+            boolean hit = result == Player.Board.ShotResult.HIT || result == Player.Board.ShotResult.SUNK;
+            if (hit != (recorded == Player.Board.CellState.HIT)) {
+                throw new IllegalStateException("Atış gemi yerleşimiyle uyuşmuyor: " + x + "," + y);
+            }
+            view.setCell(x, y, recorded);
+        }
+    }
+    
+    /**
+     * Oturum numarasını döndürür
+     * @return Oturum numarası
+     */
+    public int getSessionId() {
+        return sessionId;
+    }
+    
+    /**
+     * Birinci oyuncunun ID'sini döndürür
+     * @return Oyuncu ID'si
+     */
+    public int getPlayer1() {
+        return player1;
+    }
+    
+    /**
+     * İkinci oyuncunun ID'sini döndürür
+     * @return Oyuncu ID'si
+     */
+    public int getPlayer2() {
+        return player2;
+    }
+    
+    /**
+     * Oyuncunun devam anahtarını döndürür
+     * @param playerId Oyuncu ID'si
+     * @return Devam anahtarı
+     */
+    public long getToken(int playerId) {
+        return playerId == player1 ? token1 : token2;
+    }
+    
+    /**
+     * Oturumun tahta sıra numarasını döndürür
+     * @return Sıra numarası
+     */
+    public int getBoardSequence() {
+        return boardSequence;
+    }
+}
@@ -0,0 +1,32 @@
+package com.mycompany.savasgemisi.server;
+
+import java.util.SplittableRandom;
+
+/**
+ * Bir oyuncunun atışlarını seçen strateji. Sunucu botu ve ağ kullanmayan
+ * simülasyonlar aynı arayüzü kullanır; böylece stratejiler birbirinin
+ * yerine takılabilir. Hücreler satır satır (y * genişlik + x) numaralanır.
+ * Bir nesne aynı anda tek bir oyuna aittir ve eşzamanlı kullanım için değildir.
+ */
+public interface ShotStrategy {
+    
+    /**
+     * Aynı kurallarla yeni bir oyuna başlar; ayrılmış tablolar yeniden kullanılır
+     * @param random Yeni oyunda kullanılacak üreteç
+     */
+    void reset(SplittableRandom random);
+    
+    /**
+     * Sıradaki atışı seçer
+     * @return Hücre numarası; atılacak hücre kalmadıysa -1
+     */
+    int nextShot();
+    
+    /**
+     * Stratejinin kendi atışının sonucunu işler
+     * @param cell Atılan hücre
+     * @param hit İsabet mi?
+     * @param sunk Atış bir gemiyi batırdı mı?
+     */
+    void recordResult(int cell, boolean hit, boolean sunk);
+}
@@ -0,0 +1,402 @@
+package com.mycompany.savasgemisi.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Süren oturumların durumunu sunucu çöktüğünde yeniden kurulabilecek
+ * şekilde diske yazan depo.
+ *
+ * Ayrı bir thread belirli aralıklarla yalnızca son kayıttan sonra
+ * değişen oturumlardan durumlarını ister. Durum oturumun kendi thread'inde
+ * (olay kutusundaki sıradan bir olay olarak, hamlelerin arasında)
+ * değişmeyen bir bayt dizisine kopyalanır; kodlanmış kopya diske bu
+ * thread'de yazılır. Böylece ne hamle yolu ne de diğer oturumlar yazmayı
+ * bekler. Kayıtlar bir günlük dosyasının sonuna eklenir; dosya canlı
+ * verinin birkaç katına çıkınca her oturumun son durumu yeni bir dosyaya
+ * yazılıp eskiler silinir.
+ *
+ * Dosya biçimi: 4 bayt MAGIC, 4 bayt sürüm, ardından kayıtlar. Kayıt:
+ * 1 bayt tür (RECORD_*), 4 bayt oturum numarası, 4 bayt veri uzunluğu ve
+ * veri (bkz. SessionSnapshot). Yarım kalmış son kayıt yok sayılır.
+ */
+public class SnapshotStore {
+    /** Dosyaların ilk 4 baytı ("SGS1") */
+    public static final int MAGIC = 0x53475331;
+    public static final int VERSION = 1;
+    /** Oturumun son durumu */
+    public static final byte RECORD_SESSION = 1;
+    /** Oturum bitti; önceki durumları geçersiz */
+    public static final byte RECORD_REMOVED = 2;
+    /** Varsayılan kayıt aralığı */
+    public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+    
+    private static final int FILE_HEADER_LENGTH = 8;
+    private static final int RECORD_HEADER_LENGTH = 9;
+    /** Kayıtların dosyaya toplu yazılmasında kullanılan tampon boyutu */
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+    /** Günlük canlı verinin bu katını aşınca yeni dosyaya sıkıştırılır */
+    private static final int COMPACTION_FACTOR = 4;
+    /** Bu boyutun altındaki günlükler sıkıştırılmaz */
+    private static final long MIN_COMPACTION_BYTES = 4 * 1024 * 1024;
+    
+    /**
+     * Kaydı tutulan bir oturum
+     */
+    private static final class Tracked {
+        final GameSession session;
+        /** Durumu en son istenen sürüm; yalnızca kayıt thread'i kullanır */
+        int requestedVersion;
+        
+        Tracked(GameSession session, int requestedVersion) {
+            this.session = session;
+            this.requestedVersion = requestedVersion;
+        }
+    }
+    
+    /**
+     * Oturum thread'lerinden kayıt thread'ine aktarılan değişiklik
+     */
+    private static final class Update {
+        final int sessionId;
+        /** Kodlanmış durum; null ise oturum bitti */
+        final byte[] data;
+        
+        Update(int sessionId, byte[] data) {
+            this.sessionId = sessionId;
+            this.data = data;
+        }
+    }
+    
+    private final Path directory;
+    private final Map<Integer, Tracked> tracked = new ConcurrentHashMap<>();
+    private final Queue<Update> updates = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService writer;
+    
+    /* Yalnızca kayıt thread'i (ve kurulum) kullanır */
+    /** Her oturumun diske yazılmış son durumu; sıkıştırmada yeniden yazılır */
+    private final Map<Integer, byte[]> latest = new HashMap<>();
+    private final ByteBuffer out = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private FileChannel channel;
+    private int fileNumber;
+    private long fileBytes;
+    private long liveBytes;
+    private final List<SessionSnapshot> recovered;
+    private final long recoveryNanos;
+    private volatile long snapshotsWritten = 0;
+    private volatile long lastCycleNanos = 0;
+    
+    /**
+     * Depoyu açar: dizindeki kayıtlar okunur, süren oturumların son
+     * durumları yeni bir dosyaya yazılır ve kayıt thread'i başlatılır
+     * @param directory Kayıtların dizini; yoksa oluşturulur
+     * @param intervalMillis Değişen oturumların kaydedilme aralığı (ms)
+     * @throws IOException Dizin okunamaz ya da yeni dosya oluşturulamazsa
+     */
+    public SnapshotStore(Path directory, long intervalMillis) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        long start = System.nanoTime();
+        Path[] old = listFiles(directory);
+        for (Path file : old) {
+            readFile(file);
+        }
+        this.recovered = decodeLatest();
+        this.fileNumber = old.length == 0 ? 0 : fileNumber(old[old.length - 1]);
+        compact();
+        this.recoveryNanos = System.nanoTime() - start;
+        
+        this.writer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "session-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::cycle, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    private static Path[] listFiles(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().matches("snapshot-\\d{8}\\.dat"))
+                    .sorted()
+                    .toArray(Path[]::new);
+        }
+    }
+    
+    private static int fileNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring("snapshot-".length(), name.length() - ".dat".length()));
+    }
+    
+    /**
+     * Bir kayıt dosyasını okuyup her oturumun son durumunu latest'e işler
+     */
+    private void readFile(Path path) throws IOException {
+        MappedByteBuffer in;
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            in = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+        }
+        if (in.remaining() < FILE_HEADER_LENGTH || in.getInt() != MAGIC || in.getInt() != VERSION) {
+            System.err.println("Geçersiz oturum kayıt dosyası: " + path);
+            return;
+        }
+        while (in.remaining() >= RECORD_HEADER_LENGTH) {
+            byte type = in.get();
+            int sessionId = in.getInt();
+            int length = in.getInt();
+            if (length < 0 || length > in.remaining()) {
+                System.err.println("Yarım kalmış oturum kaydı: " + path + " @" + (in.position() - RECORD_HEADER_LENGTH));
+                break;
+            }
+            if (type == RECORD_SESSION) {
+                byte[] data = new byte[length];
+                in.get(data);
+                latest.put(sessionId, data);
+            } else {
+                in.position(in.position() + length);
+                if (type == RECORD_REMOVED) {
+                    latest.remove(sessionId);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Okunan son durumları çözer; çözülemeyen kayıtlar atlanır
+     */
+    private List<SessionSnapshot> decodeLatest() {
+        List<SessionSnapshot> snapshots = new ArrayList<>(latest.size());
+        var entries = latest.entrySet().iterator();
+        while (entries.hasNext()) {
+            var entry = entries.next();
+            try {
+                snapshots.add(SessionSnapshot.decode(entry.getKey(), ByteBuffer.wrap(entry.getValue())));
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                entries.remove();
+            }
+        }
+        return snapshots;
+    }
+    
+    /**
+     * Açılışta diskten okunan süren oturumları döndürür
+     * @return Oturum durumları
+     */
+    public List<SessionSnapshot> getRecoveredSessions() {
+        return recovered;
+    }
+    
+    /**
+     * Oturumun durumunun değiştikçe kaydedilmesini başlatır
+     * @param session Gemileri yerleştirilmiş oturum
+     * @param saved Oturumun güncel durumu zaten kayıtlı mı (kayıttan kurulan oturumlar)?
+     */
+    public void track(GameSession session, boolean saved) {
+        tracked.put(session.getSessionId(), new Tracked(session, saved ? session.getStateVersion() : -1));
+    }
+    
+    /**
+     * Oturumun kodlanmış durumunu yazılmak üzere kuyruğa ekler. Oturum
+     * thread'inde çağrılır; aynı oturumun değişiklikleri sırayla yazılır.
+     * @param sessionId Oturum numarası
+     * @param data SessionSnapshot.encode ile kodlanmış durum
+     */
+    public void offer(int sessionId, byte[] data) {
+        updates.add(new Update(sessionId, data));
+    }
+    
+    /**
+     * Biten oturumun kaydını siler. Oturum thread'inde çağrılır.
+     * @param sessionId Oturum numarası
+     */
+    public void remove(int sessionId) {
+        if (tracked.remove(sessionId) != null) {
+            updates.add(new Update(sessionId, null));
+        }
+    }
+    
+    /**
+     * Kayıttan kurulamayan oturumun durumunu siler
+     * @param sessionId Oturum numarası
+     */
+    public void discard(int sessionId) {
+        tracked.remove(sessionId);
+        updates.add(new Update(sessionId, null));
+    }
+    
+    /**
+     * Kayıt thread'inin bir turu: gelen durumları yazar, değişen
+     * oturumlardan yeni durum ister ve gerekirse dosyayı sıkıştırır
+     */
+    private void cycle() {
+        long start = System.nanoTime();
+        try {
+            writeUpdates();
+            for (Tracked entry : tracked.values()) {
+                int version = entry.session.getStateVersion();
+                if (version != entry.requestedVersion) {
+                    entry.requestedVersion = version;
+                    entry.session.requestSnapshot();
+                }
+            }
+            if (fileBytes > MIN_COMPACTION_BYTES && fileBytes > COMPACTION_FACTOR * liveBytes) {
+                compact();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Oturum durumları kaydedilirken hata: " + e.getMessage());
+        }
+        lastCycleNanos = System.nanoTime() - start;
+    }
+    
+    /**
+     * Kuyruktaki durumları dosyanın sonuna ekleyip diske aktarır
+     */
+    private void writeUpdates() throws IOException {
+        Update update;
+        long written = 0;
+        boolean appended = false;
+        while ((update = updates.poll()) != null) {
+            appended = true;
+            byte[] previous;
+            if (update.data != null) {
+                previous = latest.put(update.sessionId, update.data);
+                liveBytes += RECORD_HEADER_LENGTH + update.data.length;
+                append(RECORD_SESSION, update.sessionId, update.data);
+                written++;
+            } else {
+                previous = latest.remove(update.sessionId);
+                append(RECORD_REMOVED, update.sessionId, null);
+            }
+            if (previous != null) {
+                liveBytes -= RECORD_HEADER_LENGTH + previous.length;
+            }
+        }
+        if (appended) {
+            flushBuffer();
+            channel.force(false);
+        }
+        snapshotsWritten += written;
+    }
+    
+    /**
+     * Kaydı yazma tamponuna ekler; tampon dolunca dosyaya yazılır
+     */
+    private void append(byte type, int sessionId, byte[] data) throws IOException {
+        int length = data == null ? 0 : data.length;
+        if (out.remaining() < RECORD_HEADER_LENGTH + length) {
+            flushBuffer();
+        }
+        out.put(type).putInt(sessionId).putInt(length);
+        if (length > out.remaining()) {
+            flushBuffer();
+            writeFully(ByteBuffer.wrap(data));
+        } else if (data != null) {
+            out.put(data);
+        }
+        fileBytes += RECORD_HEADER_LENGTH + length;
+    }
+    
+    private void flushBuffer() throws IOException {
+        out.flip();
+        writeFully(out);
+        out.clear();
+    }
+    
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+    
+    /**
+     * Her oturumun son durumunu yeni bir dosyaya yazar ve eski dosyaları siler
+     */
+    private void compact() throws IOException {
+        FileChannel previous = channel;
+        Path path = directory.resolve(String.format("snapshot-%08d.dat", ++fileNumber));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        out.clear();
+        out.putInt(MAGIC).putInt(VERSION);
+        fileBytes = FILE_HEADER_LENGTH;
+        liveBytes = 0;
+        for (Map.Entry<Integer, byte[]> entry : latest.entrySet()) {
+            append(RECORD_SESSION, entry.getKey(), entry.getValue());
+            liveBytes += RECORD_HEADER_LENGTH + entry.getValue().length;
+        }
+        flushBuffer();
+        channel.force(true);
+        if (previous != null) {
+            previous.close();
+        }
+        for (Path old : listFiles(directory)) {
+            if (!old.equals(path)) {
+                Files.deleteIfExists(old);
+            }
+        }
+    }
+    
+    /**
+     * Kaydı tutulan oturum sayısını döndürür
+     * @return Oturum sayısı
+     */
+    public int getTrackedSessions() {
+        return tracked.size();
+    }
+    
+    /**
+     * Açılıştan beri yazılan oturum durumu sayısını döndürür
+     * @return Yazılan durum sayısı
+     */
+    public long getSnapshotsWritten() {
+        return snapshotsWritten;
+    }
+    
+    /**
+     * Son kayıt turunun süresini döndürür
+     * @return Süre (ns)
+     */
+    public long getLastCycleNanos() {
+        return lastCycleNanos;
+    }
+    
+    /**
+     * Açılışta kayıtların okunup yeni dosyaya yazılmasının süresini döndürür
+     * @return Süre (ns)
+     */
+    public long getRecoveryNanos() {
+        return recoveryNanos;
+    }
+    
+    /**
+     * Bekleyen durumları yazar ve depoyu kapatır. Oturumlardan yeni durum
+     * istenmez; sunucu kapanırken kuyrukta olan durumlar yazılır.
+     */
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writeUpdates();
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Oturum kayıtları kapatılırken hata: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.mycompany.savasgemisi.server;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+
+/**
+ * Yalnızca gemi ya da atış içeren hücreleri tutan tahta.
+ * Hücreler açık adreslemeli bir karma tabloda saklanır; bellek ve tahta
+ * gönderimi tahta alanıyla değil işaretli hücre sayısıyla orantılıdır.
+ * Çok büyük tahtalar neredeyse tamamen boş olduğu için bunlarda kullanılır
+ * (bkz. Player.Board.create).
+ */
+public final class SparseBoard extends Player.Board {
+    private static final int INITIAL_CAPACITY = 64;
+    
+    /** Hücre numarası + 1; 0 boş yuva */
+    private int[] keys;
+    private byte[] states;
+    /** Hücredeki geminin numarası + 1; 0 gemi yok */
+    private int[] shipNumbers;
+    /** Dolu yuva sayısı; boşa dönen hücreler yuvalarını korur */
+    private int used = 0;
+    /** Durumu EMPTY olmayan hücre sayısı */
+    private int marked = 0;
+    
+    /**
+     * Yeni bir tahta oluşturur
+     * @param width Tahta genişliği
+     * @param height Tahta yüksekliği
+     */
+    public SparseBoard(int width, int height) {
+        super(width, height);
+        allocate(INITIAL_CAPACITY);
+    }
+    
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        states = new byte[capacity];
+        shipNumbers = new int[capacity];
+    }
+    
+    /**
+     * Hücrenin yuvasını bulur
+     * @return Yuva numarası; hücre tabloda yoksa -1
+     */
+    private int find(int index) {
+        int mask = keys.length - 1;
+        int key = index + 1;
+        for (int slot = mix(index) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            if (keys[slot] == 0) {
+                return -1;
+            }
+        }
+    }
+    
+    /**
+     * Hücrenin yuvasını bulur; yoksa boş bir yuvaya ekler
+     */
+    private int findOrInsert(int index) {
+        int slot = find(index);
+        if (slot >= 0) {
+            return slot;
+        }
+        if ((used + 1) * 2 > keys.length) {
+            grow();
+        }
+        int mask = keys.length - 1;
+        slot = mix(index) & mask;
+        while (keys[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = index + 1;
+        used++;
+        return slot;
+    }
+    
+    private void grow() {
+        int[] oldKeys = keys;
+        byte[] oldStates = states;
+        int[] oldShipNumbers = shipNumbers;
+        allocate(oldKeys.length * 2);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = mix(oldKeys[i] - 1) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                states[slot] = oldStates[i];
+                shipNumbers[slot] = oldShipNumbers[i];
+            }
+        }
+    }
+    
+    /**
+     * Komşu hücrelerin (aynı gemi) tabloda kümelenmemesi için bitleri karıştırır
+     */
+    private static int mix(int index) {
+        int h = index * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+    @Override
+    protected int stateAt(int index) {
+        int slot = find(index);
+        return slot < 0 ? EMPTY : states[slot];
+    }
+    
+    @Override
+    protected void setStateAt(int index, int state) {
+        int slot = state == EMPTY ? find(index) : findOrInsert(index);
+        if (slot < 0) {
+            return;
+        }
+        if ((states[slot] == EMPTY) != (state == EMPTY)) {
+            marked += state == EMPTY ? -1 : 1;
+        }
+        states[slot] = (byte) state;
+    }
+    
+    @Override
+    protected int shipNumberAt(int index) {
+        int slot = find(index);
+        return slot < 0 ? 0 : shipNumbers[slot];
+    }
+    
+    @Override
+    protected void setShipNumberAt(int index, int number) {
+        int slot = number == 0 ? find(index) : findOrInsert(index);
+        if (slot >= 0) {
+            shipNumbers[slot] = number;
+        }
+    }
+    
+    /**
+     * Tablonun kapasitesi korunur; tahta aynı ölçüde yeniden doldurulacağı için
+     * küçültülmez
+     */
+    @Override
+    protected void clearCells() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(states, (byte) 0);
+        Arrays.fill(shipNumbers, 0);
+        used = 0;
+        marked = 0;
+    }
+    
+    /**
+     * Maske her çağrıda tablodan yeniden kurulur; FleetPlacer bunu yalnızca
+     * rastgele denemeler tutmadığında kullanır.
+     */
+    @Override
+    long[] shipMask() {
+        long[] mask = new long[(width * height + 63) >>> 6];
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0 && states[slot] == SHIP) {
+                int index = keys[slot] - 1;
+                mask[index >>> 6] |= 1L << index;
+            }
+        }
+        return mask;
+    }
+    
+    @Override
+    public int getMarkedCellCount() {
+        return marked;
+    }
+    
+    @Override
+    public void writeMarkedCells(ByteBuffer out, int board) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0 && states[slot] != EMPTY) {
+                int index = keys[slot] - 1;
+                BinaryProtocol.putCell(out, board, index % width, index / width, states[slot]);
+            }
+        }
+    }
+}
@@ -0,0 +1,516 @@
+package com.mycompany.savasgemisi.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mycompany.savasgemisi.common.BinaryProtocol;
+import com.mycompany.savasgemisi.common.BufferPool;
+import com.mycompany.savasgemisi.common.FrameCodec;
+import com.mycompany.savasgemisi.common.Message;
+import com.mycompany.savasgemisi.common.MessageType;
+import com.mycompany.savasgemisi.common.PreEncodedMessage;
+
+/**
+ * Bir oyun oturumunu izleyen istemcilere güncellemeleri dağıtan sınıf.
+ * İzleyiciler iki oyuncunun da rakibine görünen tahtasını görür; gemi
+ * yerleşimleri ancak oyun bitince gönderilir.
+ *
+ * Her güncelleme oturum thread'inde, izleyicilerin kullandığı her protokol
+ * için yalnızca bir kez kodlanır ve değişmez bir diziye kopyalanır. İzleyici
+ * sayısı ne olursa olsun oturum thread'i yalnızca bu kodlamayı yapıp
+ * güncellemeyi yayının kutusuna ekler; dağıtım ve soket yazmaları izleyici
+ * yazıcılarında (bkz. GameServer.getSpectatorExecutor) yapılır. Her izleyici
+ * paylaşılan dizinin kendi salt okunur görünümünü alır; baytlar kopyalanmaz
+ * ve görünümler havuza geri verilmez.
+ *
+ * Yayın da oturum gibi bir aktördür: katılma, ayrılma ve dağıtma görevleri
+ * kutuya eklendikleri sırayla, aynı anda tek bir thread'de işlenir. İzleyici
+ * listesi bu yüzden kilitsizdir ve her izleyici güncellemeleri sırasıyla alır.
+ *
+ * Kuyruğunda MAX_BACKLOG_FRAMES çerçeve biriken ya da soketi MAX_PENDING_BYTES
+ * bayttan fazlasını gönderemeyen izleyicinin kuyruğu boşaltılır ve izleyici
+ * SNAPSHOT_INTERVAL_MILLIS aralıklarla tam tahta almaya düşürülür. Üst üste
+ * RECOVER_AFTER_SNAPSHOTS tam tahtayı zamanında alan izleyici canlı yayına
+ * döner; MAX_MISSED_SNAPSHOTS tam tahtayı alamayan izleyicinin bağlantısı
+ * kapatılır. Böylece yavaş izleyiciler ne oyuncuları ne de diğer izleyicileri
+ * bekletir.
+ */
+final class SpectatorFeed {
+    /** Canlı izleyicinin geride kalmış sayılacağı gönderilmemiş çerçeve sayısı */
+    static final int MAX_BACKLOG_FRAMES = 64;
+    /** Canlı izleyicinin geride kalmış sayılacağı, kanalının sokete yazamadığı bayt sayısı */
+    static final long MAX_PENDING_BYTES = 64 * 1024;
+    /** Geride kalan izleyicilere tam tahta gönderme aralığı (ms) */
+    static final long SNAPSHOT_INTERVAL_MILLIS = 2_000;
+    /** Üst üste bu kadar tam tahtayı zamanında alan izleyici canlı yayına döner */
+    static final int RECOVER_AFTER_SNAPSHOTS = 2;
+    /** Üst üste bu kadar tam tahtayı alamayan izleyicinin bağlantısı kapatılır */
+    static final int MAX_MISSED_SNAPSHOTS = 3;
+    /** Bir boşaltma görevinde tek bir olay kapsamında gönderilecek en fazla çerçeve */
+    private static final int WRITE_BATCH = 32;
+    private static final SharedFrame DOWNGRADED = SharedFrame.of(PreEncodedMessage.of(MessageType.GAME_UPDATE,
+            "Bağlantınız yavaş; izlemeye aralıklı tam tahtalarla devam ediyorsunuz."));
+    private static final SharedFrame RESTORED = SharedFrame.of(PreEncodedMessage.of(MessageType.GAME_UPDATE,
+            "Canlı izlemeye dönüldü."));
+    
+    private final GameSession session;
+    private final GameServer server;
+    private final ServerMetrics metrics;
+    private final Executor writers;
+    private final String startMessage;
+    
+    /* Oturum thread'inde kullanılır */
+    /** İzleyicilerin protokollerine göre sayıları; yalnızca kullanılan protokoller kodlanır */
+    private final AtomicInteger binarySpectators = new AtomicInteger();
+    private final AtomicInteger textSpectators = new AtomicInteger();
+    private SharedFrame start = SharedFrame.EMPTY;
+    /** Son tam tahta ve sıra numarası; tahta değişmedikçe katılan izleyiciler bunu paylaşır */
+    private SharedFrame snapshot = SharedFrame.EMPTY;
+    private int snapshotSequence = -1;
+    
+    /* Yayın görevlerinde kullanılır; aynı anda tek thread */
+    private final List<Spectator> spectators = new ArrayList<>();
+    private int snapshotOnly = 0;
+    private HashedWheelTimer.Timeout snapshotTick;
+    private boolean closed = false;
+    
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    /** Yayının boşaltma görevi sırada ya da çalışıyor mu? */
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    
+    /**
+     * Bir oturumun yayınını oluşturur
+     * @param session İzlenen oturum
+     * @param server Sunucu referansı
+     * @param startMessage Katılan izleyicilere gönderilecek GAME_START mesajı (type#data)
+     */
+    SpectatorFeed(GameSession session, GameServer server, String startMessage) {
+        this.session = session;
+        this.server = server;
+        this.metrics = server.getMetrics();
+        this.writers = server.getSpectatorExecutor();
+        this.startMessage = startMessage;
+    }
+    
+    /**
+     * Bir istemciyi izleyici olarak ekler; istemci başlangıç mesajını ve
+     * güncel tahtaları alır. Oturum thread'inde çağrılmalıdır.
+     * @param client İzleyici
+     * @param sequence Oturumun güncel tahta sıra numarası
+     * @param first Birinci oyuncunun görünen tahtası
+     * @param second İkinci oyuncunun görünen tahtası
+     */
+    void join(SClient client, int sequence, Player.Board first, Player.Board second) {
+        boolean binary = client.isBinary();
+        (binary ? binarySpectators : textSpectators).incrementAndGet();
+        if (!start.has(binary)) {
+            ByteBuffer frame = binary
+                    ? BinaryProtocol.encodeText(MessageType.GAME_START, Message.parseMessage(startMessage).getData())
+                    : FrameCodec.encodeText(startMessage);
+            start = start.with(binary, share(frame));
+        }
+        SharedFrame joinStart = start;
+        SharedFrame joinSnapshot = snapshot(sequence, first, second);
+        submit(() -> {
+            if (closed) {
+                return;
+            }
+            Spectator spectator = new Spectator(client, binary);
+            spectators.add(spectator);
+            spectator.offer(joinStart);
+            spectator.offer(joinSnapshot);
+        });
+    }
+    
+    /**
+     * İzleyiciyi yayından çıkarır. Oturum thread'inde çağrılmalıdır; böylece
+     * daha önce işlenen katılma isteğinden sonra işlenir.
+     * @param client İzleyici
+     */
+    void leave(SClient client) {
+        submit(() -> {
+            for (int i = 0; i < spectators.size(); i++) {
+                if (spectators.get(i).client == client) {
+                    remove(i);
+                    return;
+                }
+            }
+        });
+    }
+    
+    /**
+     * Bir hamlenin değiştirdiği hücreyi canlı izleyicilere dağıtır. İkili
+     * protokolde fark mesajı, metin protokolünde tam tahta gönderilir.
+     * Oturum thread'inde çağrılmalıdır.
+     * @param sequence Değişiklikten sonraki tahta sıra numarası
+     * @param change BinaryProtocol.packChange ile paketlenmiş değişiklik; birinci oyuncunun tahtası BOARD_OWN'dur
+     * @param first Birinci oyuncunun görünen tahtası
+     * @param second İkinci oyuncunun görünen tahtası
+     */
+    void publishMove(int sequence, long change, Player.Board first, Player.Board second) {
+        SharedFrame update = SharedFrame.EMPTY;
+        if (binarySpectators.get() > 0) {
+            update = update.with(true, share(BinaryProtocol.encodeBoardDelta(sequence, new long[] {change}, 1)));
+        }
+        if (textSpectators.get() > 0) {
+            update = update.with(false, share(SClient.encodeBoards(false, sequence, first, second)));
+        }
+        if (update == SharedFrame.EMPTY) {
+            return;
+        }
+        SharedFrame published = update;
+        submit(() -> fanOut(published));
+    }
+    
+    /**
+     * Geride kalan izleyicilere güncel tahtaları gönderir. Yayının
+     * zamanlayıcısı oturumdan istediğinde oturum thread'inde çağrılır.
+     * @param sequence Oturumun güncel tahta sıra numarası
+     * @param first Birinci oyuncunun görünen tahtası
+     * @param second İkinci oyuncunun görünen tahtası
+     */
+    void snapshotDue(int sequence, Player.Board first, Player.Board second) {
+        SharedFrame frame = snapshot(sequence, first, second);
+        submit(() -> deliverSnapshots(frame));
+    }
+    
+    /**
+     * Oyun bitince gemi yerleşimlerini ve sonucu tüm izleyicilere gönderir
+     * ve yayını kapatır. İzleyicilerin bağlantıları açık kalır. Oturum
+     * thread'inde çağrılmalıdır.
+     * @param sequence Oturumun son tahta sıra numarası
+     * @param first Birinci oyuncunun tahtası
+     * @param second İkinci oyuncunun tahtası
+     * @param result Sonuç metni (GAME_OVER verisi)
+     */
+    void finish(int sequence, Player.Board first, Player.Board second, String result) {
+        SharedFrame boards = encodeBoards(sequence, first, second);
+        SharedFrame over = SharedFrame.of(PreEncodedMessage.of(MessageType.GAME_OVER, result));
+        submit(() -> {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            cancelSnapshotTick();
+            int sent = 0;
+            long begin = System.nanoTime();
+            for (Spectator spectator : spectators) {
+                // Geride kalan izleyiciler eski güncellemeler yerine doğrudan sonucu alır
+                if (spectator.snapshotOnly) {
+                    spectator.discardBacklog();
+                }
+                spectator.offer(boards);
+                spectator.offer(over);
+                sent += 2;
+                server.spectatorRemoved(spectator.client, session);
+            }
+            metrics.recordFanOut(sent, System.nanoTime() - begin);
+            spectators.clear();
+            snapshotOnly = 0;
+        });
+    }
+    
+    /**
+     * Tahtaları kodlar; tahta değişmediyse önceki kodlama kullanılır
+     */
+    private SharedFrame snapshot(int sequence, Player.Board first, Player.Board second) {
+        if (sequence != snapshotSequence) {
+            snapshot = SharedFrame.EMPTY;
+            snapshotSequence = sequence;
+        }
+        if (binarySpectators.get() > 0 && !snapshot.has(true)) {
+            snapshot = snapshot.with(true, share(SClient.encodeBoards(true, sequence, first, second)));
+        }
+        if (textSpectators.get() > 0 && !snapshot.has(false)) {
+            snapshot = snapshot.with(false, share(SClient.encodeBoards(false, sequence, first, second)));
+        }
+        return snapshot;
+    }
+    
+    private SharedFrame encodeBoards(int sequence, Player.Board first, Player.Board second) {
+        SharedFrame boards = SharedFrame.EMPTY;
+        if (binarySpectators.get() > 0) {
+            boards = boards.with(true, share(SClient.encodeBoards(true, sequence, first, second)));
+        }
+        if (textSpectators.get() > 0) {
+            boards = boards.with(false, share(SClient.encodeBoards(false, sequence, first, second)));
+        }
+        return boards;
+    }
+    
+    /**
+     * Havuzdan alınan çerçeveyi izleyicilerin paylaşacağı değişmez bir diziye kopyalar
+     * @param frame Okumaya hazır, havuzdan alınmış çerçeve; havuza geri verilir
+     * @return Salt okunur çerçeve
+     */
+    private ByteBuffer share(ByteBuffer frame) {
+        metrics.recordSpectatorEncode();
+        return SharedFrame.copy(frame);
+    }
+    
+    /**
+     * Görevi yayının kutusuna ekler ve yayın sırada değilse sıraya alır
+     */
+    private void submit(Runnable task) {
+        mailbox.add(task);
+        if (scheduled.compareAndSet(false, true)) {
+            writers.execute(this::drain);
+        }
+    }
+    
+    private void drain() {
+        try {
+            Runnable task;
+            while ((task = mailbox.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("İzleyici yayını işlenirken hata: " + e.getMessage());
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+    }
+    
+    /**
+     * Güncellemeyi canlı izleyicilerin kuyruklarına ekler; geride kalanları düşürür
+     */
+    private void fanOut(SharedFrame update) {
+        if (closed) {
+            return;
+        }
+        long begin = System.nanoTime();
+        int sent = 0;
+        for (Spectator spectator : spectators) {
+            if (spectator.snapshotOnly) {
+                continue;
+            }
+            if (spectator.backlog.get() >= MAX_BACKLOG_FRAMES
+                    || spectator.client.getPendingBytes() >= MAX_PENDING_BYTES) {
+                downgrade(spectator);
+                continue;
+            }
+            spectator.offer(update);
+            sent++;
+        }
+        metrics.recordFanOut(sent, System.nanoTime() - begin);
+    }
+    
+    /**
+     * Geride kalan izleyicinin bekleyen güncellemelerini atar ve onu aralıklı tam tahtalara düşürür
+     */
+    private void downgrade(Spectator spectator) {
+        spectator.discardBacklog();
+        spectator.snapshotOnly = true;
+        spectator.healthySnapshots = 0;
+        spectator.missedSnapshots = 0;
+        spectator.offer(DOWNGRADED);
+        snapshotOnly++;
+        metrics.spectatorDowngraded();
+        scheduleSnapshotTick();
+    }
+    
+    /**
+     * Aralıklı tam tahta alan izleyicilere tahtaları gönderir. Önceki tam
+     * tahtası hâlâ gönderilmemiş izleyici bu turu kaçırır.
+     */
+    private void deliverSnapshots(SharedFrame frame) {
+        snapshotTick = null;
+        if (closed) {
+            return;
+        }
+        int sent = 0;
+        long begin = System.nanoTime();
+        for (int i = spectators.size() - 1; i >= 0; i--) {
+            Spectator spectator = spectators.get(i);
+            if (!spectator.snapshotOnly) {
+                continue;
+            }
+            if (spectator.backlog.get() > 0 || spectator.client.getPendingBytes() >= MAX_PENDING_BYTES) {
+                spectator.healthySnapshots = 0;
+                if (++spectator.missedSnapshots >= MAX_MISSED_SNAPSHOTS) {
+                    drop(i);
+                }
+                continue;
+            }
+            spectator.missedSnapshots = 0;
+            spectator.offer(frame);
+            sent++;
+            if (++spectator.healthySnapshots >= RECOVER_AFTER_SNAPSHOTS) {
+                spectator.snapshotOnly = false;
+                snapshotOnly--;
+                spectator.offer(RESTORED);
+                metrics.spectatorRecovered();
+            }
+        }
+        metrics.recordFanOut(sent, System.nanoTime() - begin);
+        scheduleSnapshotTick();
+    }
+    
+    private void scheduleSnapshotTick() {
+        if (snapshotTick == null && snapshotOnly > 0 && !closed) {
+            snapshotTick = server.getTimer().schedule(session::spectatorSnapshotDue, SNAPSHOT_INTERVAL_MILLIS);
+        }
+    }
+    
+    private void cancelSnapshotTick() {
+        if (snapshotTick != null) {
+            snapshotTick.cancel();
+            snapshotTick = null;
+        }
+    }
+    
+    /**
+     * Tam tahtaları da alamayan izleyicinin bağlantısını kapatır
+     */
+    private void drop(int index) {
+        Spectator spectator = remove(index);
+        metrics.spectatorDropped();
+        server.spectatorRemoved(spectator.client, session);
+        System.out.println("İzleyici " + spectator.client.getClientId() + " oturum " + session.getSessionId()
+                + " yayınında geride kaldı, bağlantı kapatılıyor.");
+        spectator.client.disconnect();
+    }
+    
+    private Spectator remove(int index) {
+        Spectator spectator = spectators.remove(index);
+        (spectator.binary ? binarySpectators : textSpectators).decrementAndGet();
+        if (spectator.snapshotOnly) {
+            snapshotOnly--;
+        }
+        spectator.discardBacklog();
+        if (snapshotOnly == 0) {
+            cancelSnapshotTick();
+        }
+        return spectator;
+    }
+    
+    /**
+     * Bir güncellemenin iki protokoldeki paylaşılan çerçeveleri; yalnızca
+     * izleyicisi olan protokoller kodlanır
+     */
+    private static final class SharedFrame {
+        static final SharedFrame EMPTY = new SharedFrame(null, null);
+        
+        private final ByteBuffer text;
+        private final ByteBuffer binary;
+        
+        private SharedFrame(ByteBuffer text, ByteBuffer binary) {
+            this.text = text;
+            this.binary = binary;
+        }
+        
+        /**
+         * Sabit bir mesajı iki protokol için paylaşılan çerçevelere dönüştürür
+         */
+        static SharedFrame of(PreEncodedMessage message) {
+            return new SharedFrame(copy(message.frame(false)), copy(message.frame(true)));
+        }
+        
+        static ByteBuffer copy(ByteBuffer frame) {
+            byte[] bytes = new byte[frame.remaining()];
+            frame.get(bytes);
+            BufferPool.SHARED.release(frame);
+            return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        }
+        
+        SharedFrame with(boolean binaryProtocol, ByteBuffer frame) {
+            return binaryProtocol ? new SharedFrame(text, frame) : new SharedFrame(frame, binary);
+        }
+        
+        boolean has(boolean binaryProtocol) {
+            return (binaryProtocol ? binary : text) != null;
+        }
+        
+        /**
+         * İzleyiciye verilecek kopyayı döndürür; konum ve sınır izleyiciye aittir, baytlar ortaktır
+         */
+        ByteBuffer view(boolean binaryProtocol) {
+            ByteBuffer frame = binaryProtocol ? binary : text;
+            return frame == null ? null : frame.duplicate();
+        }
+    }
+    
+    /**
+     * Bir izleyicinin gönderilmeyi bekleyen çerçeveleri. Kuyruk yazıcı
+     * havuzunda, aynı anda tek bir görev tarafından sırasıyla boşaltılır;
+     * yavaş bir soket yalnızca kendi izleyicisinin görevini bekletir.
+     */
+    private final class Spectator {
+        final SClient client;
+        final boolean binary;
+        final Queue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+        /** Kuyruktaki çerçeve sayısı */
+        final AtomicInteger backlog = new AtomicInteger();
+        /** Boşaltma görevi sırada ya da çalışıyor mu? */
+        final AtomicBoolean draining = new AtomicBoolean(false);
+        /* Yayın görevlerinde kullanılır */
+        boolean snapshotOnly = false;
+        int healthySnapshots = 0;
+        int missedSnapshots = 0;
+        
+        Spectator(SClient client, boolean binary) {
+            this.client = client;
+            this.binary = binary;
+        }
+        
+        void offer(SharedFrame frame) {
+            ByteBuffer view = frame.view(binary);
+            if (view == null) {
+                return;
+            }
+            queue.add(view);
+            backlog.incrementAndGet();
+            if (draining.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+        
+        void discardBacklog() {
+            while (queue.poll() != null) {
+                backlog.decrementAndGet();
+            }
+        }
+        
+        /**
+         * Kuyruktaki çerçeveleri WRITE_BATCH'lik gruplar hâlinde, her grubu
+         * tek bir toplu yazmayla gönderir
+         */
+        private void drain() {
+            while (true) {
+                OutboundBatch.open();
+                try {
+                    ByteBuffer frame;
+                    int batched = 0;
+                    while (batched < WRITE_BATCH && (frame = queue.poll()) != null) {
+                        backlog.decrementAndGet();
+                        client.sendShared(frame);
+                        batched++;
+                    }
+                } catch (IOException e) {
+                    System.err.println("İzleyiciye yazılırken hata: " + e.getMessage());
+                } finally {
+                    OutboundBatch.close();
+                }
+                if (!queue.isEmpty()) {
+                    continue;
+                }
+                draining.set(false);
+                if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+    }
+}